@@ -0,0 +1,151 @@
+package com.zkpub.in.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zkpub.in.model.IDDocument;
+import com.zkpub.in.model.ZKProof;
+import com.zkpub.in.zk.CompactProof;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.types.Binary;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.data.convert.ReadingConverter;
+import org.springframework.data.convert.WritingConverter;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.mapping.event.AfterConvertCallback;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Stores proofs as BSON binary (CompactProof, ~128 bytes plus 32 per
+ * signal) instead of the nested snarkjs documents and JSON strings older
+ * records carry. Those are migrated lazily: when one is read, its proof is
+ * converted in memory and, unless zk.proofs.migrate-on-read is off,
+ * written back in the new field with the old one removed.
+ */
+@Slf4j
+@Configuration
+public class MongoConfig {
+
+    @Bean
+    public MongoCustomConversions mongoCustomConversions() {
+        return new MongoCustomConversions(List.of(new CompactProofToBinary(), new BinaryToCompactProof()));
+    }
+
+    @Bean
+    public ZKProofMigration zkProofMigration(ObjectMapper objectMapper, ObjectProvider<MongoTemplate> mongoTemplate,
+                                             @Value("${zk.proofs.migrate-on-read:true}") boolean writeBack) {
+        return new ZKProofMigration(objectMapper, mongoTemplate, writeBack);
+    }
+
+    @Bean
+    public IDDocumentMigration idDocumentMigration(ObjectMapper objectMapper, ObjectProvider<MongoTemplate> mongoTemplate,
+                                                   @Value("${zk.proofs.migrate-on-read:true}") boolean writeBack) {
+        return new IDDocumentMigration(objectMapper, mongoTemplate, writeBack);
+    }
+
+    @WritingConverter
+    static class CompactProofToBinary implements Converter<CompactProof, Binary> {
+        @Override
+        public Binary convert(CompactProof source) {
+            return new Binary(source.toBytes());
+        }
+    }
+
+    @ReadingConverter
+    static class BinaryToCompactProof implements Converter<Binary, CompactProof> {
+        @Override
+        public CompactProof convert(Binary source) {
+            return CompactProof.fromBytes(source.getData());
+        }
+    }
+
+    // ZKProof.proof, the Map the client sent, becomes compactProof
+    static class ZKProofMigration implements AfterConvertCallback<ZKProof> {
+
+        private final ObjectMapper objectMapper;
+        // Lazily, since MongoTemplate itself is built with the entity callbacks
+        private final ObjectProvider<MongoTemplate> mongoTemplate;
+        private final boolean writeBack;
+
+        ZKProofMigration(ObjectMapper objectMapper, ObjectProvider<MongoTemplate> mongoTemplate, boolean writeBack) {
+            this.objectMapper = objectMapper;
+            this.mongoTemplate = mongoTemplate;
+            this.writeBack = writeBack;
+        }
+
+        @Override
+        public ZKProof onAfterConvert(ZKProof entity, Document document, String collection) {
+            if (entity.getCompactProof() != null || entity.getProof() == null) {
+                return entity;
+            }
+            try {
+                entity.setCompactProof(CompactProof.fromJson(objectMapper.valueToTree(entity.getProof())));
+            } catch (IllegalArgumentException e) {
+                log.debug("Leaving legacy proof of {} in place: {}", entity.getId(), e.getMessage());
+                return entity;
+            }
+            entity.setProof(null);
+            if (writeBack) {
+                migrate(mongoTemplate.getObject(), ZKProof.class, collection, entity.getId(), "proof", "compactProof",
+                    entity.getCompactProof());
+            }
+            return entity;
+        }
+    }
+
+    // IDDocument.zkProofData, the JSON string, becomes zkCompactProof; placeholders stay as they are
+    static class IDDocumentMigration implements AfterConvertCallback<IDDocument> {
+
+        private final ObjectMapper objectMapper;
+        private final ObjectProvider<MongoTemplate> mongoTemplate;
+        private final boolean writeBack;
+
+        IDDocumentMigration(ObjectMapper objectMapper, ObjectProvider<MongoTemplate> mongoTemplate, boolean writeBack) {
+            this.objectMapper = objectMapper;
+            this.mongoTemplate = mongoTemplate;
+            this.writeBack = writeBack;
+        }
+
+        @Override
+        public IDDocument onAfterConvert(IDDocument entity, Document document, String collection) {
+            if (entity.getZkCompactProof() != null || !(document.get("zkProofData") instanceof String json)) {
+                return entity;
+            }
+            try {
+                entity.setZkCompactProof(CompactProof.fromJson(objectMapper.readTree(json)));
+            } catch (IOException | IllegalArgumentException e) {
+                log.debug("Leaving legacy proof of document {} in place: {}", entity.getId(), e.getMessage());
+                return entity;
+            }
+            entity.setZkProofData(null);
+            if (writeBack) {
+                migrate(mongoTemplate.getObject(), IDDocument.class, collection, entity.getId(), "zkProofData", "zkCompactProof",
+                    entity.getZkCompactProof());
+            }
+            return entity;
+        }
+    }
+
+    // Only while the legacy field is still there, so a save that raced ahead is not overwritten
+    private static void migrate(MongoTemplate mongoTemplate, Class<?> entityClass, String collection, String id,
+                                String legacyField, String field, CompactProof proof) {
+        try {
+            mongoTemplate.updateFirst(
+                Query.query(Criteria.where("id").is(id).and(legacyField).exists(true)),
+                new Update().set(field, new Binary(proof.toBytes())).unset(legacyField),
+                entityClass, collection);
+        } catch (RuntimeException e) {
+            // The next read tries again
+            log.warn("Could not migrate {} of {} in {}: {}", legacyField, id, collection, e.getMessage());
+        }
+    }
+}
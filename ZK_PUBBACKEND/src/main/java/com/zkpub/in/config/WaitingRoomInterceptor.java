@@ -0,0 +1,51 @@
+package com.zkpub.in.config;
+
+import com.zkpub.in.service.WaitingRoomService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * While people are queueing for an event, keeps callers without an
+ * admitted waiting-room token off the protected paths (login, profile,
+ * verification). Every request it lets through is timed, queue or not, so
+ * the admit rate follows what the backend is actually sustaining.
+ */
+@Component
+@RequiredArgsConstructor
+public class WaitingRoomInterceptor implements HandlerInterceptor {
+
+    public static final String TOKEN_HEADER = "X-Waiting-Room-Token";
+    private static final String START_ATTRIBUTE = WaitingRoomInterceptor.class.getName() + ".start";
+
+    private final WaitingRoomService waitingRoomService;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+            throws Exception {
+        String token = request.getHeader(TOKEN_HEADER);
+        if (waitingRoomService.isQueueing()
+                && (token == null || !waitingRoomService.enter(token, request.getParameter("eventId")))) {
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getWriter().write("{\"success\":false,\"message\":\"Not yet admitted from the waiting room\",\"data\":null}");
+            return false;
+        }
+        request.setAttribute(START_ATTRIBUTE, System.nanoTime());
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        Object start = request.getAttribute(START_ATTRIBUTE);
+        if (start != null) {
+            boolean failed = ex != null || response.getStatus() >= 500;
+            waitingRoomService.recordBackendLatency(System.nanoTime() - (Long) start, failed);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.zkpub.in.config;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+@RequiredArgsConstructor
+public class WebConfig implements WebMvcConfigurer {
+
+    private final WaitingRoomInterceptor waitingRoomInterceptor;
+
+    @Value("${zkpub.waiting-room.enabled:true}")
+    private boolean waitingRoomEnabled;
+
+    @Value("${zkpub.waiting-room.protected-paths:/api/auth/login,/api/users/profile,/api/auth/verify-zk/**,/api/id-documents/verify}")
+    private String[] waitingRoomProtectedPaths;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        if (waitingRoomEnabled) {
+            registry.addInterceptor(waitingRoomInterceptor).addPathPatterns(waitingRoomProtectedPaths);
+        }
+    }
+}
@@ -30,6 +30,44 @@ public class AdminController {
         String token = authHeader.substring(7);
         return ResponseEntity.ok(adminService.getAllUsers(token));
     }
+
+    @GetMapping("/events/stats")
+    public ResponseEntity<ApiResponse<?>> getEventSalesStats(
+            @RequestHeader("Authorization") String authHeader) {
+        String token = authHeader.substring(7);
+        return ResponseEntity.ok(adminService.getEventSalesStats(token));
+    }
+
+    @GetMapping("/events/{eventId}/stats")
+    public ResponseEntity<ApiResponse<?>> getEventSalesStats(
+            @RequestHeader("Authorization") String authHeader,
+            @PathVariable String eventId) {
+        String token = authHeader.substring(7);
+        return ResponseEntity.ok(adminService.getEventSalesStats(token, eventId));
+    }
+
+    @PostMapping("/documents/scan")
+    public ResponseEntity<ApiResponse<?>> scanDocumentStore(
+            @RequestHeader("Authorization") String authHeader,
+            @RequestParam(defaultValue = "false") boolean deleteOrphans) {
+        String token = authHeader.substring(7);
+        return ResponseEntity.ok(adminService.scanDocumentStore(token, deleteOrphans));
+    }
+
+    @PostMapping("/tickets/check-in")
+    public ResponseEntity<ApiResponse<?>> checkInTicket(
+            @RequestHeader("Authorization") String authHeader,
+            @RequestParam String qrCode) {
+        String token = authHeader.substring(7);
+        return ResponseEntity.ok(adminService.checkInTicket(token, qrCode));
+    }
+
+    @GetMapping("/zk-verification/stats")
+    public ResponseEntity<ApiResponse<?>> getZkVerificationStats(
+            @RequestHeader("Authorization") String authHeader) {
+        String token = authHeader.substring(7);
+        return ResponseEntity.ok(adminService.getZkVerificationStats(token));
+    }
 }
 
 
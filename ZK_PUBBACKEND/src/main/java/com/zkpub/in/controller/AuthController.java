@@ -4,11 +4,17 @@ import com.zkpub.in.dto.ApiResponse;
 import com.zkpub.in.dto.AuthRequest;
 import com.zkpub.in.service.AuthService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import jakarta.validation.Valid;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
+
 @RestController
 @RequestMapping("/api/auth")
 @RequiredArgsConstructor
@@ -35,10 +41,43 @@ public class AuthController {
         return ResponseEntity.ok(response);
     }
 
+    // Verification runs on its own pool; the request thread is released while the proof waits there
     @PostMapping("/verify-zk")
-    public ResponseEntity<ApiResponse<?>> verifyZKProof(@Valid @RequestBody AuthRequest.ZKVerificationRequest request) {
-        ApiResponse<?> response = authService.verifyZKProof(request);
-        return ResponseEntity.ok(response);
+    public CompletableFuture<ResponseEntity<ApiResponse<?>>> verifyZKProof(@Valid @RequestBody AuthRequest.ZKVerificationRequest request) {
+        return authService.verifyZKProofAsync(request).handle(AuthController::executorResponse);
+    }
+
+    @PostMapping("/verify-zk/batch")
+    public CompletableFuture<ResponseEntity<ApiResponse<?>>> verifyZKProofBatch(@Valid @RequestBody AuthRequest.ZKBatchVerificationRequest request) {
+        return authService.verifyZKProofBatchAsync(request).handle(AuthController::executorResponse);
+    }
+
+    // Signed-in users only; witness generation and proving run on the verification pool like a batch
+    @PostMapping("/prove-zk")
+    public CompletableFuture<ResponseEntity<ApiResponse<?>>> proveZK(
+            @RequestHeader(value = "Authorization", required = false) String authHeader,
+            @Valid @RequestBody AuthRequest.ZKProveRequest request) {
+        if (authHeader == null || !authHeader.startsWith("Bearer ") || !authService.validateToken(authHeader.substring(7))) {
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(ApiResponse.error("Invalid token")));
+        }
+        return authService.proveZKAsync(request).handle(AuthController::executorResponse);
+    }
+
+    private static ResponseEntity<ApiResponse<?>> executorResponse(ApiResponse<?> response, Throwable error) {
+        if (error == null) {
+            return ResponseEntity.ok(response);
+        }
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause instanceof RejectedExecutionException) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(ApiResponse.error("Too many ZK requests in progress, try again shortly"));
+        }
+        if (cause instanceof TimeoutException) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(ApiResponse.error("ZK request timed out"));
+        }
+        return ResponseEntity.ok(ApiResponse.error("ZK request failed: " + cause.getMessage()));
     }
 
     @GetMapping("/test")
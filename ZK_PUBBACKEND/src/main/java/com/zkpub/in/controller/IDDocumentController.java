@@ -2,14 +2,21 @@ package com.zkpub.in.controller;
 
 import com.zkpub.in.dto.ApiResponse;
 import com.zkpub.in.model.IDDocument;
+import com.zkpub.in.model.VerificationJob;
 import com.zkpub.in.service.IDDocumentService;
+import com.zkpub.in.service.VerificationJobService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.channels.Channels;
 import java.util.List;
 import java.util.Optional;
 
@@ -21,6 +28,7 @@ import java.util.Optional;
 public class IDDocumentController {
     
     private final IDDocumentService idDocumentService;
+    private final VerificationJobService verificationJobService;
     
     @PostMapping("/upload")
     public ResponseEntity<ApiResponse<IDDocument>> uploadIDDocument(
@@ -43,6 +51,52 @@ public class IDDocumentController {
         }
     }
     
+    @PostMapping("/verify")
+    public ResponseEntity<ApiResponse<VerificationJob>> submitVerification(
+            @RequestParam("userId") String userId,
+            @RequestParam("file") MultipartFile file) {
+        try {
+            log.info("Submitting verification job for user: {}", userId);
+            
+            VerificationJob job = verificationJobService.submit(userId, file);
+            
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(ApiResponse.success(
+                "Verification job submitted",
+                job
+            ));
+        } catch (Exception e) {
+            log.error("Error submitting verification job: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(ApiResponse.error(
+                "Failed to submit verification job: " + e.getMessage()
+            ));
+        }
+    }
+    
+    @GetMapping("/jobs/{jobId}")
+    public ResponseEntity<ApiResponse<VerificationJob>> getVerificationJob(
+            @PathVariable String jobId) {
+        Optional<VerificationJob> job = verificationJobService.getJob(jobId);
+        
+        if (job.isPresent()) {
+            return ResponseEntity.ok(ApiResponse.success(
+                "Verification job retrieved successfully",
+                job.get()
+            ));
+        } else {
+            return ResponseEntity.notFound().build();
+        }
+    }
+    
+    @GetMapping(value = "/jobs/{jobId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamVerificationJob(
+            @PathVariable String jobId) {
+        try {
+            return ResponseEntity.ok(verificationJobService.subscribe(jobId));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+    
     @PostMapping("/{documentId}/extract-text")
     public ResponseEntity<ApiResponse<String>> extractTextFromDocument(
             @PathVariable String documentId) {
@@ -166,6 +220,38 @@ public class IDDocumentController {
         }
     }
     
+    @GetMapping("/{documentId}/file")
+    public void getDocumentFile(
+            @PathVariable String documentId,
+            @RequestHeader(value = "Authorization", required = false) String authHeader,
+            HttpServletResponse response) throws IOException {
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            response.sendError(HttpStatus.UNAUTHORIZED.value());
+            return;
+        }
+        Optional<IDDocument> document = idDocumentService.getDocumentById(documentId);
+        if (document.isEmpty()) {
+            response.sendError(HttpStatus.NOT_FOUND.value());
+            return;
+        }
+        // Only the document's owner or an admin may see the ID card itself
+        if (!idDocumentService.canReadDocument(authHeader.substring(7), document.get())) {
+            response.sendError(HttpStatus.FORBIDDEN.value());
+            return;
+        }
+        
+        try {
+            response.setContentType(document.get().getMimeType());
+            response.setContentLengthLong(document.get().getFileSize());
+            idDocumentService.writeDocumentContent(documentId, Channels.newChannel(response.getOutputStream()));
+        } catch (Exception e) {
+            log.error("Error streaming document {}: {}", documentId, e.getMessage());
+            if (!response.isCommitted()) {
+                response.sendError(HttpStatus.NOT_FOUND.value());
+            }
+        }
+    }
+    
     @GetMapping("/user/{userId}")
     public ResponseEntity<ApiResponse<IDDocument>> getDocumentByUserId(
             @PathVariable String userId) {
@@ -0,0 +1,34 @@
+package com.zkpub.in.controller;
+
+import com.zkpub.in.dto.ApiResponse;
+import com.zkpub.in.service.PaymentWebhookService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/payments/webhook")
+@RequiredArgsConstructor
+public class PaymentWebhookController {
+
+    private final PaymentWebhookService paymentWebhookService;
+
+    // Razorpay signs the raw body, so it must not be bound to an object first
+    @PostMapping("/razorpay")
+    public ResponseEntity<ApiResponse<?>> razorpayWebhook(
+            @RequestHeader(value = "X-Razorpay-Signature", required = false) String signature,
+            @RequestBody String rawBody) {
+        try {
+            ApiResponse<?> response = paymentWebhookService.acceptRazorpayWebhook(rawBody, signature);
+            if (!response.isSuccess()) {
+                return ResponseEntity.badRequest().body(response);
+            }
+            return ResponseEntity.ok(response);
+        } catch (IllegalStateException e) {
+            // Non-2xx makes Razorpay redeliver once we have drained the backlog
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(ApiResponse.error("Webhook deferred: " + e.getMessage()));
+        }
+    }
+}
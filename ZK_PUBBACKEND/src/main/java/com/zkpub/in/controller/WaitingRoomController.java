@@ -0,0 +1,39 @@
+package com.zkpub.in.controller;
+
+import com.zkpub.in.config.WaitingRoomInterceptor;
+import com.zkpub.in.dto.ApiResponse;
+import com.zkpub.in.dto.WaitingRoomStatus;
+import com.zkpub.in.service.WaitingRoomService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/waiting-room")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*")
+public class WaitingRoomController {
+
+    private final WaitingRoomService waitingRoomService;
+
+    @PostMapping("/{eventId}/join")
+    public ResponseEntity<ApiResponse<WaitingRoomStatus>> join(@PathVariable String eventId) {
+        try {
+            return ResponseEntity.ok(ApiResponse.success("Joined waiting room", waitingRoomService.join(eventId)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ApiResponse.error(e.getMessage()));
+        }
+    }
+
+    @GetMapping("/status")
+    public ResponseEntity<ApiResponse<WaitingRoomStatus>> status(
+            @RequestHeader(WaitingRoomInterceptor.TOKEN_HEADER) String token) {
+        try {
+            return ResponseEntity.ok(ApiResponse.success("Waiting room position", waitingRoomService.status(token)));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(ApiResponse.error("Invalid waiting room token"));
+        }
+    }
+}
@@ -76,6 +76,8 @@ public class AuthRequest {
         private String proofHash;
         
         private Object proof; // ZK proof data
+
+        private String circuitId; // verification key to check against; the default circuit when absent
         
         // Constructors
         public ZKVerificationRequest() {}
@@ -93,5 +95,52 @@ public class AuthRequest {
         public void setProofHash(String proofHash) { this.proofHash = proofHash; }
         public Object getProof() { return proof; }
         public void setProof(Object proof) { this.proof = proof; }
+        public String getCircuitId() { return circuitId; }
+        public void setCircuitId(String circuitId) { this.circuitId = circuitId; }
+    }
+
+    public static class ZKBatchVerificationRequest {
+        @jakarta.validation.constraints.NotEmpty
+        @jakarta.validation.Valid
+        private java.util.List<ZKVerificationRequest> proofs;
+
+        private String circuitId; // for proofs that do not name their own circuit
+
+        // Constructors
+        public ZKBatchVerificationRequest() {}
+
+        public ZKBatchVerificationRequest(java.util.List<ZKVerificationRequest> proofs) {
+            this.proofs = proofs;
+        }
+
+        // Getters and setters
+        public java.util.List<ZKVerificationRequest> getProofs() { return proofs; }
+        public void setProofs(java.util.List<ZKVerificationRequest> proofs) { this.proofs = proofs; }
+        public String getCircuitId() { return circuitId; }
+        public void setCircuitId(String circuitId) { this.circuitId = circuitId; }
+    }
+
+    public static class ZKProveRequest {
+        private String circuitId; // proving key to use; the default circuit when absent
+
+        private java.util.List<String> witness; // full witness as decimal strings, wire 0 = 1
+
+        private java.util.Map<String, Object> input; // or the circuit's input signals, as in input.json
+
+        // Constructors
+        public ZKProveRequest() {}
+
+        public ZKProveRequest(String circuitId, java.util.List<String> witness) {
+            this.circuitId = circuitId;
+            this.witness = witness;
+        }
+
+        // Getters and setters
+        public String getCircuitId() { return circuitId; }
+        public void setCircuitId(String circuitId) { this.circuitId = circuitId; }
+        public java.util.List<String> getWitness() { return witness; }
+        public void setWitness(java.util.List<String> witness) { this.witness = witness; }
+        public java.util.Map<String, Object> getInput() { return input; }
+        public void setInput(java.util.Map<String, Object> input) { this.input = input; }
     }
 }
\ No newline at end of file
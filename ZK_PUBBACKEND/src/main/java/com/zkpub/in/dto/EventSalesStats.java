@@ -0,0 +1,33 @@
+package com.zkpub.in.dto;
+
+public class EventSalesStats {
+    private String eventId;
+    private long soldCount;
+    private double revenue;
+    private long checkedInCount;
+    private double checkInRate; // Percentage of sold tickets that have been used
+
+    // Default constructor
+    public EventSalesStats() {
+    }
+
+    public EventSalesStats(String eventId, long soldCount, double revenue, long checkedInCount) {
+        this.eventId = eventId;
+        this.soldCount = soldCount;
+        this.revenue = revenue;
+        this.checkedInCount = checkedInCount;
+        this.checkInRate = soldCount > 0 ? (double) checkedInCount / soldCount * 100 : 0;
+    }
+
+    // Getters and setters
+    public String getEventId() { return eventId; }
+    public void setEventId(String eventId) { this.eventId = eventId; }
+    public long getSoldCount() { return soldCount; }
+    public void setSoldCount(long soldCount) { this.soldCount = soldCount; }
+    public double getRevenue() { return revenue; }
+    public void setRevenue(double revenue) { this.revenue = revenue; }
+    public long getCheckedInCount() { return checkedInCount; }
+    public void setCheckedInCount(long checkedInCount) { this.checkedInCount = checkedInCount; }
+    public double getCheckInRate() { return checkInRate; }
+    public void setCheckInRate(double checkInRate) { this.checkInRate = checkInRate; }
+}
@@ -0,0 +1,38 @@
+package com.zkpub.in.dto;
+
+public class WaitingRoomStatus {
+    private String token;
+    private String eventId;
+    private long position;
+    private long peopleAhead;
+    private boolean admitted;
+    private long estimatedWaitSeconds;
+
+    // Default constructor
+    public WaitingRoomStatus() {
+    }
+
+    public WaitingRoomStatus(String token, String eventId, long position, long peopleAhead,
+                             boolean admitted, long estimatedWaitSeconds) {
+        this.token = token;
+        this.eventId = eventId;
+        this.position = position;
+        this.peopleAhead = peopleAhead;
+        this.admitted = admitted;
+        this.estimatedWaitSeconds = estimatedWaitSeconds;
+    }
+
+    // Getters and setters
+    public String getToken() { return token; }
+    public void setToken(String token) { this.token = token; }
+    public String getEventId() { return eventId; }
+    public void setEventId(String eventId) { this.eventId = eventId; }
+    public long getPosition() { return position; }
+    public void setPosition(long position) { this.position = position; }
+    public long getPeopleAhead() { return peopleAhead; }
+    public void setPeopleAhead(long peopleAhead) { this.peopleAhead = peopleAhead; }
+    public boolean isAdmitted() { return admitted; }
+    public void setAdmitted(boolean admitted) { this.admitted = admitted; }
+    public long getEstimatedWaitSeconds() { return estimatedWaitSeconds; }
+    public void setEstimatedWaitSeconds(long estimatedWaitSeconds) { this.estimatedWaitSeconds = estimatedWaitSeconds; }
+}
@@ -0,0 +1,24 @@
+package com.zkpub.in.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "event_sales_snapshots")
+public class EventSalesSnapshot {
+
+    @Id
+    private String eventId; // One snapshot per event
+
+    private long soldCount;
+    private double revenue; // Sum of Ticket.amountPaid
+    private long checkedInCount;
+    private LocalDateTime updatedAt = LocalDateTime.now();
+}
@@ -1,5 +1,7 @@
 package com.zkpub.in.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.zkpub.in.zk.CompactProof;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.index.Indexed;
@@ -24,7 +26,9 @@ public class IDDocument {
     
     // ZK Proof related fields
     private String zkProofHash; // Hash of the generated ZK proof
-    private String zkProofData; // JSON string of the ZK proof
+    private String zkCommitmentSalt; // Salt in zkProofHash's commitment, so it can be recomputed and opened
+    private CompactProof zkCompactProof; // The ZK proof and public signals, stored as BSON binary
+    private String zkProofData; // JSON string of the ZK proof: placeholders and documents not yet migrated
     private boolean zkProofVerified; // Whether ZK proof is verified on blockchain
     private String blockchainTxHash; // Transaction hash of blockchain verification
     
@@ -206,14 +210,33 @@ public class IDDocument {
         this.documentType = documentType;
     }
     
+    // The API keeps returning the snarkjs JSON, whichever form the proof is stored in
     public String getZkProofData() {
-        return zkProofData;
+        return zkCompactProof != null ? zkCompactProof.toJson().toString() : zkProofData;
     }
     
     public void setZkProofData(String zkProofData) {
         this.zkProofData = zkProofData;
     }
     
+    @JsonIgnore
+    public String getZkCommitmentSalt() {
+        return zkCommitmentSalt;
+    }
+    
+    public void setZkCommitmentSalt(String zkCommitmentSalt) {
+        this.zkCommitmentSalt = zkCommitmentSalt;
+    }
+    
+    @JsonIgnore
+    public CompactProof getZkCompactProof() {
+        return zkCompactProof;
+    }
+    
+    public void setZkCompactProof(CompactProof zkCompactProof) {
+        this.zkCompactProof = zkCompactProof;
+    }
+    
     public boolean isZkProofVerified() {
         return zkProofVerified;
     }
@@ -0,0 +1,24 @@
+package com.zkpub.in.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "ocr_results")
+public class OcrCacheEntry {
+
+    @Id
+    private String documentHash; // SHA-256 of the image that was sent to OCR
+
+    private String extractedText;
+
+    // TTL-indexed by OcrResultCacheImpl from ocr.cache.ttl-minutes
+    private LocalDateTime createdAt = LocalDateTime.now();
+}
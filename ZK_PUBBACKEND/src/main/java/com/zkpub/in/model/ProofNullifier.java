@@ -0,0 +1,23 @@
+package com.zkpub.in.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "zk_nullifiers")
+public class ProofNullifier {
+
+    @Id
+    private String nullifier; // hex SHA-256 of the circuit id and public signals; _id keeps it unique
+
+    private String userId; // the account that first used the proof
+    private String circuitId;
+    private LocalDateTime createdAt = LocalDateTime.now();
+}
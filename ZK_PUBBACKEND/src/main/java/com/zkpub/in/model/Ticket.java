@@ -4,6 +4,7 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.LocalDateTime;
@@ -22,7 +23,11 @@ public class Ticket {
     private String ticketNumber;
     private Double amountPaid;
     private String paymentMethod; // "RAZORPAY" or "CRYPTO"
+    @Indexed
     private String paymentId;
+    private String paymentStatus; // "PENDING", "CONFIRMED" or "FAILED"; null for legacy tickets
+    private LocalDateTime paymentConfirmedAt;
+    @Indexed(unique = true, sparse = true) // one transaction pays for one ticket
     private String blockchainTxHash; // for crypto payments
     private String qrCode;
     private boolean isUsed = false;
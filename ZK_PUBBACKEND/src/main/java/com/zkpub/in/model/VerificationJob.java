@@ -0,0 +1,46 @@
+package com.zkpub.in.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "verification_jobs")
+public class VerificationJob {
+
+    // Stages in the order they complete; a job records the last one it finished
+    public enum Stage {
+        UPLOADED, TEXT_EXTRACTED, BIRTH_YEAR_PARSED, PROOF_GENERATED, BLOCKCHAIN_VERIFIED, COMPLETED, FAILED;
+
+        public boolean isTerminal() {
+            return this == COMPLETED || this == FAILED;
+        }
+    }
+
+    @Id
+    private String id;
+
+    private String userId;
+    private String documentId; // Reference to IDDocument
+
+    @Indexed
+    private Stage stage = Stage.UPLOADED;
+    private String error;
+    private LocalDateTime createdAt = LocalDateTime.now();
+    private LocalDateTime updatedAt = LocalDateTime.now();
+
+    public VerificationJob(String userId, String documentId) {
+        this.userId = userId;
+        this.documentId = documentId;
+        this.stage = Stage.UPLOADED;
+        this.createdAt = LocalDateTime.now();
+        this.updatedAt = LocalDateTime.now();
+    }
+}
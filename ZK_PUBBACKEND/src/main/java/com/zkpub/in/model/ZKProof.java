@@ -1,9 +1,11 @@
 package com.zkpub.in.model;
 
+import com.zkpub.in.zk.CompactProof;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.LocalDateTime;
@@ -19,8 +21,10 @@ public class ZKProof {
     private String id;
     
     private String userId;
+    @Indexed // looked up by findByProofHash
     private String proofHash;
-    private Map<String, Object> proof; // The actual ZK proof data
+    private CompactProof compactProof; // Proof and public signals, stored as BSON binary (see MongoConfig)
+    private Map<String, Object> proof; // Legacy snarkjs JSON; moved into compactProof when the document is read
     private boolean isVerified = false;
     private LocalDateTime createdAt = LocalDateTime.now();
     private LocalDateTime verifiedAt;
@@ -0,0 +1,9 @@
+package com.zkpub.in.repository;
+
+import com.zkpub.in.model.EventSalesSnapshot;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface EventSalesSnapshotRepository extends MongoRepository<EventSalesSnapshot, String> {
+}
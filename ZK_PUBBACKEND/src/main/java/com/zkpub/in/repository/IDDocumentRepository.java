@@ -16,6 +16,11 @@ public interface IDDocumentRepository extends MongoRepository<IDDocument, String
     // Find by document hash
     Optional<IDDocument> findByDocumentHash(String documentHash);
     
+    // Reference count for a stored blob
+    long countByDocumentHash(String documentHash);
+    
+    boolean existsByDocumentHash(String documentHash);
+    
     // Find by ZK proof hash
     Optional<IDDocument> findByZkProofHash(String zkProofHash);
     
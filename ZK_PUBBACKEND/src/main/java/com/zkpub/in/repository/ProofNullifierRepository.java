@@ -0,0 +1,9 @@
+package com.zkpub.in.repository;
+
+import com.zkpub.in.model.ProofNullifier;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ProofNullifierRepository extends MongoRepository<ProofNullifier, String> {
+}
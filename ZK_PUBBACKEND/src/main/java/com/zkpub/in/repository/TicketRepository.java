@@ -1,9 +1,12 @@
 package com.zkpub.in.repository;
 
 import com.zkpub.in.model.Ticket;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,4 +17,9 @@ public interface TicketRepository extends MongoRepository<Ticket, String> {
     Optional<Ticket> findByTicketNumber(String ticketNumber);
     Optional<Ticket> findByQrCode(String qrCode);
     List<Ticket> findByUserIdAndEventId(String userId, String eventId);
+    List<Ticket> findByPaymentIdInAndPaymentStatus(Collection<String> paymentIds, String paymentStatus);
+    List<Ticket> findByBlockchainTxHashInAndPaymentStatus(Collection<String> txHashes, String paymentStatus);
+
+    @Query("{'paymentMethod': ?0, 'paymentStatus': ?1, 'blockchainTxHash': {$ne: null}}")
+    List<Ticket> findWithTxHashByPaymentMethodAndStatus(String paymentMethod, String paymentStatus, Pageable pageable);
 }
\ No newline at end of file
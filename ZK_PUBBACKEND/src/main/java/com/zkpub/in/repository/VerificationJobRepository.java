@@ -0,0 +1,13 @@
+package com.zkpub.in.repository;
+
+import com.zkpub.in.model.VerificationJob;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface VerificationJobRepository extends MongoRepository<VerificationJob, String> {
+    List<VerificationJob> findByStageNotIn(Collection<VerificationJob.Stage> stages);
+}
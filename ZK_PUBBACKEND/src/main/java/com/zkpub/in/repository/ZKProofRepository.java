@@ -6,10 +6,13 @@ import com.zkpub.in.model.ZKProof;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface ZKProofRepository extends MongoRepository<ZKProof, String> {
     Optional<ZKProof> findByUserId(String userId);
     Optional<ZKProof> findByProofHash(String proofHash);
+    List<ZKProof> findByProofHashIn(Collection<String> proofHashes);
 }
\ No newline at end of file
@@ -6,6 +6,11 @@ import com.zkpub.in.model.User;
 public interface AdminService {
     ApiResponse<?> createAdmin(String requesterToken, User newAdmin);
     ApiResponse<?> getAllUsers(String requesterToken);
+    ApiResponse<?> getEventSalesStats(String requesterToken);
+    ApiResponse<?> getEventSalesStats(String requesterToken, String eventId);
+    ApiResponse<?> scanDocumentStore(String requesterToken, boolean deleteOrphans);
+    ApiResponse<?> getZkVerificationStats(String requesterToken);
+    ApiResponse<?> checkInTicket(String requesterToken, String qrCode);
 }
 
 
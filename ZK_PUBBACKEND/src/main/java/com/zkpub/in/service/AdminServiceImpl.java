@@ -1,19 +1,31 @@
 package com.zkpub.in.service;
 
 import com.zkpub.in.dto.ApiResponse;
+import com.zkpub.in.model.Ticket;
 import com.zkpub.in.model.User;
 import com.zkpub.in.repository.UserRepository;
 import com.zkpub.in.utils.JwtUtil;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDateTime;
+
 @Service
 @RequiredArgsConstructor
 public class AdminServiceImpl implements AdminService {
 
     private final UserRepository userRepository;
     private final JwtUtil jwtUtil;
+    private final EventSalesAggregateService eventSalesAggregateService;
+    private final DocumentBlobStore documentBlobStore;
+    private final ZkVerificationExecutor zkVerificationExecutor;
+    private final MongoTemplate mongoTemplate;
     private final BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
 
     private boolean isAdmin(String token) {
@@ -45,6 +57,58 @@ public class AdminServiceImpl implements AdminService {
         }
         return ApiResponse.success("Users fetched", userRepository.findAll());
     }
-}
 
+    @Override
+    public ApiResponse<?> getEventSalesStats(String requesterToken) {
+        if (!isAdmin(requesterToken)) {
+            return ApiResponse.error("Forbidden: Admin only");
+        }
+        return ApiResponse.success("Event sales fetched", eventSalesAggregateService.getAllEventStats());
+    }
 
+    @Override
+    public ApiResponse<?> getEventSalesStats(String requesterToken, String eventId) {
+        if (!isAdmin(requesterToken)) {
+            return ApiResponse.error("Forbidden: Admin only");
+        }
+        return ApiResponse.success("Event sales fetched", eventSalesAggregateService.getEventStats(eventId));
+    }
+
+    @Override
+    public ApiResponse<?> scanDocumentStore(String requesterToken, boolean deleteOrphans) {
+        if (!isAdmin(requesterToken)) {
+            return ApiResponse.error("Forbidden: Admin only");
+        }
+        try {
+            return ApiResponse.success("Document store scanned", documentBlobStore.scan(deleteOrphans));
+        } catch (Exception e) {
+            return ApiResponse.error("Document store scan failed: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public ApiResponse<?> getZkVerificationStats(String requesterToken) {
+        if (!isAdmin(requesterToken)) {
+            return ApiResponse.error("Forbidden: Admin only");
+        }
+        return ApiResponse.success("ZK verification stats fetched", zkVerificationExecutor.stats());
+    }
+
+    @Override
+    public ApiResponse<?> checkInTicket(String requesterToken, String qrCode) {
+        if (!isAdmin(requesterToken)) {
+            return ApiResponse.error("Forbidden: Admin only");
+        }
+        // One atomic write, so a ticket scanned twice at once is only let in and counted once
+        Query query = Query.query(Criteria.where("qrCode").is(qrCode).and("isUsed").is(false)
+                .and("paymentStatus").nin("PENDING", "FAILED"));
+        Ticket ticket = mongoTemplate.findAndModify(query,
+                new Update().set("isUsed", true).set("usedDate", LocalDateTime.now()),
+                FindAndModifyOptions.options().returnNew(true), Ticket.class);
+        if (ticket == null) {
+            return ApiResponse.error("Ticket not found, unpaid or already used");
+        }
+        eventSalesAggregateService.recordCheckIn(ticket);
+        return ApiResponse.success("Ticket checked in", ticket.getTicketNumber());
+    }
+}
@@ -0,0 +1,13 @@
+package com.zkpub.in.service;
+
+import java.math.BigInteger;
+import java.util.List;
+
+public interface AgeProofPolicy {
+
+    // Why a proof that passed the pairing check still does not show that the user is old enough,
+    // or null when it does: the circuit's public signals must say the age check held, against at
+    // least zk.proof.min-age and this year, for this user's publicHash, with proofHash being the
+    // proof's commitment. circuitId null or blank means the registry's default circuit.
+    String rejection(String circuitId, String email, String proofHash, List<BigInteger> publicSignals);
+}
@@ -0,0 +1,77 @@
+package com.zkpub.in.service;
+
+import com.zkpub.in.utils.AgeCommitment;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.math.BigInteger;
+import java.time.Year;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * What an accepted age proof has to state. A valid Groth16 proof only
+ * says the circuit ran; the public signals say what it ran on, so a proof
+ * of isValid = 0, one made with minAge = 0, or one bound to somebody
+ * else's publicHash verifies just as well and is turned away here.
+ *
+ * circom lists outputs before public inputs, so the age circuits expose
+ * [isValid, commitment, minAge, currentYear, publicHash] (age18) and
+ * [isValid, commitment, minAge, publicHash] (simple_age, tickett, which
+ * take the year privately). Circuits not listed prove nothing about age.
+ */
+@Service
+public class AgeProofPolicyImpl implements AgeProofPolicy {
+
+    private static final int IS_VALID = 0;
+    private static final int COMMITMENT = 1;
+    private static final int MIN_AGE = 2;
+    private static final int NONE = -1;
+
+    private static final Map<String, Layout> LAYOUTS = Map.of(
+        "age18", new Layout(5, 3, 4),
+        "simple_age", new Layout(4, NONE, 3),
+        "tickett", new Layout(4, NONE, 3));
+
+    private final CircuitRegistry circuitRegistry;
+    private final int minAge;
+
+    public AgeProofPolicyImpl(CircuitRegistry circuitRegistry,
+                              @Value("${zk.proof.min-age:18}") int minAge) {
+        this.circuitRegistry = circuitRegistry;
+        this.minAge = minAge;
+    }
+
+    @Override
+    public String rejection(String circuitId, String email, String proofHash, List<BigInteger> publicSignals) {
+        String resolved = circuitId == null || circuitId.isBlank() ? circuitRegistry.defaultCircuitId() : circuitId;
+        Layout layout = LAYOUTS.get(resolved);
+        if (layout == null) {
+            return "Circuit " + resolved + " does not prove age";
+        }
+        if (publicSignals.size() != layout.signals()) {
+            return "Expected " + layout.signals() + " public signals for " + resolved + ", got " + publicSignals.size();
+        }
+        if (!publicSignals.get(IS_VALID).equals(BigInteger.ONE)) {
+            return "Proof does not show the minimum age";
+        }
+        if (publicSignals.get(MIN_AGE).compareTo(BigInteger.valueOf(minAge)) < 0) {
+            return "Proof was made for a minimum age below " + minAge;
+        }
+        if (layout.currentYear() != NONE
+                && !publicSignals.get(layout.currentYear()).equals(BigInteger.valueOf(Year.now().getValue()))) {
+            return "Proof was made for another year";
+        }
+        if (email == null || !publicSignals.get(layout.publicHash()).equals(AgeCommitment.publicHash(email))) {
+            return "Proof was made for another user";
+        }
+        if (proofHash == null || !proofHash.equalsIgnoreCase(AgeCommitment.toHex(publicSignals.get(COMMITMENT)))) {
+            return "Proof hash does not match the proof's commitment";
+        }
+        return null;
+    }
+
+    // Signal count and the positions of the inputs that differ between the circuits
+    private record Layout(int signals, int currentYear, int publicHash) {
+    }
+}
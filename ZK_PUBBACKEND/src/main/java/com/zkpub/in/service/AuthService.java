@@ -3,11 +3,21 @@ package com.zkpub.in.service;
 import com.zkpub.in.dto.ApiResponse;
 import com.zkpub.in.dto.AuthRequest;
 
+import java.util.concurrent.CompletableFuture;
+
 public interface AuthService {
     ApiResponse<?> register(AuthRequest.RegisterRequest request);
     ApiResponse<?> login(AuthRequest.LoginRequest request);
     ApiResponse<?> adminLogin(AuthRequest.LoginRequest request);
     ApiResponse<?> verifyZKProof(AuthRequest.ZKVerificationRequest request);
+    ApiResponse<?> verifyZKProofBatch(AuthRequest.ZKBatchVerificationRequest request);
+    // The two above on the verification executor, interactive ahead of batch; the future fails with
+    // TimeoutException past the configured deadline and RejectedExecutionException when the queue is full
+    CompletableFuture<ApiResponse<?>> verifyZKProofAsync(AuthRequest.ZKVerificationRequest request);
+    CompletableFuture<ApiResponse<?>> verifyZKProofBatchAsync(AuthRequest.ZKBatchVerificationRequest request);
+    ApiResponse<?> proveZK(AuthRequest.ZKProveRequest request);
+    // proveZK as batch work on the verification executor, failing the same way past zk.prover.deadline-ms
+    CompletableFuture<ApiResponse<?>> proveZKAsync(AuthRequest.ZKProveRequest request);
     boolean validateToken(String token);
     String extractEmailFromToken(String token);
 }
\ No newline at end of file
@@ -2,30 +2,66 @@ package com.zkpub.in.service;
 
 import com.zkpub.in.dto.ApiResponse;
 import com.zkpub.in.dto.AuthRequest;
+import com.zkpub.in.model.IDDocument;
 import com.zkpub.in.model.User;
 import com.zkpub.in.model.ZKProof;
+import com.zkpub.in.repository.IDDocumentRepository;
 import com.zkpub.in.repository.UserRepository;
 import com.zkpub.in.repository.ZKProofRepository;
 import com.zkpub.in.service.AuthService;
 import com.zkpub.in.utils.JwtUtil;
+import com.zkpub.in.zk.CompactProof;
+import com.zkpub.in.zk.Witness;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
 
+import java.math.BigInteger;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 @Service
 @RequiredArgsConstructor
 public class AuthServiceImpl implements AuthService {
 
+    private static final String PROOF_ALREADY_USED = "ZK proof already used by another account";
+
     private final UserRepository userRepository;
     private final ZKProofRepository zkProofRepository;
+    private final IDDocumentRepository idDocumentRepository;
     private final JwtUtil jwtUtils;
+    private final ZkProofVerifier zkProofVerifier;
+    private final SeenProofService seenProofService;
+    private final ZkProver zkProver;
+    private final ZkWitnessCalculator zkWitnessCalculator;
+    private final ZkVerificationExecutor zkVerificationExecutor;
+    private final AgeProofPolicy ageProofPolicy;
     private final BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
 
+    @Value("${zk.verifier.max-batch-size:1024}")
+    private int maxBatchSize;
+
+    @Value("${zk.verification.interactive-deadline-ms:10000}")
+    private long interactiveDeadlineMs;
+
+    @Value("${zk.verification.batch-deadline-ms:25000}")
+    private long batchDeadlineMs;
+
+    @Value("${zk.prover.deadline-ms:25000}")
+    private long proveDeadlineMs;
+
+    private static final long NO_DEADLINE = 0;
+    private static final String DEADLINE_PASSED = "Verification deadline passed; nothing was recorded";
+
     @Override
     public ApiResponse<?> register(AuthRequest.RegisterRequest request) {
         try {
@@ -46,8 +82,16 @@ public class AuthServiceImpl implements AuthService {
                 request.getPhone()
             );
 
-            // If ZK proof provided, mark as age verified
+            // The proof hash is only honoured if it is the one issued to this email by the ID
+            // document flow; a hash copied from someone else's registration is rejected
             if (request.getZkProofHash() != null && !request.getZkProofHash().isEmpty()) {
+                boolean issuedToEmail = idDocumentRepository.findByUserId(request.getEmail())
+                    .filter(IDDocument::getIsAgeVerified)
+                    .map(document -> request.getZkProofHash().equals(document.getZkProofHash()))
+                    .orElse(false);
+                if (!issuedToEmail) {
+                    return ApiResponse.error("ZK proof hash does not match a verified ID document for this email");
+                }
                 user.setAgeVerified(true);
                 user.setZkProofHash(request.getZkProofHash());
             }
@@ -128,6 +172,11 @@ public class AuthServiceImpl implements AuthService {
 
     @Override
     public ApiResponse<?> verifyZKProof(AuthRequest.ZKVerificationRequest request) {
+        return verifyZKProof(request, NO_DEADLINE);
+    }
+
+    // Past deadlineNanos the caller has already been answered with a timeout, so nothing is recorded
+    private ApiResponse<?> verifyZKProof(AuthRequest.ZKVerificationRequest request, long deadlineNanos) {
         try {
             Optional<User> userOpt = userRepository.findById(request.getUserId());
             
@@ -135,18 +184,42 @@ public class AuthServiceImpl implements AuthService {
                 return ApiResponse.error("User not found");
             }
 
-            // Mock ZK verification (replace with actual ZK verification logic)
-            boolean isValidProof = mockZKVerification(request.getProof());
+            // Parsed once for the nullifier, the pairing check and storage
+            CompactProof proof = zkProofVerifier.parse(request.getProof());
+
+            // Turn a replayed proof away before any pairing work; claim() below is what enforces it
+            String nullifier = zkProofVerifier.nullifier(request.getCircuitId(), proof);
+            Optional<String> owner = seenProofService.ownerOf(nullifier);
+            if (owner.isPresent() && !owner.get().equals(request.getUserId())) {
+                return ApiResponse.error(PROOF_ALREADY_USED);
+            }
+
+            boolean isValidProof = zkProofVerifier.verify(request.getCircuitId(), proof);
 
             if (!isValidProof) {
                 return ApiResponse.error("Invalid ZK proof");
             }
 
-            // Save ZK proof
+            // A valid proof of the wrong statement (under age, another user) verifies too
+            String rejection = ageProofPolicy.rejection(request.getCircuitId(), userOpt.get().getEmail(),
+                request.getProofHash(), proof.publicSignals());
+            if (rejection != null) {
+                return ApiResponse.error(rejection);
+            }
+
+            if (pastDeadline(deadlineNanos)) {
+                return ApiResponse.error(DEADLINE_PASSED);
+            }
+            if (!seenProofService.claim(nullifier, request.getUserId(), request.getCircuitId())) {
+                return ApiResponse.error(PROOF_ALREADY_USED);
+            }
+
+            // Save ZK proof, over the user's earlier row for the same proof hash if there is one
             ZKProof zkProof = new ZKProof();
+            zkProof.setId(existingProofIds(List.of(request)).get(proofKey(request.getUserId(), request.getProofHash())));
             zkProof.setUserId(request.getUserId());
             zkProof.setProofHash(request.getProofHash());
-            zkProof.setProof((Map<String, Object>) request.getProof());
+            zkProof.setCompactProof(proof);
             zkProof.setVerified(true);
             zkProof.setVerifiedAt(LocalDateTime.now());
 
@@ -166,10 +239,172 @@ public class AuthServiceImpl implements AuthService {
         }
     }
 
-    private boolean mockZKVerification(Object proof) {
-        // Mock verification - always return true for testing
-        // In real implementation, verify the ZK proof here
-        return proof != null;
+    @Override
+    public CompletableFuture<ApiResponse<?>> verifyZKProofAsync(AuthRequest.ZKVerificationRequest request) {
+        long deadlineNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(interactiveDeadlineMs);
+        return zkVerificationExecutor.submit(ZkVerificationExecutor.Priority.INTERACTIVE, interactiveDeadlineMs,
+            () -> verifyZKProof(request, deadlineNanos));
+    }
+
+    @Override
+    public CompletableFuture<ApiResponse<?>> verifyZKProofBatchAsync(AuthRequest.ZKBatchVerificationRequest request) {
+        long deadlineNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(batchDeadlineMs);
+        return zkVerificationExecutor.submit(ZkVerificationExecutor.Priority.BATCH, batchDeadlineMs,
+            () -> verifyZKProofBatch(request, deadlineNanos));
+    }
+
+    @Override
+    public ApiResponse<?> verifyZKProofBatch(AuthRequest.ZKBatchVerificationRequest request) {
+        return verifyZKProofBatch(request, NO_DEADLINE);
+    }
+
+    private ApiResponse<?> verifyZKProofBatch(AuthRequest.ZKBatchVerificationRequest request, long deadlineNanos) {
+        try {
+            List<AuthRequest.ZKVerificationRequest> items = request.getProofs();
+            if (items.size() > maxBatchSize) {
+                return ApiResponse.error("At most " + maxBatchSize + " proofs per batch");
+            }
+
+            Map<String, User> users = new HashMap<>();
+            userRepository.findAllById(items.stream().map(AuthRequest.ZKVerificationRequest::getUserId).distinct().toList())
+                .forEach(user -> users.put(user.getId(), user));
+
+            // Proofs for the same circuit share one multi-pairing; invalid ones are isolated by bisection
+            Map<String, List<Integer>> byCircuit = new LinkedHashMap<>();
+            String[] circuitIds = new String[items.size()];
+            for (int i = 0; i < items.size(); i++) {
+                String circuitId = items.get(i).getCircuitId() != null ? items.get(i).getCircuitId() : request.getCircuitId();
+                circuitIds[i] = circuitId == null ? "" : circuitId;
+                byCircuit.computeIfAbsent(circuitIds[i], id -> new ArrayList<>()).add(i);
+            }
+            // Parsed once for the pairing check, the nullifier and storage; malformed proofs go to
+            // verifyBatch as sent, which reports why
+            CompactProof[] parsed = new CompactProof[items.size()];
+            for (int i = 0; i < items.size(); i++) {
+                try {
+                    parsed[i] = zkProofVerifier.parse(items.get(i).getProof());
+                } catch (IllegalArgumentException e) {
+                    // left null; verifyBatch parses the original again and returns the error
+                }
+            }
+            ZkProofVerifier.BatchResult[] results = new ZkProofVerifier.BatchResult[items.size()];
+            byCircuit.forEach((circuitId, indexes) -> {
+                List<ZkProofVerifier.BatchResult> groupResults;
+                try {
+                    groupResults = zkProofVerifier.verifyBatch(circuitId,
+                        indexes.stream().map(i -> parsed[i] != null ? parsed[i] : items.get(i).getProof()).toList());
+                } catch (IllegalArgumentException e) {
+                    groupResults = indexes.stream().map(i -> new ZkProofVerifier.BatchResult(false, e.getMessage())).toList();
+                }
+                for (int k = 0; k < indexes.size(); k++) {
+                    results[indexes.get(k)] = groupResults.get(k);
+                }
+            });
+
+            // The pairing work is done; a client that has timed out must not see its proofs claimed
+            if (pastDeadline(deadlineNanos)) {
+                return ApiResponse.error(DEADLINE_PASSED);
+            }
+
+            Map<String, String> existingIds = existingProofIds(items);
+            LocalDateTime now = LocalDateTime.now();
+            List<ZKProof> verifiedProofs = new ArrayList<>();
+            Map<String, User> verifiedUsers = new LinkedHashMap<>();
+            List<Map<String, Object>> outcomes = new ArrayList<>(items.size());
+            for (int i = 0; i < items.size(); i++) {
+                AuthRequest.ZKVerificationRequest item = items.get(i);
+                ZkProofVerifier.BatchResult result = results[i];
+                User user = users.get(item.getUserId());
+                boolean verified = user != null && result.valid();
+                String error = user == null ? "User not found" : result.error();
+                if (verified) {
+                    String rejection = ageProofPolicy.rejection(circuitIds[i], user.getEmail(),
+                        item.getProofHash(), parsed[i].publicSignals());
+                    if (rejection != null) {
+                        verified = false;
+                        error = rejection;
+                    }
+                }
+                // Claims run in request order, so a proof repeated within the batch goes to its first user
+                if (verified && !seenProofService.claim(zkProofVerifier.nullifier(circuitIds[i], parsed[i]),
+                        item.getUserId(), circuitIds[i])) {
+                    verified = false;
+                    error = PROOF_ALREADY_USED;
+                }
+
+                Map<String, Object> outcome = new HashMap<>();
+                outcome.put("userId", item.getUserId());
+                outcome.put("proofHash", item.getProofHash());
+                outcome.put("verified", verified);
+                if (!verified) {
+                    outcome.put("error", error);
+                }
+                outcomes.add(outcome);
+                if (!verified) {
+                    continue;
+                }
+
+                ZKProof zkProof = new ZKProof();
+                zkProof.setId(existingIds.get(proofKey(item.getUserId(), item.getProofHash())));
+                zkProof.setUserId(item.getUserId());
+                zkProof.setProofHash(item.getProofHash());
+                zkProof.setCompactProof(parsed[i]);
+                zkProof.setVerified(true);
+                zkProof.setVerifiedAt(now);
+                verifiedProofs.add(zkProof);
+
+                user.setAgeVerified(true);
+                user.setZkProofHash(item.getProofHash());
+                user.setUpdatedAt(now);
+                verifiedUsers.put(user.getId(), user);
+            }
+
+            zkProofRepository.saveAll(verifiedProofs);
+            userRepository.saveAll(verifiedUsers.values());
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("verified", verifiedProofs.size());
+            response.put("rejected", items.size() - verifiedProofs.size());
+            response.put("results", outcomes);
+            return ApiResponse.success("Verified " + verifiedProofs.size() + " of " + items.size() + " ZK proofs", response);
+
+        } catch (Exception e) {
+            return ApiResponse.error("ZK batch verification failed: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public CompletableFuture<ApiResponse<?>> proveZKAsync(AuthRequest.ZKProveRequest request) {
+        // Proving is heavier than any verification, so it never goes ahead of interactive checks
+        return zkVerificationExecutor.submit(ZkVerificationExecutor.Priority.BATCH, proveDeadlineMs,
+            () -> proveZK(request));
+    }
+
+    @Override
+    public ApiResponse<?> proveZK(AuthRequest.ZKProveRequest request) {
+        if (!zkProver.isEnabled()) {
+            return ApiResponse.error("Server-side proving is disabled");
+        }
+        boolean hasWitness = request.getWitness() != null && !request.getWitness().isEmpty();
+        boolean hasInput = request.getInput() != null && !request.getInput().isEmpty();
+        if (hasWitness == hasInput) {
+            return ApiResponse.error("Provide exactly one of witness or input");
+        }
+        try {
+            if (hasInput) {
+                Witness witness = zkWitnessCalculator.calculate(request.getCircuitId(), request.getInput());
+                return ApiResponse.success("ZK proof generated", zkProver.prove(request.getCircuitId(), witness));
+            }
+            List<BigInteger> witness = new ArrayList<>(request.getWitness().size());
+            for (String value : request.getWitness()) {
+                witness.add(new BigInteger(value.trim()));
+            }
+            return ApiResponse.success("ZK proof generated", zkProver.prove(request.getCircuitId(), witness));
+        } catch (NumberFormatException e) {
+            return ApiResponse.error("ZK proving failed: witness values must be decimal integers");
+        } catch (Exception e) {
+            return ApiResponse.error("ZK proving failed: " + e.getMessage());
+        }
     }
 
     @Override
@@ -181,4 +416,25 @@ public class AuthServiceImpl implements AuthService {
     public String extractEmailFromToken(String token) {
         return jwtUtils.extractEmail(token);
     }
+
+    private static boolean pastDeadline(long deadlineNanos) {
+        return deadlineNanos != NO_DEADLINE && System.nanoTime() - deadlineNanos >= 0;
+    }
+
+    // Ids of rows already stored for these users' proof hashes, so a retried verification (say, after
+    // a timeout that still got its write in) updates them instead of adding duplicates
+    private Map<String, String> existingProofIds(List<AuthRequest.ZKVerificationRequest> items) {
+        List<String> hashes = items.stream().map(AuthRequest.ZKVerificationRequest::getProofHash)
+            .filter(Objects::nonNull).distinct().toList();
+        Map<String, String> ids = new HashMap<>();
+        if (!hashes.isEmpty()) {
+            zkProofRepository.findByProofHashIn(hashes)
+                .forEach(stored -> ids.putIfAbsent(proofKey(stored.getUserId(), stored.getProofHash()), stored.getId()));
+        }
+        return ids;
+    }
+
+    private static String proofKey(String userId, String proofHash) {
+        return userId + "\u0000" + proofHash;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,17 @@
+package com.zkpub.in.service;
+
+import com.zkpub.in.zk.PreparedVerificationKey;
+
+import java.util.Set;
+
+public interface CircuitRegistry {
+
+    // The prepared key for a circuit, loaded and precomputed on first use and cached after;
+    // IllegalArgumentException when no key exists for the id
+    PreparedVerificationKey get(String circuitId);
+
+    // Circuit used for proofs that are not tagged with one
+    String defaultCircuitId();
+
+    Set<String> loadedCircuitIds();
+}
@@ -0,0 +1,109 @@
+package com.zkpub.in.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zkpub.in.zk.PreparedVerificationKey;
+import com.zkpub.in.zk.VerificationKey;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.regex.Pattern;
+
+/**
+ * Verification keys by circuit id, read from {@code <key-dir>/<id>.vkey.json}
+ * (snarkjs verification_key.json). The circuits in {@code zk.circuits.preload}
+ * are parsed and prepared at startup; any other id is loaded the first
+ * time a proof names it. Request threads only ever see prepared keys.
+ */
+@Service
+public class CircuitRegistryImpl implements CircuitRegistry {
+
+    private static final Logger log = LoggerFactory.getLogger(CircuitRegistryImpl.class);
+
+    private static final Pattern CIRCUIT_ID = Pattern.compile("[A-Za-z0-9_-]{1,64}");
+
+    private final ObjectMapper objectMapper;
+    private final Path keyDir;
+    private final List<String> preload;
+    private final String defaultCircuitId;
+    private final ConcurrentMap<String, PreparedVerificationKey> keys = new ConcurrentHashMap<>();
+
+    public CircuitRegistryImpl(ObjectMapper objectMapper,
+                               @Value("${zk.circuits.key-dir:zk-keys}") String keyDir,
+                               @Value("${zk.circuits.preload:}") List<String> preload,
+                               @Value("${zk.circuits.default:age18}") String defaultCircuitId) {
+        this.objectMapper = objectMapper;
+        this.keyDir = Path.of(keyDir);
+        this.preload = preload;
+        this.defaultCircuitId = defaultCircuitId;
+    }
+
+    @PostConstruct
+    void preloadKeys() {
+        for (String circuitId : preload) {
+            if (circuitId.isBlank()) {
+                continue;
+            }
+            try {
+                get(circuitId.trim());
+            } catch (RuntimeException e) {
+                // A missing key only disables that circuit; its proofs are refused until the file appears
+                log.warn("Could not preload verification key for circuit {}: {}", circuitId, e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public PreparedVerificationKey get(String circuitId) {
+        if (circuitId == null) {
+            throw new IllegalArgumentException("Missing circuit id");
+        }
+        PreparedVerificationKey key = keys.get(circuitId);
+        if (key != null) {
+            return key;
+        }
+        if (!CIRCUIT_ID.matcher(circuitId).matches()) {
+            throw new IllegalArgumentException("Invalid circuit id");
+        }
+        // computeIfAbsent keeps concurrent first requests for one circuit from preparing it twice
+        return keys.computeIfAbsent(circuitId, this::load);
+    }
+
+    @Override
+    public String defaultCircuitId() {
+        return defaultCircuitId;
+    }
+
+    @Override
+    public Set<String> loadedCircuitIds() {
+        return Set.copyOf(keys.keySet());
+    }
+
+    private PreparedVerificationKey load(String circuitId) {
+        Path file = keyDir.resolve(circuitId + ".vkey.json");
+        if (!Files.isRegularFile(file)) {
+            throw new IllegalArgumentException("No verification key for circuit " + circuitId);
+        }
+        long start = System.nanoTime();
+        VerificationKey key;
+        try {
+            key = VerificationKey.fromJson(objectMapper.readTree(file.toFile()));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read verification key " + file, e);
+        }
+        PreparedVerificationKey prepared = PreparedVerificationKey.prepare(key);
+        log.info("Prepared verification key for circuit {} ({} public inputs) in {} ms",
+            circuitId, key.publicInputCount(), (System.nanoTime() - start) / 1_000_000);
+        return prepared;
+    }
+}
@@ -0,0 +1,10 @@
+package com.zkpub.in.service;
+
+public interface CryptoPaymentTracker {
+
+    // Check every pending crypto ticket once; returns how many were settled
+    int pollOnce();
+
+    // Delay currently used between polls
+    long currentIntervalMs();
+}
@@ -0,0 +1,294 @@
+package com.zkpub.in.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.mongodb.bulk.BulkWriteResult;
+import com.zkpub.in.model.Ticket;
+import com.zkpub.in.repository.TicketRepository;
+import com.zkpub.in.utils.EthRpcClient;
+import com.zkpub.in.utils.EthRpcClient.RpcCall;
+import com.zkpub.in.utils.EthRpcClient.RpcResponse;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CryptoPaymentTrackerImpl implements CryptoPaymentTracker {
+
+    private static final String METHOD_CRYPTO = "CRYPTO";
+    private static final String STATUS_PENDING = "PENDING";
+    private static final String STATUS_CONFIRMED = "CONFIRMED";
+    private static final String STATUS_FAILED = "FAILED";
+    // Lowercase only, so one transaction cannot hide behind another spelling of its hash
+    private static final Pattern TX_HASH = Pattern.compile("0x[0-9a-f]{64}");
+
+    private final TicketRepository ticketRepository;
+    private final MongoTemplate mongoTemplate;
+    private final EthRpcClient ethRpcClient;
+    private final EventSalesAggregateService eventSalesAggregateService;
+
+    @Value("${zkpub.crypto-tracker.enabled:true}")
+    private boolean enabled;
+
+    @Value("${zkpub.crypto-tracker.payee-address:}")
+    private String payeeAddress;
+
+    @Value("${zkpub.crypto-tracker.wei-per-unit:1000000000000000000}")
+    private BigDecimal weiPerUnit;
+
+    @Value("${zkpub.crypto-tracker.min-confirmations:3}")
+    private int minConfirmations;
+
+    @Value("${zkpub.crypto-tracker.batch-size:100}")
+    private int batchSize;
+
+    @Value("${zkpub.crypto-tracker.max-concurrent-batches:4}")
+    private int maxConcurrentBatches;
+
+    @Value("${zkpub.crypto-tracker.max-pending-per-poll:5000}")
+    private int maxPendingPerPoll;
+
+    @Value("${zkpub.crypto-tracker.min-interval-ms:2000}")
+    private long minIntervalMs;
+
+    @Value("${zkpub.crypto-tracker.max-interval-ms:60000}")
+    private long maxIntervalMs;
+
+    private ScheduledExecutorService scheduler;
+    private Semaphore inFlightBatches;
+    private volatile long intervalMs;
+
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            return;
+        }
+        if (payeeAddress.isBlank()) {
+            // Without it any successful transaction would look like a payment
+            log.warn("Crypto confirmation tracker disabled: zkpub.crypto-tracker.payee-address is not set");
+            return;
+        }
+        payeeAddress = payeeAddress.trim().toLowerCase(Locale.ROOT);
+        inFlightBatches = new Semaphore(maxConcurrentBatches);
+        intervalMs = minIntervalMs;
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "crypto-confirmation-tracker");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.schedule(this::tick, intervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    @Override
+    public long currentIntervalMs() {
+        return intervalMs;
+    }
+
+    private void tick() {
+        try {
+            pollOnce();
+        } catch (Exception e) {
+            log.warn("Crypto confirmation poll failed: {}", e.getMessage());
+            intervalMs = Math.min(intervalMs * 2, maxIntervalMs);
+        } finally {
+            if (!scheduler.isShutdown()) {
+                scheduler.schedule(this::tick, intervalMs, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    @Override
+    public int pollOnce() {
+        List<Ticket> pending = ticketRepository.findWithTxHashByPaymentMethodAndStatus(
+            METHOD_CRYPTO, STATUS_PENDING, PageRequest.of(0, maxPendingPerPoll));
+        if (pending.isEmpty()) {
+            intervalMs = maxIntervalMs;
+            return 0;
+        }
+
+        // A malformed hash, or one that already paid for another ticket, can never confirm this one
+        List<Ticket> failed = new ArrayList<>();
+        List<Ticket> checkable = new ArrayList<>(pending.size());
+        Set<String> claimed = claimedTxHashes(pending);
+        for (Ticket ticket : pending) {
+            String txHash = ticket.getBlockchainTxHash();
+            if (!TX_HASH.matcher(txHash).matches() || !claimed.add(txHash)) {
+                failed.add(ticket);
+            } else {
+                checkable.add(ticket);
+            }
+        }
+
+        // One eth_blockNumber, then a receipt and a transaction lookup per tx in every batch
+        List<CompletableFuture<BatchOutcome>> futures = new ArrayList<>();
+        for (int from = 0; from < checkable.size(); from += batchSize) {
+            List<Ticket> chunk = checkable.subList(from, Math.min(from + batchSize, checkable.size()));
+            List<RpcCall> calls = new ArrayList<>(2 * chunk.size() + 1);
+            calls.add(RpcCall.of("eth_blockNumber"));
+            for (Ticket ticket : chunk) {
+                calls.add(RpcCall.of("eth_getTransactionReceipt", ticket.getBlockchainTxHash()));
+                calls.add(RpcCall.of("eth_getTransactionByHash", ticket.getBlockchainTxHash()));
+            }
+
+            inFlightBatches.acquireUninterruptibly();
+            futures.add(ethRpcClient.batchAsync(calls)
+                .thenApply(responses -> evaluate(chunk, responses))
+                .whenComplete((outcome, error) -> inFlightBatches.release()));
+        }
+
+        // A failed batch is retried next poll; the others are settled regardless
+        List<Ticket> confirmed = new ArrayList<>();
+        int mined = 0;
+        int failedBatches = 0;
+        for (CompletableFuture<BatchOutcome> future : futures) {
+            BatchOutcome outcome;
+            try {
+                outcome = future.join();
+            } catch (CompletionException e) {
+                failedBatches++;
+                log.warn("Crypto confirmation batch failed: {}", e.getCause().getMessage());
+                continue;
+            }
+            confirmed.addAll(outcome.confirmed());
+            failed.addAll(outcome.failed());
+            mined += outcome.awaitingConfirmations();
+        }
+
+        settle(confirmed, failed);
+        if (failedBatches > 0 && failedBatches == futures.size()) {
+            throw new IllegalStateException("All " + failedBatches + " confirmation batches failed");
+        }
+
+        // Poll at block pace while receipts are accumulating confirmations,
+        // back off while every tx is still sitting in the mempool
+        if (!confirmed.isEmpty() || !failed.isEmpty() || mined > 0) {
+            intervalMs = minIntervalMs;
+        } else {
+            intervalMs = Math.min(intervalMs * 2, maxIntervalMs);
+        }
+        return confirmed.size() + failed.size();
+    }
+
+    private BatchOutcome evaluate(List<Ticket> chunk, List<RpcResponse> responses) {
+        RpcResponse head = responses.get(0);
+        if (head.isError()) {
+            throw new IllegalStateException("eth_blockNumber failed: " + head.error());
+        }
+        long headBlock = EthRpcClient.quantity(head.result());
+
+        List<Ticket> confirmed = new ArrayList<>();
+        List<Ticket> failed = new ArrayList<>();
+        int awaiting = 0;
+        for (int i = 0; i < chunk.size(); i++) {
+            RpcResponse response = responses.get(2 * i + 1);
+            RpcResponse txResponse = responses.get(2 * i + 2);
+            JsonNode receipt = response.result();
+            JsonNode tx = txResponse.result();
+            if (response.isError() || receipt == null || receipt.isNull()
+                    || txResponse.isError() || tx == null || tx.isNull()) {
+                continue; // not mined yet or unknown to this node
+            }
+
+            long confirmations = headBlock - EthRpcClient.quantity(receipt.path("blockNumber")) + 1;
+            if (confirmations < minConfirmations) {
+                awaiting++;
+            } else if ("0x1".equals(receipt.path("status").asText()) && paysFor(chunk.get(i), tx)) {
+                confirmed.add(chunk.get(i));
+            } else {
+                failed.add(chunk.get(i));
+            }
+        }
+        return new BatchOutcome(confirmed, failed, awaiting);
+    }
+
+    // A successful transaction only pays for a ticket if it sent at least its price to our wallet
+    private boolean paysFor(Ticket ticket, JsonNode tx) {
+        if (ticket.getAmountPaid() == null || !payeeAddress.equalsIgnoreCase(tx.path("to").asText())) {
+            return false;
+        }
+        String value = tx.path("value").asText("");
+        if (!value.startsWith("0x") || value.length() < 3) {
+            return false;
+        }
+        BigInteger expected = BigDecimal.valueOf(ticket.getAmountPaid()).multiply(weiPerUnit)
+            .setScale(0, RoundingMode.CEILING).toBigIntegerExact();
+        return new BigInteger(value.substring(2), 16).compareTo(expected) >= 0;
+    }
+
+    // Hashes that already confirmed some ticket
+    private Set<String> claimedTxHashes(List<Ticket> pending) {
+        List<String> hashes = pending.stream().map(Ticket::getBlockchainTxHash).toList();
+        Set<String> claimed = new HashSet<>();
+        ticketRepository.findByBlockchainTxHashInAndPaymentStatus(hashes, STATUS_CONFIRMED)
+            .forEach(ticket -> claimed.add(ticket.getBlockchainTxHash()));
+        return claimed;
+    }
+
+    private void settle(List<Ticket> confirmed, List<Ticket> failed) {
+        if (confirmed.isEmpty() && failed.isEmpty()) {
+            return;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Ticket.class);
+        for (Ticket ticket : confirmed) {
+            bulk.updateOne(pendingTicket(ticket),
+                new Update().set("paymentStatus", STATUS_CONFIRMED).set("paymentConfirmedAt", now));
+            ticket.setPaymentConfirmedAt(now);
+        }
+        for (Ticket ticket : failed) {
+            bulk.updateOne(pendingTicket(ticket), new Update().set("paymentStatus", STATUS_FAILED));
+        }
+        BulkWriteResult result = bulk.execute();
+
+        // Only count tickets this poll actually confirmed; another writer may have settled some first
+        List<Ticket> counted = confirmed;
+        if (result.getModifiedCount() < confirmed.size() + failed.size() && !confirmed.isEmpty()) {
+            counted = mongoTemplate.find(Query.query(Criteria.where("_id").in(confirmed.stream().map(Ticket::getId).toList())
+                .and("paymentStatus").is(STATUS_CONFIRMED).and("paymentConfirmedAt").is(now)), Ticket.class);
+        }
+        counted.forEach(eventSalesAggregateService::recordPurchase);
+        log.info("Settled crypto payments: {} confirmed, {} failed", counted.size(), failed.size());
+    }
+
+    private Query pendingTicket(Ticket ticket) {
+        return Query.query(Criteria.where("_id").is(ticket.getId()).and("paymentStatus").is(STATUS_PENDING));
+    }
+
+    private record BatchOutcome(List<Ticket> confirmed, List<Ticket> failed, int awaitingConfirmations) {
+    }
+}
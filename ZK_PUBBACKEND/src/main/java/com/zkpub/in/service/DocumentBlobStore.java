@@ -0,0 +1,54 @@
+package com.zkpub.in.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Content-addressed store for uploaded ID documents. Blobs are named by
+ * their SHA-256 and live under two levels of shard directories, e.g.
+ * {@code ab/cd/abcd...}.
+ */
+public interface DocumentBlobStore {
+
+    // Stream bytes to a temp file, hashing and fsyncing them; nothing is visible yet
+    StagedBlob stage(InputStream content) throws IOException;
+
+    // Publish a staged blob under its hash, reusing one that already exists, then run record
+    // to save whatever refers to it; no release of the same hash can run in between
+    <T> T commit(StagedBlob staged, Supplier<T> record) throws IOException;
+
+    // Throw away a staged blob that will not be kept
+    void discard(StagedBlob staged);
+
+    // Copy a blob to the target channel; returns bytes sent. Only a file or socket channel
+    // avoids copying through a buffer, any other target gets a buffered copy
+    long transferTo(String hash, WritableByteChannel target) throws IOException;
+
+    boolean exists(String hash);
+
+    Path pathFor(String hash);
+
+    // Delete the blob once no IDDocument refers to it any more
+    boolean release(String hash) throws IOException;
+
+    // Walk blobs and records looking for orphans and dangling references
+    ConsistencyReport scan(boolean deleteOrphans) throws IOException;
+
+    record StagedBlob(String hash, long size, Path tempPath) {
+    }
+
+    class ConsistencyReport {
+        public long blobsScanned;
+        public long recordsScanned;
+        public long orphanBlobs;
+        public long orphansDeleted;
+        public long danglingRecords;
+        public List<String> orphanSamples = new ArrayList<>();
+        public List<String> danglingSamples = new ArrayList<>();
+    }
+}
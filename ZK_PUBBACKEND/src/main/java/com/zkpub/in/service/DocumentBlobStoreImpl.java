@@ -0,0 +1,255 @@
+package com.zkpub.in.service;
+
+import com.zkpub.in.model.IDDocument;
+import com.zkpub.in.repository.IDDocumentRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DocumentBlobStoreImpl implements DocumentBlobStore {
+
+    private static final Pattern HASH_PATTERN = Pattern.compile("[0-9a-f]{64}");
+    private static final int SAMPLE_LIMIT = 100;
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+    private static final int LOCK_STRIPES = 64;
+
+    private final IDDocumentRepository idDocumentRepository;
+    private final MongoTemplate mongoTemplate;
+
+    @Value("${zkpub.blob-store.root:uploads/id_documents}")
+    private String rootDir;
+
+    // Blobs younger than this may belong to an upload whose record is not saved yet
+    @Value("${zkpub.blob-store.orphan-grace-minutes:60}")
+    private long orphanGraceMinutes;
+
+    private Path root;
+    private Path tempDir;
+
+    // Commit and release of one hash hold the same stripe, so a blob cannot be deleted between
+    // being reused by an upload and that upload's record being saved
+    private final Object[] locks = newLocks();
+
+    @PostConstruct
+    void init() throws IOException {
+        root = Paths.get(rootDir).toAbsolutePath();
+        // Staging under the root keeps the final rename on one filesystem
+        tempDir = root.resolve("tmp");
+        Files.createDirectories(tempDir);
+    }
+
+    @Override
+    public StagedBlob stage(InputStream content) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+
+        Path tempPath = Files.createTempFile(tempDir, "blob-", ".part");
+        long size = 0;
+        try (ReadableByteChannel in = Channels.newChannel(content);
+             FileChannel out = FileChannel.open(tempPath, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocate(COPY_BUFFER_SIZE);
+            while (in.read(buffer) != -1) {
+                buffer.flip();
+                digest.update(buffer.array(), 0, buffer.limit());
+                while (buffer.hasRemaining()) {
+                    size += out.write(buffer);
+                }
+                buffer.clear();
+            }
+            out.force(true);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(tempPath);
+            throw e;
+        }
+        return new StagedBlob(HexFormat.of().formatHex(digest.digest()), size, tempPath);
+    }
+
+    @Override
+    public <T> T commit(StagedBlob staged, Supplier<T> record) throws IOException {
+        synchronized (lockFor(staged.hash())) {
+            publish(staged);
+            return record.get();
+        }
+    }
+
+    private void publish(StagedBlob staged) throws IOException {
+        Path target = pathFor(staged.hash());
+        if (Files.exists(target)) {
+            // Same content is already stored; never write it twice
+            Files.deleteIfExists(staged.tempPath());
+            return;
+        }
+
+        Files.createDirectories(target.getParent());
+        try {
+            Files.move(staged.tempPath(), target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (FileAlreadyExistsException e) {
+            // Lost a race with an identical upload
+            Files.deleteIfExists(staged.tempPath());
+            return;
+        }
+        syncDirectory(target.getParent());
+    }
+
+    @Override
+    public void discard(StagedBlob staged) {
+        try {
+            Files.deleteIfExists(staged.tempPath());
+        } catch (IOException e) {
+            log.warn("Could not delete staged blob {}: {}", staged.tempPath(), e.getMessage());
+        }
+    }
+
+    @Override
+    public long transferTo(String hash, WritableByteChannel target) throws IOException {
+        try (FileChannel in = FileChannel.open(pathFor(hash), StandardOpenOption.READ)) {
+            long size = in.size();
+            long position = 0;
+            while (position < size) {
+                position += in.transferTo(position, size - position, target);
+            }
+            return size;
+        }
+    }
+
+    @Override
+    public boolean exists(String hash) {
+        return Files.exists(pathFor(hash));
+    }
+
+    @Override
+    public Path pathFor(String hash) {
+        if (hash == null || !HASH_PATTERN.matcher(hash).matches()) {
+            throw new IllegalArgumentException("Invalid blob hash");
+        }
+        return root.resolve(hash.substring(0, 2)).resolve(hash.substring(2, 4)).resolve(hash);
+    }
+
+    @Override
+    public boolean release(String hash) throws IOException {
+        Path path = pathFor(hash);
+        synchronized (lockFor(hash)) {
+            if (idDocumentRepository.countByDocumentHash(hash) > 0) {
+                return false;
+            }
+            return Files.deleteIfExists(path);
+        }
+    }
+
+    @Override
+    public ConsistencyReport scan(boolean deleteOrphans) throws IOException {
+        ConsistencyReport report = new ConsistencyReport();
+        Instant graceCutoff = Instant.now().minus(Duration.ofMinutes(orphanGraceMinutes));
+
+        // Blobs -> records: the directory walk is lazy, so only one path is held at a time
+        try (Stream<Path> blobs = Files.walk(root, 3)) {
+            for (Path blob : (Iterable<Path>) blobs::iterator) {
+                String name = blob.getFileName().toString();
+                if (!Files.isRegularFile(blob) || !HASH_PATTERN.matcher(name).matches()) {
+                    continue;
+                }
+                report.blobsScanned++;
+                if (idDocumentRepository.existsByDocumentHash(name)) {
+                    continue;
+                }
+                if (Files.getLastModifiedTime(blob).toInstant().isAfter(graceCutoff)) {
+                    continue;
+                }
+                report.orphanBlobs++;
+                addSample(report.orphanSamples, name);
+                if (deleteOrphans && release(name)) {
+                    report.orphansDeleted++;
+                }
+            }
+        }
+
+        // Records -> blobs: a Mongo cursor streams only the hash field
+        Query hashesOnly = new Query();
+        hashesOnly.fields().include("documentHash");
+        try (Stream<IDDocument> records = mongoTemplate.stream(hashesOnly, IDDocument.class)) {
+            records.forEach(record -> {
+                report.recordsScanned++;
+                String hash = record.getDocumentHash();
+                if (hash == null || !HASH_PATTERN.matcher(hash).matches() || !exists(hash)) {
+                    report.danglingRecords++;
+                    addSample(report.danglingSamples, record.getId());
+                }
+            });
+        }
+
+        // Staged files left behind by a crash are always safe to remove once old
+        try (DirectoryStream<Path> staged = Files.newDirectoryStream(tempDir)) {
+            for (Path part : staged) {
+                if (Files.getLastModifiedTime(part).toInstant().isBefore(graceCutoff)) {
+                    Files.deleteIfExists(part);
+                }
+            }
+        }
+
+        log.info("Blob store scan: {} blobs, {} records, {} orphans, {} dangling",
+            report.blobsScanned, report.recordsScanned, report.orphanBlobs, report.danglingRecords);
+        return report;
+    }
+
+    private Object lockFor(String hash) {
+        return locks[Math.floorMod(hash.hashCode(), LOCK_STRIPES)];
+    }
+
+    private static Object[] newLocks() {
+        Object[] locks = new Object[LOCK_STRIPES];
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new Object();
+        }
+        return locks;
+    }
+
+    private static void addSample(List<String> samples, String value) {
+        if (samples.size() < SAMPLE_LIMIT) {
+            samples.add(value);
+        }
+    }
+
+    private static void syncDirectory(Path dir) {
+        // Makes the rename durable; not every platform allows opening a directory
+        try (FileChannel channel = FileChannel.open(dir, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            log.debug("Directory fsync not supported for {}: {}", dir, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.zkpub.in.service;
+
+import com.zkpub.in.dto.EventSalesStats;
+import com.zkpub.in.model.Ticket;
+
+import java.util.List;
+
+public interface EventSalesAggregateService {
+
+    // Count a newly sold ticket towards its event; paymentConfirmedAt must be set
+    void recordPurchase(Ticket ticket);
+
+    // Count a ticket that has just been scanned at the door; usedDate must be set
+    void recordCheckIn(Ticket ticket);
+
+    // Current counters for one event, never touches the tickets collection
+    EventSalesStats getEventStats(String eventId);
+
+    // Current counters for every event seen so far
+    List<EventSalesStats> getAllEventStats();
+
+    // Write dirty counters to the snapshot collection
+    void persistSnapshots();
+
+    // Recompute all counters from the tickets collection
+    void rebuild();
+}
@@ -0,0 +1,253 @@
+package com.zkpub.in.service;
+
+import com.zkpub.in.dto.EventSalesStats;
+import com.zkpub.in.model.EventSalesSnapshot;
+import com.zkpub.in.model.Ticket;
+import com.zkpub.in.repository.EventSalesSnapshotRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.ConditionalOperators;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class EventSalesAggregateServiceImpl implements EventSalesAggregateService {
+
+    private final MongoTemplate mongoTemplate;
+    private final EventSalesSnapshotRepository snapshotRepository;
+
+    // Live counters per event
+    private final Map<String, Counters> counters = new ConcurrentHashMap<>();
+
+    // Events whose counters changed since the last snapshot
+    private final Set<String> dirtyEvents = ConcurrentHashMap.newKeySet();
+
+    // Non-null while rebuild() runs; updates are held there instead of touching the counters
+    private volatile Rebuild rebuilding;
+
+    @Override
+    public void recordPurchase(Ticket ticket) {
+        if (ticket == null || ticket.getEventId() == null) {
+            return;
+        }
+        Delta delta = new Delta(ticket.getEventId(), 1, ticket.getAmountPaid() != null ? ticket.getAmountPaid() : 0, 0,
+                ticket.getPaymentConfirmedAt());
+        Rebuild r = rebuilding;
+        if (r == null || !r.hold(delta)) {
+            apply(delta);
+        }
+    }
+
+    @Override
+    public void recordCheckIn(Ticket ticket) {
+        if (ticket == null || ticket.getEventId() == null) {
+            return;
+        }
+        Delta delta = new Delta(ticket.getEventId(), 0, 0, 1, ticket.getUsedDate());
+        Rebuild r = rebuilding;
+        if (r == null || !r.hold(delta)) {
+            apply(delta);
+        }
+    }
+
+    @Override
+    public EventSalesStats getEventStats(String eventId) {
+        Counters c = counters.get(eventId);
+        if (c == null) {
+            return new EventSalesStats(eventId, 0, 0, 0);
+        }
+        return c.toStats(eventId);
+    }
+
+    @Override
+    public List<EventSalesStats> getAllEventStats() {
+        List<EventSalesStats> stats = new ArrayList<>();
+        counters.forEach((eventId, c) -> stats.add(c.toStats(eventId)));
+        return stats;
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${zkpub.aggregates.snapshot-interval-ms:30000}")
+    public void persistSnapshots() {
+        if (dirtyEvents.isEmpty()) {
+            return;
+        }
+
+        List<EventSalesSnapshot> snapshots = new ArrayList<>();
+        for (String eventId : dirtyEvents) {
+            // Remove before reading so an update racing with us re-marks the event
+            dirtyEvents.remove(eventId);
+            Counters c = counters.get(eventId);
+            if (c != null) {
+                snapshots.add(new EventSalesSnapshot(eventId, c.sold.sum(), c.revenue.sum(),
+                        c.checkedIn.sum(), LocalDateTime.now()));
+            }
+        }
+
+        try {
+            snapshotRepository.saveAll(snapshots);
+            log.debug("Persisted {} event sales snapshots", snapshots.size());
+        } catch (Exception e) {
+            log.error("Error persisting event sales snapshots: {}", e.getMessage());
+            snapshots.forEach(s -> dirtyEvents.add(s.getEventId()));
+        }
+    }
+
+    /**
+     * Replaces the counters with totals from the tickets collection. Each
+     * ticket is counted exactly once, by its confirmation (or check-in)
+     * time against a cutoff taken after updates start being held: the
+     * aggregation counts what happened before the cutoff, and of the held
+     * updates only those from the cutoff on are added. Mongo keeps
+     * milliseconds, so both sides compare at that precision, and the cutoff
+     * is rounded up so an update applied just before holding began is always
+     * in the aggregation. Callers write the ticket before recording it.
+     */
+    @Override
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        Rebuild r = new Rebuild();
+        rebuilding = r;
+        LocalDateTime cutoff = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS).plus(1, ChronoUnit.MILLIS);
+
+        Map<String, Totals> rebuilt = new HashMap<>();
+        try {
+            Criteria beforeCutoff = new Criteria().orOperator(
+                    Criteria.where("paymentConfirmedAt").lt(cutoff), Criteria.where("paymentConfirmedAt").is(null));
+            Criteria checkedInBeforeCutoff = new Criteria().andOperator(Criteria.where("isUsed").is(true),
+                    new Criteria().orOperator(Criteria.where("usedDate").lt(cutoff), Criteria.where("usedDate").is(null)));
+            Aggregation aggregation = Aggregation.newAggregation(
+                // Only paid tickets count as sold; legacy tickets have no status or confirmation time
+                Aggregation.match(new Criteria().andOperator(
+                    Criteria.where("paymentStatus").nin("PENDING", "FAILED"), beforeCutoff)),
+                Aggregation.group("eventId")
+                    .count().as("soldCount")
+                    .sum("amountPaid").as("revenue")
+                    .sum(ConditionalOperators.when(checkedInBeforeCutoff).then(1).otherwise(0)).as("checkedInCount")
+            );
+
+            for (Document row : mongoTemplate.aggregate(aggregation, Ticket.class, Document.class)) {
+                String eventId = row.getString("_id");
+                if (eventId == null) {
+                    continue;
+                }
+                rebuilt.put(eventId, new Totals(((Number) row.get("soldCount")).longValue(),
+                        ((Number) row.get("revenue")).doubleValue(), ((Number) row.get("checkedInCount")).longValue()));
+            }
+            log.info("Rebuilt sales aggregates for {} events from tickets", rebuilt.size());
+        } catch (Exception e) {
+            // Keep the current counters, or on startup the last persisted snapshots so dashboards
+            // are not empty; both predate everything held, so all of it is added
+            log.error("Error rebuilding sales aggregates, keeping current counters: {}", e.getMessage());
+            rebuilt.clear();
+            if (counters.isEmpty()) {
+                for (EventSalesSnapshot snapshot : snapshotRepository.findAll()) {
+                    rebuilt.put(snapshot.getEventId(), new Totals(snapshot.getSoldCount(), snapshot.getRevenue(),
+                            snapshot.getCheckedInCount()));
+                }
+            } else {
+                counters.forEach((eventId, c) -> rebuilt.put(eventId, c.totals()));
+            }
+            cutoff = null;
+        }
+
+        // Updates that raced past the null check before rebuilding was set happened before the
+        // cutoff and are in the aggregation, so the counters they touched can simply be replaced
+        Set<String> eventIds = new HashSet<>(counters.keySet());
+        eventIds.addAll(rebuilt.keySet());
+        synchronized (r) {
+            for (String eventId : eventIds) {
+                counters.put(eventId, Counters.of(rebuilt.getOrDefault(eventId, Totals.ZERO)));
+            }
+            for (Delta delta : r.held) {
+                if (cutoff == null || delta.at() == null || !delta.at().truncatedTo(ChronoUnit.MILLIS).isBefore(cutoff)) {
+                    apply(delta);
+                }
+            }
+            r.closed = true;
+            rebuilding = null;
+        }
+        dirtyEvents.addAll(eventIds);
+    }
+
+    private void apply(Delta delta) {
+        Counters c = countersFor(delta.eventId());
+        if (delta.sold() != 0) {
+            c.sold.add(delta.sold());
+            c.revenue.add(delta.revenue());
+        }
+        if (delta.checkedIn() != 0) {
+            c.checkedIn.add(delta.checkedIn());
+        }
+        dirtyEvents.add(delta.eventId());
+    }
+
+    private Counters countersFor(String eventId) {
+        return counters.computeIfAbsent(eventId, id -> new Counters());
+    }
+
+    // Striped adders keep concurrent purchases for the same event from contending
+    private static final class Counters {
+        final LongAdder sold = new LongAdder();
+        final DoubleAdder revenue = new DoubleAdder();
+        final LongAdder checkedIn = new LongAdder();
+
+        EventSalesStats toStats(String eventId) {
+            return new EventSalesStats(eventId, sold.sum(), revenue.sum(), checkedIn.sum());
+        }
+
+        Totals totals() {
+            return new Totals(sold.sum(), revenue.sum(), checkedIn.sum());
+        }
+
+        static Counters of(Totals totals) {
+            Counters c = new Counters();
+            c.sold.add(totals.sold());
+            c.revenue.add(totals.revenue());
+            c.checkedIn.add(totals.checkedIn());
+            return c;
+        }
+    }
+
+    // One purchase or check-in; at is when the ticket was confirmed or scanned
+    private record Delta(String eventId, long sold, double revenue, long checkedIn, LocalDateTime at) {
+    }
+
+    private static final class Rebuild {
+        final List<Delta> held = new ArrayList<>();
+        boolean closed;
+
+        // False once the rebuild has finished, so the caller applies the update itself
+        synchronized boolean hold(Delta delta) {
+            if (closed) {
+                return false;
+            }
+            held.add(delta);
+            return true;
+        }
+    }
+
+    private record Totals(long sold, double revenue, long checkedIn) {
+        static final Totals ZERO = new Totals(0, 0, 0);
+    }
+}
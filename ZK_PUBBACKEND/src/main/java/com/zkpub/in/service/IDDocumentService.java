@@ -4,6 +4,7 @@ import com.zkpub.in.model.IDDocument;
 import com.zkpub.in.model.User;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.nio.channels.WritableByteChannel;
 import java.util.List;
 import java.util.Optional;
 
@@ -27,6 +28,12 @@ public interface IDDocumentService {
     // Complete age verification process
     IDDocument completeAgeVerification(String documentId) throws Exception;
     
+    // True if the login token belongs to the document's owner or to an admin
+    boolean canReadDocument(String token, IDDocument document);
+    
+    // Stream the stored document image to the target channel
+    long writeDocumentContent(String documentId, WritableByteChannel target) throws Exception;
+    
     // Get document by ID
     Optional<IDDocument> getDocumentById(String documentId);
     
@@ -1,24 +1,30 @@
 package com.zkpub.in.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.zkpub.in.model.IDDocument;
 import com.zkpub.in.model.User;
 import com.zkpub.in.repository.IDDocumentRepository;
 import com.zkpub.in.repository.UserRepository;
+import com.zkpub.in.utils.AgeCommitment;
+import com.zkpub.in.utils.DateOfBirthExtractor;
+import com.zkpub.in.utils.JwtUtil;
+import com.zkpub.in.zk.CompactProof;
+import com.zkpub.in.zk.Witness;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
+import java.math.BigInteger;
+import java.nio.channels.WritableByteChannel;
 import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 @Slf4j
 @Service
@@ -27,7 +33,23 @@ public class IDDocumentServiceImpl implements IDDocumentService {
     
     private final IDDocumentRepository idDocumentRepository;
     private final UserRepository userRepository;
-    private final String UPLOAD_DIR = "uploads/id_documents/";
+    private final DocumentBlobStore documentBlobStore;
+    private final OcrEngine ocrEngine;
+    private final OcrImagePreprocessor ocrImagePreprocessor;
+    private final OcrResultCache ocrResultCache;
+    private final DateOfBirthExtractor dateOfBirthExtractor;
+    private final CircuitRegistry circuitRegistry;
+    private final ZkWitnessCalculator zkWitnessCalculator;
+    private final ZkProver zkProver;
+    private final OnChainVerifier onChainVerifier;
+    private final ObjectMapper objectMapper;
+    private final JwtUtil jwtUtil;
+
+    @Value("${zk.proof.min-age:18}")
+    private int minAge;
+
+    @Value("${blockchain.rpc.timeout-ms:10000}")
+    private long rpcTimeoutMs;
     
     @Override
     public IDDocument uploadIDDocument(String userId, MultipartFile file) throws Exception {
@@ -42,31 +64,10 @@ public class IDDocumentServiceImpl implements IDDocumentService {
             throw new IllegalArgumentException("Invalid file type. Only images are allowed.");
         }
         
-        // Create upload directory if it doesn't exist
-        Path uploadPath = Paths.get(UPLOAD_DIR);
-        if (!Files.exists(uploadPath)) {
-            Files.createDirectories(uploadPath);
-        }
-        
-        // Generate unique filename
+        // Stream the upload into the blob store, hashing the bytes as they are written
         String originalFilename = file.getOriginalFilename();
-        String fileExtension = getFileExtension(originalFilename);
-        String uniqueFilename = UUID.randomUUID().toString() + fileExtension;
-        Path filePath = uploadPath.resolve(uniqueFilename);
-        
-        // Save file
-        Files.copy(file.getInputStream(), filePath);
-        
-        // Generate document hash
-        String documentHash = generateFileHash(filePath);
-        
-        // Check if document already exists
-        Optional<IDDocument> existingDoc = idDocumentRepository.findByDocumentHash(documentHash);
-        if (existingDoc.isPresent()) {
-            // Delete the uploaded file since it's a duplicate
-            Files.deleteIfExists(filePath);
-            throw new IllegalArgumentException("This document has already been uploaded");
-        }
+        DocumentBlobStore.StagedBlob staged = documentBlobStore.stage(file.getInputStream());
+        String documentHash = staged.hash();
         
         // Create ID document record
         IDDocument document = new IDDocument(
@@ -77,8 +78,18 @@ public class IDDocumentServiceImpl implements IDDocumentService {
             file.getContentType()
         );
         
-        // Save to database
-        IDDocument savedDocument = idDocumentRepository.save(document);
+        // Check if document already exists before the blob is published
+        IDDocument savedDocument;
+        try {
+            Optional<IDDocument> existingDoc = idDocumentRepository.findByDocumentHash(documentHash);
+            if (existingDoc.isPresent()) {
+                throw new IllegalArgumentException("This document has already been uploaded");
+            }
+            // Save to database while the blob cannot be released
+            savedDocument = documentBlobStore.commit(staged, () -> idDocumentRepository.save(document));
+        } finally {
+            documentBlobStore.discard(staged);
+        }
         
         log.info("ID document uploaded successfully: {}", savedDocument.getId());
         return savedDocument;
@@ -91,9 +102,14 @@ public class IDDocumentServiceImpl implements IDDocumentService {
         IDDocument document = idDocumentRepository.findById(documentId)
             .orElseThrow(() -> new IllegalArgumentException("Document not found"));
         
-        // TODO: Implement actual OCR using API Ninjas or other service
-        // For now, return mock extracted text
-        String extractedText = "MOCK EXTRACTED TEXT - Birth Year: 1995";
+        // Run OCR on the stored blob; the document hash doubles as the cache key
+        OcrImage image = OcrImage.of(documentBlobStore.pathFor(document.getDocumentHash()),
+            document.getOriginalFileName(), document.getMimeType());
+        String extractedText = ocrResultCache.getOrLoad(document.getDocumentHash(), () ->
+            ocrImagePreprocessor.prepareAsync(image)
+                .thenCompose(ocrEngine::recognize)
+                .thenApply(text -> new OcrResultCache.LoadResult(text, true)))
+            .join();
         
         // Update document with extracted text
         document.setExtractedText(extractedText);
@@ -111,9 +127,10 @@ public class IDDocumentServiceImpl implements IDDocumentService {
         IDDocument document = idDocumentRepository.findById(documentId)
             .orElseThrow(() -> new IllegalArgumentException("Document not found"));
         
-        // TODO: Implement actual birth year parsing logic
-        // For now, return mock birth year
-        String birthYear = "1995";
+        String text = extractedText != null ? extractedText : document.getExtractedText();
+        String birthYear = dateOfBirthExtractor.extract(text)
+            .map(dateOfBirth -> String.valueOf(dateOfBirth.year()))
+            .orElseThrow(() -> new IllegalArgumentException("No date of birth found in document text"));
         
         // Update document with parsed birth year
         document.setBirthYear(birthYear);
@@ -135,14 +152,36 @@ public class IDDocumentServiceImpl implements IDDocumentService {
             throw new IllegalStateException("Birth year must be parsed before generating ZK proof");
         }
         
-        // TODO: Implement actual ZK proof generation
-        // For now, create mock ZK proof data
-        String zkProofData = "{\"proof\":\"mock_proof_data\",\"publicSignals\":[\"18\",\"2024\"]}";
-        String zkProofHash = generateHash(zkProofData);
+        // The age circuit's inputs; the salt keeps the commitment from revealing the birth year
+        int birthYear = Integer.parseInt(document.getBirthYear().trim());
+        int currentYear = LocalDateTime.now().getYear();
+        BigInteger salt = AgeCommitment.newSalt();
+        BigInteger publicHash = AgeCommitment.publicHash(document.getUserId());
+
+        CompactProof zkProof = null;
+        String zkProofData = null;
+        String circuitId = circuitRegistry.defaultCircuitId();
+        if (zkProver.isEnabled() && zkWitnessCalculator.hasCircuit(circuitId)) {
+            Map<String, Object> input = new HashMap<>();
+            input.put("birthYear", birthYear);
+            input.put("salt", salt);
+            input.put("minAge", minAge);
+            input.put("currentYear", currentYear);
+            input.put("publicHash", publicHash);
+            Witness witness = zkWitnessCalculator.calculate(circuitId, input);
+            zkProof = CompactProof.fromJson(objectMapper.valueToTree(zkProver.prove(circuitId, witness)));
+        } else {
+            // No proving key or circuit WASM deployed: keep the placeholder the later stages expect
+            zkProofData = "{\"proof\":\"mock_proof_data\",\"publicSignals\":[\"18\",\"2024\"]}";
+        }
+        // The circuit's commitment output, so the stored hash is checkable against the proof
+        String zkProofHash = AgeCommitment.toHex(AgeCommitment.commit(currentYear - birthYear, birthYear, salt, publicHash));
         
         // Update document with ZK proof
+        document.setZkCompactProof(zkProof);
         document.setZkProofData(zkProofData);
         document.setZkProofHash(zkProofHash);
+        document.setZkCommitmentSalt(salt.toString());
         document.setUpdatedAt(LocalDateTime.now());
         
         IDDocument savedDocument = idDocumentRepository.save(document);
@@ -162,9 +201,24 @@ public class IDDocumentServiceImpl implements IDDocumentService {
             throw new IllegalStateException("ZK proof must be generated before blockchain verification");
         }
         
-        // TODO: Implement actual blockchain verification
-        // For now, simulate successful verification
-        String blockchainTxHash = "0x" + UUID.randomUUID().toString().replace("-", "");
+        String blockchainTxHash = null;
+        CompactProof proof = document.getZkCompactProof();
+        if (onChainVerifier.isEnabled()) {
+            // With a verifier contract configured only a real proof it accepts counts
+            if (proof == null) {
+                throw new IllegalStateException("No ZK proof to verify on chain; enable the prover to generate one");
+            }
+            // A view call: the verifier contract's answer, with no transaction to record
+            boolean valid = onChainVerifier.verify(proof.proof(), proof.publicSignals())
+                .get(rpcTimeoutMs, TimeUnit.MILLISECONDS);
+            if (!valid) {
+                throw new IllegalStateException("ZK proof was rejected by the on-chain verifier");
+            }
+        } else {
+            // No verifier contract configured: simulate it for development
+            log.warn("On-chain verification simulated for document: {}", documentId);
+            blockchainTxHash = "0x" + UUID.randomUUID().toString().replace("-", "");
+        }
         
         // Update document with blockchain verification
         document.setZkProofVerified(true);
@@ -208,6 +262,25 @@ public class IDDocumentServiceImpl implements IDDocumentService {
         return savedDocument;
     }
     
+    @Override
+    public boolean canReadDocument(String token, IDDocument document) {
+        if (token == null || !jwtUtil.validateToken(token)) {
+            return false;
+        }
+        // Documents are filed under the uploader's email (IDDocument.userId), not the user's id
+        return userRepository.findByEmail(jwtUtil.extractEmail(token))
+            .map(user -> user.getRole() == User.Role.ADMIN || user.getEmail().equals(document.getUserId()))
+            .orElse(false);
+    }
+    
+    @Override
+    public long writeDocumentContent(String documentId, WritableByteChannel target) throws Exception {
+        IDDocument document = idDocumentRepository.findById(documentId)
+            .orElseThrow(() -> new IllegalArgumentException("Document not found"));
+        
+        return documentBlobStore.transferTo(document.getDocumentHash(), target);
+    }
+    
     @Override
     public Optional<IDDocument> getDocumentById(String documentId) {
         return idDocumentRepository.findById(documentId);
@@ -248,7 +321,11 @@ public class IDDocumentServiceImpl implements IDDocumentService {
     @Override
     public boolean deleteDocument(String documentId) {
         try {
+            Optional<IDDocument> document = idDocumentRepository.findById(documentId);
             idDocumentRepository.deleteById(documentId);
+            if (document.isPresent() && document.get().getDocumentHash() != null) {
+                documentBlobStore.release(document.get().getDocumentHash());
+            }
             return true;
         } catch (Exception e) {
             log.error("Error deleting document: {}", e.getMessage());
@@ -270,42 +347,4 @@ public class IDDocumentServiceImpl implements IDDocumentService {
         String contentType = file.getContentType();
         return contentType != null && contentType.startsWith("image/");
     }
-    
-    private String getFileExtension(String filename) {
-        if (filename == null || !filename.contains(".")) {
-            return "";
-        }
-        return filename.substring(filename.lastIndexOf("."));
-    }
-    
-    private String generateFileHash(Path filePath) throws IOException, NoSuchAlgorithmException {
-        byte[] fileBytes = Files.readAllBytes(filePath);
-        MessageDigest digest = MessageDigest.getInstance("SHA-256");
-        byte[] hashBytes = digest.digest(fileBytes);
-        
-        StringBuilder hexString = new StringBuilder();
-        for (byte b : hashBytes) {
-            String hex = Integer.toHexString(0xff & b);
-            if (hex.length() == 1) {
-                hexString.append('0');
-            }
-            hexString.append(hex);
-        }
-        return hexString.toString();
-    }
-    
-    private String generateHash(String data) throws NoSuchAlgorithmException {
-        MessageDigest digest = MessageDigest.getInstance("SHA-256");
-        byte[] hashBytes = digest.digest(data.getBytes());
-        
-        StringBuilder hexString = new StringBuilder();
-        for (byte b : hashBytes) {
-            String hex = Integer.toHexString(0xff & b);
-            if (hex.length() == 1) {
-                hexString.append('0');
-            }
-            hexString.append(hex);
-        }
-        return hexString.toString();
-    }
 }
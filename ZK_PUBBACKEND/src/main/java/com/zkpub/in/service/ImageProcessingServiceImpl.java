@@ -5,23 +5,31 @@ import com.zkpub.in.model.IDDocument;
 import com.zkpub.in.model.User;
 import com.zkpub.in.repository.IDDocumentRepository;
 import com.zkpub.in.repository.UserRepository;
+import com.zkpub.in.utils.AgeCommitment;
+import com.zkpub.in.utils.DateOfBirthExtractor;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigInteger;
+import java.security.DigestInputStream;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.HashMap;
+import java.util.HexFormat;
 import java.util.Map;
 import java.util.Optional;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 @Service
 public class ImageProcessingServiceImpl implements ImageProcessingService {
@@ -30,65 +38,42 @@ public class ImageProcessingServiceImpl implements ImageProcessingService {
     
     private final IDDocumentRepository idDocumentRepository;
     private final UserRepository userRepository;
+    private final OcrEngine ocrEngine;
+    private final OcrImagePreprocessor ocrImagePreprocessor;
+    private final OcrResultCache ocrResultCache;
+    private final DateOfBirthExtractor dateOfBirthExtractor;
+    private final MongoTemplate mongoTemplate;
     
     // Constructor injection
-    public ImageProcessingServiceImpl(IDDocumentRepository idDocumentRepository, UserRepository userRepository) {
+    public ImageProcessingServiceImpl(IDDocumentRepository idDocumentRepository, UserRepository userRepository,
+                                      OcrEngine ocrEngine, OcrImagePreprocessor ocrImagePreprocessor,
+                                      OcrResultCache ocrResultCache, DateOfBirthExtractor dateOfBirthExtractor,
+                                      MongoTemplate mongoTemplate) {
         this.idDocumentRepository = idDocumentRepository;
         this.userRepository = userRepository;
+        this.ocrEngine = ocrEngine;
+        this.ocrImagePreprocessor = ocrImagePreprocessor;
+        this.ocrResultCache = ocrResultCache;
+        this.dateOfBirthExtractor = dateOfBirthExtractor;
+        this.mongoTemplate = mongoTemplate;
     }
 
     @Override
     public ApiResponse<?> processIdDocument(MultipartFile image, String email) {
         try {
-            // Generate document hash
-            String documentHash = generateDocumentHash(image);
-            
-            // Extract text from image using OCR (mock implementation)
-            String extractedText = extractTextFromImage(image);
-            
-            // Parse birth year from text
-            Integer birthYear = parseBirthYearFromText(extractedText);
-            
-            if (birthYear == null) {
+            DocumentAnalysis analysis = analyze(image);
+            if (analysis == null) {
                 return ApiResponse.error("Could not extract birth year from document");
             }
             
-            // Check if user is 18+
-            int currentYear = LocalDate.now().getYear();
-            int age = currentYear - birthYear;
-            boolean isAgeVerified = age >= 18;
-            
-            // Save or update ID document
-            Optional<IDDocument> existingDoc = idDocumentRepository.findByUserId(email);
-            IDDocument idDocument;
-            
-            if (existingDoc.isPresent()) {
-                idDocument = existingDoc.get();
-                idDocument.setDocumentHash(documentHash);
-                idDocument.setUpdatedAt(LocalDateTime.now());
-            } else {
-                idDocument = new IDDocument();
-                idDocument.setUserId(email);
-                idDocument.setDocumentHash(documentHash);
-                idDocument.setOriginalFileName(image.getOriginalFilename());
-                idDocument.setFileSize(image.getSize());
-                idDocument.setMimeType(image.getContentType());
-                idDocument.setExtractedText(extractedText);
-                idDocument.setBirthYear(birthYear.toString());
-                idDocument.setVerifiedAge(age);
-                idDocument.setUploadedAt(LocalDateTime.now());
-                idDocument.setUpdatedAt(LocalDateTime.now());
-            }
-            
-            idDocument.setIsAgeVerified(isAgeVerified);
-            idDocumentRepository.save(idDocument);
+            upsertDocument(email, image, analysis, null, null);
             
             Map<String, Object> response = new HashMap<>();
-            response.put("documentHash", documentHash);
-            response.put("extractedText", extractedText);
-            response.put("birthYear", birthYear);
-            response.put("age", age);
-            response.put("isAgeVerified", isAgeVerified);
+            response.put("documentHash", analysis.documentHash());
+            response.put("extractedText", analysis.extractedText());
+            response.put("birthYear", analysis.birthYear());
+            response.put("age", analysis.age());
+            response.put("isAgeVerified", analysis.isAgeVerified());
             
             return ApiResponse.success("Document processed successfully", response);
             
@@ -101,40 +86,26 @@ public class ImageProcessingServiceImpl implements ImageProcessingService {
     @Override
     public ApiResponse<?> generateZKProof(MultipartFile image, String email) {
         try {
-            // First process the document
-            ApiResponse<?> processResult = processIdDocument(image, email);
-            
-            if (!processResult.isSuccess()) {
-                return processResult;
+            DocumentAnalysis analysis = analyze(image);
+            if (analysis == null) {
+                return ApiResponse.error("Could not extract birth year from document");
             }
             
-            @SuppressWarnings("unchecked")
-            Map<String, Object> processData = (Map<String, Object>) processResult.getData();
-            
-            Integer birthYear = (Integer) processData.get("birthYear");
-            boolean isAgeVerified = (Boolean) processData.get("isAgeVerified");
-            
-            if (!isAgeVerified) {
+            if (!analysis.isAgeVerified()) {
+                // Still record what was read, as processIdDocument would have
+                upsertDocument(email, image, analysis, null, null);
                 return ApiResponse.error("Age verification failed. Must be 18+ to generate ZK proof.");
             }
             
-            // Generate ZK proof hash (mock implementation)
-            String zkProofHash = generateZKProofHash(email, birthYear);
+            BigInteger salt = AgeCommitment.newSalt();
+            String zkProofHash = generateZKProofHash(email, analysis, salt);
             
-            // Update ID document with ZK proof
-            Optional<IDDocument> idDocumentOpt = idDocumentRepository.findByUserId(email);
-            if (idDocumentOpt.isPresent()) {
-                IDDocument idDocument = idDocumentOpt.get();
-                idDocument.setZkProofHash(zkProofHash);
-                idDocument.setIsAgeVerified(true);
-                idDocument.setVerificationDate(LocalDateTime.now());
-                idDocument.setUpdatedAt(LocalDateTime.now());
-                idDocumentRepository.save(idDocument);
-            }
+            // Document fields and proof land in a single write
+            upsertDocument(email, image, analysis, zkProofHash, salt);
             
             Map<String, Object> response = new HashMap<>();
             response.put("zkProofHash", zkProofHash);
-            response.put("birthYear", birthYear);
+            response.put("birthYear", analysis.birthYear());
             response.put("isAgeVerified", true);
             response.put("verificationTimestamp", LocalDateTime.now());
             
@@ -146,6 +117,51 @@ public class ImageProcessingServiceImpl implements ImageProcessingService {
         }
     }
 
+    // One hash, one OCR (or cache hit) and one parse; null when no birth year could be found
+    private DocumentAnalysis analyze(MultipartFile image) throws IOException, NoSuchAlgorithmException {
+        // Hash first so repeated uploads of the same image never reach OCR again
+        String documentHash = generateDocumentHash(image);
+        String extractedText = ocrResultCache.getOrLoad(documentHash, () ->
+            ocrImagePreprocessor.prepareAsync(OcrImage.of(image))
+                .thenCompose(ocrEngine::recognize)
+                .thenApply(text -> new OcrResultCache.LoadResult(text, true)))
+            .join();
+        
+        Optional<DateOfBirthExtractor.DateOfBirth> dateOfBirth = dateOfBirthExtractor.extract(extractedText);
+        if (dateOfBirth.isEmpty()) {
+            return null;
+        }
+        
+        // Check if user is 18+, to the day when the full date was printed
+        int birthYear = dateOfBirth.get().year();
+        int age = dateOfBirth.get().ageOn(LocalDate.now());
+        return new DocumentAnalysis(documentHash, extractedText, birthYear, age, age >= 18);
+    }
+
+    // Creates or updates the user's ID document in one round trip
+    private void upsertDocument(String email, MultipartFile image, DocumentAnalysis analysis, String zkProofHash,
+                                BigInteger salt) {
+        LocalDateTime now = LocalDateTime.now();
+        Update update = new Update()
+            .set("documentHash", analysis.documentHash())
+            .set("originalFileName", image.getOriginalFilename())
+            .set("fileSize", image.getSize())
+            .set("mimeType", image.getContentType())
+            .set("extractedText", analysis.extractedText())
+            .set("birthYear", analysis.birthYear().toString())
+            .set("verifiedAge", analysis.age())
+            .set("isAgeVerified", analysis.isAgeVerified())
+            .set("updatedAt", now)
+            .setOnInsert("zkProofVerified", false)
+            .setOnInsert("uploadedAt", now);
+        if (zkProofHash != null) {
+            update.set("zkProofHash", zkProofHash)
+                .set("zkCommitmentSalt", salt.toString())
+                .set("verificationDate", now);
+        }
+        mongoTemplate.upsert(Query.query(Criteria.where("userId").is(email)), update, IDDocument.class);
+    }
+
     @Override
     public ApiResponse<?> verifyAge(String email) {
         try {
@@ -172,136 +188,24 @@ public class ImageProcessingServiceImpl implements ImageProcessingService {
         }
     }
 
+    // Streams the upload through the digest in fixed-size chunks
     private String generateDocumentHash(MultipartFile image) throws IOException, NoSuchAlgorithmException {
         MessageDigest digest = MessageDigest.getInstance("SHA-256");
-        byte[] hash = digest.digest(image.getBytes());
-        StringBuilder hexString = new StringBuilder();
-        for (byte b : hash) {
-            String hex = Integer.toHexString(0xff & b);
-            if (hex.length() == 1) {
-                hexString.append('0');
-            }
-            hexString.append(hex);
-        }
-        return hexString.toString();
-    }
-
-    private String extractTextFromImage(MultipartFile image) {
-        try {
-            // Use API Ninjas for real OCR
-            String apiKey = "Yq2RTy89hZ1ucsqvCqQotA==gn0wjsRcpLX8G834";
-            String apiUrl = "https://api.api-ninjas.com/v1/imagetotext";
-            
-            // Create multipart request
-            java.net.URL url = new java.net.URL(apiUrl);
-            java.net.HttpURLConnection connection = (java.net.HttpURLConnection) url.openConnection();
-            connection.setRequestMethod("POST");
-            connection.setRequestProperty("X-Api-Key", apiKey);
-            connection.setDoOutput(true);
-            
-            // Create multipart form data
-            String boundary = "----WebKitFormBoundary" + System.currentTimeMillis();
-            connection.setRequestProperty("Content-Type", "multipart/form-data; boundary=" + boundary);
-            
-            try (java.io.OutputStream outputStream = connection.getOutputStream();
-                 java.io.PrintWriter writer = new java.io.PrintWriter(new java.io.OutputStreamWriter(outputStream, "UTF-8"))) {
-                
-                // Add image file
-                writer.append("--" + boundary).append("\r\n");
-                writer.append("Content-Disposition: form-data; name=\"image\"; filename=\"" + image.getOriginalFilename() + "\"").append("\r\n");
-                writer.append("Content-Type: " + image.getContentType()).append("\r\n");
-                writer.append("\r\n");
-                writer.flush();
-                
-                // Write image bytes
-                outputStream.write(image.getBytes());
-                outputStream.flush();
-                
-                // End boundary
-                writer.append("\r\n").append("--" + boundary + "--").append("\r\n");
-                writer.flush();
-            }
-            
-            // Read response
-            int responseCode = connection.getResponseCode();
-            if (responseCode == 200) {
-                try (java.io.BufferedReader reader = new java.io.BufferedReader(
-                        new java.io.InputStreamReader(connection.getInputStream()))) {
-                    StringBuilder response = new StringBuilder();
-                    String line;
-                    while ((line = reader.readLine()) != null) {
-                        response.append(line);
-                    }
-                    
-                    // Parse JSON response to extract text
-                    String jsonResponse = response.toString();
-                    log.info("API Ninjas Response: {}", jsonResponse);
-                    
-                    // Simple JSON parsing to extract text field
-                    if (jsonResponse.contains("\"text\"")) {
-                        int startIndex = jsonResponse.indexOf("\"text\":\"") + 8;
-                        int endIndex = jsonResponse.indexOf("\"", startIndex);
-                        if (startIndex > 7 && endIndex > startIndex) {
-                            return jsonResponse.substring(startIndex, endIndex);
-                        }
-                    }
-                    
-                    // Fallback: return the full response if parsing fails
-                    return jsonResponse;
-                }
-            } else {
-                log.error("API Ninjas request failed with code: {}", responseCode);
-                // Fallback to mock data for testing
-                return "Name: John Doe\nDOB: 15/03/1995\nID: 123456789\nAddress: 123 Main St";
-            }
-            
-        } catch (Exception e) {
-            log.error("Error calling API Ninjas OCR", e);
-            // Fallback to mock data for testing
-            return "Name: John Doe\nDOB: 15/03/1995\nID: 123456789\nAddress: 123 Main St";
+        try (InputStream in = new DigestInputStream(image.getInputStream(), digest)) {
+            in.transferTo(OutputStream.nullOutputStream());
         }
+        return HexFormat.of().formatHex(digest.digest());
     }
 
-    private Integer parseBirthYearFromText(String text) {
-        // Look for various date patterns
-        Pattern[] patterns = {
-            Pattern.compile("DOB[\\s:]*\\d{1,2}[/-]\\d{1,2}[/-](\\d{4})"),
-            Pattern.compile("Date of Birth[\\s:]*\\d{1,2}[/-]\\d{1,2}[/-](\\d{4})"),
-            Pattern.compile("Birth[\\s:]*\\d{1,2}[/-]\\d{1,2}[/-](\\d{4})"),
-            Pattern.compile("(\\d{4})[/-]\\d{1,2}[/-]\\d{1,2}"), // YYYY/MM/DD format
-            Pattern.compile("\\b(19\\d{2}|20\\d{2})\\b") // Any 4-digit year
-        };
-        
-        for (Pattern pattern : patterns) {
-            Matcher matcher = pattern.matcher(text);
-            if (matcher.find()) {
-                try {
-                    int year = Integer.parseInt(matcher.group(1));
-                    // Validate year range (1900-2024)
-                    if (year >= 1900 && year <= 2024) {
-                        return year;
-                    }
-                } catch (NumberFormatException e) {
-                    // Continue to next pattern
-                }
-            }
-        }
-        
-        return null;
+    private record DocumentAnalysis(String documentHash, String extractedText, Integer birthYear,
+                                    int age, boolean isAgeVerified) {
     }
 
-    private String generateZKProofHash(String email, Integer birthYear) throws NoSuchAlgorithmException {
-        String input = email + birthYear + "zk_proof_salt_" + System.currentTimeMillis();
-        MessageDigest digest = MessageDigest.getInstance("SHA-256");
-        byte[] hash = digest.digest(input.getBytes(StandardCharsets.UTF_8));
-        StringBuilder hexString = new StringBuilder();
-        for (byte b : hash) {
-            String hex = Integer.toHexString(0xff & b);
-            if (hex.length() == 1) {
-                hexString.append('0');
-            }
-            hexString.append(hex);
-        }
-        return hexString.toString();
+    // Poseidon commitment as the age circuit outputs it, whose age is the plain year difference; the
+    // salt is stored next to it so the commitment can be recomputed
+    private String generateZKProofHash(String email, DocumentAnalysis analysis, BigInteger salt) {
+        int birthYear = analysis.birthYear();
+        return AgeCommitment.toHex(AgeCommitment.commit(LocalDate.now().getYear() - birthYear, birthYear,
+            salt, AgeCommitment.publicHash(email)));
     }
 }
@@ -0,0 +1,102 @@
+package com.zkpub.in.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import net.sourceforge.tess4j.ITesseract;
+import net.sourceforge.tess4j.Tesseract;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.InputStream;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-process OCR with Tesseract. A Tesseract handle is not thread-safe
+ * and is costly to initialise, so a fixed set of handles, one per core by
+ * default, is created up front and lent out per call. Recognition runs on
+ * a pool of the same size, because it is CPU-bound.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "ocr.engine", havingValue = "local")
+public class LocalOcrEngine implements OcrEngine {
+
+    @Value("${ocr.local.datapath:/usr/share/tesseract-ocr/5/tessdata}")
+    private String datapath;
+
+    @Value("${ocr.local.language:eng}")
+    private String language;
+
+    // 0 means one engine per available core
+    @Value("${ocr.local.pool-size:0}")
+    private int poolSize;
+
+    private BlockingQueue<ITesseract> engines;
+    private ExecutorService workers;
+
+    @PostConstruct
+    void init() {
+        int size = poolSize > 0 ? poolSize : Runtime.getRuntime().availableProcessors();
+        engines = new ArrayBlockingQueue<>(size);
+        for (int i = 0; i < size; i++) {
+            Tesseract tesseract = new Tesseract();
+            tesseract.setDatapath(datapath);
+            tesseract.setLanguage(language);
+            // One-thread-per-engine; parallelism comes from the pool, not from Tesseract
+            tesseract.setVariable("omp_thread_limit", "1");
+            engines.add(tesseract);
+        }
+
+        AtomicInteger threadNo = new AtomicInteger();
+        workers = Executors.newFixedThreadPool(size, r -> {
+            Thread t = new Thread(r, "local-ocr-" + threadNo.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        log.info("Local OCR ready with {} Tesseract engines ({})", size, language);
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        workers.shutdownNow();
+        workers.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    @Override
+    public CompletableFuture<String> recognize(OcrImage image) {
+        return CompletableFuture.supplyAsync(() -> {
+            BufferedImage decoded;
+            try (InputStream in = image.open()) {
+                decoded = ImageIO.read(in);
+            } catch (Exception e) {
+                throw new IllegalStateException("Could not read image: " + e.getMessage(), e);
+            }
+            if (decoded == null) {
+                throw new IllegalArgumentException("Unsupported image format: " + image.contentType());
+            }
+
+            ITesseract engine = engines.poll();
+            if (engine == null) {
+                // Cannot happen while the worker pool and engine pool are the same size
+                throw new IllegalStateException("No OCR engine available");
+            }
+            try {
+                return engine.doOCR(decoded);
+            } catch (Exception e) {
+                throw new IllegalStateException("Local OCR failed: " + e.getMessage(), e);
+            } finally {
+                engines.add(engine);
+            }
+        }, workers);
+    }
+}
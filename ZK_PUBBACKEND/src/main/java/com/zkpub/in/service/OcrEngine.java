@@ -0,0 +1,14 @@
+package com.zkpub.in.service;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Turns an ID image into text. Exactly one implementation is active,
+ * selected with {@code ocr.engine}: {@code local} runs Tesseract in
+ * process, {@code remote} calls the OCR HTTP API. Failures complete the
+ * future exceptionally; engines never substitute made-up text.
+ */
+public interface OcrEngine {
+
+    CompletableFuture<String> recognize(OcrImage image);
+}
@@ -0,0 +1,100 @@
+package com.zkpub.in.service;
+
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * An image handed to an {@link OcrEngine}. The bytes are opened on demand,
+ * so callers can pass an upload or a stored blob without loading it first.
+ */
+public interface OcrImage {
+
+    InputStream open() throws IOException;
+
+    String filename();
+
+    String contentType();
+
+    long size();
+
+    static OcrImage of(MultipartFile file) {
+        return new OcrImage() {
+            @Override
+            public InputStream open() throws IOException {
+                return file.getInputStream();
+            }
+
+            @Override
+            public String filename() {
+                return file.getOriginalFilename();
+            }
+
+            @Override
+            public String contentType() {
+                return file.getContentType();
+            }
+
+            @Override
+            public long size() {
+                return file.getSize();
+            }
+        };
+    }
+
+    static OcrImage of(Path path, String filename, String contentType) {
+        return new OcrImage() {
+            @Override
+            public InputStream open() throws IOException {
+                return Files.newInputStream(path);
+            }
+
+            @Override
+            public String filename() {
+                return filename;
+            }
+
+            @Override
+            public String contentType() {
+                return contentType;
+            }
+
+            @Override
+            public long size() {
+                try {
+                    return Files.size(path);
+                } catch (IOException e) {
+                    return -1;
+                }
+            }
+        };
+    }
+
+    static OcrImage of(byte[] bytes, String filename, String contentType) {
+        return new OcrImage() {
+            @Override
+            public InputStream open() {
+                return new ByteArrayInputStream(bytes);
+            }
+
+            @Override
+            public String filename() {
+                return filename;
+            }
+
+            @Override
+            public String contentType() {
+                return contentType;
+            }
+
+            @Override
+            public long size() {
+                return bytes.length;
+            }
+        };
+    }
+}
@@ -0,0 +1,357 @@
+package com.zkpub.in.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.w3c.dom.NodeList;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.metadata.IIOMetadata;
+import javax.imageio.metadata.IIOMetadataNode;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Shrinks ID photos to what OCR needs before they are sent anywhere:
+ * decode once (subsampled while decoding when the source is far larger
+ * than the target), convert to 8-bit grayscale, scale the long side down
+ * to about 300 DPI for an ID-1 card, turn it upright as the JPEG's EXIF
+ * orientation says (the PNG that goes out has no EXIF to carry it),
+ * straighten small rotations, and
+ * optionally crop to the date-of-birth band. The result is a grayscale
+ * PNG that is typically a small fraction of the camera JPEG.
+ */
+@Slf4j
+@Service
+public class OcrImagePreprocessor {
+
+    private static final double MAX_SKEW_DEGREES = 10;
+    private static final double SKEW_STEP_DEGREES = 0.5;
+    private static final int SKEW_SAMPLE_WIDTH = 400;
+    private static final String JPEG_METADATA = "javax_imageio_jpeg_image_1.0";
+
+    private final boolean enabled;
+    private final int maxLongSide;
+    private final boolean deskew;
+    private final double[] cropFractions;
+    private final ExecutorService workers;
+
+    // An ID-1 card is 85.6 mm wide, so ~1000 px is 300 DPI; the default leaves headroom for loose framing.
+    // The DOB region is x,y,w,h as fractions of the card; empty keeps the whole card.
+    public OcrImagePreprocessor(@Value("${ocr.preprocess.enabled:true}") boolean enabled,
+                                @Value("${ocr.preprocess.max-long-side-px:1600}") int maxLongSide,
+                                @Value("${ocr.preprocess.deskew:true}") boolean deskew,
+                                @Value("${ocr.preprocess.dob-region:}") String dobRegion) {
+        this.enabled = enabled;
+        this.maxLongSide = maxLongSide;
+        this.deskew = deskew;
+        this.cropFractions = parseRegion(dobRegion);
+
+        int cores = Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadNo = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(cores, r -> {
+            Thread t = new Thread(r, "ocr-preprocess-" + threadNo.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    private static double[] parseRegion(String region) {
+        if (region == null || region.isBlank()) {
+            return null;
+        }
+        String[] parts = region.split(",");
+        if (parts.length != 4) {
+            throw new IllegalArgumentException("ocr.preprocess.dob-region must be x,y,w,h");
+        }
+        double[] fractions = new double[4];
+        for (int i = 0; i < 4; i++) {
+            fractions[i] = Double.parseDouble(parts[i].trim());
+        }
+        return fractions;
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        workers.shutdownNow();
+        workers.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    // Pre-processing is CPU-bound, so it runs on a pool sized to the cores
+    public CompletableFuture<OcrImage> prepareAsync(OcrImage source) {
+        if (!enabled) {
+            return CompletableFuture.completedFuture(source);
+        }
+        return CompletableFuture.supplyAsync(() -> prepare(source), workers);
+    }
+
+    public OcrImage prepare(OcrImage source) {
+        if (!enabled) {
+            return source;
+        }
+        try {
+            Decoded decoded = decode(source, maxLongSide);
+            if (decoded == null) {
+                // Not something ImageIO understands; let the OCR engine have a go at it
+                return source;
+            }
+
+            BufferedImage gray = orient(toScaledGray(decoded.image(), maxLongSide), decoded.orientation());
+            if (deskew) {
+                gray = straighten(gray);
+            }
+            if (cropFractions != null) {
+                gray = crop(gray, cropFractions);
+            }
+
+            ByteArrayOutputStream png = new ByteArrayOutputStream(gray.getWidth() * gray.getHeight() / 4);
+            ImageIO.write(gray, "png", png);
+            log.debug("Pre-processed {}: {} -> {} bytes", source.filename(), source.size(), png.size());
+            return OcrImage.of(png.toByteArray(), baseName(source.filename()) + ".png", "image/png");
+        } catch (IOException e) {
+            log.warn("Could not pre-process {}, sending original: {}", source.filename(), e.getMessage());
+            return source;
+        }
+    }
+
+    private record Decoded(BufferedImage image, int orientation) {
+    }
+
+    // Decodes with source subsampling so a 12 MP photo is never fully materialised
+    private static Decoded decode(OcrImage source, int targetLongSide) throws IOException {
+        try (InputStream in = source.open();
+             ImageInputStream imageStream = ImageIO.createImageInputStream(in)) {
+            if (imageStream == null) {
+                return null;
+            }
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(imageStream);
+            if (!readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                // Metadata is read for the EXIF orientation
+                reader.setInput(imageStream, true, false);
+                int longSide = Math.max(reader.getWidth(0), reader.getHeight(0));
+                ImageReadParam param = reader.getDefaultReadParam();
+                // Keep at least twice the target so the final resample still has detail to work with
+                int factor = Math.max(1, longSide / (2 * targetLongSide));
+                param.setSourceSubsampling(factor, factor, 0, 0);
+                BufferedImage image = reader.read(0, param);
+                int orientation;
+                try {
+                    orientation = exifOrientation(reader.getImageMetadata(0));
+                } catch (IOException e) {
+                    // Unreadable metadata should not cost us the pixels
+                    orientation = 1;
+                }
+                return new Decoded(image, orientation);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    // The EXIF orientation tag (1 = upright) from a JPEG's APP1 segment, or 1 when there is none
+    static int exifOrientation(IIOMetadata metadata) {
+        if (metadata == null || !Arrays.asList(metadata.getMetadataFormatNames()).contains(JPEG_METADATA)) {
+            return 1;
+        }
+        NodeList segments = ((IIOMetadataNode) metadata.getAsTree(JPEG_METADATA)).getElementsByTagName("unknown");
+        for (int i = 0; i < segments.getLength(); i++) {
+            IIOMetadataNode segment = (IIOMetadataNode) segments.item(i);
+            if ("225".equals(segment.getAttribute("MarkerTag")) && segment.getUserObject() instanceof byte[] app1) {
+                int orientation = orientationTag(app1);
+                if (orientation != 0) {
+                    return orientation;
+                }
+            }
+        }
+        return 1;
+    }
+
+    // Walks IFD0 of "Exif\0\0" + TIFF for tag 0x0112; 0 when absent or malformed
+    private static int orientationTag(byte[] app1) {
+        if (app1.length < 14 || app1[0] != 'E' || app1[1] != 'x' || app1[2] != 'i' || app1[3] != 'f') {
+            return 0;
+        }
+        ByteBuffer tiff = ByteBuffer.wrap(app1, 6, app1.length - 6).slice();
+        tiff.order(tiff.get(0) == 'I' ? ByteOrder.LITTLE_ENDIAN : ByteOrder.BIG_ENDIAN);
+        try {
+            int ifd = tiff.getInt(4);
+            int entries = tiff.getShort(ifd) & 0xffff;
+            for (int i = 0; i < entries; i++) {
+                int entry = ifd + 2 + 12 * i;
+                if ((tiff.getShort(entry) & 0xffff) == 0x0112) {
+                    int orientation = tiff.getShort(entry + 8) & 0xffff;
+                    return orientation >= 1 && orientation <= 8 ? orientation : 0;
+                }
+            }
+        } catch (IndexOutOfBoundsException e) {
+            // Truncated or corrupt EXIF block
+        }
+        return 0;
+    }
+
+    // Turns the stored pixels upright for EXIF orientations 2-8: mirrors, quarter turns and both
+    static BufferedImage orient(BufferedImage gray, int orientation) {
+        if (orientation <= 1 || orientation > 8) {
+            return gray;
+        }
+        int w = gray.getWidth();
+        int h = gray.getHeight();
+        // Where the stored pixel (x, y) ends up, as x' = m00·x + m01·y + m02, y' = m10·x + m11·y + m12
+        AffineTransform transform = switch (orientation) {
+            case 2 -> new AffineTransform(-1, 0, 0, 1, w, 0);
+            case 3 -> new AffineTransform(-1, 0, 0, -1, w, h);
+            case 4 -> new AffineTransform(1, 0, 0, -1, 0, h);
+            case 5 -> new AffineTransform(0, 1, 1, 0, 0, 0);
+            case 6 -> new AffineTransform(0, 1, -1, 0, h, 0);
+            case 7 -> new AffineTransform(0, -1, -1, 0, h, w);
+            default -> new AffineTransform(0, -1, 1, 0, 0, w);
+        };
+        boolean swap = orientation >= 5;
+        BufferedImage upright = new BufferedImage(swap ? h : w, swap ? w : h, BufferedImage.TYPE_BYTE_GRAY);
+        Graphics2D g = upright.createGraphics();
+        try {
+            g.drawImage(gray, transform, null);
+        } finally {
+            g.dispose();
+        }
+        return upright;
+    }
+
+    static BufferedImage toScaledGray(BufferedImage source, int maxLongSide) {
+        int longSide = Math.max(source.getWidth(), source.getHeight());
+        double scale = longSide > maxLongSide ? (double) maxLongSide / longSide : 1.0;
+        int width = Math.max(1, (int) Math.round(source.getWidth() * scale));
+        int height = Math.max(1, (int) Math.round(source.getHeight() * scale));
+
+        BufferedImage gray = new BufferedImage(width, height, BufferedImage.TYPE_BYTE_GRAY);
+        Graphics2D g = gray.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            g.dispose();
+        }
+        return gray;
+    }
+
+    // Rotates by the angle whose horizontal projection has the sharpest text lines
+    static BufferedImage straighten(BufferedImage gray) {
+        double angle = estimateSkewDegrees(gray);
+        if (Math.abs(angle) < SKEW_STEP_DEGREES) {
+            return gray;
+        }
+
+        BufferedImage rotated = new BufferedImage(gray.getWidth(), gray.getHeight(), BufferedImage.TYPE_BYTE_GRAY);
+        Graphics2D g = rotated.createGraphics();
+        try {
+            g.setColor(Color.WHITE);
+            g.fillRect(0, 0, rotated.getWidth(), rotated.getHeight());
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.drawImage(gray, AffineTransform.getRotateInstance(
+                Math.toRadians(-angle), gray.getWidth() / 2.0, gray.getHeight() / 2.0), null);
+        } finally {
+            g.dispose();
+        }
+        return rotated;
+    }
+
+    static double estimateSkewDegrees(BufferedImage gray) {
+        // Work on a small copy: the angle does not need full resolution
+        BufferedImage sample = toScaledGray(gray, SKEW_SAMPLE_WIDTH);
+        int width = sample.getWidth();
+        int height = sample.getHeight();
+        byte[] pixels = ((DataBufferByte) sample.getRaster().getDataBuffer()).getData();
+
+        long sum = 0;
+        for (byte p : pixels) {
+            sum += p & 0xff;
+        }
+        int threshold = (int) (sum / pixels.length) * 3 / 4;
+
+        int darkCount = 0;
+        int[] xs = new int[pixels.length];
+        int[] ys = new int[pixels.length];
+        for (int y = 0; y < height; y++) {
+            int row = y * width;
+            for (int x = 0; x < width; x++) {
+                if ((pixels[row + x] & 0xff) < threshold) {
+                    xs[darkCount] = x;
+                    ys[darkCount] = y;
+                    darkCount++;
+                }
+            }
+        }
+        if (darkCount < 50) {
+            return 0;
+        }
+
+        int diagonal = (int) Math.ceil(Math.hypot(width, height));
+        int[] bins = new int[2 * diagonal + 1];
+        double bestAngle = 0;
+        double bestScore = -1;
+        for (double angle = -MAX_SKEW_DEGREES; angle <= MAX_SKEW_DEGREES; angle += SKEW_STEP_DEGREES) {
+            double radians = Math.toRadians(angle);
+            double sin = Math.sin(radians);
+            double cos = Math.cos(radians);
+            Arrays.fill(bins, 0);
+            for (int i = 0; i < darkCount; i++) {
+                int bin = (int) Math.round(ys[i] * cos - xs[i] * sin) + diagonal;
+                bins[bin]++;
+            }
+            double score = 0;
+            for (int count : bins) {
+                score += (double) count * count;
+            }
+            if (score > bestScore) {
+                bestScore = score;
+                bestAngle = angle;
+            }
+        }
+        return bestAngle;
+    }
+
+    static BufferedImage crop(BufferedImage image, double[] fractions) {
+        int x = clamp((int) (fractions[0] * image.getWidth()), 0, image.getWidth() - 1);
+        int y = clamp((int) (fractions[1] * image.getHeight()), 0, image.getHeight() - 1);
+        int w = clamp((int) (fractions[2] * image.getWidth()), 1, image.getWidth() - x);
+        int h = clamp((int) (fractions[3] * image.getHeight()), 1, image.getHeight() - y);
+        return image.getSubimage(x, y, w, h);
+    }
+
+    private static int clamp(int value, int min, int max) {
+        return Math.max(min, Math.min(max, value));
+    }
+
+    private static String baseName(String filename) {
+        if (filename == null) {
+            return "document";
+        }
+        int dot = filename.lastIndexOf('.');
+        return dot > 0 ? filename.substring(0, dot) : filename;
+    }
+}
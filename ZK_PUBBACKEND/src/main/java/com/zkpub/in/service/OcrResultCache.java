@@ -0,0 +1,17 @@
+package com.zkpub.in.service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+public interface OcrResultCache {
+
+    // Cached text for the document hash, otherwise the loader's result; concurrent
+    // callers for the same hash share one loader call
+    CompletableFuture<String> getOrLoad(String documentHash, Supplier<CompletableFuture<LoadResult>> loader);
+
+    void invalidate(String documentHash);
+
+    // cacheable is false for results that must not be remembered, such as fallback text
+    record LoadResult(String text, boolean cacheable) {
+    }
+}
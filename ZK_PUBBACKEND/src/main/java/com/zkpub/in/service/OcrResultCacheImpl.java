@@ -0,0 +1,167 @@
+package com.zkpub.in.service;
+
+import com.zkpub.in.model.OcrCacheEntry;
+import com.zkpub.in.repository.OcrCacheEntryRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Two-tier OCR cache: a size-bounded LRU in memory in front of the
+ * ocr_results collection, whose TTL index expires entries on the MongoDB
+ * side. Both tiers are keyed by the document's SHA-256.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class OcrResultCacheImpl implements OcrResultCache {
+
+    private final OcrCacheEntryRepository ocrCacheEntryRepository;
+    private final MongoTemplate mongoTemplate;
+
+    @Value("${ocr.cache.max-entries:10000}")
+    private int maxEntries;
+
+    @Value("${ocr.cache.ttl-minutes:1440}")
+    private long ttlMinutes;
+
+    private Map<String, CachedText> memory;
+    private final Map<String, CompletableFuture<String>> inFlight = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void init() {
+        ensureTtlIndex();
+        memory = new LinkedHashMap<>(1024, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedText> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    // The collection expires entries after the same TTL as the memory tier and the read filter
+    private void ensureTtlIndex() {
+        Duration ttl = Duration.ofMinutes(ttlMinutes);
+        IndexOperations indexOps = mongoTemplate.indexOps(OcrCacheEntry.class);
+        for (IndexInfo info : indexOps.getIndexInfo()) {
+            if (info.isIndexForFields(List.of("createdAt")) && info.getExpireAfter().isPresent()) {
+                if (!info.getExpireAfter().get().equals(ttl)) {
+                    // An index's options cannot be redefined in place; collMod changes the TTL
+                    mongoTemplate.executeCommand(new Document("collMod", mongoTemplate.getCollectionName(OcrCacheEntry.class))
+                        .append("index", new Document("name", info.getName()).append("expireAfterSeconds", ttl.toSeconds())));
+                    log.info("OCR cache TTL index changed from {} to {}", info.getExpireAfter().get(), ttl);
+                }
+                return;
+            }
+        }
+        indexOps.createIndex(new Index().on("createdAt", Sort.Direction.ASC).expire(ttlMinutes, TimeUnit.MINUTES));
+    }
+
+    @Override
+    public CompletableFuture<String> getOrLoad(String documentHash, Supplier<CompletableFuture<LoadResult>> loader) {
+        String cached = fromMemory(documentHash);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+
+        CompletableFuture<String> result = new CompletableFuture<>();
+        CompletableFuture<String> existing = inFlight.putIfAbsent(documentHash, result);
+        if (existing != null) {
+            // Someone is already running OCR on these exact bytes
+            return existing;
+        }
+
+        try {
+            Optional<OcrCacheEntry> stored = ocrCacheEntryRepository.findById(documentHash)
+                .filter(entry -> entry.getCreatedAt().isAfter(LocalDateTime.now().minusMinutes(ttlMinutes)));
+            if (stored.isPresent()) {
+                remember(documentHash, stored.get().getExtractedText());
+                complete(documentHash, result, stored.get().getExtractedText(), null);
+                return result;
+            }
+        } catch (Exception e) {
+            log.warn("OCR cache lookup failed for {}: {}", documentHash, e.getMessage());
+        }
+
+        try {
+            loader.get().whenComplete((loaded, error) -> {
+                if (error == null && loaded.cacheable()) {
+                    remember(documentHash, loaded.text());
+                    persist(documentHash, loaded.text());
+                }
+                complete(documentHash, result, error == null ? loaded.text() : null, error);
+            });
+        } catch (RuntimeException e) {
+            complete(documentHash, result, null, e);
+        }
+        return result;
+    }
+
+    @Override
+    public void invalidate(String documentHash) {
+        synchronized (memory) {
+            memory.remove(documentHash);
+        }
+        ocrCacheEntryRepository.deleteById(documentHash);
+    }
+
+    private String fromMemory(String documentHash) {
+        synchronized (memory) {
+            CachedText cached = memory.get(documentHash);
+            if (cached == null) {
+                return null;
+            }
+            if (cached.expiresAt() < System.currentTimeMillis()) {
+                memory.remove(documentHash);
+                return null;
+            }
+            return cached.text();
+        }
+    }
+
+    private void remember(String documentHash, String text) {
+        long expiresAt = System.currentTimeMillis() + ttlMinutes * 60_000;
+        synchronized (memory) {
+            memory.put(documentHash, new CachedText(text, expiresAt));
+        }
+    }
+
+    private void persist(String documentHash, String text) {
+        try {
+            ocrCacheEntryRepository.save(new OcrCacheEntry(documentHash, text, LocalDateTime.now()));
+        } catch (Exception e) {
+            log.warn("Could not persist OCR result for {}: {}", documentHash, e.getMessage());
+        }
+    }
+
+    private void complete(String documentHash, CompletableFuture<String> result, String text, Throwable error) {
+        inFlight.remove(documentHash, result);
+        if (error != null) {
+            result.completeExceptionally(error);
+        } else {
+            result.complete(text);
+        }
+    }
+
+    private record CachedText(String text, long expiresAt) {
+    }
+}
@@ -0,0 +1,23 @@
+package com.zkpub.in.service;
+
+import com.zkpub.in.zk.Groth16Proof;
+
+import java.math.BigInteger;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+public interface OnChainVerifier {
+
+    // False when no verifier contract address is configured
+    boolean isEnabled();
+
+    // Calls verifyProof on the deployed Verifier.sol with eth_call. Completes with the contract's
+    // answer, false if the call reverts, and exceptionally if the node cannot be reached.
+    CompletableFuture<Boolean> verify(Groth16Proof proof, List<BigInteger> publicSignals);
+
+    Stats stats();
+
+    // batches counts JSON-RPC requests sent; calls counts the verifications they carried
+    record Stats(long calls, long batches, long accepted, long rejected, long failed, int pending) {
+    }
+}
@@ -0,0 +1,184 @@
+package com.zkpub.in.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.zkpub.in.utils.EthRpcClient;
+import com.zkpub.in.utils.EthRpcClient.RpcCall;
+import com.zkpub.in.utils.EthRpcClient.RpcResponse;
+import com.zkpub.in.zk.Groth16Proof;
+import com.zkpub.in.zk.VerifierCalldata;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Verifies proofs against the deployed Verifier.sol with read-only
+ * eth_calls. Callers only enqueue; one dispatcher thread drains whatever
+ * is pending into a JSON-RPC batch (waiting up to linger-ms for a batch to
+ * fill) and sends it over the shared EthRpcClient connection. Under load
+ * a hundred verifications cost one HTTP round trip instead of a hundred.
+ * At most max-concurrent-batches are in flight; beyond that the dispatcher
+ * waits, and new calls keep accumulating into the next batch.
+ */
+@Slf4j
+@Service
+public class OnChainVerifierImpl implements OnChainVerifier {
+
+    private final EthRpcClient ethRpcClient;
+    private final String verifierAddress;
+    private final int maxBatchSize;
+    private final long lingerNanos;
+    private final Semaphore inFlightBatches;
+    private final BlockingQueue<Pending> queue = new LinkedBlockingQueue<>();
+    private final Thread dispatcher;
+    private volatile boolean running = true;
+
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+
+    public OnChainVerifierImpl(EthRpcClient ethRpcClient,
+                               @Value("${blockchain.verifier.address:}") String verifierAddress,
+                               @Value("${blockchain.verifier.max-batch-size:100}") int maxBatchSize,
+                               @Value("${blockchain.verifier.linger-ms:5}") long lingerMs,
+                               @Value("${blockchain.verifier.max-concurrent-batches:4}") int maxConcurrentBatches) {
+        this.ethRpcClient = ethRpcClient;
+        this.verifierAddress = verifierAddress == null ? "" : verifierAddress.trim();
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+        this.lingerNanos = TimeUnit.MILLISECONDS.toNanos(lingerMs);
+        this.inFlightBatches = new Semaphore(Math.max(1, maxConcurrentBatches));
+        this.dispatcher = new Thread(this::dispatch, "onchain-verifier");
+        dispatcher.setDaemon(true);
+        if (!this.verifierAddress.isEmpty()) {
+            dispatcher.start();
+            log.info("On-chain verification against {}: batches of up to {}", this.verifierAddress, this.maxBatchSize);
+        }
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        dispatcher.interrupt();
+        dispatcher.join(TimeUnit.SECONDS.toMillis(5));
+        List<Pending> abandoned = new ArrayList<>();
+        queue.drainTo(abandoned);
+        abandoned.forEach(p -> p.result.completeExceptionally(new RejectedExecutionException("On-chain verifier stopped")));
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return !verifierAddress.isEmpty();
+    }
+
+    @Override
+    public CompletableFuture<Boolean> verify(Groth16Proof proof, List<BigInteger> publicSignals) {
+        if (!isEnabled()) {
+            return CompletableFuture.failedFuture(new IllegalStateException("No verifier contract address configured"));
+        }
+        if (!running) {
+            return CompletableFuture.failedFuture(new RejectedExecutionException("On-chain verifier stopped"));
+        }
+        Pending pending;
+        try {
+            pending = new Pending(VerifierCalldata.encode(proof, publicSignals), new CompletableFuture<>());
+        } catch (IllegalArgumentException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        calls.increment();
+        queue.add(pending);
+        return pending.result;
+    }
+
+    @Override
+    public Stats stats() {
+        return new Stats(calls.sum(), batches.sum(), accepted.sum(), rejected.sum(), failed.sum(), queue.size());
+    }
+
+    private void dispatch() {
+        List<Pending> batch = new ArrayList<>(maxBatchSize);
+        while (running) {
+            try {
+                batch.add(queue.take());
+                queue.drainTo(batch, maxBatchSize - batch.size());
+                // A short linger lets a burst land in one batch rather than a one-call batch and the rest
+                long lingerUntil = System.nanoTime() + lingerNanos;
+                while (batch.size() < maxBatchSize) {
+                    long remaining = lingerUntil - System.nanoTime();
+                    Pending next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : null;
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                    queue.drainTo(batch, maxBatchSize - batch.size());
+                }
+                inFlightBatches.acquire();
+            } catch (InterruptedException e) {
+                batch.forEach(p -> p.result.completeExceptionally(new RejectedExecutionException("On-chain verifier stopped")));
+                Thread.currentThread().interrupt();
+                return;
+            }
+            send(List.copyOf(batch));
+            batch.clear();
+        }
+    }
+
+    private void send(List<Pending> batch) {
+        List<RpcCall> rpcCalls = new ArrayList<>(batch.size());
+        for (Pending p : batch) {
+            rpcCalls.add(RpcCall.of("eth_call", Map.of("to", verifierAddress, "data", p.data), "latest"));
+        }
+        batches.increment();
+        ethRpcClient.batchAsync(rpcCalls).whenComplete((responses, error) -> {
+            inFlightBatches.release();
+            if (error != null) {
+                log.warn("On-chain verification batch of {} failed: {}", batch.size(), error.getMessage());
+                failed.add(batch.size());
+                batch.forEach(p -> p.result.completeExceptionally(error));
+                return;
+            }
+            for (int i = 0; i < batch.size(); i++) {
+                complete(batch.get(i).result, responses.get(i));
+            }
+        });
+    }
+
+    private void complete(CompletableFuture<Boolean> result, RpcResponse response) {
+        if (response.isError()) {
+            // A require() in the verifier fails the call; that is a rejected proof, not an outage
+            if (response.error().contains("revert")) {
+                rejected.increment();
+                result.complete(false);
+            } else {
+                failed.increment();
+                result.completeExceptionally(new IllegalStateException("eth_call failed: " + response.error()));
+            }
+            return;
+        }
+        try {
+            JsonNode value = response.result();
+            boolean valid = VerifierCalldata.decodeBool(value == null ? null : value.asText());
+            (valid ? accepted : rejected).increment();
+            result.complete(valid);
+        } catch (IllegalArgumentException e) {
+            failed.increment();
+            result.completeExceptionally(e);
+        }
+    }
+
+    private record Pending(String data, CompletableFuture<Boolean> result) {
+    }
+}
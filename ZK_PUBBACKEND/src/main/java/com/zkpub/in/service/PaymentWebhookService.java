@@ -0,0 +1,12 @@
+package com.zkpub.in.service;
+
+import com.zkpub.in.dto.ApiResponse;
+
+public interface PaymentWebhookService {
+
+    // Verify, dedupe and enqueue a Razorpay webhook delivery; never touches MongoDB
+    ApiResponse<?> acceptRazorpayWebhook(String rawBody, String signature);
+
+    // Number of payment events waiting to be applied to tickets
+    int pendingEvents();
+}
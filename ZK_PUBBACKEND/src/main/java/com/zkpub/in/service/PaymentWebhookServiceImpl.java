@@ -0,0 +1,263 @@
+package com.zkpub.in.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.bulk.BulkWriteResult;
+import com.zkpub.in.dto.ApiResponse;
+import com.zkpub.in.model.Ticket;
+import com.zkpub.in.repository.TicketRepository;
+import com.zkpub.in.utils.BoundedIdempotencyStore;
+import com.zkpub.in.utils.SigningSecrets;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PaymentWebhookServiceImpl implements PaymentWebhookService {
+
+    private static final String STATUS_PENDING = "PENDING";
+    private static final String STATUS_CONFIRMED = "CONFIRMED";
+    private static final String STATUS_FAILED = "FAILED";
+
+    private final TicketRepository ticketRepository;
+    private final MongoTemplate mongoTemplate;
+    private final EventSalesAggregateService eventSalesAggregateService;
+    private final ObjectMapper objectMapper;
+
+    @Value("${razorpay.webhook.secret}")
+    private String webhookSecret;
+
+    @Value("${zkpub.payments.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${zkpub.payments.batch-size:200}")
+    private int batchSize;
+
+    @Value("${zkpub.payments.idempotency-capacity:100000}")
+    private int idempotencyCapacity;
+
+    @Value("${zkpub.payments.unmatched-retries:5}")
+    private int unmatchedRetries;
+
+    @Value("${zkpub.payments.unmatched-retry-ms:2000}")
+    private long unmatchedRetryMs;
+
+    private BlockingQueue<PaymentEvent> queue;
+    private BoundedIdempotencyStore processedDeliveries;
+    private Thread worker;
+    // Events that arrived before their ticket was written; only touched by the worker thread
+    private final ArrayDeque<Deferred> deferred = new ArrayDeque<>();
+    private volatile boolean running;
+
+    @PostConstruct
+    void start() {
+        SigningSecrets.require("razorpay.webhook.secret", webhookSecret);
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        processedDeliveries = new BoundedIdempotencyStore(idempotencyCapacity);
+        running = true;
+        worker = new Thread(this::drainLoop, "payment-webhook-worker");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        worker.interrupt();
+        worker.join(TimeUnit.SECONDS.toMillis(5));
+    }
+
+    @Override
+    public ApiResponse<?> acceptRazorpayWebhook(String rawBody, String signature) {
+        if (!isValidSignature(rawBody, signature)) {
+            return ApiResponse.error("Invalid webhook signature");
+        }
+
+        PaymentEvent event;
+        try {
+            event = parse(rawBody);
+        } catch (Exception e) {
+            return ApiResponse.error("Malformed webhook payload: " + e.getMessage());
+        }
+        if (event == null) {
+            // Event types we do not act on are acknowledged so Razorpay stops retrying
+            return ApiResponse.success("Webhook ignored", null);
+        }
+
+        if (!processedDeliveries.markIfAbsent(event.dedupeKey())) {
+            return ApiResponse.success("Duplicate webhook ignored", event.paymentId());
+        }
+
+        if (!queue.offer(event)) {
+            // Let the provider retry later instead of blocking the request thread
+            processedDeliveries.forget(event.dedupeKey());
+            throw new IllegalStateException("Payment queue is full");
+        }
+        return ApiResponse.success("Webhook accepted", event.paymentId());
+    }
+
+    @Override
+    public int pendingEvents() {
+        return queue.size();
+    }
+
+    private boolean isValidSignature(String rawBody, String signature) {
+        if (signature == null || signature.isEmpty()) {
+            return false;
+        }
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(webhookSecret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+            byte[] expected = mac.doFinal(rawBody.getBytes(StandardCharsets.UTF_8));
+            byte[] provided = HexFormat.of().parseHex(signature);
+            return MessageDigest.isEqual(expected, provided);
+        } catch (IllegalArgumentException e) {
+            return false;
+        } catch (Exception e) {
+            log.error("Error verifying webhook signature: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    private PaymentEvent parse(String rawBody) throws Exception {
+        JsonNode root = objectMapper.readTree(rawBody);
+        String eventType = root.path("event").asText();
+        String status;
+        if ("payment.captured".equals(eventType)) {
+            status = STATUS_CONFIRMED;
+        } else if ("payment.failed".equals(eventType)) {
+            status = STATUS_FAILED;
+        } else {
+            return null;
+        }
+
+        String paymentId = root.path("payload").path("payment").path("entity").path("id").asText(null);
+        if (paymentId == null || paymentId.isEmpty()) {
+            throw new IllegalArgumentException("payment id missing");
+        }
+        return new PaymentEvent(paymentId, status, 0);
+    }
+
+    private void drainLoop() {
+        List<PaymentEvent> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                long waitNanos = TimeUnit.SECONDS.toNanos(1);
+                if (!deferred.isEmpty()) {
+                    waitNanos = Math.min(waitNanos, Math.max(0, deferred.peek().dueNanos() - System.nanoTime()));
+                }
+                PaymentEvent first = queue.poll(waitNanos, TimeUnit.NANOSECONDS);
+                if (first != null) {
+                    batch.add(first);
+                }
+                // Retries are due in the order they were deferred
+                long now = System.nanoTime();
+                while (!deferred.isEmpty() && deferred.peek().dueNanos() - now <= 0 && batch.size() < batchSize) {
+                    batch.add(deferred.poll().event());
+                }
+                if (batch.isEmpty()) {
+                    continue;
+                }
+                queue.drainTo(batch, batchSize - batch.size());
+                applyBatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.error("Error applying {} payment events: {}", batch.size(), e.getMessage());
+                // Allow provider retries of these deliveries to be processed again
+                batch.forEach(ev -> processedDeliveries.forget(ev.dedupeKey()));
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void applyBatch(List<PaymentEvent> batch) {
+        Map<String, String> statusByPaymentId = batch.stream()
+            .collect(Collectors.toMap(PaymentEvent::paymentId, PaymentEvent::status, (a, b) -> b));
+
+        List<Ticket> pending = ticketRepository.findByPaymentIdInAndPaymentStatus(
+            statusByPaymentId.keySet(), STATUS_PENDING);
+
+        // The webhook can beat the purchase write; try those events again shortly
+        Set<String> matched = pending.stream().map(Ticket::getPaymentId).collect(Collectors.toSet());
+        batch.stream().filter(ev -> !matched.contains(ev.paymentId())).forEach(this::defer);
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Ticket.class);
+        for (Ticket ticket : pending) {
+            String status = statusByPaymentId.get(ticket.getPaymentId());
+            Update update = new Update().set("paymentStatus", status);
+            if (STATUS_CONFIRMED.equals(status)) {
+                update.set("paymentConfirmedAt", now);
+                ticket.setPaymentConfirmedAt(now);
+            }
+            // The status guard keeps a replayed batch from confirming a ticket twice
+            bulk.updateOne(Query.query(Criteria.where("_id").is(ticket.getId())
+                .and("paymentStatus").is(STATUS_PENDING)), update);
+        }
+        BulkWriteResult result = bulk.execute();
+
+        // Count only the tickets this batch confirmed, not ones the tracker or a replay settled first
+        List<Ticket> confirmed = pending.stream()
+            .filter(t -> STATUS_CONFIRMED.equals(statusByPaymentId.get(t.getPaymentId())))
+            .toList();
+        if (result.getModifiedCount() < pending.size() && !confirmed.isEmpty()) {
+            confirmed = mongoTemplate.find(Query.query(Criteria.where("_id").in(confirmed.stream().map(Ticket::getId).toList())
+                .and("paymentStatus").is(STATUS_CONFIRMED).and("paymentConfirmedAt").is(now)), Ticket.class);
+        }
+        confirmed.forEach(eventSalesAggregateService::recordPurchase);
+
+        log.info("Applied {} payment events to {} tickets", batch.size(), pending.size());
+    }
+
+    // Retries an unmatched event later; once out of retries its key is released for a provider resend
+    private void defer(PaymentEvent event) {
+        if (event.attempt() >= unmatchedRetries || deferred.size() >= queueCapacity) {
+            log.warn("No pending ticket for payment {} after {} attempts", event.paymentId(), event.attempt() + 1);
+            processedDeliveries.forget(event.dedupeKey());
+            return;
+        }
+        PaymentEvent retry = new PaymentEvent(event.paymentId(), event.status(), event.attempt() + 1);
+        deferred.add(new Deferred(retry, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(unmatchedRetryMs)));
+    }
+
+    private record PaymentEvent(String paymentId, String status, int attempt) {
+        String dedupeKey() {
+            return status + ":" + paymentId;
+        }
+    }
+
+    private record Deferred(PaymentEvent event, long dueNanos) {
+    }
+}
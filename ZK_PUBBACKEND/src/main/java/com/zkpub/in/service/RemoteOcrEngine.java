@@ -0,0 +1,109 @@
+package com.zkpub.in.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.SequenceInputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * OCR through the API Ninjas HTTP API over a shared HttpClient, so
+ * connections are kept alive and HTTP/2 is used where the server offers
+ * it. The multipart body is streamed from the image's input stream with
+ * chunked transfer.
+ */
+@Service
+@ConditionalOnProperty(name = "ocr.engine", havingValue = "remote", matchIfMissing = true)
+public class RemoteOcrEngine implements OcrEngine {
+
+    private static final Logger log = LoggerFactory.getLogger(RemoteOcrEngine.class);
+
+    private final ObjectMapper objectMapper;
+    private final HttpClient httpClient;
+    private final URI apiUri;
+    private final String apiKey;
+    private final Duration callTimeout;
+
+    public RemoteOcrEngine(ObjectMapper objectMapper,
+                           @Value("${ocr.api.url:https://api.api-ninjas.com/v1/imagetotext}") String apiUrl,
+                           @Value("${ocr.api.key}") String apiKey,
+                           @Value("${ocr.api.connect-timeout-ms:3000}") long connectTimeoutMs,
+                           @Value("${ocr.api.call-timeout-ms:15000}") long callTimeoutMs) {
+        this.objectMapper = objectMapper;
+        this.apiUri = URI.create(apiUrl);
+        this.apiKey = apiKey;
+        this.callTimeout = Duration.ofMillis(callTimeoutMs);
+        this.httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_2)
+            .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+            .build();
+    }
+
+    // Completes when the OCR service has answered or the call deadline has passed
+    @Override
+    public CompletableFuture<String> recognize(OcrImage image) {
+        String boundary = "----ZkPubBoundary" + System.nanoTime();
+        byte[] head = ("--" + boundary + "\r\n"
+            + "Content-Disposition: form-data; name=\"image\"; filename=\"" + image.filename() + "\"\r\n"
+            + "Content-Type: " + image.contentType() + "\r\n"
+            + "\r\n").getBytes(StandardCharsets.UTF_8);
+        byte[] tail = ("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.UTF_8);
+
+        HttpRequest request = HttpRequest.newBuilder(apiUri)
+            .timeout(callTimeout)
+            .header("X-Api-Key", apiKey)
+            .header("Content-Type", "multipart/form-data; boundary=" + boundary)
+            .POST(HttpRequest.BodyPublishers.ofInputStream(() -> {
+                try {
+                    return new SequenceInputStream(new ByteArrayInputStream(head),
+                        new SequenceInputStream(image.open(), new ByteArrayInputStream(tail)));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }))
+            .build();
+
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray())
+            .thenApply(response -> {
+                if (response.statusCode() != 200) {
+                    log.error("OCR request failed with code: {}", response.statusCode());
+                    throw new IllegalStateException("OCR service returned HTTP " + response.statusCode());
+                }
+                return parseText(response.body());
+            });
+    }
+
+    // API Ninjas answers with a list of {text, bounding_box} words
+    private String parseText(byte[] body) {
+        try {
+            JsonNode root = objectMapper.readTree(body);
+            if (root.isArray()) {
+                StringBuilder text = new StringBuilder();
+                for (JsonNode word : root) {
+                    if (text.length() > 0) {
+                        text.append(' ');
+                    }
+                    text.append(word.path("text").asText());
+                }
+                return text.toString();
+            }
+            return root.path("text").asText("");
+        } catch (IOException e) {
+            throw new IllegalStateException("Malformed OCR response", e);
+        }
+    }
+}
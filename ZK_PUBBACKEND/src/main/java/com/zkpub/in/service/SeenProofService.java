@@ -0,0 +1,17 @@
+package com.zkpub.in.service;
+
+import java.util.Optional;
+
+public interface SeenProofService {
+
+    // Cheap negative check against the in-memory filter: false means no account has used the
+    // nullifier; true means "possibly", to be confirmed with ownerOf or claim
+    boolean mightBeSeen(String nullifier);
+
+    // The account that used the nullifier, if any; only reaches the database on a filter hit
+    Optional<String> ownerOf(String nullifier);
+
+    // Records the nullifier for the user. False when another account claimed it first; claiming
+    // a nullifier the user already holds succeeds, so resubmitting one's own proof is harmless.
+    boolean claim(String nullifier, String userId, String circuitId);
+}
@@ -0,0 +1,122 @@
+package com.zkpub.in.service;
+
+import com.zkpub.in.model.ProofNullifier;
+import com.zkpub.in.repository.ProofNullifierRepository;
+import com.zkpub.in.utils.OffHeapBloomFilter;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Nullifiers of every proof accepted so far. The zk_nullifiers collection,
+ * keyed by nullifier, is the source of truth and its unique _id is what
+ * stops two accounts from claiming one proof. An off-heap Bloom filter of
+ * the same keys, rebuilt from the collection at startup, answers the common
+ * case (a proof nobody has used) without a database round trip.
+ */
+@Service
+public class SeenProofServiceImpl implements SeenProofService {
+
+    private static final Logger log = LoggerFactory.getLogger(SeenProofServiceImpl.class);
+
+    private static final int NULLIFIER_HEX_LENGTH = 64;
+
+    private final ProofNullifierRepository nullifierRepository;
+    private final MongoTemplate mongoTemplate;
+    private final long expectedEntries;
+    private final OffHeapBloomFilter filter;
+
+    public SeenProofServiceImpl(ProofNullifierRepository nullifierRepository,
+                                MongoTemplate mongoTemplate,
+                                @Value("${zk.nullifiers.expected-entries:10000000}") long expectedEntries,
+                                @Value("${zk.nullifiers.false-positive-rate:0.001}") double falsePositiveRate) {
+        this.nullifierRepository = nullifierRepository;
+        this.mongoTemplate = mongoTemplate;
+        this.expectedEntries = expectedEntries;
+        this.filter = new OffHeapBloomFilter(expectedEntries, falsePositiveRate);
+    }
+
+    @PostConstruct
+    void rebuildFilter() {
+        long start = System.nanoTime();
+        long count = 0;
+        // A Mongo cursor streams only the ids, so the collection never has to fit in the heap
+        Query idsOnly = new Query();
+        idsOnly.fields().include("_id");
+        try (Stream<ProofNullifier> nullifiers = mongoTemplate.stream(idsOnly, ProofNullifier.class)) {
+            Iterator<ProofNullifier> it = nullifiers.iterator();
+            while (it.hasNext()) {
+                filter.add(toBytes(it.next().getNullifier()));
+                count++;
+            }
+        }
+        log.info("Loaded {} proof nullifiers into a {} KB filter in {} ms",
+            count, filter.sizeInBytes() / 1024, (System.nanoTime() - start) / 1_000_000);
+        if (count > expectedEntries) {
+            log.warn("{} nullifiers exceed zk.nullifiers.expected-entries={}; the filter will send more lookups to MongoDB",
+                count, expectedEntries);
+        }
+    }
+
+    @Override
+    public boolean mightBeSeen(String nullifier) {
+        return filter.mightContain(toBytes(nullifier));
+    }
+
+    @Override
+    public Optional<String> ownerOf(String nullifier) {
+        if (!mightBeSeen(nullifier)) {
+            return Optional.empty();
+        }
+        return nullifierRepository.findById(nullifier).map(ProofNullifier::getUserId);
+    }
+
+    @Override
+    public boolean claim(String nullifier, String userId, String circuitId) {
+        byte[] key = toBytes(nullifier);
+        if (filter.mightContain(key)) {
+            Optional<ProofNullifier> existing = nullifierRepository.findById(nullifier);
+            if (existing.isPresent()) {
+                return Objects.equals(existing.get().getUserId(), userId);
+            }
+        }
+        ProofNullifier record = new ProofNullifier();
+        record.setNullifier(nullifier);
+        record.setUserId(userId);
+        record.setCircuitId(circuitId);
+        try {
+            // insert, not save: an upsert would silently hand the nullifier to the later account
+            nullifierRepository.insert(record);
+        } catch (DuplicateKeyException e) {
+            // Lost a race with a concurrent claim; whoever got there first owns it
+            filter.add(key);
+            return nullifierRepository.findById(nullifier)
+                .map(winner -> Objects.equals(winner.getUserId(), userId))
+                .orElse(false);
+        }
+        filter.add(key);
+        return true;
+    }
+
+    private static byte[] toBytes(String nullifier) {
+        if (nullifier == null || nullifier.length() != NULLIFIER_HEX_LENGTH) {
+            throw new IllegalArgumentException("Malformed nullifier");
+        }
+        try {
+            return HexFormat.of().parseHex(nullifier);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Malformed nullifier");
+        }
+    }
+}
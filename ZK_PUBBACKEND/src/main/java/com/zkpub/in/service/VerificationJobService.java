@@ -0,0 +1,18 @@
+package com.zkpub.in.service;
+
+import com.zkpub.in.model.VerificationJob;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Optional;
+
+public interface VerificationJobService {
+
+    // Store the document and queue the remaining stages; returns as soon as the job exists
+    VerificationJob submit(String userId, MultipartFile file) throws Exception;
+
+    Optional<VerificationJob> getJob(String jobId);
+
+    // Server-Sent Events stream of stage changes for one job
+    SseEmitter subscribe(String jobId);
+}
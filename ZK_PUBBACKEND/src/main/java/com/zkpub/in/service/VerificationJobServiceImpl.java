@@ -0,0 +1,211 @@
+package com.zkpub.in.service;
+
+import com.zkpub.in.model.IDDocument;
+import com.zkpub.in.model.VerificationJob;
+import com.zkpub.in.model.VerificationJob.Stage;
+import com.zkpub.in.repository.VerificationJobRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the ID verification stages in the background. The upload happens on
+ * the request thread because the multipart file does not outlive it; every
+ * later stage runs on a virtual thread, with a semaphore bounding how many
+ * jobs are in flight. The finished stage is persisted after each step, so a
+ * restart picks every unfinished job up where it stopped.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class VerificationJobServiceImpl implements VerificationJobService {
+
+    private final IDDocumentService idDocumentService;
+    private final VerificationJobRepository verificationJobRepository;
+
+    @Value("${zkpub.verification-jobs.max-concurrent:64}")
+    private int maxConcurrentJobs;
+
+    @Value("${zkpub.verification-jobs.sse-timeout-ms:300000}")
+    private long sseTimeoutMs;
+
+    private ExecutorService workers;
+    private Semaphore jobSlots;
+    private final Set<String> runningJobs = ConcurrentHashMap.newKeySet();
+    private final Map<String, List<SseEmitter>> subscribers = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void start() {
+        // Stages spend their time waiting on OCR, MongoDB and the chain, not on CPU
+        workers = Executors.newVirtualThreadPerTaskExecutor();
+        jobSlots = new Semaphore(maxConcurrentJobs);
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        workers.shutdownNow();
+        workers.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    @Override
+    public VerificationJob submit(String userId, MultipartFile file) throws Exception {
+        IDDocument document = idDocumentService.uploadIDDocument(userId, file);
+        VerificationJob job = verificationJobRepository.save(new VerificationJob(userId, document.getId()));
+        dispatch(job);
+        return job;
+    }
+
+    @Override
+    public Optional<VerificationJob> getJob(String jobId) {
+        return verificationJobRepository.findById(jobId);
+    }
+
+    @Override
+    public SseEmitter subscribe(String jobId) {
+        if (!verificationJobRepository.existsById(jobId)) {
+            throw new IllegalArgumentException("Job not found");
+        }
+
+        SseEmitter emitter = new SseEmitter(sseTimeoutMs);
+        subscribers.compute(jobId, (id, emitters) -> {
+            List<SseEmitter> list = emitters != null ? emitters : new CopyOnWriteArrayList<>();
+            list.add(emitter);
+            return list;
+        });
+        emitter.onCompletion(() -> unsubscribe(jobId, emitter));
+        emitter.onTimeout(() -> unsubscribe(jobId, emitter));
+        emitter.onError(e -> unsubscribe(jobId, emitter));
+
+        // Read the stage only once registered: advance() saves before it notifies, so a job that
+        // finished in between is seen as finished here rather than leaving this emitter waiting
+        VerificationJob job = verificationJobRepository.findById(jobId)
+            .orElseThrow(() -> new IllegalArgumentException("Job not found"));
+        send(emitter, job);
+        if (job.getStage().isTerminal()) {
+            unsubscribe(jobId, emitter);
+            emitter.complete();
+        }
+        return emitter;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeUnfinishedJobs() {
+        List<VerificationJob> unfinished =
+            verificationJobRepository.findByStageNotIn(EnumSet.of(Stage.COMPLETED, Stage.FAILED));
+        if (!unfinished.isEmpty()) {
+            log.info("Resuming {} unfinished verification jobs", unfinished.size());
+            unfinished.forEach(this::dispatch);
+        }
+    }
+
+    private void dispatch(VerificationJob job) {
+        if (!runningJobs.add(job.getId())) {
+            return;
+        }
+        workers.submit(() -> {
+            jobSlots.acquireUninterruptibly();
+            try {
+                run(job);
+            } finally {
+                jobSlots.release();
+                runningJobs.remove(job.getId());
+            }
+        });
+    }
+
+    private void run(VerificationJob job) {
+        String documentId = job.getDocumentId();
+        try {
+            while (!job.getStage().isTerminal()) {
+                switch (job.getStage()) {
+                    case UPLOADED -> {
+                        String text = idDocumentService.extractTextFromDocument(documentId);
+                        advance(job, Stage.TEXT_EXTRACTED);
+                        idDocumentService.parseBirthYearFromText(documentId, text);
+                        advance(job, Stage.BIRTH_YEAR_PARSED);
+                    }
+                    case TEXT_EXTRACTED -> {
+                        // Resumed between the two text stages; the text is already on the document
+                        String text = idDocumentService.getDocumentById(documentId)
+                            .map(IDDocument::getExtractedText)
+                            .orElseThrow(() -> new IllegalArgumentException("Document not found"));
+                        idDocumentService.parseBirthYearFromText(documentId, text);
+                        advance(job, Stage.BIRTH_YEAR_PARSED);
+                    }
+                    case BIRTH_YEAR_PARSED -> {
+                        idDocumentService.generateZKProof(documentId);
+                        advance(job, Stage.PROOF_GENERATED);
+                    }
+                    case PROOF_GENERATED -> {
+                        idDocumentService.verifyZKProofOnBlockchain(documentId);
+                        advance(job, Stage.BLOCKCHAIN_VERIFIED);
+                    }
+                    case BLOCKCHAIN_VERIFIED -> {
+                        idDocumentService.completeAgeVerification(documentId);
+                        advance(job, Stage.COMPLETED);
+                    }
+                    default -> throw new IllegalStateException("Unexpected stage " + job.getStage());
+                }
+            }
+        } catch (Exception e) {
+            log.error("Verification job {} failed at {}: {}", job.getId(), job.getStage(), e.getMessage());
+            job.setError(e.getMessage());
+            advance(job, Stage.FAILED);
+        }
+    }
+
+    private void advance(VerificationJob job, Stage stage) {
+        job.setStage(stage);
+        job.setUpdatedAt(LocalDateTime.now());
+        verificationJobRepository.save(job);
+
+        List<SseEmitter> emitters = subscribers.get(job.getId());
+        if (emitters != null) {
+            emitters.forEach(emitter -> send(emitter, job));
+            if (stage.isTerminal()) {
+                emitters.forEach(SseEmitter::complete);
+                subscribers.remove(job.getId());
+            }
+        }
+    }
+
+    // Drops the job's entry with its last subscriber, so timed-out clients leave nothing behind
+    private void unsubscribe(String jobId, SseEmitter emitter) {
+        subscribers.computeIfPresent(jobId, (id, emitters) -> {
+            emitters.remove(emitter);
+            return emitters.isEmpty() ? null : emitters;
+        });
+    }
+
+    private void send(SseEmitter emitter, VerificationJob job) {
+        try {
+            emitter.send(SseEmitter.event()
+                .id(job.getId() + ":" + job.getStage())
+                .name("stage")
+                .data(job));
+        } catch (IOException | IllegalStateException e) {
+            emitter.completeWithError(e);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.zkpub.in.service;
+
+import com.zkpub.in.dto.WaitingRoomStatus;
+
+public interface WaitingRoomService {
+
+    // Take the next place in line for an event and get a signed token for it; throws
+    // IllegalArgumentException for an unknown event
+    WaitingRoomStatus join(String eventId);
+
+    // Answer a position poll from memory; throws if the token is not genuine
+    WaitingRoomStatus status(String token);
+
+    // True while any event has people waiting to be let through; only then do protected paths
+    // need an admitted token
+    boolean isQueueing();
+
+    // True if the token is genuine, its holder has been let through and the token still has
+    // requests left; a true answer uses one of them
+    boolean enter(String token, String eventId);
+
+    // Feed back how long a protected request took so the admit rate follows capacity
+    void recordBackendLatency(long nanos, boolean failed);
+
+    // Current admissions per second across all events
+    double currentAdmitRate();
+}
@@ -0,0 +1,254 @@
+package com.zkpub.in.service;
+
+import com.zkpub.in.dto.WaitingRoomStatus;
+import com.zkpub.in.repository.EventRepository;
+import com.zkpub.in.utils.SigningSecrets;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * FIFO waiting room. Each event keeps only two counters: how many places
+ * have been handed out and how many of them have been let through. A
+ * token carries its own position, signed, so polls never hit MongoDB.
+ *
+ * Tokens are signed with their own key and carry a "waiting-room"
+ * audience, so they can never pass as login tokens. An admitted token
+ * covers a fixed number of protected requests (a visit: login, profile,
+ * verification), so one admission cannot be replayed without limit.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class WaitingRoomServiceImpl implements WaitingRoomService {
+
+    public static final String AUDIENCE = "waiting-room";
+    private static final String POSITION_CLAIM = "pos";
+
+    private final EventRepository eventRepository;
+
+    @Value("${zkpub.waiting-room.secret}")
+    private String secret;
+
+    @Value("${zkpub.waiting-room.requests-per-admission:20}")
+    private int requestsPerAdmission;
+
+    @Value("${jwt.secret.key}")
+    private String loginSecret;
+
+    @Value("${zkpub.waiting-room.token-ttl-ms:7200000}")
+    private long tokenTtlMs;
+
+    @Value("${zkpub.waiting-room.tick-ms:200}")
+    private long tickMs;
+
+    @Value("${zkpub.waiting-room.min-admit-rate:5}")
+    private double minAdmitRate;
+
+    @Value("${zkpub.waiting-room.max-admit-rate:500}")
+    private double maxAdmitRate;
+
+    @Value("${zkpub.waiting-room.target-latency-ms:500}")
+    private double targetLatencyMs;
+
+    private SecretKey signingKey;
+    private final Map<String, EventLine> lines = new ConcurrentHashMap<>();
+
+    // Admissions per second shared by all events with people waiting
+    private volatile double admitRate;
+
+    // Protected-path measurements since the last rate adjustment
+    private final LongAdder sampleCount = new LongAdder();
+    private final LongAdder sampleNanos = new LongAdder();
+    private final LongAdder sampleFailures = new LongAdder();
+
+    @PostConstruct
+    void init() {
+        SigningSecrets.require("zkpub.waiting-room.secret", secret);
+        if (secret.equals(loginSecret)) {
+            throw new IllegalStateException("zkpub.waiting-room.secret must differ from jwt.secret.key");
+        }
+        signingKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        admitRate = minAdmitRate;
+    }
+
+    @Override
+    public WaitingRoomStatus join(String eventId) {
+        EventLine line = line(eventId);
+        long position = line.issued.incrementAndGet();
+
+        Date now = new Date();
+        String token = Jwts.builder()
+                .setSubject(eventId)
+                .setAudience(AUDIENCE)
+                .claim(POSITION_CLAIM, position)
+                .setIssuedAt(now)
+                .setExpiration(new Date(now.getTime() + tokenTtlMs))
+                .signWith(signingKey, SignatureAlgorithm.HS256)
+                .compact();
+        return describe(token, eventId, position, line);
+    }
+
+    @Override
+    public WaitingRoomStatus status(String token) {
+        Claims claims = parse(token);
+        String eventId = claims.getSubject();
+        long position = claims.get(POSITION_CLAIM, Long.class);
+        return describe(token, eventId, position, line(eventId));
+    }
+
+    @Override
+    public boolean isQueueing() {
+        return lines.values().stream().anyMatch(line -> line.admitted.get() < line.issued.get());
+    }
+
+    @Override
+    public boolean enter(String token, String eventId) {
+        try {
+            Claims claims = parse(token);
+            if (eventId != null && !eventId.equals(claims.getSubject())) {
+                return false;
+            }
+            EventLine line = lines.get(claims.getSubject());
+            long position = claims.get(POSITION_CLAIM, Long.class);
+            return line != null && position <= line.admitted.get() && line.use(position, requestsPerAdmission);
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    @Override
+    public void recordBackendLatency(long nanos, boolean failed) {
+        sampleCount.increment();
+        sampleNanos.add(nanos);
+        if (failed) {
+            sampleFailures.increment();
+        }
+    }
+
+    @Override
+    public double currentAdmitRate() {
+        return admitRate;
+    }
+
+    // Let the next people through, splitting the admit rate evenly over busy events
+    @Scheduled(fixedRateString = "${zkpub.waiting-room.tick-ms:200}")
+    public void admit() {
+        List<EventLine> waiting = lines.values().stream()
+                .filter(line -> line.admitted.get() < line.issued.get())
+                .toList();
+        if (waiting.isEmpty()) {
+            return;
+        }
+
+        double share = admitRate * tickMs / 1000.0 / waiting.size();
+        for (EventLine line : waiting) {
+            line.credit += share;
+            long whole = (long) line.credit;
+            if (whole == 0) {
+                continue;
+            }
+            line.credit -= whole;
+            long target = Math.min(line.admitted.get() + whole, line.issued.get());
+            line.admitted.set(target);
+        }
+    }
+
+    // Additive increase while the protected path is healthy, multiplicative decrease when it is not
+    @Scheduled(fixedRateString = "${zkpub.waiting-room.adjust-ms:1000}")
+    public void adjustRate() {
+        long count = sampleCount.sumThenReset();
+        long nanos = sampleNanos.sumThenReset();
+        long failures = sampleFailures.sumThenReset();
+        if (count == 0) {
+            return;
+        }
+
+        double avgLatencyMs = nanos / 1e6 / count;
+        double failureRate = (double) failures / count;
+        double previous = admitRate;
+        if (avgLatencyMs > targetLatencyMs || failureRate > 0.05) {
+            admitRate = Math.max(minAdmitRate, admitRate * 0.7);
+        } else {
+            admitRate = Math.min(maxAdmitRate, admitRate + Math.max(1, minAdmitRate / 2));
+        }
+        if (previous != admitRate) {
+            log.debug("Waiting room admit rate {} -> {} /s (avg {} ms, {} failures over {} requests)",
+                    previous, admitRate, avgLatencyMs, failures, count);
+        }
+    }
+
+    private WaitingRoomStatus describe(String token, String eventId, long position, EventLine line) {
+        long admittedUpTo = line.admitted.get();
+        boolean admitted = position <= admittedUpTo;
+        long ahead = admitted ? 0 : position - admittedUpTo - 1;
+
+        long busyEvents = Math.max(1, lines.values().stream()
+                .filter(l -> l.admitted.get() < l.issued.get())
+                .count());
+        double perEventRate = admitRate / busyEvents;
+        long eta = admitted ? 0 : (long) Math.ceil((ahead + 1) / perEventRate);
+        return new WaitingRoomStatus(token, eventId, position, ahead, admitted, eta);
+    }
+
+    // Lines exist only for real events, so made-up event ids cannot grow the map
+    private EventLine line(String eventId) {
+        EventLine line = lines.get(eventId);
+        if (line != null) {
+            return line;
+        }
+        if (!eventRepository.existsById(eventId)) {
+            throw new IllegalArgumentException("Event not found");
+        }
+        return lines.computeIfAbsent(eventId, id -> new EventLine());
+    }
+
+    private Claims parse(String token) {
+        return Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .requireAudience(AUDIENCE)
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+    }
+
+    private static final class EventLine {
+        final AtomicLong issued = new AtomicLong();
+        final AtomicLong admitted = new AtomicLong();
+        double credit; // only touched by the admit() scheduler thread
+        private int[] used = new int[1024]; // protected requests made so far, by position
+
+        // True while the position has requests left, counting this one
+        synchronized boolean use(long position, int limit) {
+            if (position < 1 || position >= Integer.MAX_VALUE) {
+                return false;
+            }
+            int index = (int) position;
+            if (index >= used.length) {
+                used = Arrays.copyOf(used, Math.max(index + 1, used.length * 2));
+            }
+            if (used[index] >= limit) {
+                return false;
+            }
+            used[index]++;
+            return true;
+        }
+    }
+}
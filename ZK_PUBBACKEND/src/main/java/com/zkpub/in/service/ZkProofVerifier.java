@@ -0,0 +1,37 @@
+package com.zkpub.in.service;
+
+import com.zkpub.in.zk.CompactProof;
+
+import java.util.List;
+
+public interface ZkProofVerifier {
+
+    // Checks a snarkjs proof payload, either {proof: {pi_a, pi_b, pi_c}, publicSignals: [...]}
+    // or the proof fields and publicSignals side by side, against the circuit's key (the
+    // registry's default when circuitId is null). False means a well-formed proof that does
+    // not verify; malformed payloads and unknown circuits throw IllegalArgumentException.
+    boolean verify(String circuitId, Object proofPayload);
+
+    // As above for a proof already parsed with parse(), so callers that also store it or derive
+    // its nullifier decode the points once
+    boolean verify(String circuitId, CompactProof proof);
+
+    // The payload as a CompactProof (returned as is when it already is one); malformed payloads
+    // throw IllegalArgumentException
+    CompactProof parse(Object proofPayload);
+
+    // One result per payload (snarkjs JSON or CompactProof), in order, from a single randomized multi-pairing (bisected on
+    // failure); malformed payloads come back invalid with the reason instead of throwing
+    List<BatchResult> verifyBatch(String circuitId, List<?> proofPayloads);
+
+    // Replay key for a proof: hex SHA-256 of the (resolved) circuit id and the public signals.
+    // Groth16 proofs can be re-randomized into different-looking valid proofs for the same
+    // signals, so the proof points themselves cannot serve as the key; the signals include the
+    // circuit's salted commitment, which is what makes one user's proof distinct from another's.
+    String nullifier(String circuitId, Object proofPayload);
+
+    String nullifier(String circuitId, CompactProof proof);
+
+    record BatchResult(boolean valid, String error) {
+    }
+}
@@ -0,0 +1,141 @@
+package com.zkpub.in.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zkpub.in.zk.CompactProof;
+import com.zkpub.in.zk.Groth16Proof;
+import com.zkpub.in.zk.Groth16Verifier;
+import com.zkpub.in.zk.PreparedVerificationKey;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * Verifies Groth16 proofs in-process against prepared keys from the
+ * CircuitRegistry. A circuit without a key refuses every proof rather
+ * than accepting it.
+ */
+@Service
+public class ZkProofVerifierImpl implements ZkProofVerifier {
+
+    // Signals are field elements below r < 2^254, so 32 bytes hold any that can verify
+    private static final int SIGNAL_BYTES = 32;
+
+    private final ObjectMapper objectMapper;
+    private final CircuitRegistry circuitRegistry;
+
+    public ZkProofVerifierImpl(ObjectMapper objectMapper, CircuitRegistry circuitRegistry) {
+        this.objectMapper = objectMapper;
+        this.circuitRegistry = circuitRegistry;
+    }
+
+    @Override
+    public boolean verify(String circuitId, Object proofPayload) {
+        PreparedVerificationKey verificationKey = keyFor(circuitId);
+        CompactProof parsed = parse(proofPayload);
+        return Groth16Verifier.verify(verificationKey, parsed.proof(), parsed.publicSignals());
+    }
+
+    @Override
+    public boolean verify(String circuitId, CompactProof proof) {
+        return verify(circuitId, (Object) proof);
+    }
+
+    @Override
+    public List<BatchResult> verifyBatch(String circuitId, List<?> proofPayloads) {
+        PreparedVerificationKey verificationKey = keyFor(circuitId);
+        BatchResult[] results = new BatchResult[proofPayloads.size()];
+        List<Groth16Proof> proofs = new ArrayList<>();
+        List<List<BigInteger>> signals = new ArrayList<>();
+        int[] positions = new int[proofPayloads.size()];
+        for (int i = 0; i < proofPayloads.size(); i++) {
+            try {
+                CompactProof parsed = parse(proofPayloads.get(i));
+                if (parsed.publicSignals().size() != verificationKey.publicInputCount()) {
+                    throw new IllegalArgumentException("Expected " + verificationKey.publicInputCount()
+                        + " public signals, got " + parsed.publicSignals().size());
+                }
+                positions[proofs.size()] = i;
+                proofs.add(parsed.proof());
+                signals.add(parsed.publicSignals());
+            } catch (IllegalArgumentException e) {
+                results[i] = new BatchResult(false, e.getMessage());
+            }
+        }
+
+        boolean[] valid = Groth16Verifier.verifyBatch(verificationKey, proofs, signals);
+        for (int k = 0; k < valid.length; k++) {
+            results[positions[k]] = new BatchResult(valid[k], valid[k] ? null : "Invalid ZK proof");
+        }
+        return Arrays.asList(results);
+    }
+
+    @Override
+    public String nullifier(String circuitId, Object proofPayload) {
+        return nullifier(circuitId, parse(proofPayload));
+    }
+
+    @Override
+    public String nullifier(String circuitId, CompactProof proof) {
+        String resolved = resolve(circuitId);
+        List<BigInteger> signals = proof.publicSignals();
+        MessageDigest digest = sha256();
+        digest.update(resolved.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+        for (BigInteger signal : signals) {
+            // Fixed-width big-endian, so signal boundaries cannot be shifted to collide
+            byte[] bytes = signal.toByteArray();
+            byte[] word = new byte[SIGNAL_BYTES];
+            int length = Math.min(bytes.length, SIGNAL_BYTES);
+            System.arraycopy(bytes, bytes.length - length, word, SIGNAL_BYTES - length, length);
+            digest.update(word);
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private PreparedVerificationKey keyFor(String circuitId) {
+        return circuitRegistry.get(resolve(circuitId));
+    }
+
+    private String resolve(String circuitId) {
+        return circuitId == null || circuitId.isBlank() ? circuitRegistry.defaultCircuitId() : circuitId;
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public CompactProof parse(Object proofPayload) {
+        if (proofPayload == null) {
+            throw new IllegalArgumentException("Missing proof");
+        }
+        if (proofPayload instanceof CompactProof proof) {
+            return proof;
+        }
+        return CompactProof.fromJson(readPayload(proofPayload));
+    }
+
+    private JsonNode readPayload(Object proofPayload) {
+        if (proofPayload instanceof String text) {
+            try {
+                return objectMapper.readTree(text);
+            } catch (IOException e) {
+                throw new IllegalArgumentException("Proof is not valid JSON");
+            }
+        }
+        return objectMapper.valueToTree(proofPayload);
+    }
+}
@@ -0,0 +1,22 @@
+package com.zkpub.in.service;
+
+import com.zkpub.in.zk.Witness;
+
+import java.math.BigInteger;
+import java.util.List;
+import java.util.Map;
+
+public interface ZkProver {
+
+    // False unless zk.prover.enabled is set; proving keys are large and proofs take seconds of CPU
+    boolean isEnabled();
+
+    // Groth16 proof for a full witness (wire 0 = 1, then the public signals, then the rest) with the
+    // circuit's <id>.zkey, as the snarkjs payload {proof: {pi_a, pi_b, pi_c, ...}, publicSignals: [...]}
+    // that ZkProofVerifier accepts. Unknown circuits and witnesses that do not fit the key or, when the
+    // circuit's .r1cs is present, do not satisfy it throw IllegalArgumentException.
+    Map<String, Object> prove(String circuitId, List<BigInteger> witness);
+
+    // As above for a witness from ZkWitnessCalculator or a .wtns file
+    Map<String, Object> prove(String circuitId, Witness witness);
+}
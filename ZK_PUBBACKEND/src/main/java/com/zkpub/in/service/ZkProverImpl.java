@@ -0,0 +1,148 @@
+package com.zkpub.in.service;
+
+import com.zkpub.in.zk.Groth16Proof;
+import com.zkpub.in.zk.Groth16Prover;
+import com.zkpub.in.zk.ProvingKey;
+import com.zkpub.in.zk.R1cs;
+import com.zkpub.in.zk.Witness;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.SecureRandom;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Groth16 proving with snarkjs proving keys from {@code <key-dir>/<id>.zkey}.
+ * Each proof runs in one fork-join pool sized by {@code zk.prover.threads}:
+ * the five multi-scalar multiplications and the quotient NTTs are forked
+ * inside it, so concurrent proofs share the cores instead of each taking
+ * all of them. Keys are memory-mapped on first use and cached; an optional
+ * {@code <id>.r1cs} next to the key lets a bad witness fail in
+ * milliseconds rather than yield a proof that cannot verify. Since the
+ * files stay mapped, deploy new ones by renaming them into place rather
+ * than rewriting them in place.
+ */
+@Service
+public class ZkProverImpl implements ZkProver {
+
+    private static final Logger log = LoggerFactory.getLogger(ZkProverImpl.class);
+
+    private static final Pattern CIRCUIT_ID = Pattern.compile("[A-Za-z0-9_-]{1,64}");
+
+    private final CircuitRegistry circuitRegistry;
+    private final boolean enabled;
+    private final Path keyDir;
+    private final int threads;
+    private final SecureRandom random = new SecureRandom();
+    private final ConcurrentMap<String, Circuit> circuits = new ConcurrentHashMap<>();
+    private ForkJoinPool pool;
+
+    private record Circuit(ProvingKey key, Optional<R1cs> r1cs) {
+    }
+
+    public ZkProverImpl(CircuitRegistry circuitRegistry,
+                        @Value("${zk.prover.enabled:false}") boolean enabled,
+                        @Value("${zk.prover.key-dir:zk-keys}") String keyDir,
+                        @Value("${zk.prover.threads:0}") int threads) {
+        this.circuitRegistry = circuitRegistry;
+        this.enabled = enabled;
+        this.keyDir = Path.of(keyDir);
+        this.threads = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+    }
+
+    @PostConstruct
+    void start() {
+        if (enabled) {
+            pool = new ForkJoinPool(threads);
+        }
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        if (pool != null) {
+            pool.shutdownNow();
+            pool.awaitTermination(5, TimeUnit.SECONDS);
+        }
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public Map<String, Object> prove(String circuitId, List<BigInteger> witness) {
+        return prove(circuitId, Witness.of(witness));
+    }
+
+    @Override
+    public Map<String, Object> prove(String circuitId, Witness witness) {
+        if (!enabled) {
+            throw new IllegalStateException("Server-side proving is disabled");
+        }
+        String id = circuitId != null ? circuitId : circuitRegistry.defaultCircuitId();
+        if (!CIRCUIT_ID.matcher(id).matches()) {
+            throw new IllegalArgumentException("Invalid circuit id");
+        }
+        Circuit circuit = circuits.computeIfAbsent(id, this::load);
+        ProvingKey key = circuit.key();
+        if (witness.size() != key.variableCount()) {
+            throw new IllegalArgumentException("Circuit " + id + " expects " + key.variableCount()
+                + " witness values, got " + witness.size());
+        }
+        circuit.r1cs().ifPresent(r1cs -> {
+            int constraint = r1cs.firstUnsatisfied(witness);
+            if (constraint >= 0) {
+                throw new IllegalArgumentException("Witness violates constraint " + constraint + " of circuit " + id);
+            }
+        });
+
+        long start = System.nanoTime();
+        Groth16Proof proof = pool.invoke(ForkJoinTask.adapt(() -> Groth16Prover.prove(key, witness, random)));
+        log.debug("Proved circuit {} in {} ms", id, (System.nanoTime() - start) / 1_000_000);
+
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("proof", proof.toJson());
+        payload.put("publicSignals", witness.toList().subList(1, key.publicCount() + 1).stream().map(BigInteger::toString).toList());
+        return payload;
+    }
+
+    private Circuit load(String circuitId) {
+        Path zkey = keyDir.resolve(circuitId + ".zkey");
+        if (!Files.isRegularFile(zkey)) {
+            throw new IllegalArgumentException("No proving key for circuit " + circuitId);
+        }
+        Path r1csFile = keyDir.resolve(circuitId + ".r1cs");
+        long start = System.nanoTime();
+        try {
+            ProvingKey key = ProvingKey.read(zkey);
+            Optional<R1cs> r1cs = Files.isRegularFile(r1csFile) ? Optional.of(R1cs.read(r1csFile)) : Optional.empty();
+            if (r1cs.isPresent() && r1cs.get().wireCount() != key.variableCount()) {
+                throw new IllegalArgumentException("Constraint system does not match the proving key of circuit " + circuitId);
+            }
+            log.info("Loaded proving key for circuit {} ({} signals, domain {}) in {} ms",
+                circuitId, key.variableCount(), key.domainSize(), (System.nanoTime() - start) / 1_000_000);
+            return new Circuit(key, r1cs);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read proving key for circuit " + circuitId, e);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.zkpub.in.service;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+public interface ZkVerificationExecutor {
+
+    // Runs work on the verification pool. Queued work runs by priority, then earliest deadline.
+    // The future fails with TimeoutException once deadlineMs has passed, and work whose deadline
+    // passed while it was queued is dropped without running; a full queue fails it at once with
+    // RejectedExecutionException.
+    <T> CompletableFuture<T> submit(Priority priority, long deadlineMs, Supplier<T> work);
+
+    Stats stats();
+
+    enum Priority {
+        // A user waiting on /verify-zk
+        INTERACTIVE,
+        // Batch verification and re-verification, which can wait behind interactive checks
+        BATCH
+    }
+
+    record Stats(int threads, int queued, Map<Priority, PriorityStats> byPriority) {
+    }
+
+    // Times are per task: queue from submit to a worker taking it, run for the work itself
+    record PriorityStats(long submitted, long completed, long failed, long expired, long rejected,
+                         double meanQueueMs, double maxQueueMs, double meanRunMs, double maxRunMs) {
+    }
+}
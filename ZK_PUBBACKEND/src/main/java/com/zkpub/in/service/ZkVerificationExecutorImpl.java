@@ -0,0 +1,189 @@
+package com.zkpub.in.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Proof verification off the request threads. A fixed pool sized to the
+ * cores takes work from a priority queue, so a flood of submissions
+ * queues here, up to a bound, instead of holding every Tomcat thread.
+ * Interactive checks always go ahead of batch work. Batch work can
+ * starve under sustained interactive load until its deadline drops it.
+ *
+ * A deadline is enforced twice. The caller's future times out on
+ * schedule, and a worker skips any task whose future is already done.
+ * So nothing runs for a client that has already been answered. A task
+ * that has started is not interrupted: a verification is short and
+ * CPU-bound, and stopping it halfway saves little.
+ */
+@Slf4j
+@Service
+public class ZkVerificationExecutorImpl implements ZkVerificationExecutor {
+
+    private final ThreadPoolExecutor pool;
+    private final int queueCapacity;
+    private final AtomicLong sequence = new AtomicLong();
+    private final Map<Priority, Metrics> metrics = new EnumMap<>(Priority.class);
+
+    public ZkVerificationExecutorImpl(@Value("${zk.verification.threads:0}") int threads,
+                                      @Value("${zk.verification.queue-capacity:10000}") int queueCapacity) {
+        int size = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.queueCapacity = queueCapacity;
+        AtomicInteger threadNo = new AtomicInteger();
+        // Core and maximum are equal, so the unbounded queue never makes the pool grow; the
+        // capacity is checked in submit()
+        this.pool = new ThreadPoolExecutor(size, size, 0, TimeUnit.MILLISECONDS, new PriorityBlockingQueue<>(), r -> {
+            Thread t = new Thread(r, "zk-verify-" + threadNo.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        // Started up front, so every task goes through the queue and its ordering
+        pool.prestartAllCoreThreads();
+        for (Priority priority : Priority.values()) {
+            metrics.put(priority, new Metrics());
+        }
+        log.info("ZK verification pool: {} threads, queue capacity {}", size, queueCapacity);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        pool.shutdownNow();
+        pool.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    @Override
+    public <T> CompletableFuture<T> submit(Priority priority, long deadlineMs, Supplier<T> work) {
+        Metrics m = metrics.get(priority);
+        m.submitted.increment();
+        CompletableFuture<T> result = new CompletableFuture<>();
+        // A check-then-act race can overshoot the capacity by a few tasks, which is harmless
+        if (pool.getQueue().size() >= queueCapacity) {
+            m.rejected.increment();
+            result.completeExceptionally(new RejectedExecutionException("Verification queue is full"));
+            return result;
+        }
+        long now = System.nanoTime();
+        Task<T> task = new Task<>(priority, now, now + TimeUnit.MILLISECONDS.toNanos(deadlineMs),
+            sequence.getAndIncrement(), work, result);
+        try {
+            pool.execute(task);
+        } catch (RejectedExecutionException e) {
+            // Only after shutdown
+            m.rejected.increment();
+            result.completeExceptionally(e);
+            return result;
+        }
+        return result.orTimeout(deadlineMs, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public Stats stats() {
+        Map<Priority, PriorityStats> byPriority = new EnumMap<>(Priority.class);
+        metrics.forEach((priority, m) -> byPriority.put(priority, m.snapshot()));
+        return new Stats(pool.getCorePoolSize(), pool.getQueue().size(), byPriority);
+    }
+
+    private final class Task<T> implements Runnable, Comparable<Task<?>> {
+
+        private final Priority priority;
+        private final long enqueuedNanos;
+        private final long deadlineNanos;
+        private final long sequence;
+        private final Supplier<T> work;
+        private final CompletableFuture<T> result;
+
+        Task(Priority priority, long enqueuedNanos, long deadlineNanos, long sequence,
+             Supplier<T> work, CompletableFuture<T> result) {
+            this.priority = priority;
+            this.enqueuedNanos = enqueuedNanos;
+            this.deadlineNanos = deadlineNanos;
+            this.sequence = sequence;
+            this.work = work;
+            this.result = result;
+        }
+
+        @Override
+        public void run() {
+            Metrics m = metrics.get(priority);
+            long start = System.nanoTime();
+            m.queued(start - enqueuedNanos);
+            if (result.isDone() || start - deadlineNanos >= 0) {
+                m.expired.increment();
+                result.completeExceptionally(new TimeoutException("Verification deadline passed while queued"));
+                return;
+            }
+            try {
+                result.complete(work.get());
+                m.completed.increment();
+            } catch (RuntimeException | Error e) {
+                m.failed.increment();
+                result.completeExceptionally(e);
+            } finally {
+                m.ran(System.nanoTime() - start);
+            }
+        }
+
+        @Override
+        public int compareTo(Task<?> other) {
+            if (priority != other.priority) {
+                return priority.compareTo(other.priority);
+            }
+            if (deadlineNanos != other.deadlineNanos) {
+                return deadlineNanos - other.deadlineNanos < 0 ? -1 : 1;
+            }
+            return Long.compare(sequence, other.sequence);
+        }
+    }
+
+    private static final class Metrics {
+        final LongAdder submitted = new LongAdder();
+        final LongAdder completed = new LongAdder();
+        final LongAdder failed = new LongAdder();
+        final LongAdder expired = new LongAdder();
+        final LongAdder rejected = new LongAdder();
+        final LongAdder dequeued = new LongAdder();
+        final LongAdder queueNanos = new LongAdder();
+        final LongAccumulator maxQueueNanos = new LongAccumulator(Long::max, 0);
+        final LongAdder runs = new LongAdder();
+        final LongAdder runNanos = new LongAdder();
+        final LongAccumulator maxRunNanos = new LongAccumulator(Long::max, 0);
+
+        void queued(long nanos) {
+            dequeued.increment();
+            queueNanos.add(nanos);
+            maxQueueNanos.accumulate(nanos);
+        }
+
+        void ran(long nanos) {
+            runs.increment();
+            runNanos.add(nanos);
+            maxRunNanos.accumulate(nanos);
+        }
+
+        PriorityStats snapshot() {
+            return new PriorityStats(submitted.sum(), completed.sum(), failed.sum(), expired.sum(), rejected.sum(),
+                meanMs(queueNanos.sum(), dequeued.sum()), maxQueueNanos.get() / 1e6,
+                meanMs(runNanos.sum(), runs.sum()), maxRunNanos.get() / 1e6);
+        }
+
+        private static double meanMs(long nanos, long count) {
+            return count == 0 ? 0 : nanos / 1e6 / count;
+        }
+    }
+}
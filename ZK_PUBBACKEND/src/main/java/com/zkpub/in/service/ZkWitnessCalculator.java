@@ -0,0 +1,16 @@
+package com.zkpub.in.service;
+
+import com.zkpub.in.zk.Witness;
+
+import java.util.Map;
+
+public interface ZkWitnessCalculator {
+
+    // Whether <wasm-dir>/<id>.wasm exists for the circuit (the registry's default when null)
+    boolean hasCircuit(String circuitId);
+
+    // Runs the circuit's circom WASM on the named input signals, as in circom's input.json; the result
+    // is the full witness ZkProver takes. Unknown circuits, unknown or missing signals and inputs that
+    // fail the circuit's asserts throw IllegalArgumentException.
+    Witness calculate(String circuitId, Map<String, ?> input);
+}
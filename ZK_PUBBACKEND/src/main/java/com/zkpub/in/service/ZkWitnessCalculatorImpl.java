@@ -0,0 +1,77 @@
+package com.zkpub.in.service;
+
+import com.zkpub.in.zk.Witness;
+import com.zkpub.in.zk.WitnessCalculator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.regex.Pattern;
+
+/**
+ * Witness generation from circom's {@code <circuit>_js/<circuit>.wasm},
+ * copied to {@code <wasm-dir>/<id>.wasm}, executed in the JVM instead of
+ * a Node child process. Each circuit's module is decoded once on first
+ * use; {@link WitnessCalculator} pools the instances.
+ */
+@Service
+public class ZkWitnessCalculatorImpl implements ZkWitnessCalculator {
+
+    private static final Logger log = LoggerFactory.getLogger(ZkWitnessCalculatorImpl.class);
+
+    private static final Pattern CIRCUIT_ID = Pattern.compile("[A-Za-z0-9_-]{1,64}");
+
+    private final CircuitRegistry circuitRegistry;
+    private final Path wasmDir;
+    private final ConcurrentMap<String, WitnessCalculator> calculators = new ConcurrentHashMap<>();
+
+    public ZkWitnessCalculatorImpl(CircuitRegistry circuitRegistry,
+                                   @Value("${zk.witness.wasm-dir:zk-keys}") String wasmDir) {
+        this.circuitRegistry = circuitRegistry;
+        this.wasmDir = Path.of(wasmDir);
+    }
+
+    @Override
+    public boolean hasCircuit(String circuitId) {
+        String id = resolve(circuitId);
+        return calculators.containsKey(id) || Files.isRegularFile(wasmDir.resolve(id + ".wasm"));
+    }
+
+    @Override
+    public Witness calculate(String circuitId, Map<String, ?> input) {
+        String id = resolve(circuitId);
+        return calculators.computeIfAbsent(id, this::load).calculate(input);
+    }
+
+    private String resolve(String circuitId) {
+        String id = circuitId != null ? circuitId : circuitRegistry.defaultCircuitId();
+        if (!CIRCUIT_ID.matcher(id).matches()) {
+            throw new IllegalArgumentException("Invalid circuit id");
+        }
+        return id;
+    }
+
+    private WitnessCalculator load(String circuitId) {
+        Path file = wasmDir.resolve(circuitId + ".wasm");
+        if (!Files.isRegularFile(file)) {
+            throw new IllegalArgumentException("No witness calculator for circuit " + circuitId);
+        }
+        long start = System.nanoTime();
+        try {
+            WitnessCalculator calculator = WitnessCalculator.load(file);
+            log.info("Loaded witness calculator for circuit {} ({} signals, circom {}) in {} ms", circuitId,
+                calculator.witnessSize(), calculator.circomVersion(), (System.nanoTime() - start) / 1_000_000);
+            return calculator;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read circuit " + file, e);
+        }
+    }
+}
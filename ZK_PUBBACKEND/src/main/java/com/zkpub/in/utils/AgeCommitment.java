@@ -0,0 +1,47 @@
+package com.zkpub.in.utils;
+
+import com.zkpub.in.zk.Poseidon;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+
+/**
+ * The age circuit's commitment, Poseidon(age, birthYear, salt, publicHash),
+ * computed natively so a stored proof hash is the same field element the
+ * circuit outputs (with circomlib's Poseidon) rather than an unrelated
+ * SHA-256 digest the verifier side can never recompute.
+ */
+public final class AgeCommitment {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private AgeCommitment() {
+    }
+
+    // Random salt below 2^248, so it is always a field element
+    public static BigInteger newSalt() {
+        return new BigInteger(248, RANDOM);
+    }
+
+    // The circuit's publicHash input for a user identifier: SHA-256 of it, taken as an integer
+    public static BigInteger publicHash(String userId) {
+        try {
+            return new BigInteger(1, MessageDigest.getInstance("SHA-256").digest(userId.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    public static BigInteger commit(int age, int birthYear, BigInteger salt, BigInteger publicHash) {
+        return Poseidon.hash(BigInteger.valueOf(age), BigInteger.valueOf(birthYear), salt, publicHash);
+    }
+
+    // 0x-less, zero-padded 64-digit hex: the width of the SHA-256 hashes it replaces
+    public static String toHex(BigInteger commitment) {
+        String hex = commitment.toString(16);
+        return "0".repeat(64 - hex.length()) + hex;
+    }
+}
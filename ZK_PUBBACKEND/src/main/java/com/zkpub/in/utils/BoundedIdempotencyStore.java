@@ -0,0 +1,37 @@
+package com.zkpub.in.utils;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Remembers the most recently seen keys up to a fixed capacity. Once full,
+ * the oldest key is forgotten, so memory stays bounded however many
+ * distinct keys arrive.
+ */
+public class BoundedIdempotencyStore {
+
+    private final Map<String, Boolean> seen;
+
+    public BoundedIdempotencyStore(int capacity) {
+        this.seen = new LinkedHashMap<>(Math.min(capacity, 1 << 16), 0.75f, false) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    // Returns true if the key was not seen before and is now recorded
+    public synchronized boolean markIfAbsent(String key) {
+        return seen.putIfAbsent(key, Boolean.TRUE) == null;
+    }
+
+    // Forget a key so that a later retry of the same delivery is processed
+    public synchronized void forget(String key) {
+        seen.remove(key);
+    }
+
+    public synchronized int size() {
+        return seen.size();
+    }
+}
@@ -0,0 +1,528 @@
+package com.zkpub.in.utils;
+
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.Period;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+
+/**
+ * Finds the date of birth in OCR text from an ID document.
+ *
+ * The text is scanned once. Labels ("DOB", "Date of Birth", "Geburtsdatum",
+ * "जन्म तिथि", ...) are recognised by an Aho-Corasick automaton built when
+ * the class is loaded, and dates are parsed by hand at token starts, so no
+ * regex is compiled or re-run per call. A date shortly after a birth label
+ * wins outright. Dates shortly after issue/expiry labels are ignored.
+ * Otherwise the oldest plausible full date is used, falling back to the
+ * oldest bare year, since birth is normally the earliest date on an ID.
+ */
+@Component
+public class DateOfBirthExtractor {
+
+    /** How far (in characters) after a label a date may start and still belong to it. */
+    private static final int LABEL_REACH = 40;
+    private static final int MIN_YEAR = 1900;
+    private static final int MAX_YEAR = 2199;
+
+    private static final String[] BIRTH_LABELS = {
+        "dob", "d.o.b", "d o b", "date of birth", "birth date", "birthdate", "born",
+        "yob", "year of birth", "birth year", "birth",
+        // Spanish, Portuguese, French, Italian, German, Dutch
+        "fecha de nacimiento", "f. nacimiento", "nacimiento", "data de nascimento", "nascimento",
+        "date de naissance", "né le", "née le", "né e le", "data di nascita", "geburtsdatum", "geb.", "geboren",
+        "geboortedatum",
+        // Hindi and transliterated Indian ID labels
+        "जन्म तिथि", "जन्मतिथि", "जन्म वर्ष", "जन्म की तारीख", "janm tithi"
+    };
+
+    private static final String[] OTHER_DATE_LABELS = {
+        "issue", "issued", "date of issue", "doi", "expiry", "expires", "exp", "date of expiry",
+        "valid", "validity", "valid till", "valid until", "printed", "download date", "as on", "since",
+        "fecha de expedición", "expedición", "date de délivrance", "ausgestellt", "gültig bis",
+        "जारी करने की तिथि"
+    };
+
+    // Open-addressed table of month names, probed with a hash computed while the word is read,
+    // so a lookup never allocates a lower-cased copy of the word
+    private static final int MAX_MONTH_NAME = 10;
+    private static final int MONTH_TABLE_MASK = 511;
+    private static final String[] MONTH_NAMES = new String[MONTH_TABLE_MASK + 1];
+    private static final int[] MONTH_NUMBERS = new int[MONTH_TABLE_MASK + 1];
+
+    static {
+        String[][] names = {
+            {"jan", "january", "ene", "enero", "janv", "janvier", "janeiro", "gennaio", "januar", "januari"},
+            {"feb", "february", "febrero", "fev", "fév", "févr", "février", "fevereiro", "febbraio", "februar", "februari"},
+            {"mar", "march", "marzo", "mars", "março", "mär", "märz", "maart", "mrt"},
+            {"apr", "april", "abr", "abril", "avr", "avril", "aprile"},
+            {"may", "mayo", "mai", "maio", "maggio", "mei"},
+            {"jun", "june", "junio", "juin", "junho", "giugno", "juni"},
+            {"jul", "july", "julio", "juil", "juillet", "julho", "luglio", "juli"},
+            {"aug", "august", "ago", "agosto", "août", "aout", "augustus"},
+            {"sep", "sept", "september", "septiembre", "septembre", "setembro", "settembre", "set"},
+            {"oct", "october", "octubre", "octobre", "out", "outubro", "ottobre", "okt", "oktober"},
+            {"nov", "november", "noviembre", "novembre", "novembro"},
+            {"dec", "december", "dic", "diciembre", "déc", "décembre", "dez", "dezembro", "dicembre", "dezember"}
+        };
+        for (int month = 0; month < names.length; month++) {
+            for (String name : names[month]) {
+                int slot = monthHash(name, 0, name.length()) & MONTH_TABLE_MASK;
+                while (MONTH_NAMES[slot] != null) {
+                    slot = (slot + 1) & MONTH_TABLE_MASK;
+                }
+                MONTH_NAMES[slot] = name;
+                MONTH_NUMBERS[slot] = month + 1;
+            }
+        }
+    }
+
+    private static int monthHash(CharSequence text, int start, int end) {
+        int hash = 0;
+        for (int i = start; i < end; i++) {
+            hash = 31 * hash + Character.toLowerCase(text.charAt(i));
+        }
+        return hash ^ (hash >>> 9);
+    }
+
+    private static final LabelAutomaton LABELS = new LabelAutomaton();
+
+    /** Whether 05/04/1990 reads as 5 April (day first, the default) or May 4. */
+    public enum FieldOrder { DAY_FIRST, MONTH_FIRST }
+
+    public enum Confidence { LABELLED, FULL_DATE, YEAR_ONLY }
+
+    /** A birth date; month and day are 0 when only the year was printed. */
+    public record DateOfBirth(int year, int month, int day, Confidence confidence) {
+
+        public boolean hasFullDate() {
+            return month > 0 && day > 0;
+        }
+
+        /** Completed years on the given day, or the plain year difference when only the year is known. */
+        public int ageOn(LocalDate today) {
+            if (!hasFullDate()) {
+                return today.getYear() - year;
+            }
+            return Period.between(LocalDate.of(year, month, day), today).getYears();
+        }
+    }
+
+    private final Clock clock;
+    private final FieldOrder defaultOrder;
+
+    public DateOfBirthExtractor() {
+        this(Clock.systemDefaultZone(), FieldOrder.DAY_FIRST);
+    }
+
+    public DateOfBirthExtractor(Clock clock, FieldOrder defaultOrder) {
+        this.clock = clock;
+        this.defaultOrder = defaultOrder;
+    }
+
+    public Optional<DateOfBirth> extract(String text) {
+        if (text == null || text.isEmpty()) {
+            return Optional.empty();
+        }
+        LocalDate today = LocalDate.now(clock);
+
+        // Start as if after a separator so a label at the very beginning still matches
+        int state = LABELS.step(0, ' ');
+        char previous = ' ';
+        boolean previousWord = false;
+        int birthLabelEnd = -LABEL_REACH - 1;
+        int otherLabelEnd = -LABEL_REACH - 1;
+        DateOfBirth oldestDate = null;
+        DateOfBirth oldestYear = null;
+
+        int length = text.length();
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            boolean word = isWordChar(c);
+
+            // Feed the automaton lower-cased text with every run of separators collapsed to one space
+            char fed = word || c == '.' ? Character.toLowerCase(c) : ' ';
+            if (fed != ' ' || previous != ' ') {
+                state = LABELS.step(state, fed);
+                previous = fed;
+                // A label is a whole word: " born" in "Bornholm" or " exp" in "export" is not one
+                int kind = endsWord(text, i, fed) ? LABELS.output(state) : LabelAutomaton.NONE;
+                if (kind == LabelAutomaton.BIRTH) {
+                    birthLabelEnd = i;
+                } else if (kind == LabelAutomaton.OTHER) {
+                    otherLabelEnd = i;
+                }
+            }
+
+            // Dates can only start at the beginning of a token
+            if (word && !previousWord && (Character.isDigit(c) || Character.isLetter(c))) {
+                boolean afterBirth = i - birthLabelEnd <= LABEL_REACH;
+                boolean afterOther = i - otherLabelEnd <= LABEL_REACH;
+                long parsed = parseDateAt(text, i, today, afterBirth);
+                if (parsed != 0) {
+                    int year = (int) (parsed >>> 48);
+                    int month = (int) (parsed >>> 40) & 0xff;
+                    int day = (int) (parsed >>> 32) & 0xff;
+                    int end = (int) parsed;
+                    // Expiry dates are in the future; they still use up their label below
+                    boolean past = month > 0 ? !LocalDate.of(year, month, day).isAfter(today) : year <= today.getYear();
+                    // Whichever label is closer owns the date
+                    if (past && afterBirth && (!afterOther || birthLabelEnd > otherLabelEnd)) {
+                        return Optional.of(new DateOfBirth(year, month, day, Confidence.LABELLED));
+                    }
+                    if (past && !afterOther) {
+                        if (month > 0) {
+                            if (oldestDate == null || isBefore(year, month, day, oldestDate)) {
+                                oldestDate = new DateOfBirth(year, month, day, Confidence.FULL_DATE);
+                            }
+                        } else if (oldestYear == null || year < oldestYear.year()) {
+                            oldestYear = new DateOfBirth(year, 0, 0, Confidence.YEAR_ONLY);
+                        }
+                    }
+
+                    // A label owns only the first date after it; skip the rest of this date so
+                    // "01/06/2020" is not read again as the bare year 2020
+                    birthLabelEnd = -LABEL_REACH - 1;
+                    otherLabelEnd = -LABEL_REACH - 1;
+                    state = LABELS.step(0, ' ');
+                    previous = ' ';
+                    i = end - 1;
+                    word = isWordChar(text.charAt(i));
+                }
+            }
+            previousWord = word;
+        }
+
+        return Optional.ofNullable(oldestDate != null ? oldestDate : oldestYear);
+    }
+
+    /** Convenience for callers that only need the year. */
+    public Integer extractBirthYear(String text) {
+        return extract(text).map(DateOfBirth::year).orElse(null);
+    }
+
+    private static boolean isBefore(int year, int month, int day, DateOfBirth other) {
+        if (year != other.year()) {
+            return year < other.year();
+        }
+        if (month != other.month()) {
+            return month < other.month();
+        }
+        return day < other.day();
+    }
+
+    /**
+     * Tries to read a date starting at {@code start}. Returns year, month, day
+     * and the index just past the date packed as
+     * {@code year << 48 | month << 40 | day << 32 | end} (month and day 0 for a
+     * bare year), or 0 when there is no plausible date here. Undelimited
+     * 8-digit dates are only read right after a birth label, where they
+     * cannot be mistaken for an ID number.
+     */
+    private long parseDateAt(String text, int start, LocalDate today, boolean labelled) {
+        Token first = Token.read(text, start);
+        if (first == null) {
+            return 0;
+        }
+
+        // "March 15, 1995" / "Mar 15 1995"
+        if (first.month > 0) {
+            Token second = Token.read(text, skipSeparators(text, first.end));
+            if (second == null || second.digits == 0) {
+                return 0;
+            }
+            Token third = Token.read(text, skipSeparators(text, second.end));
+            if (second.digits <= 2 && third != null && third.digits == 4) {
+                return pack(third.value, first.month, second.value, third.end);
+            }
+            // "March 1995" only pins down the year
+            return second.digits == 4 ? packYear(second.value, second.end) : 0;
+        }
+        if (first.digits == 0) {
+            return 0;
+        }
+
+        // Compact 8-digit forms: 19950315 or 15031995
+        if (first.digits == 8 && labelled) {
+            int v = first.value;
+            long ymd = pack(v / 10000, v / 100 % 100, v % 100, first.end);
+            return ymd != 0 ? ymd : pack(v % 10000, v / 10000 % 100, v / 1000000, first.end);
+        }
+
+        int afterFirst = first.end;
+        if (afterFirst < text.length() && isDateSeparator(text.charAt(afterFirst))) {
+            int secondStart = skipSeparators(text, afterFirst);
+            Token second = Token.read(text, secondStart);
+            if (second != null && (second.digits == 1 || second.digits == 2 || second.month > 0)) {
+                int afterSecond = second.end;
+                if (afterSecond < text.length() && isDateSeparator(text.charAt(afterSecond))) {
+                    int thirdStart = skipSeparators(text, afterSecond);
+                    Token third = Token.read(text, thirdStart);
+                    // 15/03/1995 but not "1 5/03": numeric fields share one separator
+                    boolean consistent = second.month > 0
+                        || separatorIn(text, afterFirst, secondStart) == separatorIn(text, afterSecond, thirdStart);
+                    if (third != null && third.digits > 0 && consistent) {
+                        int month = second.month > 0 ? second.month : second.value;
+                        if (first.digits == 4 && third.digits <= 2) {
+                            // 1995-03-15
+                            return pack(first.value, month, third.value, third.end);
+                        }
+                        if (first.digits <= 2 && (third.digits == 4 || third.digits == 2)) {
+                            int year = third.digits == 4 ? third.value : expandTwoDigitYear(third.value, today);
+                            // "1 5/03/1995": OCR split a field, so only the year can be trusted
+                            if (second.month == 0 && followsStrayDigits(text, start)) {
+                                return packYear(year, third.end);
+                            }
+                            if (second.month > 0) {
+                                return pack(year, second.month, first.value, third.end);
+                            }
+                            return packAmbiguous(year, first.value, second.value, third.end);
+                        }
+                    }
+                }
+            }
+        }
+
+        if (first.digits == 4) {
+            return packYear(first.value, first.end);
+        }
+        return 0;
+    }
+
+    private long packAmbiguous(int year, int a, int b, int end) {
+        // Only one reading is possible once either field exceeds 12
+        boolean dayFirst = a > 12 || (b <= 12 && defaultOrder == FieldOrder.DAY_FIRST);
+        return dayFirst ? pack(year, b, a, end) : pack(year, a, b, end);
+    }
+
+    private static long pack(int year, int month, int day, int end) {
+        if (year < MIN_YEAR || year > MAX_YEAR || month < 1 || month > 12 || day < 1 || day > 31) {
+            return 0;
+        }
+        try {
+            LocalDate.of(year, month, day);
+        } catch (DateTimeException e) {
+            return 0;
+        }
+        return ((long) year << 48) | ((long) month << 40) | ((long) day << 32) | end;
+    }
+
+    private static long packYear(int year, int end) {
+        return year >= MIN_YEAR && year <= MAX_YEAR ? ((long) year << 48) | end : 0;
+    }
+
+    private static int expandTwoDigitYear(int yy, LocalDate today) {
+        int century = today.getYear() / 100 * 100;
+        return century + yy > today.getYear() ? century - 100 + yy : century + yy;
+    }
+
+    private static int skipSeparators(String text, int i) {
+        while (i < text.length() && (isDateSeparator(text.charAt(i)) || text.charAt(i) == ',')) {
+            i++;
+        }
+        return i;
+    }
+
+    private static char separatorIn(String text, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (text.charAt(i) != ' ') {
+                return text.charAt(i);
+            }
+        }
+        return ' ';
+    }
+
+    /** Whether the label character fed at {@code i} ends a word; labels such as "geb." end on their own. */
+    private static boolean endsWord(String text, int i, char fed) {
+        if (fed == '.' || i + 1 >= text.length()) {
+            return true;
+        }
+        // Digits may follow directly, as in "DOB15/03/1995"
+        char next = text.charAt(i + 1);
+        return Character.isDigit(next) || !isWordChar(next);
+    }
+
+    /** Whether a lone one- or two-digit number sits just before {@code start}, split off by spaces. */
+    private static boolean followsStrayDigits(String text, int start) {
+        int i = start - 1;
+        if (i < 0 || text.charAt(i) != ' ') {
+            return false;
+        }
+        while (i >= 0 && text.charAt(i) == ' ') {
+            i--;
+        }
+        int digitsEnd = i;
+        while (i >= 0 && Character.isDigit(text.charAt(i))) {
+            i--;
+        }
+        int digits = digitsEnd - i;
+        return digits >= 1 && digits <= 2 && (i < 0 || !isWordChar(text.charAt(i)));
+    }
+
+    private static boolean isDateSeparator(char c) {
+        return c == '/' || c == '-' || c == '.' || c == ' ' || c == '–';
+    }
+
+    private static boolean isWordChar(char c) {
+        if (Character.isLetterOrDigit(c)) {
+            return true;
+        }
+        // Devanagari vowel signs and viramas are marks, not letters
+        int type = Character.getType(c);
+        return type == Character.NON_SPACING_MARK || type == Character.COMBINING_SPACING_MARK;
+    }
+
+    /** A run of digits (value, digit count) or a month name, read without allocating for digits. */
+    private record Token(int value, int digits, int month, int end) {
+
+        static Token read(String text, int start) {
+            int length = text.length();
+            if (start >= length) {
+                return null;
+            }
+            char c = text.charAt(start);
+            if (Character.isDigit(c)) {
+                int value = 0;
+                int i = start;
+                while (i < length && Character.isDigit(text.charAt(i)) && i - start < 8) {
+                    value = value * 10 + Character.digit(text.charAt(i), 10);
+                    i++;
+                }
+                // A longer number (an ID, a phone number) is not a date component
+                if (i < length && Character.isDigit(text.charAt(i))) {
+                    return null;
+                }
+                return new Token(value, i - start, 0, i);
+            }
+            if (Character.isLetter(c)) {
+                int i = start;
+                while (i < length && Character.isLetter(text.charAt(i)) && i - start <= 10) {
+                    i++;
+                }
+                int month = monthAt(text, start, i - start);
+                if (month == 0) {
+                    return null;
+                }
+                // Allow abbreviations written with a dot, as in "Sept." or "févr."
+                int end = i < length && text.charAt(i) == '.' ? i + 1 : i;
+                return new Token(0, 0, month, end);
+            }
+            return null;
+        }
+
+        private static int monthAt(String text, int start, int length) {
+            if (length > MAX_MONTH_NAME) {
+                return 0;
+            }
+            int slot = monthHash(text, start, start + length) & MONTH_TABLE_MASK;
+            for (String name = MONTH_NAMES[slot]; name != null; name = MONTH_NAMES[slot]) {
+                if (name.length() == length && text.regionMatches(true, start, name, 0, length)) {
+                    return MONTH_NUMBERS[slot];
+                }
+                slot = (slot + 1) & MONTH_TABLE_MASK;
+            }
+            return 0;
+        }
+    }
+
+    /** Aho-Corasick automaton over the label lists, with transitions precomputed into a dense table. */
+    private static final class LabelAutomaton {
+
+        static final int NONE = 0;
+        static final int BIRTH = 1;
+        static final int OTHER = 2;
+
+        private final Map<Character, Integer> alphabet = new HashMap<>();
+        private final int[] asciiSymbols = new int[128];
+        private final int[][] next;
+        private final int[] output;
+
+        LabelAutomaton() {
+            List<Map<Character, Integer>> trie = new ArrayList<>();
+            List<Integer> kinds = new ArrayList<>();
+            trie.add(new HashMap<>());
+            kinds.add(NONE);
+            // Every label must start on a token boundary, so it is entered with its leading space
+            for (String label : BIRTH_LABELS) {
+                insert(trie, kinds, " " + label, BIRTH);
+            }
+            for (String label : OTHER_DATE_LABELS) {
+                insert(trie, kinds, " " + label, OTHER);
+            }
+
+            int states = trie.size();
+            int symbols = alphabet.size() + 1; // symbol 0 is "not in any label"
+            next = new int[states][symbols];
+            output = new int[states];
+            int[] fail = new int[states];
+
+            Queue<Integer> queue = new ArrayDeque<>();
+            for (Map.Entry<Character, Integer> edge : trie.get(0).entrySet()) {
+                int child = edge.getValue();
+                next[0][alphabet.get(edge.getKey())] = child;
+                queue.add(child);
+            }
+            for (int s = 0; s < states; s++) {
+                output[s] = kinds.get(s);
+            }
+            while (!queue.isEmpty()) {
+                int s = queue.poll();
+                if (output[s] == NONE) {
+                    output[s] = output[fail[s]];
+                }
+                for (int symbol = 0; symbol < symbols; symbol++) {
+                    next[s][symbol] = next[fail[s]][symbol];
+                }
+                for (Map.Entry<Character, Integer> edge : trie.get(s).entrySet()) {
+                    int symbol = alphabet.get(edge.getKey());
+                    int child = edge.getValue();
+                    fail[child] = next[fail[s]][symbol];
+                    next[s][symbol] = child;
+                    queue.add(child);
+                }
+            }
+        }
+
+        private void insert(List<Map<Character, Integer>> trie, List<Integer> kinds, String label, int kind) {
+            int state = 0;
+            for (char c : label.toCharArray()) {
+                int symbol = alphabet.computeIfAbsent(c, k -> alphabet.size() + 1);
+                if (c < 128) {
+                    asciiSymbols[c] = symbol;
+                }
+                Integer child = trie.get(state).get(c);
+                if (child == null) {
+                    child = trie.size();
+                    trie.add(new HashMap<>());
+                    kinds.add(NONE);
+                    trie.get(state).put(c, child);
+                }
+                state = child;
+            }
+            // Birth labels take precedence where both lists share a spelling
+            if (kinds.get(state) != BIRTH) {
+                kinds.set(state, kind);
+            }
+        }
+
+        int step(int state, char c) {
+            if (c < 128) {
+                return next[state][asciiSymbols[c]];
+            }
+            Integer symbol = alphabet.get(c);
+            return next[state][symbol == null ? 0 : symbol];
+        }
+
+        int output(int state) {
+            return output[state];
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.zkpub.in.utils;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Minimal Ethereum JSON-RPC client. Calls are sent as JSON-RPC batches over
+ * a single shared HttpClient, so connections to the node are kept alive and
+ * reused across polls.
+ */
+@Component
+public class EthRpcClient {
+
+    private final ObjectMapper objectMapper;
+    private final HttpClient httpClient;
+    private final URI rpcUri;
+    private final Duration requestTimeout;
+
+    public EthRpcClient(ObjectMapper objectMapper,
+                        @Value("${blockchain.rpc.url:http://localhost:8545}") String rpcUrl,
+                        @Value("${blockchain.rpc.timeout-ms:10000}") long timeoutMs) {
+        this.objectMapper = objectMapper;
+        this.rpcUri = URI.create(rpcUrl);
+        this.requestTimeout = Duration.ofMillis(timeoutMs);
+        this.httpClient = HttpClient.newBuilder()
+            .connectTimeout(requestTimeout)
+            .build();
+    }
+
+    public record RpcCall(String method, List<Object> params) {
+        public static RpcCall of(String method, Object... params) {
+            return new RpcCall(method, Arrays.asList(params));
+        }
+    }
+
+    public record RpcResponse(JsonNode result, String error) {
+        public boolean isError() {
+            return error != null;
+        }
+    }
+
+    // Sends all calls in one HTTP request; responses come back in call order
+    public CompletableFuture<List<RpcResponse>> batchAsync(List<RpcCall> calls) {
+        if (calls.isEmpty()) {
+            return CompletableFuture.completedFuture(List.of());
+        }
+
+        ArrayNode body = objectMapper.createArrayNode();
+        for (int i = 0; i < calls.size(); i++) {
+            ObjectNode node = body.addObject();
+            node.put("jsonrpc", "2.0");
+            node.put("id", i);
+            node.put("method", calls.get(i).method());
+            node.set("params", objectMapper.valueToTree(calls.get(i).params()));
+        }
+
+        HttpRequest request;
+        try {
+            request = HttpRequest.newBuilder(rpcUri)
+                .timeout(requestTimeout)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)))
+                .build();
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(e);
+        }
+
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray())
+            .thenApply(response -> parseBatch(response, calls.size()));
+    }
+
+    public List<RpcResponse> batch(List<RpcCall> calls) {
+        return batchAsync(calls).join();
+    }
+
+    public RpcResponse call(String method, Object... params) {
+        return batch(List.of(RpcCall.of(method, params))).get(0);
+    }
+
+    private List<RpcResponse> parseBatch(HttpResponse<byte[]> response, int expected) {
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("JSON-RPC request failed with HTTP " + response.statusCode());
+        }
+
+        JsonNode root;
+        try {
+            root = objectMapper.readTree(response.body());
+        } catch (Exception e) {
+            throw new IllegalStateException("Malformed JSON-RPC response", e);
+        }
+        if (!root.isArray()) {
+            // Nodes answer a rejected batch with a single error object
+            throw new IllegalStateException("JSON-RPC batch rejected: " + root.path("error"));
+        }
+
+        // Batch responses may be returned in any order; put them back by id
+        List<RpcResponse> ordered = new ArrayList<>(expected);
+        for (int i = 0; i < expected; i++) {
+            ordered.add(new RpcResponse(null, "missing response"));
+        }
+        for (JsonNode node : root) {
+            int id = node.path("id").asInt(-1);
+            if (id < 0 || id >= expected) {
+                continue;
+            }
+            JsonNode error = node.get("error");
+            ordered.set(id, error != null && !error.isNull()
+                ? new RpcResponse(null, error.path("message").asText(error.toString()))
+                : new RpcResponse(node.get("result"), null));
+        }
+        return ordered;
+    }
+
+    // Parses a 0x-prefixed JSON-RPC quantity
+    public static long quantity(JsonNode node) {
+        String hex = node.asText();
+        return Long.parseLong(hex.startsWith("0x") ? hex.substring(2) : hex, 16);
+    }
+}
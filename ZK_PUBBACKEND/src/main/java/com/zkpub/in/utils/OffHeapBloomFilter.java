@@ -0,0 +1,103 @@
+package com.zkpub.in.utils;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * A blocked Bloom filter over 256-bit digests, kept in a direct buffer so
+ * that tens of millions of entries cost no heap and no GC scanning. Each
+ * key touches a single 64-byte block (one cache line), so a lookup is one
+ * memory access plus a few bit tests. Digests are already uniform, so the
+ * block and bit positions are read straight from their bytes instead of
+ * being rehashed.
+ *
+ * Adds are lock-free atomic ORs; lookups may race with adds and at worst
+ * miss a key that is being added concurrently, so callers that need a
+ * definite answer confirm positives (and racing adds) against the store
+ * the filter mirrors.
+ */
+public class OffHeapBloomFilter {
+
+    private static final int BLOCK_BYTES = 64;
+    private static final int BLOCK_BITS = BLOCK_BYTES * 8;
+    private static final int BIT_INDEX_BITS = 9; // log2(BLOCK_BITS)
+    // Two 64-bit words of the digest yield 7 bit positions each
+    private static final int MAX_HASHES = 2 * (64 / BIT_INDEX_BITS);
+    // Blocking concentrates keys, so give it more bits than a classic filter of the same rate
+    private static final double BLOCKING_OVERHEAD = 1.2;
+
+    private static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+    private static final VarHandle DIGEST_WORDS = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.BIG_ENDIAN);
+
+    private final ByteBuffer bits;
+    private final long blocks;
+    private final int hashes;
+
+    public OffHeapBloomFilter(long expectedEntries, double falsePositiveRate) {
+        if (expectedEntries <= 0 || falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("Need expectedEntries > 0 and 0 < falsePositiveRate < 1");
+        }
+        double bitsPerEntry = -Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)) * BLOCKING_OVERHEAD;
+        long totalBits = (long) Math.ceil(expectedEntries * bitsPerEntry);
+        long blockCount = Math.max(1, (totalBits + BLOCK_BITS - 1) / BLOCK_BITS);
+        if (blockCount * BLOCK_BYTES > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Filter for " + expectedEntries + " entries exceeds 2 GB");
+        }
+        this.blocks = blockCount;
+        this.hashes = (int) Math.max(1, Math.min(MAX_HASHES, Math.round(bitsPerEntry / BLOCKING_OVERHEAD * Math.log(2))));
+        this.bits = ByteBuffer.allocateDirect((int) (blockCount * BLOCK_BYTES)).order(ByteOrder.nativeOrder());
+    }
+
+    // digest must hold at least 24 uniformly distributed bytes (e.g. a SHA-256 output)
+    public void add(byte[] digest) {
+        int block = blockOffset(digest);
+        long h = word(digest, 8);
+        for (int i = 0; i < hashes; i++) {
+            if (i == MAX_HASHES / 2) {
+                h = word(digest, 16);
+            }
+            int bit = (int) (h & (BLOCK_BITS - 1));
+            LONGS.getAndBitwiseOr(bits, block + (bit >>> 6) * Long.BYTES, 1L << bit);
+            h >>>= BIT_INDEX_BITS;
+        }
+    }
+
+    // False means the digest was certainly never added
+    public boolean mightContain(byte[] digest) {
+        int block = blockOffset(digest);
+        long h = word(digest, 8);
+        for (int i = 0; i < hashes; i++) {
+            if (i == MAX_HASHES / 2) {
+                h = word(digest, 16);
+            }
+            int bit = (int) (h & (BLOCK_BITS - 1));
+            long w = (long) LONGS.getOpaque(bits, block + (bit >>> 6) * Long.BYTES);
+            if ((w & (1L << bit)) == 0) {
+                return false;
+            }
+            h >>>= BIT_INDEX_BITS;
+        }
+        return true;
+    }
+
+    public long sizeInBytes() {
+        return blocks * BLOCK_BYTES;
+    }
+
+    public int hashCount() {
+        return hashes;
+    }
+
+    private int blockOffset(byte[] digest) {
+        if (digest.length < 24) {
+            throw new IllegalArgumentException("Digest too short for the filter");
+        }
+        return (int) Long.remainderUnsigned(word(digest, 0), blocks) * BLOCK_BYTES;
+    }
+
+    private static long word(byte[] digest, int offset) {
+        return (long) DIGEST_WORDS.get(digest, offset);
+    }
+}
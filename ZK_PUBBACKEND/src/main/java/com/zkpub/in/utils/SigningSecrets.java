@@ -0,0 +1,24 @@
+package com.zkpub.in.utils;
+
+import java.util.Locale;
+
+/**
+ * Startup checks for HMAC signing secrets read from configuration. A
+ * secret that is blank, or still the "change-me" text shipped in a sample
+ * config, is public knowledge, and anyone could sign with it.
+ */
+public final class SigningSecrets {
+
+    private static final String PLACEHOLDER_PREFIX = "change-me";
+
+    private SigningSecrets() {
+    }
+
+    // The secret, or IllegalStateException naming the property when it is unset or a placeholder
+    public static String require(String property, String secret) {
+        if (secret == null || secret.isBlank() || secret.trim().toLowerCase(Locale.ROOT).startsWith(PLACEHOLDER_PREFIX)) {
+            throw new IllegalStateException(property + " must be set to a real secret");
+        }
+        return secret;
+    }
+}
@@ -0,0 +1,12 @@
+package com.zkpub.in.wasm;
+
+/**
+ * A function imported by a module. Arguments arrive as longs (i32 values
+ * sign-extended); the return value is ignored for functions without a
+ * result. Host functions may call back into the instance's exports.
+ */
+@FunctionalInterface
+public interface HostFunction {
+
+    long call(WasmInstance instance, long[] args);
+}
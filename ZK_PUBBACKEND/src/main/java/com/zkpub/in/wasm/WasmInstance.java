@@ -0,0 +1,363 @@
+package com.zkpub.in.wasm;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * One instantiation of a {@link WasmModule}: its linear memory, globals,
+ * table and value stack. Not thread-safe; callers keep an instance to one
+ * thread at a time and reuse it across calls.
+ *
+ * The interpreter runs the module's pre-translated code with one long[]
+ * as the value stack. A frame is the callee's params and locals followed
+ * by its operands, and i32 values occupy a slot as sign-extended longs.
+ * Calls between WebAssembly functions recurse on the Java stack.
+ */
+public final class WasmInstance {
+
+    private static final VarHandle SHORT = MethodHandles.byteArrayViewVarHandle(short[].class, ByteOrder.LITTLE_ENDIAN);
+    private static final VarHandle INT = MethodHandles.byteArrayViewVarHandle(int[].class, ByteOrder.LITTLE_ENDIAN);
+    private static final VarHandle LONG = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
+    private final WasmModule module;
+    private final HostFunction[] hostFunctions;
+    private final long[] globals;
+    private final int[] table;
+    private byte[] memory;
+    private long[] stack = new long[1 << 12];
+    // First free stack slot while a host function runs, so re-entrant calls stack above the caller
+    private int top;
+
+    WasmInstance(WasmModule module, Map<String, HostFunction> imports) {
+        this.module = module;
+        hostFunctions = new HostFunction[module.imports.size()];
+        for (int i = 0; i < hostFunctions.length; i++) {
+            WasmModule.Import in = module.imports.get(i);
+            hostFunctions[i] = imports.get(in.module() + "." + in.name());
+            if (hostFunctions[i] == null) {
+                throw new IllegalArgumentException("Missing import " + in.module() + "." + in.name());
+            }
+        }
+        globals = module.globals.stream().mapToLong(WasmModule.Global::init).toArray();
+        memory = new byte[module.memoryPages * WasmModule.PAGE_SIZE];
+        for (WasmModule.DataSegment segment : module.data) {
+            if (segment.offset() < 0 || (long) segment.offset() + segment.bytes().length > memory.length) {
+                throw new WasmTrap("Data segment out of bounds");
+            }
+            System.arraycopy(segment.bytes(), 0, memory, segment.offset(), segment.bytes().length);
+        }
+        table = new int[module.tableSize];
+        Arrays.fill(table, -1);
+        for (WasmModule.ElementSegment segment : module.elements) {
+            if (segment.offset() < 0 || (long) segment.offset() + segment.functions().length > table.length) {
+                throw new WasmTrap("Element segment out of bounds");
+            }
+            System.arraycopy(segment.functions(), 0, table, segment.offset(), segment.functions().length);
+        }
+        if (module.start >= 0) {
+            call(module.start);
+        }
+    }
+
+    /** Index of an exported function, for repeated {@link #call(int, long...)}s without the name lookup. */
+    public int function(String export) {
+        Integer index = module.exports.get(export);
+        if (index == null) {
+            throw new IllegalArgumentException("No exported function " + export);
+        }
+        return index;
+    }
+
+    public long call(String export, long... args) {
+        return call(function(export), args);
+    }
+
+    /** Calls a function; returns its result, or 0 for functions without one. */
+    public long call(int function, long... args) {
+        WasmModule.FuncType type = module.typeOf(function);
+        if (args.length != type.params()) {
+            throw new IllegalArgumentException("Expected " + type.params() + " arguments, got " + args.length);
+        }
+        int base = top;
+        ensureCapacity(base + args.length + 1);
+        System.arraycopy(args, 0, stack, base, args.length);
+        try {
+            invoke(function, base);
+            return type.results() > 0 ? stack[base] : 0;
+        } catch (StackOverflowError e) {
+            throw new WasmTrap("Call stack exhausted");
+        } finally {
+            top = base;
+        }
+    }
+
+    public byte[] memory() {
+        return memory;
+    }
+
+    private void invoke(int function, int fp) {
+        int imported = hostFunctions.length;
+        if (function < imported) {
+            WasmModule.FuncType type = module.typeOf(function);
+            long[] args = Arrays.copyOfRange(stack, fp, fp + type.params());
+            int saved = top;
+            top = fp + type.params();
+            try {
+                long result = hostFunctions[function].call(this, args);
+                if (type.results() > 0) {
+                    stack[fp] = result;
+                }
+            } finally {
+                top = saved;
+            }
+            return;
+        }
+        execute(module.functions.get(function - imported), fp);
+    }
+
+    private void ensureCapacity(int size) {
+        if (size > stack.length) {
+            stack = Arrays.copyOf(stack, Math.max(size, stack.length * 2));
+        }
+    }
+
+    private void execute(WasmModule.Function f, int fp) {
+        int params = module.types.get(f.type()).params();
+        ensureCapacity(fp + f.locals() + f.maxStack());
+        long[] s = stack;
+        Arrays.fill(s, fp + params, fp + f.locals(), 0L);
+        int[] code = f.code();
+        int sp = fp + f.locals();
+        int pc = 0;
+        while (true) {
+            int op = code[pc++];
+            switch (op) {
+                case 0x00 -> throw new WasmTrap("unreachable");
+                case 0x04 -> {
+                    int elsePc = code[pc++];
+                    if ((int) s[--sp] == 0) {
+                        pc = elsePc;
+                    }
+                }
+                case 0x05 -> pc = code[pc];
+                case 0x0c -> {
+                    sp = branch(s, sp, fp, code[pc + 1], code[pc + 2]);
+                    pc = code[pc];
+                }
+                case 0x0d -> {
+                    if ((int) s[--sp] != 0) {
+                        sp = branch(s, sp, fp, code[pc + 1], code[pc + 2]);
+                        pc = code[pc];
+                    } else {
+                        pc += 3;
+                    }
+                }
+                case 0x0e -> {
+                    int n = code[pc];
+                    int i = (int) s[--sp];
+                    int entry = pc + 1 + 3 * (Integer.compareUnsigned(i, n) < 0 ? i : n);
+                    sp = branch(s, sp, fp, code[entry + 1], code[entry + 2]);
+                    pc = code[entry];
+                }
+                case 0x0f -> {
+                    int results = code[pc];
+                    System.arraycopy(s, sp - results, s, fp, results);
+                    return;
+                }
+                case 0x10 -> {
+                    int callee = code[pc++];
+                    WasmModule.FuncType type = module.typeOf(callee);
+                    int calleeFp = sp - type.params();
+                    invoke(callee, calleeFp);
+                    s = stack;
+                    sp = calleeFp + type.results();
+                }
+                case 0x11 -> {
+                    WasmModule.FuncType expected = module.types.get(code[pc++]);
+                    int slot = (int) s[--sp];
+                    if (slot < 0 || slot >= table.length || table[slot] < 0) {
+                        throw new WasmTrap("Undefined table element " + slot);
+                    }
+                    int callee = table[slot];
+                    if (!module.typeOf(callee).equals(expected)) {
+                        throw new WasmTrap("Indirect call type mismatch");
+                    }
+                    int calleeFp = sp - expected.params();
+                    invoke(callee, calleeFp);
+                    s = stack;
+                    sp = calleeFp + expected.results();
+                }
+                case 0x1a -> sp--;
+                case 0x1b -> {
+                    sp -= 2;
+                    if ((int) s[sp + 1] == 0) {
+                        s[sp - 1] = s[sp];
+                    }
+                }
+                case 0x20 -> s[sp++] = s[fp + code[pc++]];
+                case 0x21 -> s[fp + code[pc++]] = s[--sp];
+                case 0x22 -> s[fp + code[pc++]] = s[sp - 1];
+                case 0x23 -> s[sp++] = globals[code[pc++]];
+                case 0x24 -> globals[code[pc++]] = s[--sp];
+
+                case 0x28 -> s[sp - 1] = (int) INT.get(memory, address(s[sp - 1], code[pc++], 4));
+                case 0x29 -> s[sp - 1] = (long) LONG.get(memory, address(s[sp - 1], code[pc++], 8));
+                case 0x2c, 0x30 -> s[sp - 1] = memory[address(s[sp - 1], code[pc++], 1)];
+                case 0x2d, 0x31 -> s[sp - 1] = memory[address(s[sp - 1], code[pc++], 1)] & 0xff;
+                case 0x2e, 0x32 -> s[sp - 1] = (short) SHORT.get(memory, address(s[sp - 1], code[pc++], 2));
+                case 0x2f, 0x33 -> s[sp - 1] = (short) SHORT.get(memory, address(s[sp - 1], code[pc++], 2)) & 0xffff;
+                case 0x34 -> s[sp - 1] = (int) INT.get(memory, address(s[sp - 1], code[pc++], 4));
+                case 0x35 -> s[sp - 1] = (int) INT.get(memory, address(s[sp - 1], code[pc++], 4)) & 0xffffffffL;
+                case 0x36, 0x3e -> {
+                    sp -= 2;
+                    INT.set(memory, address(s[sp], code[pc++], 4), (int) s[sp + 1]);
+                }
+                case 0x37 -> {
+                    sp -= 2;
+                    LONG.set(memory, address(s[sp], code[pc++], 8), s[sp + 1]);
+                }
+                case 0x3a, 0x3c -> {
+                    sp -= 2;
+                    memory[address(s[sp], code[pc++], 1)] = (byte) s[sp + 1];
+                }
+                case 0x3b, 0x3d -> {
+                    sp -= 2;
+                    SHORT.set(memory, address(s[sp], code[pc++], 2), (short) s[sp + 1]);
+                }
+                case 0x3f -> s[sp++] = memory.length / WasmModule.PAGE_SIZE;
+                case 0x40 -> s[sp - 1] = grow((int) s[sp - 1]);
+                case 0x41 -> s[sp++] = code[pc++];
+                case 0x42 -> {
+                    s[sp++] = (code[pc] & 0xffffffffL) | ((long) code[pc + 1] << 32);
+                    pc += 2;
+                }
+
+                case 0x45 -> s[sp - 1] = (int) s[sp - 1] == 0 ? 1 : 0;
+                case 0x46 -> s[sp - 2] = (int) s[sp - 2] == (int) s[--sp] ? 1 : 0;
+                case 0x47 -> s[sp - 2] = (int) s[sp - 2] != (int) s[--sp] ? 1 : 0;
+                case 0x48 -> s[sp - 2] = (int) s[sp - 2] < (int) s[--sp] ? 1 : 0;
+                case 0x49 -> s[sp - 2] = Integer.compareUnsigned((int) s[sp - 2], (int) s[--sp]) < 0 ? 1 : 0;
+                case 0x4a -> s[sp - 2] = (int) s[sp - 2] > (int) s[--sp] ? 1 : 0;
+                case 0x4b -> s[sp - 2] = Integer.compareUnsigned((int) s[sp - 2], (int) s[--sp]) > 0 ? 1 : 0;
+                case 0x4c -> s[sp - 2] = (int) s[sp - 2] <= (int) s[--sp] ? 1 : 0;
+                case 0x4d -> s[sp - 2] = Integer.compareUnsigned((int) s[sp - 2], (int) s[--sp]) <= 0 ? 1 : 0;
+                case 0x4e -> s[sp - 2] = (int) s[sp - 2] >= (int) s[--sp] ? 1 : 0;
+                case 0x4f -> s[sp - 2] = Integer.compareUnsigned((int) s[sp - 2], (int) s[--sp]) >= 0 ? 1 : 0;
+                case 0x50 -> s[sp - 1] = s[sp - 1] == 0 ? 1 : 0;
+                case 0x51 -> s[sp - 2] = s[sp - 2] == s[--sp] ? 1 : 0;
+                case 0x52 -> s[sp - 2] = s[sp - 2] != s[--sp] ? 1 : 0;
+                case 0x53 -> s[sp - 2] = s[sp - 2] < s[--sp] ? 1 : 0;
+                case 0x54 -> s[sp - 2] = Long.compareUnsigned(s[sp - 2], s[--sp]) < 0 ? 1 : 0;
+                case 0x55 -> s[sp - 2] = s[sp - 2] > s[--sp] ? 1 : 0;
+                case 0x56 -> s[sp - 2] = Long.compareUnsigned(s[sp - 2], s[--sp]) > 0 ? 1 : 0;
+                case 0x57 -> s[sp - 2] = s[sp - 2] <= s[--sp] ? 1 : 0;
+                case 0x58 -> s[sp - 2] = Long.compareUnsigned(s[sp - 2], s[--sp]) <= 0 ? 1 : 0;
+                case 0x59 -> s[sp - 2] = s[sp - 2] >= s[--sp] ? 1 : 0;
+                case 0x5a -> s[sp - 2] = Long.compareUnsigned(s[sp - 2], s[--sp]) >= 0 ? 1 : 0;
+
+                case 0x67 -> s[sp - 1] = Integer.numberOfLeadingZeros((int) s[sp - 1]);
+                case 0x68 -> s[sp - 1] = Integer.numberOfTrailingZeros((int) s[sp - 1]);
+                case 0x69 -> s[sp - 1] = Integer.bitCount((int) s[sp - 1]);
+                case 0x6a -> s[sp - 2] = (int) s[sp - 2] + (int) s[--sp];
+                case 0x6b -> s[sp - 2] = (int) s[sp - 2] - (int) s[--sp];
+                case 0x6c -> s[sp - 2] = (int) s[sp - 2] * (int) s[--sp];
+                case 0x6d -> {
+                    int b = (int) s[--sp], a = (int) s[sp - 1];
+                    if (b == 0 || (a == Integer.MIN_VALUE && b == -1)) {
+                        throw new WasmTrap(b == 0 ? "integer divide by zero" : "integer overflow");
+                    }
+                    s[sp - 1] = a / b;
+                }
+                case 0x6e -> s[sp - 2] = Integer.divideUnsigned((int) s[sp - 2], nonZero((int) s[--sp]));
+                case 0x6f -> s[sp - 2] = (int) s[sp - 2] % nonZero((int) s[--sp]);
+                case 0x70 -> s[sp - 2] = Integer.remainderUnsigned((int) s[sp - 2], nonZero((int) s[--sp]));
+                case 0x71 -> s[sp - 2] = (int) s[sp - 2] & (int) s[--sp];
+                case 0x72 -> s[sp - 2] = (int) s[sp - 2] | (int) s[--sp];
+                case 0x73 -> s[sp - 2] = (int) s[sp - 2] ^ (int) s[--sp];
+                case 0x74 -> s[sp - 2] = (int) s[sp - 2] << (int) s[--sp];
+                case 0x75 -> s[sp - 2] = (int) s[sp - 2] >> (int) s[--sp];
+                case 0x76 -> s[sp - 2] = (int) s[sp - 2] >>> (int) s[--sp];
+                case 0x77 -> s[sp - 2] = Integer.rotateLeft((int) s[sp - 2], (int) s[--sp]);
+                case 0x78 -> s[sp - 2] = Integer.rotateRight((int) s[sp - 2], (int) s[--sp]);
+
+                case 0x79 -> s[sp - 1] = Long.numberOfLeadingZeros(s[sp - 1]);
+                case 0x7a -> s[sp - 1] = Long.numberOfTrailingZeros(s[sp - 1]);
+                case 0x7b -> s[sp - 1] = Long.bitCount(s[sp - 1]);
+                case 0x7c -> s[sp - 2] += s[--sp];
+                case 0x7d -> s[sp - 2] -= s[--sp];
+                case 0x7e -> s[sp - 2] *= s[--sp];
+                case 0x7f -> {
+                    long b = s[--sp], a = s[sp - 1];
+                    if (b == 0 || (a == Long.MIN_VALUE && b == -1)) {
+                        throw new WasmTrap(b == 0 ? "integer divide by zero" : "integer overflow");
+                    }
+                    s[sp - 1] = a / b;
+                }
+                case 0x80 -> s[sp - 2] = Long.divideUnsigned(s[sp - 2], nonZero(s[--sp]));
+                case 0x81 -> s[sp - 2] %= nonZero(s[--sp]);
+                case 0x82 -> s[sp - 2] = Long.remainderUnsigned(s[sp - 2], nonZero(s[--sp]));
+                case 0x83 -> s[sp - 2] &= s[--sp];
+                case 0x84 -> s[sp - 2] |= s[--sp];
+                case 0x85 -> s[sp - 2] ^= s[--sp];
+                case 0x86 -> s[sp - 2] <<= s[--sp];
+                case 0x87 -> s[sp - 2] >>= s[--sp];
+                case 0x88 -> s[sp - 2] >>>= s[--sp];
+                case 0x89 -> s[sp - 2] = Long.rotateLeft(s[sp - 2], (int) s[--sp]);
+                case 0x8a -> s[sp - 2] = Long.rotateRight(s[sp - 2], (int) s[--sp]);
+
+                case 0xa7 -> s[sp - 1] = (int) s[sp - 1];
+                case 0xac -> s[sp - 1] = (int) s[sp - 1];
+                case 0xad -> s[sp - 1] = s[sp - 1] & 0xffffffffL;
+                case 0xc0, 0xc2 -> s[sp - 1] = (byte) s[sp - 1];
+                case 0xc1, 0xc3 -> s[sp - 1] = (short) s[sp - 1];
+                case 0xc4 -> s[sp - 1] = (int) s[sp - 1];
+                default -> throw new IllegalStateException("Untranslated instruction 0x" + Integer.toHexString(op));
+            }
+        }
+    }
+
+    // Keeps the top `arity` values and drops everything down to the label's height
+    private static int branch(long[] s, int sp, int fp, int arity, int height) {
+        int target = fp + height;
+        if (arity > 0 && target != sp - arity) {
+            System.arraycopy(s, sp - arity, s, target, arity);
+        }
+        return target + arity;
+    }
+
+    private int address(long base, int offset, int size) {
+        long address = (base & 0xffffffffL) + (offset & 0xffffffffL);
+        if (address + size > memory.length) {
+            throw new WasmTrap("Out of bounds memory access at " + address);
+        }
+        return (int) address;
+    }
+
+    private int grow(int pages) {
+        int current = memory.length / WasmModule.PAGE_SIZE;
+        if (pages < 0 || (long) current + pages > module.maxMemoryPages) {
+            return -1;
+        }
+        if (pages > 0) {
+            memory = Arrays.copyOf(memory, (current + pages) * WasmModule.PAGE_SIZE);
+        }
+        return current;
+    }
+
+    private static int nonZero(int divisor) {
+        if (divisor == 0) {
+            throw new WasmTrap("integer divide by zero");
+        }
+        return divisor;
+    }
+
+    private static long nonZero(long divisor) {
+        if (divisor == 0) {
+            throw new WasmTrap("integer divide by zero");
+        }
+        return divisor;
+    }
+}
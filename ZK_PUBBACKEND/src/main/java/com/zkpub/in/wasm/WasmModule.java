@@ -0,0 +1,614 @@
+package com.zkpub.in.wasm;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A decoded WebAssembly module, immutable and shared by all of its
+ * instances. Covers the integer subset of WebAssembly 1.0 that circom and
+ * similar compilers emit: i32/i64 arithmetic, linear memory, globals,
+ * tables and imported functions. Floating point is rejected at load time.
+ *
+ * Function bodies are translated once into a flat int code in which every
+ * branch already carries its target, the number of values it keeps and
+ * the stack height to unwind to. WebAssembly's structured control flow
+ * fixes all three statically, so {@link WasmInstance} needs no control
+ * stack at run time.
+ */
+public final class WasmModule {
+
+    static final int PAGE_SIZE = 1 << 16;
+    // Memory lives in one byte[], so 2 GiB - 64 KiB is the most a module can grow to
+    static final int MAX_PAGES = Integer.MAX_VALUE / PAGE_SIZE;
+
+    private static final byte[] MAGIC = {0, 'a', 's', 'm', 1, 0, 0, 0};
+    private static final int I32 = 0x7f, I64 = 0x7e, FUNCREF = 0x70;
+
+    record FuncType(int params, int results) {
+    }
+
+    record Import(String module, String name, int type) {
+    }
+
+    /** A defined function: its type, params + declared locals, and the translated body. */
+    record Function(int type, int locals, int maxStack, int[] code) {
+    }
+
+    record Global(boolean mutable, long init) {
+    }
+
+    record DataSegment(int offset, byte[] bytes) {
+    }
+
+    record ElementSegment(int offset, int[] functions) {
+    }
+
+    final List<FuncType> types = new ArrayList<>();
+    final List<Import> imports = new ArrayList<>();
+    final List<Function> functions = new ArrayList<>();
+    final List<Global> globals = new ArrayList<>();
+    final List<DataSegment> data = new ArrayList<>();
+    final List<ElementSegment> elements = new ArrayList<>();
+    final Map<String, Integer> exports = new HashMap<>();
+    int tableSize;
+    int memoryPages;
+    int maxMemoryPages = MAX_PAGES;
+    int start = -1;
+
+    private final List<Integer> functionTypes = new ArrayList<>();
+
+    private WasmModule() {
+    }
+
+    public static WasmModule parse(byte[] bytes) {
+        if (bytes.length < MAGIC.length || !Arrays.equals(bytes, 0, MAGIC.length, MAGIC, 0, MAGIC.length)) {
+            throw new IllegalArgumentException("Not a WebAssembly 1.0 module");
+        }
+        WasmModule module = new WasmModule();
+        Reader in = new Reader(bytes, MAGIC.length, bytes.length);
+        try {
+            while (in.pos < bytes.length) {
+                int id = in.u8();
+                int size = in.u32();
+                Reader section = new Reader(bytes, in.pos, in.pos + size);
+                in.pos += size;
+                module.readSection(id, section);
+            }
+        } catch (ArrayIndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Truncated WebAssembly module");
+        }
+        if (module.functions.size() + module.imports.size() != module.functionTypes.size()) {
+            throw new IllegalArgumentException("Function and code sections disagree");
+        }
+        return module;
+    }
+
+    /** Instantiates with imports keyed "module.name"; every imported function must be provided. */
+    public WasmInstance instantiate(Map<String, HostFunction> hostFunctions) {
+        return new WasmInstance(this, hostFunctions);
+    }
+
+    public boolean exportsFunction(String name) {
+        return exports.containsKey(name);
+    }
+
+    FuncType typeOf(int function) {
+        return types.get(functionTypes.get(function));
+    }
+
+    private void readSection(int id, Reader in) {
+        switch (id) {
+            case 0, 12 -> {
+                // custom sections and the data count carry nothing we need
+            }
+            case 1 -> {
+                for (int n = in.u32(); n > 0; n--) {
+                    if (in.u8() != 0x60) {
+                        throw new IllegalArgumentException("Malformed function type");
+                    }
+                    int params = valueTypes(in);
+                    int results = valueTypes(in);
+                    types.add(new FuncType(params, results));
+                }
+            }
+            case 2 -> {
+                for (int n = in.u32(); n > 0; n--) {
+                    String module = in.name(), name = in.name();
+                    int kind = in.u8();
+                    if (kind != 0) {
+                        throw new UnsupportedOperationException("Only function imports are supported, not " + module + "." + name);
+                    }
+                    int type = in.u32();
+                    imports.add(new Import(module, name, type));
+                    functionTypes.add(type);
+                }
+            }
+            case 3 -> {
+                for (int n = in.u32(); n > 0; n--) {
+                    functionTypes.add(in.u32());
+                }
+            }
+            case 4 -> {
+                if (in.u32() != 1 || in.u8() != FUNCREF) {
+                    throw new UnsupportedOperationException("Only one funcref table is supported");
+                }
+                int flags = in.u8();
+                tableSize = in.u32();
+                if ((flags & 1) != 0) {
+                    in.u32();
+                }
+            }
+            case 5 -> {
+                if (in.u32() != 1) {
+                    throw new UnsupportedOperationException("Only one memory is supported");
+                }
+                int flags = in.u8();
+                memoryPages = in.u32();
+                if ((flags & 1) != 0) {
+                    maxMemoryPages = Math.min(MAX_PAGES, in.u32());
+                }
+                if (memoryPages > maxMemoryPages) {
+                    throw new IllegalArgumentException("Memory of " + memoryPages + " pages is too large");
+                }
+            }
+            case 6 -> {
+                for (int n = in.u32(); n > 0; n--) {
+                    valueType(in.u8());
+                    boolean mutable = in.u8() == 1;
+                    globals.add(new Global(mutable, constant(in)));
+                }
+            }
+            case 7 -> {
+                for (int n = in.u32(); n > 0; n--) {
+                    String name = in.name();
+                    int kind = in.u8();
+                    int index = in.u32();
+                    if (kind == 0) {
+                        exports.put(name, index);
+                    }
+                }
+            }
+            case 8 -> start = in.u32();
+            case 9 -> {
+                for (int n = in.u32(); n > 0; n--) {
+                    if (in.u32() != 0) {
+                        throw new UnsupportedOperationException("Only active element segments are supported");
+                    }
+                    int offset = (int) constant(in);
+                    int[] functions = new int[in.u32()];
+                    for (int i = 0; i < functions.length; i++) {
+                        functions[i] = in.u32();
+                    }
+                    elements.add(new ElementSegment(offset, functions));
+                }
+            }
+            case 10 -> {
+                int count = in.u32();
+                for (int i = 0; i < count; i++) {
+                    int size = in.u32();
+                    Reader body = new Reader(in.bytes, in.pos, in.pos + size);
+                    in.pos += size;
+                    int index = imports.size() + i;
+                    functions.add(new Compiler(this, functionTypes.get(index), body).compile());
+                }
+            }
+            case 11 -> {
+                for (int n = in.u32(); n > 0; n--) {
+                    int mode = in.u32();
+                    if (mode == 1) {
+                        throw new UnsupportedOperationException("Passive data segments are not supported");
+                    }
+                    if (mode == 2 && in.u32() != 0) {
+                        throw new IllegalArgumentException("Data segment for unknown memory");
+                    }
+                    int offset = (int) constant(in);
+                    int size = in.u32();
+                    if (in.pos + size > in.end) {
+                        throw new IllegalArgumentException("Truncated data segment");
+                    }
+                    data.add(new DataSegment(offset, Arrays.copyOfRange(in.bytes, in.pos, in.pos + size)));
+                    in.pos += size;
+                }
+            }
+            default -> throw new IllegalArgumentException("Unknown section " + id);
+        }
+    }
+
+    private static int valueTypes(Reader in) {
+        int n = in.u32();
+        for (int i = 0; i < n; i++) {
+            valueType(in.u8());
+        }
+        return n;
+    }
+
+    private static void valueType(int type) {
+        if (type != I32 && type != I64) {
+            throw new UnsupportedOperationException("Unsupported value type 0x" + Integer.toHexString(type));
+        }
+    }
+
+    // Constant expressions: a single i32/i64.const or global.get of an earlier global, then end
+    private long constant(Reader in) {
+        int op = in.u8();
+        long value = switch (op) {
+            case 0x41 -> in.s32();
+            case 0x42 -> in.s64();
+            case 0x23 -> globals.get(in.u32()).init();
+            default -> throw new UnsupportedOperationException("Unsupported constant expression 0x" + Integer.toHexString(op));
+        };
+        if (in.u8() != 0x0b) {
+            throw new UnsupportedOperationException("Unsupported constant expression");
+        }
+        return value;
+    }
+
+    /** LEB128 reader over a slice of the module bytes. */
+    static final class Reader {
+
+        final byte[] bytes;
+        int pos;
+        final int end;
+
+        Reader(byte[] bytes, int pos, int end) {
+            if (end > bytes.length) {
+                throw new IllegalArgumentException("Truncated WebAssembly module");
+            }
+            this.bytes = bytes;
+            this.pos = pos;
+            this.end = end;
+        }
+
+        int u8() {
+            if (pos >= end) {
+                throw new IllegalArgumentException("Truncated WebAssembly section");
+            }
+            return bytes[pos++] & 0xff;
+        }
+
+        int u32() {
+            long result = 0;
+            for (int shift = 0; ; shift += 7) {
+                int b = u8();
+                result |= (long) (b & 0x7f) << shift;
+                if ((b & 0x80) == 0) {
+                    if (result > 0xffffffffL) {
+                        throw new IllegalArgumentException("Integer too large");
+                    }
+                    return (int) result;
+                }
+            }
+        }
+
+        int s32() {
+            return (int) s64();
+        }
+
+        long s64() {
+            long result = 0;
+            int shift = 0;
+            int b;
+            do {
+                b = u8();
+                result |= (long) (b & 0x7f) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+            if (shift < 64 && (b & 0x40) != 0) {
+                result |= -1L << shift;
+            }
+            return result;
+        }
+
+        String name() {
+            int n = u32();
+            String s = new String(bytes, pos, n, java.nio.charset.StandardCharsets.UTF_8);
+            pos += n;
+            return s;
+        }
+    }
+
+    /**
+     * Translates one function body. Tracks the operand stack height so every
+     * branch can be given the absolute (frame-relative) height of its label.
+     */
+    private static final class Compiler {
+
+        private static final int BLOCK = 0, LOOP = 1, IF = 2, FUNCTION = 3;
+
+        private final WasmModule module;
+        private final int typeIndex;
+        private final FuncType type;
+        private final Reader in;
+        private int[] code = new int[256];
+        private int length;
+        private int locals;
+        private int height;
+        private int maxHeight;
+        private final List<Label> labels = new ArrayList<>();
+
+        private static final class Label {
+            final int kind;
+            final int base;
+            final int params;
+            final int results;
+            final int start;
+            int elseFixup = -1;
+            boolean unreachable;
+            final List<Integer> fixups = new ArrayList<>();
+
+            Label(int kind, int base, int params, int results, int start) {
+                this.kind = kind;
+                this.base = base;
+                this.params = params;
+                this.results = results;
+                this.start = start;
+            }
+
+            int arity() {
+                return kind == LOOP ? params : results;
+            }
+        }
+
+        Compiler(WasmModule module, int typeIndex, Reader in) {
+            this.module = module;
+            this.typeIndex = typeIndex;
+            this.type = module.types.get(typeIndex);
+            this.in = in;
+        }
+
+        Function compile() {
+            locals = type.params();
+            for (int groups = in.u32(); groups > 0; groups--) {
+                int n = in.u32();
+                valueType(in.u8());
+                locals += n;
+            }
+            labels.add(new Label(FUNCTION, 0, 0, type.results(), 0));
+            while (!labels.isEmpty()) {
+                op(in.u8());
+            }
+            if (in.pos != in.end) {
+                throw new IllegalArgumentException("Trailing bytes after function body");
+            }
+            return new Function(typeIndex, locals, maxHeight + 1, Arrays.copyOf(code, length));
+        }
+
+        private void op(int op) {
+            switch (op) {
+                case 0x00 -> {
+                    emit(op);
+                    unreachable();
+                }
+                case 0x01 -> {
+                }
+                case 0x02, 0x03 -> {
+                    FuncType block = blockType();
+                    labels.add(new Label(op == 0x02 ? BLOCK : LOOP, height - block.params(), block.params(), block.results(), length));
+                }
+                case 0x04 -> {
+                    FuncType block = blockType();
+                    pop(1);
+                    Label label = new Label(IF, height - block.params(), block.params(), block.results(), length);
+                    emit(op);
+                    label.elseFixup = length;
+                    emit(0);
+                    labels.add(label);
+                }
+                case 0x05 -> {
+                    Label label = top();
+                    if (label.kind != IF || label.elseFixup < 0) {
+                        throw new IllegalArgumentException("else without if");
+                    }
+                    emit(op);
+                    label.fixups.add(length);
+                    emit(0);
+                    code[label.elseFixup] = length;
+                    label.elseFixup = -1;
+                    height = label.base + label.params;
+                    label.unreachable = false;
+                }
+                case 0x0b -> {
+                    Label label = labels.remove(labels.size() - 1);
+                    if (label.elseFixup >= 0) {
+                        code[label.elseFixup] = length;
+                    }
+                    for (int fixup : label.fixups) {
+                        code[fixup] = length;
+                    }
+                    height = label.base + label.results;
+                    if (label.kind == FUNCTION) {
+                        emit(0x0f);
+                        emit(label.results);
+                    }
+                }
+                case 0x0c -> {
+                    emit(op);
+                    branchTarget(in.u32());
+                    unreachable();
+                }
+                case 0x0d -> {
+                    pop(1);
+                    emit(op);
+                    branchTarget(in.u32());
+                }
+                case 0x0e -> {
+                    pop(1);
+                    int n = in.u32();
+                    emit(op);
+                    emit(n);
+                    for (int i = 0; i <= n; i++) {
+                        branchTarget(in.u32());
+                    }
+                    unreachable();
+                }
+                case 0x0f -> {
+                    emit(op);
+                    emit(type.results());
+                    unreachable();
+                }
+                case 0x10 -> {
+                    int function = in.u32();
+                    FuncType callee = module.typeOf(function);
+                    emit(op);
+                    emit(function);
+                    pop(callee.params());
+                    push(callee.results());
+                }
+                case 0x11 -> {
+                    int typeIndex = in.u32();
+                    if (in.u8() != 0) {
+                        throw new IllegalArgumentException("call_indirect on unknown table");
+                    }
+                    FuncType callee = module.types.get(typeIndex);
+                    emit(op);
+                    emit(typeIndex);
+                    pop(1 + callee.params());
+                    push(callee.results());
+                }
+                case 0x1a -> {
+                    emit(op);
+                    pop(1);
+                }
+                case 0x1b -> {
+                    emit(op);
+                    pop(2);
+                }
+                case 0x20, 0x21, 0x22 -> {
+                    int local = in.u32();
+                    if (local >= locals) {
+                        throw new IllegalArgumentException("Unknown local " + local);
+                    }
+                    emit(op);
+                    emit(local);
+                    if (op == 0x20) {
+                        push(1);
+                    } else if (op == 0x21) {
+                        pop(1);
+                    }
+                }
+                case 0x23, 0x24 -> {
+                    int global = in.u32();
+                    if (global >= module.globals.size()) {
+                        throw new IllegalArgumentException("Unknown global " + global);
+                    }
+                    if (op == 0x24 && !module.globals.get(global).mutable()) {
+                        throw new IllegalArgumentException("Write to immutable global " + global);
+                    }
+                    emit(op);
+                    emit(global);
+                    if (op == 0x23) {
+                        push(1);
+                    } else {
+                        pop(1);
+                    }
+                }
+                case 0x28, 0x29, 0x2c, 0x2d, 0x2e, 0x2f, 0x30, 0x31, 0x32, 0x33, 0x34, 0x35 -> {
+                    in.u32(); // alignment is only a hint
+                    emit(op);
+                    emit(in.u32());
+                }
+                case 0x36, 0x37, 0x3a, 0x3b, 0x3c, 0x3d, 0x3e -> {
+                    in.u32();
+                    emit(op);
+                    emit(in.u32());
+                    pop(2);
+                }
+                case 0x3f, 0x40 -> {
+                    if (in.u8() != 0) {
+                        throw new IllegalArgumentException("Unknown memory");
+                    }
+                    emit(op);
+                    if (op == 0x3f) {
+                        push(1);
+                    }
+                }
+                case 0x41 -> {
+                    emit(op);
+                    emit(in.s32());
+                    push(1);
+                }
+                case 0x42 -> {
+                    long value = in.s64();
+                    emit(op);
+                    emit((int) value);
+                    emit((int) (value >>> 32));
+                    push(1);
+                }
+                default -> {
+                    if (op == 0x45 || op == 0x50 || (op >= 0x67 && op <= 0x69) || (op >= 0x79 && op <= 0x7b)
+                        || op == 0xa7 || op == 0xac || op == 0xad || (op >= 0xc0 && op <= 0xc4)) {
+                        emit(op); // unary: pops one, pushes one
+                    } else if ((op >= 0x46 && op <= 0x4f) || (op >= 0x51 && op <= 0x5a)
+                        || (op >= 0x6a && op <= 0x78) || (op >= 0x7c && op <= 0x8a)) {
+                        emit(op);
+                        pop(1);
+                    } else {
+                        throw new UnsupportedOperationException("Unsupported instruction 0x" + Integer.toHexString(op));
+                    }
+                }
+            }
+        }
+
+        private FuncType blockType() {
+            int b = in.bytes[in.pos] & 0xff;
+            if (b == 0x40) {
+                in.pos++;
+                return new FuncType(0, 0);
+            }
+            if (b == I32 || b == I64) {
+                in.pos++;
+                return new FuncType(0, 1);
+            }
+            if (b == 0x7d || b == 0x7c) {
+                throw new UnsupportedOperationException("Floating point is not supported");
+            }
+            return module.types.get(in.s32());
+        }
+
+        // Operands: target pc (patched later for forward branches), values kept, frame-relative height
+        private void branchTarget(int depth) {
+            if (depth >= labels.size()) {
+                throw new IllegalArgumentException("Branch depth " + depth + " out of range");
+            }
+            Label label = labels.get(labels.size() - 1 - depth);
+            if (label.kind == LOOP) {
+                emit(label.start);
+            } else {
+                label.fixups.add(length);
+                emit(0);
+            }
+            emit(label.arity());
+            emit(locals + label.base);
+        }
+
+        private Label top() {
+            return labels.get(labels.size() - 1);
+        }
+
+        private void unreachable() {
+            Label label = top();
+            height = label.base;
+            label.unreachable = true;
+        }
+
+        private void push(int n) {
+            height += n;
+            maxHeight = Math.max(maxHeight, height);
+        }
+
+        private void pop(int n) {
+            // Past an unconditional branch the stack is polymorphic; dead code may pop freely
+            height = top().unreachable ? Math.max(top().base, height - n) : height - n;
+        }
+
+        private void emit(int value) {
+            if (length == code.length) {
+                code = Arrays.copyOf(code, length * 2);
+            }
+            code[length++] = value;
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.zkpub.in.wasm;
+
+/** A WebAssembly trap: the module did something the spec says aborts execution. */
+public class WasmTrap extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public WasmTrap(String message) {
+        super(message);
+    }
+}
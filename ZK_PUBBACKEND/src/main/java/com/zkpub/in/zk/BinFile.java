@@ -0,0 +1,109 @@
+package com.zkpub.in.zk;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The sectioned little-endian container circom and snarkjs use for .r1cs,
+ * .zkey and .wtns files: a 4-byte magic, a u32 version, a u32 section
+ * count, then (u32 type, u64 length, body) per section.
+ *
+ * Only the section table is read up front. Sections are views of the
+ * source buffer, so for a file opened with {@link #map} they are views of
+ * the page cache: nothing is copied onto the heap, and the OS pages data
+ * in as it is first touched and can drop it again under memory pressure.
+ */
+final class BinFile {
+
+    private final ByteBuffer data;
+    private final int version;
+    private final Map<Integer, int[]> sections = new HashMap<>();
+
+    private BinFile(ByteBuffer data, int version) {
+        this.data = data;
+        this.version = version;
+    }
+
+    static BinFile parse(ByteBuffer source, String magic) {
+        ByteBuffer data = source.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        data.position(0);
+        if (data.remaining() < 12) {
+            throw new IllegalArgumentException("Not a " + magic + " file");
+        }
+        byte[] head = new byte[4];
+        data.get(head);
+        if (!magic.equals(new String(head, StandardCharsets.US_ASCII))) {
+            throw new IllegalArgumentException("Not a " + magic + " file");
+        }
+        BinFile file = new BinFile(data, data.getInt());
+        int count = data.getInt();
+        for (int i = 0; i < count; i++) {
+            int type = data.getInt();
+            long length = data.getLong();
+            if (length < 0 || length > data.remaining()) {
+                throw new IllegalArgumentException("Truncated " + magic + " section " + type);
+            }
+            if (file.sections.put(type, new int[] {data.position(), (int) length}) != null) {
+                throw new IllegalArgumentException("Duplicate " + magic + " section " + type);
+            }
+            data.position(data.position() + (int) length);
+        }
+        return file;
+    }
+
+    /**
+     * Maps a file read-only. The mapping outlives the channel and is released
+     * when the buffer is collected. A MappedByteBuffer is int-indexed, so
+     * files are limited to 2 GB.
+     */
+    static BinFile map(Path path, String magic) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException(path + " is larger than 2 GB");
+            }
+            return parse(channel.map(FileChannel.MapMode.READ_ONLY, 0, size), magic);
+        }
+    }
+
+    int version() {
+        return version;
+    }
+
+    boolean has(int type) {
+        return sections.containsKey(type);
+    }
+
+    /** The body of a section as a little-endian buffer positioned at its start. */
+    ByteBuffer section(int type) {
+        int[] location = sections.get(type);
+        if (location == null) {
+            throw new IllegalArgumentException("Missing section " + type);
+        }
+        return data.slice(location[0], location[1]).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /** Reads a little-endian integer of {@code bytes} bytes. */
+    static BigInteger readInteger(ByteBuffer in, int bytes) {
+        byte[] be = new byte[bytes];
+        for (int i = bytes - 1; i >= 0; i--) {
+            be[i] = in.get();
+        }
+        return new BigInteger(1, be);
+    }
+
+    /** Reads four little-endian limbs, as field elements are laid out on disk and in memory alike. */
+    static void readLimbs(ByteBuffer in, long[] r, int ri) {
+        for (int i = 0; i < 4; i++) {
+            r[ri + i] = in.getLong();
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.zkpub.in.zk;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A proof and its public signals in the binary form stored with proofs:
+ * {@link Groth16Proof#toBytes()} (128 bytes) followed by each signal as a
+ * 32-byte big-endian word: 256 bytes with the age circuit's four signals,
+ * where the snarkjs JSON is over a kilobyte of decimal strings and, as a
+ * nested document, costs a BSON parse of every array element on each read.
+ *
+ * Reading bytes only checks the length; the points are decompressed and
+ * validated when {@link #proof()} is first called, so loading a document
+ * that merely carries a proof does no curve arithmetic.
+ */
+public final class CompactProof {
+
+    private static final int SIGNAL_BYTES = 32;
+
+    private final byte[] bytes;
+    private volatile Groth16Proof proof;
+    private volatile List<BigInteger> publicSignals;
+
+    private CompactProof(byte[] bytes, Groth16Proof proof, List<BigInteger> publicSignals) {
+        this.bytes = bytes;
+        this.proof = proof;
+        this.publicSignals = publicSignals;
+    }
+
+    public static CompactProof of(Groth16Proof proof, List<BigInteger> publicSignals) {
+        ByteBuffer out = ByteBuffer.allocate(Groth16Proof.ENCODED_BYTES + SIGNAL_BYTES * publicSignals.size());
+        proof.writeTo(out);
+        for (BigInteger signal : publicSignals) {
+            byte[] word = signal.toByteArray();
+            int length = word.length;
+            int skip = length > SIGNAL_BYTES && word[0] == 0 ? 1 : 0;
+            if (signal.signum() < 0 || length - skip > SIGNAL_BYTES) {
+                throw new IllegalArgumentException("Public signal does not fit in " + SIGNAL_BYTES + " bytes");
+            }
+            out.position(out.position() + SIGNAL_BYTES - (length - skip));
+            out.put(word, skip, length - skip);
+        }
+        return new CompactProof(out.array(), proof, List.copyOf(publicSignals));
+    }
+
+    /** Wraps {@link #toBytes()} output; only the length is checked here. */
+    public static CompactProof fromBytes(byte[] bytes) {
+        if (bytes.length < Groth16Proof.ENCODED_BYTES || (bytes.length - Groth16Proof.ENCODED_BYTES) % SIGNAL_BYTES != 0) {
+            throw new IllegalArgumentException("Not an encoded proof: " + bytes.length + " bytes");
+        }
+        return new CompactProof(bytes.clone(), null, null);
+    }
+
+    /**
+     * Reads a snarkjs payload, either {proof: {pi_a, pi_b, pi_c}, publicSignals: [...]}
+     * or the proof fields and publicSignals side by side. Malformed payloads throw
+     * IllegalArgumentException.
+     */
+    public static CompactProof fromJson(JsonNode payload) {
+        if (payload == null || !payload.isObject()) {
+            throw new IllegalArgumentException("Proof is not a JSON object");
+        }
+        JsonNode proofNode = payload.has("proof") ? payload.get("proof") : payload;
+        JsonNode signalsNode = payload.has("publicSignals") ? payload.get("publicSignals") : proofNode.get("publicSignals");
+        return of(Groth16Proof.fromJson(proofNode), Groth16Verifier.publicSignalsFromJson(signalsNode));
+    }
+
+    public Groth16Proof proof() {
+        Groth16Proof p = proof;
+        if (p == null) {
+            p = Groth16Proof.readFrom(ByteBuffer.wrap(bytes, 0, Groth16Proof.ENCODED_BYTES));
+            proof = p;
+        }
+        return p;
+    }
+
+    public List<BigInteger> publicSignals() {
+        List<BigInteger> signals = publicSignals;
+        if (signals == null) {
+            int count = (bytes.length - Groth16Proof.ENCODED_BYTES) / SIGNAL_BYTES;
+            List<BigInteger> decoded = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                int from = Groth16Proof.ENCODED_BYTES + i * SIGNAL_BYTES;
+                decoded.add(new BigInteger(1, Arrays.copyOfRange(bytes, from, from + SIGNAL_BYTES)));
+            }
+            signals = Collections.unmodifiableList(decoded);
+            publicSignals = signals;
+        }
+        return signals;
+    }
+
+    public byte[] toBytes() {
+        return bytes.clone();
+    }
+
+    public int size() {
+        return bytes.length;
+    }
+
+    /** The snarkjs payload {proof, publicSignals}, as the prover returns it. */
+    @JsonValue
+    public ObjectNode toJson() {
+        ObjectNode json = JsonNodeFactory.instance.objectNode();
+        json.set("proof", proof().toJson());
+        ArrayNode signals = json.putArray("publicSignals");
+        for (BigInteger signal : publicSignals()) {
+            signals.add(signal.toString());
+        }
+        return json;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return this == o || o instanceof CompactProof other && Arrays.equals(bytes, other.bytes);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(bytes);
+    }
+}
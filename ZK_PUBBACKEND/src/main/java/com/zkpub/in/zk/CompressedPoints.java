@@ -0,0 +1,232 @@
+package com.zkpub.in.zk;
+
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+
+/**
+ * Compressed point encoding, the layout gnark-crypto uses for BN254: only
+ * x is stored, big-endian, and since x < p < 2^254 the top two bits of the
+ * first byte are free for flags. 10 means y is the smaller of the two
+ * square roots (y <= (p-1)/2), 11 the larger, 01 the point at infinity
+ * (with every other bit zero). G1 takes 32 bytes, G2 64 with x1 before x0;
+ * an Fp2 element is "larger" by its c1 half, or by c0 when c1 is zero.
+ *
+ * Decoding recovers y with a square root, so a decoded point is always on
+ * the curve; G2 points are also checked against the subgroup.
+ */
+final class CompressedPoints {
+
+    static final int G1_BYTES = 32;
+    static final int G2_BYTES = 64;
+
+    private static final int FLAG_MASK = 0xC0;
+    private static final int SMALLEST = 0x80;
+    private static final int LARGEST = 0xC0;
+    private static final int INFINITY = 0x40;
+
+    private static final BigInteger HALF_MODULUS = Fp.MODULUS.shiftRight(1);
+    /** p = 3 mod 4, so a square root of a residue a is a^((p+1)/4). */
+    private static final BigInteger SQRT_EXPONENT = Fp.MODULUS.add(BigInteger.ONE).shiftRight(2);
+
+    private static final long[] G1_B = new long[Fp.LIMBS];
+    private static final long[] HALF = new long[Fp.LIMBS];
+
+    static {
+        Fp.set(BigInteger.valueOf(3), G1_B, 0);
+        Fp.set(BigInteger.TWO.modInverse(Fp.MODULUS), HALF, 0);
+    }
+
+    private CompressedPoints() {
+    }
+
+    static void writeG1(G1Point p, ByteBuffer out) {
+        if (p.isInfinity()) {
+            writeInfinity(out, G1_BYTES);
+            return;
+        }
+        int start = out.position();
+        writeField(p.xy, 0, out);
+        flag(out, start, largest(p.xy, Fp.LIMBS) ? LARGEST : SMALLEST);
+    }
+
+    static G1Point readG1(ByteBuffer in) {
+        int flags = in.get(in.position()) & FLAG_MASK;
+        if (flags == INFINITY) {
+            readInfinity(in, G1_BYTES);
+            return G1Point.INFINITY;
+        }
+        requireCompressed(flags);
+        long[] xy = new long[2 * Fp.LIMBS];
+        readField(in, xy, 0);
+        // y^2 = x^3 + 3
+        long[] rhs = new long[Fp.LIMBS];
+        Fp.sqr(xy, 0, rhs, 0);
+        Fp.mul(rhs, 0, xy, 0, rhs, 0);
+        Fp.add(rhs, 0, G1_B, 0, rhs, 0);
+        if (!sqrt(rhs, 0, xy, Fp.LIMBS)) {
+            throw new IllegalArgumentException("Point is not on the BN254 curve");
+        }
+        if (largest(xy, Fp.LIMBS) != (flags == LARGEST)) {
+            Fp.neg(xy, Fp.LIMBS, xy, Fp.LIMBS);
+        }
+        return G1Point.ofMontgomery(xy);
+    }
+
+    static void writeG2(G2Point p, ByteBuffer out) {
+        if (p.isInfinity()) {
+            writeInfinity(out, G2_BYTES);
+            return;
+        }
+        int start = out.position();
+        writeField(p.xy, Fp.LIMBS, out);
+        writeField(p.xy, 0, out);
+        flag(out, start, largestFp2(p.xy, Tower.FP2) ? LARGEST : SMALLEST);
+    }
+
+    static G2Point readG2(ByteBuffer in) {
+        int flags = in.get(in.position()) & FLAG_MASK;
+        if (flags == INFINITY) {
+            readInfinity(in, G2_BYTES);
+            return G2Point.INFINITY;
+        }
+        requireCompressed(flags);
+        final int F = Tower.FP2;
+        long[] xy = new long[2 * F];
+        readField(in, xy, Fp.LIMBS);
+        readField(in, xy, 0);
+        // y^2 = x^3 + 3/ξ
+        Tower t = Tower.local();
+        long[] rhs = new long[F];
+        t.fp2Sqr(xy, 0, rhs, 0);
+        t.fp2Mul(rhs, 0, xy, 0, rhs, 0);
+        Tower.fp2Add(rhs, 0, G2Point.B, 0, rhs, 0);
+        if (!sqrtFp2(rhs, xy, F, t)) {
+            throw new IllegalArgumentException("Point is not on the BN254 twist");
+        }
+        if (largestFp2(xy, F) != (flags == LARGEST)) {
+            Tower.fp2Neg(xy, F, xy, F);
+        }
+        G2Point p = G2Point.ofMontgomery(xy);
+        if (!p.isInSubgroup()) {
+            throw new IllegalArgumentException("Point is not in the BN254 G2 subgroup");
+        }
+        return p;
+    }
+
+    // ---------------------------------------------------------------- square roots
+
+    /** r = √a when a is a square; r is left undefined otherwise. */
+    private static boolean sqrt(long[] a, int ai, long[] r, int ri) {
+        long[] acc = new long[2 * Fp.LIMBS];
+        Fp.setOne(acc, 0);
+        for (int bit = SQRT_EXPONENT.bitLength() - 1; bit >= 0; bit--) {
+            Fp.sqr(acc, 0, acc, 0);
+            if (SQRT_EXPONENT.testBit(bit)) {
+                Fp.mul(acc, 0, a, ai, acc, 0);
+            }
+        }
+        Fp.sqr(acc, 0, acc, Fp.LIMBS);
+        if (!Fp.equal(acc, Fp.LIMBS, a, ai)) {
+            return false;
+        }
+        Fp.copy(acc, 0, r, ri);
+        return true;
+    }
+
+    /**
+     * r = √a in Fp2 = Fp[u]/(u^2 + 1) through the norm: with s = √(a0^2 + a1^2),
+     * x0 = √((a0 ± s)/2) and x1 = a1/(2·x0). Two Fp exponentiations instead of
+     * the two Fp2 ones of the generic p = 3 mod 4 algorithm.
+     */
+    private static boolean sqrtFp2(long[] a, long[] r, int ri, Tower t) {
+        final int c1 = Fp.LIMBS;
+        long[] s = new long[4 * Fp.LIMBS];
+        final int norm = 0, half = Fp.LIMBS, x0 = 2 * Fp.LIMBS, tmp = 3 * Fp.LIMBS;
+        if (Fp.isZero(a, c1)) {
+            // a is in Fp: either √a0, or u·√(-a0) since -1 is not a square
+            if (sqrt(a, 0, r, ri)) {
+                Fp.setZero(r, ri + c1);
+                return true;
+            }
+            Fp.neg(a, 0, s, tmp);
+            Fp.setZero(r, ri);
+            return sqrt(s, tmp, r, ri + c1);
+        }
+        Fp.sqr(a, 0, s, norm);
+        Fp.sqr(a, c1, s, tmp);
+        Fp.add(s, norm, s, tmp, s, norm);
+        if (!sqrt(s, norm, s, norm)) {
+            return false;
+        }
+        Fp.add(a, 0, s, norm, s, half);
+        Fp.mul(s, half, HALF, 0, s, half);
+        if (!sqrt(s, half, s, x0)) {
+            Fp.sub(a, 0, s, norm, s, half);
+            Fp.mul(s, half, HALF, 0, s, half);
+            if (!sqrt(s, half, s, x0)) {
+                return false;
+            }
+        }
+        Fp.dbl(s, x0, s, tmp);
+        Fp.inverse(s, tmp, s, tmp);
+        Fp.mul(a, c1, s, tmp, r, ri + c1);
+        Fp.copy(s, x0, r, ri);
+        long[] check = new long[Tower.FP2];
+        t.fp2Sqr(r, ri, check, 0);
+        return Tower.fp2Equal(check, 0, a, 0);
+    }
+
+    // ---------------------------------------------------------------- bytes
+
+    private static boolean largest(long[] a, int ai) {
+        return Fp.toBigInteger(a, ai).compareTo(HALF_MODULUS) > 0;
+    }
+
+    private static boolean largestFp2(long[] a, int ai) {
+        return Fp.isZero(a, ai + Fp.LIMBS) ? largest(a, ai) : largest(a, ai + Fp.LIMBS);
+    }
+
+    private static void writeField(long[] a, int ai, ByteBuffer out) {
+        byte[] bytes = Fp.toBigInteger(a, ai).toByteArray();
+        int length = Math.min(bytes.length, 32);
+        for (int i = length; i < 32; i++) {
+            out.put((byte) 0);
+        }
+        out.put(bytes, bytes.length - length, length);
+    }
+
+    private static void readField(ByteBuffer in, long[] r, int ri) {
+        byte[] bytes = new byte[32];
+        in.get(bytes);
+        bytes[0] &= (byte) ~FLAG_MASK;
+        Fp.set(new BigInteger(1, bytes), r, ri); // rejects x >= p
+    }
+
+    private static void flag(ByteBuffer out, int start, int flags) {
+        out.put(start, (byte) (out.get(start) | flags));
+    }
+
+    private static void writeInfinity(ByteBuffer out, int length) {
+        out.put((byte) INFINITY);
+        for (int i = 1; i < length; i++) {
+            out.put((byte) 0);
+        }
+    }
+
+    private static void readInfinity(ByteBuffer in, int length) {
+        if (in.get() != (byte) INFINITY) {
+            throw new IllegalArgumentException("Malformed point at infinity");
+        }
+        for (int i = 1; i < length; i++) {
+            if (in.get() != 0) {
+                throw new IllegalArgumentException("Malformed point at infinity");
+            }
+        }
+    }
+
+    private static void requireCompressed(int flags) {
+        if (flags == 0) {
+            throw new IllegalArgumentException("Point is not in compressed form");
+        }
+    }
+}
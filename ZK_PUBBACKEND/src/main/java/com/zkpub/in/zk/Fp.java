@@ -0,0 +1,231 @@
+package com.zkpub.in.zk;
+
+import java.math.BigInteger;
+
+/**
+ * Arithmetic in the BN254 base field. An element is four little-endian
+ * 64-bit limbs in Montgomery form (a·2^256 mod p), stored at an offset in a
+ * caller-owned {@code long[]}. Every operation reads its inputs into locals
+ * before writing, so the result may alias either operand, and nothing is
+ * allocated.
+ */
+public final class Fp {
+
+    public static final BigInteger MODULUS = new BigInteger(
+        "21888242871839275222246405745257275088696311157297823662689037894645226208583");
+
+    static final int LIMBS = 4;
+
+    static final long P0 = 0x3c208c16d87cfd47L;
+    static final long P1 = 0x97816a916871ca8dL;
+    static final long P2 = 0xb85045b68181585dL;
+    static final long P3 = 0x30644e72e131a029L;
+
+    /** -p^-1 mod 2^64. */
+    static final long INV;
+
+    private static final long[] R2 = new long[LIMBS];
+    static final long[] ONE = new long[LIMBS];
+
+    static {
+        long inv = 1;
+        for (int i = 0; i < 6; i++) {
+            inv *= 2 - P0 * inv; // Newton iteration doubles the correct low bits each time
+        }
+        INV = -inv;
+        BigInteger r = BigInteger.ONE.shiftLeft(256);
+        writeLimbs(r.mod(MODULUS), ONE, 0);
+        writeLimbs(r.multiply(r).mod(MODULUS), R2, 0);
+    }
+
+    private Fp() {
+    }
+
+    public static long[] newElements(int count) {
+        return new long[count * LIMBS];
+    }
+
+    /** r = a·b·2^-256 mod p (CIOS Montgomery multiplication). */
+    static void mul(long[] a, int ai, long[] b, int bi, long[] r, int ri) {
+        final long a0 = a[ai], a1 = a[ai + 1], a2 = a[ai + 2], a3 = a[ai + 3];
+        long t0 = 0, t1 = 0, t2 = 0, t3 = 0, t4;
+        long lo, hi, c, m;
+
+        for (int i = 0; i < LIMBS; i++) {
+            long bj = b[bi + i]; // r is only written after the loop, so b may alias it
+
+            lo = a0 * bj; hi = Math.unsignedMultiplyHigh(a0, bj);
+            t0 += lo; c = hi + carry(t0, lo);
+            lo = a1 * bj; hi = Math.unsignedMultiplyHigh(a1, bj);
+            lo += c; hi += carry(lo, c); t1 += lo; c = hi + carry(t1, lo);
+            lo = a2 * bj; hi = Math.unsignedMultiplyHigh(a2, bj);
+            lo += c; hi += carry(lo, c); t2 += lo; c = hi + carry(t2, lo);
+            lo = a3 * bj; hi = Math.unsignedMultiplyHigh(a3, bj);
+            lo += c; hi += carry(lo, c); t3 += lo; c = hi + carry(t3, lo);
+            t4 = c;
+
+            m = t0 * INV;
+            lo = m * P0; hi = Math.unsignedMultiplyHigh(m, P0);
+            t0 += lo; c = hi + carry(t0, lo);
+            lo = m * P1; hi = Math.unsignedMultiplyHigh(m, P1);
+            lo += c; hi += carry(lo, c); t1 += lo; c = hi + carry(t1, lo);
+            lo = m * P2; hi = Math.unsignedMultiplyHigh(m, P2);
+            lo += c; hi += carry(lo, c); t2 += lo; c = hi + carry(t2, lo);
+            lo = m * P3; hi = Math.unsignedMultiplyHigh(m, P3);
+            lo += c; hi += carry(lo, c); t3 += lo; c = hi + carry(t3, lo);
+            t4 += c;
+
+            // t0 is now zero; shift one limb down
+            t0 = t1; t1 = t2; t2 = t3; t3 = t4;
+        }
+        reduceOnce(t0, t1, t2, t3, r, ri);
+    }
+
+    static void sqr(long[] a, int ai, long[] r, int ri) {
+        mul(a, ai, a, ai, r, ri);
+    }
+
+    static void add(long[] a, int ai, long[] b, int bi, long[] r, int ri) {
+        long x, c;
+        long s0 = a[ai] + b[bi];
+        c = carry(s0, b[bi]);
+        x = a[ai + 1] + c; long s1 = x + b[bi + 1];
+        c = carry(x, c) + carry(s1, b[bi + 1]);
+        x = a[ai + 2] + c; long s2 = x + b[bi + 2];
+        c = carry(x, c) + carry(s2, b[bi + 2]);
+        x = a[ai + 3] + c; long s3 = x + b[bi + 3];
+        // p < 2^254, so the sum of two reduced values never carries out of 256 bits
+        reduceOnce(s0, s1, s2, s3, r, ri);
+    }
+
+    static void dbl(long[] a, int ai, long[] r, int ri) {
+        add(a, ai, a, ai, r, ri);
+    }
+
+    static void sub(long[] a, int ai, long[] b, int bi, long[] r, int ri) {
+        long a0 = a[ai], a1 = a[ai + 1], a2 = a[ai + 2], a3 = a[ai + 3];
+        long b0 = b[bi], b1 = b[bi + 1], b2 = b[bi + 2], b3 = b[bi + 3];
+        long d0 = a0 - b0;
+        long borrow = borrow(a0, b0);
+        long d1 = a1 - b1 - borrow;
+        borrow = borrow(a1, b1) | (borrow & (a1 == b1 ? 1 : 0));
+        long d2 = a2 - b2 - borrow;
+        borrow = borrow(a2, b2) | (borrow & (a2 == b2 ? 1 : 0));
+        long d3 = a3 - b3 - borrow;
+        borrow = borrow(a3, b3) | (borrow & (a3 == b3 ? 1 : 0));
+        if (borrow != 0) {
+            long x = d0 + P0;
+            long c = carry(x, P0);
+            d0 = x;
+            x = d1 + c; long y = x + P1;
+            c = carry(x, c) + carry(y, P1);
+            d1 = y;
+            x = d2 + c; y = x + P2;
+            c = carry(x, c) + carry(y, P2);
+            d2 = y;
+            d3 = d3 + c + P3;
+        }
+        r[ri] = d0; r[ri + 1] = d1; r[ri + 2] = d2; r[ri + 3] = d3;
+    }
+
+    static void neg(long[] a, int ai, long[] r, int ri) {
+        if (isZero(a, ai)) {
+            setZero(r, ri);
+            return;
+        }
+        long a0 = a[ai], a1 = a[ai + 1], a2 = a[ai + 2], a3 = a[ai + 3];
+        long d0 = P0 - a0;
+        long borrow = borrow(P0, a0);
+        long d1 = P1 - a1 - borrow;
+        borrow = borrow(P1, a1) | (borrow & (P1 == a1 ? 1 : 0));
+        long d2 = P2 - a2 - borrow;
+        borrow = borrow(P2, a2) | (borrow & (P2 == a2 ? 1 : 0));
+        long d3 = P3 - a3 - borrow;
+        r[ri] = d0; r[ri + 1] = d1; r[ri + 2] = d2; r[ri + 3] = d3;
+    }
+
+    static void copy(long[] a, int ai, long[] r, int ri) {
+        r[ri] = a[ai]; r[ri + 1] = a[ai + 1]; r[ri + 2] = a[ai + 2]; r[ri + 3] = a[ai + 3];
+    }
+
+    static void setZero(long[] r, int ri) {
+        r[ri] = 0; r[ri + 1] = 0; r[ri + 2] = 0; r[ri + 3] = 0;
+    }
+
+    static void setOne(long[] r, int ri) {
+        copy(ONE, 0, r, ri);
+    }
+
+    static boolean isZero(long[] a, int ai) {
+        return (a[ai] | a[ai + 1] | a[ai + 2] | a[ai + 3]) == 0;
+    }
+
+    static boolean equal(long[] a, int ai, long[] b, int bi) {
+        return a[ai] == b[bi] && a[ai + 1] == b[bi + 1] && a[ai + 2] == b[bi + 2] && a[ai + 3] == b[bi + 3];
+    }
+
+    /** r = a^-1 (zero maps to zero). Only used a handful of times per pairing, so BigInteger is fine here. */
+    static void inverse(long[] a, int ai, long[] r, int ri) {
+        if (isZero(a, ai)) {
+            setZero(r, ri);
+            return;
+        }
+        set(toBigInteger(a, ai).modInverse(MODULUS), r, ri);
+    }
+
+    /** Writes the canonical value {@code v} (0 <= v < p) in Montgomery form. */
+    public static void set(BigInteger v, long[] r, int ri) {
+        if (v.signum() < 0 || v.compareTo(MODULUS) >= 0) {
+            throw new IllegalArgumentException("Not a canonical field element");
+        }
+        writeLimbs(v, r, ri);
+        mul(r, ri, R2, 0, r, ri);
+    }
+
+    public static BigInteger toBigInteger(long[] a, int ai) {
+        long[] plain = new long[LIMBS];
+        long[] one = {1, 0, 0, 0};
+        mul(a, ai, one, 0, plain, 0);
+        byte[] bytes = new byte[32];
+        for (int i = 0; i < LIMBS; i++) {
+            long limb = plain[i];
+            for (int b = 0; b < 8; b++) {
+                bytes[31 - (i * 8 + b)] = (byte) (limb >>> (8 * b));
+            }
+        }
+        return new BigInteger(1, bytes);
+    }
+
+    private static void writeLimbs(BigInteger v, long[] r, int ri) {
+        for (int i = 0; i < LIMBS; i++) {
+            r[ri + i] = v.shiftRight(64 * i).longValue();
+        }
+    }
+
+    private static void reduceOnce(long t0, long t1, long t2, long t3, long[] r, int ri) {
+        // Subtract p unless that borrows, i.e. unless t < p
+        long d0 = t0 - P0;
+        long borrow = borrow(t0, P0);
+        long d1 = t1 - P1 - borrow;
+        borrow = borrow(t1, P1) | (borrow & (t1 == P1 ? 1 : 0));
+        long d2 = t2 - P2 - borrow;
+        borrow = borrow(t2, P2) | (borrow & (t2 == P2 ? 1 : 0));
+        long d3 = t3 - P3 - borrow;
+        borrow = borrow(t3, P3) | (borrow & (t3 == P3 ? 1 : 0));
+        if (borrow == 0) {
+            r[ri] = d0; r[ri + 1] = d1; r[ri + 2] = d2; r[ri + 3] = d3;
+        } else {
+            r[ri] = t0; r[ri + 1] = t1; r[ri + 2] = t2; r[ri + 3] = t3;
+        }
+    }
+
+    /** 1 if {@code sum = x + addend} wrapped around, else 0. */
+    static long carry(long sum, long addend) {
+        return Long.compareUnsigned(sum, addend) < 0 ? 1 : 0;
+    }
+
+    /** 1 if {@code x - y} borrows, else 0. */
+    static long borrow(long x, long y) {
+        return Long.compareUnsigned(x, y) < 0 ? 1 : 0;
+    }
+}
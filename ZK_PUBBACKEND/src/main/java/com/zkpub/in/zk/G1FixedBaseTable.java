@@ -0,0 +1,53 @@
+package com.zkpub.in.zk;
+
+import java.math.BigInteger;
+
+/**
+ * Precomputed multiples of a fixed G1 point for the public-input MSM.
+ * The scalar is split into 8-bit windows; window k holds d·2^(8k)·P for
+ * d = 1..255 in affine form, so k·P costs at most 32 mixed additions and
+ * no doublings. That is 32 × 255 points (about 510 KB) per base, built
+ * once per verification key.
+ */
+final class G1FixedBaseTable {
+
+    private static final int WINDOW_BITS = 8;
+    private static final int DIGITS = (1 << WINDOW_BITS) - 1;
+    private static final int WINDOWS = (G1Point.ORDER.bitLength() + WINDOW_BITS - 1) / WINDOW_BITS;
+    private static final int POINT = 2 * Fp.LIMBS;
+
+    /** Affine x, y of d·2^(8k)·P at ((k·255) + d - 1)·POINT; empty for the point at infinity. */
+    private final long[] points;
+
+    G1FixedBaseTable(G1Point base) {
+        if (base.isInfinity()) {
+            points = new long[0];
+            return;
+        }
+        points = new long[WINDOWS * DIGITS * POINT];
+        G1Point windowBase = base;
+        for (int k = 0; k < WINDOWS; k++) {
+            G1Point multiple = windowBase;
+            for (int d = 1; d <= DIGITS; d++) {
+                System.arraycopy(multiple.xy, 0, points, (k * DIGITS + d - 1) * POINT, POINT);
+                multiple = multiple.add(windowBase);
+            }
+            // multiple is now 256·windowBase, the next window's base
+            windowBase = multiple;
+        }
+    }
+
+    /** s += k·P for 0 <= k < r, on a G1Point Jacobian scratch buffer. */
+    void addMultiple(long[] s, BigInteger k) {
+        if (points.length == 0 || k.signum() == 0) {
+            return;
+        }
+        byte[] bytes = k.toByteArray(); // big-endian, possibly with a leading sign byte
+        for (int k8 = 0; k8 < WINDOWS && k8 < bytes.length; k8++) {
+            int digit = bytes[bytes.length - 1 - k8] & 0xff;
+            if (digit != 0) {
+                G1Point.addAffine(s, points, (k8 * DIGITS + digit - 1) * POINT);
+            }
+        }
+    }
+}
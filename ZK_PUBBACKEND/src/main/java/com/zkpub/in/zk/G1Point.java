@@ -0,0 +1,336 @@
+package com.zkpub.in.zk;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+
+/**
+ * An affine point on the BN254 curve y^2 = x^3 + 3 over Fp. The group has
+ * prime order, so any point on the curve is a valid G1 element. Points
+ * are immutable. Scalar multiplication runs in Jacobian coordinates on a
+ * scratch buffer and converts back to affine once at the end.
+ */
+public final class G1Point {
+
+    /** Order of G1, G2 and GT (the Groth16 scalar field). */
+    public static final BigInteger ORDER = new BigInteger(
+        "21888242871839275222246405745257275088548364400416034343698204186575808495617");
+
+    private static final long[] B = new long[Fp.LIMBS];
+
+    static {
+        Fp.set(BigInteger.valueOf(3), B, 0);
+    }
+
+    public static final G1Point INFINITY = new G1Point(new long[2 * Fp.LIMBS], true);
+    public static final G1Point GENERATOR = of(BigInteger.ONE, BigInteger.TWO);
+
+    // Jacobian layout inside a scratch buffer: X, Y, Z then temporaries
+    private static final int X = 0, Y = 4, Z = 8, T = 12;
+    private static final int SCRATCH = T + 8 * Fp.LIMBS;
+
+    /** x at [0, 4), y at [4, 8), Montgomery form. */
+    final long[] xy;
+    final boolean infinity;
+
+    private G1Point(long[] xy, boolean infinity) {
+        this.xy = xy;
+        this.infinity = infinity;
+    }
+
+    /** Validates that (x, y) is a canonical point on the curve. */
+    public static G1Point of(BigInteger x, BigInteger y) {
+        if (x.signum() == 0 && y.signum() == 0) {
+            return INFINITY; // snarkjs and the EVM precompiles encode infinity as (0, 0)
+        }
+        long[] xy = new long[2 * Fp.LIMBS];
+        Fp.set(x, xy, 0);
+        Fp.set(y, xy, Fp.LIMBS);
+        if (!onCurve(xy)) {
+            throw new IllegalArgumentException("Point is not on the BN254 curve");
+        }
+        return new G1Point(xy, false);
+    }
+
+    /** A point from Montgomery-form coordinates as stored in proving keys; (0, 0) is infinity. */
+    static G1Point ofMontgomery(long[] xy) {
+        if (Fp.isZero(xy, 0) && Fp.isZero(xy, Fp.LIMBS)) {
+            return INFINITY;
+        }
+        if (!onCurve(xy)) {
+            throw new IllegalArgumentException("Point is not on the BN254 curve");
+        }
+        return new G1Point(xy.clone(), false);
+    }
+
+    private static boolean onCurve(long[] xy) {
+        long[] t = new long[2 * Fp.LIMBS];
+        Fp.sqr(xy, 0, t, 0);
+        Fp.mul(t, 0, xy, 0, t, 0);
+        Fp.add(t, 0, B, 0, t, 0);
+        Fp.sqr(xy, Fp.LIMBS, t, Fp.LIMBS);
+        return Fp.equal(t, 0, t, Fp.LIMBS);
+    }
+
+    public boolean isInfinity() {
+        return infinity;
+    }
+
+    public BigInteger x() {
+        return Fp.toBigInteger(xy, 0);
+    }
+
+    public BigInteger y() {
+        return Fp.toBigInteger(xy, Fp.LIMBS);
+    }
+
+    public G1Point negate() {
+        if (infinity) {
+            return this;
+        }
+        long[] r = xy.clone();
+        Fp.neg(r, Fp.LIMBS, r, Fp.LIMBS);
+        return new G1Point(r, false);
+    }
+
+    public G1Point add(G1Point other) {
+        if (infinity) {
+            return other;
+        }
+        if (other.infinity) {
+            return this;
+        }
+        long[] s = new long[SCRATCH];
+        loadAffine(this, s);
+        addAffine(s, other);
+        return toAffine(s);
+    }
+
+    public G1Point multiply(BigInteger k) {
+        return linearCombination(new G1Point[] {this}, new BigInteger[] {k});
+    }
+
+    /** Σ scalars[i]·points[i], accumulated in Jacobian coordinates with a single final inversion. */
+    public static G1Point linearCombination(G1Point[] points, BigInteger[] scalars) {
+        if (points.length != scalars.length) {
+            throw new IllegalArgumentException("Points and scalars differ in length");
+        }
+        long[] acc = new long[SCRATCH];
+        long[] term = new long[SCRATCH];
+        setInfinity(acc);
+        for (int i = 0; i < points.length; i++) {
+            BigInteger k = scalars[i].mod(ORDER);
+            if (points[i].infinity || k.signum() == 0) {
+                continue;
+            }
+            setInfinity(term);
+            for (int bit = k.bitLength() - 1; bit >= 0; bit--) {
+                doubleInPlace(term);
+                if (k.testBit(bit)) {
+                    addAffine(term, points[i]);
+                }
+            }
+            addJacobian(acc, term);
+        }
+        return toAffine(acc);
+    }
+
+    // ---------------------------------------------------------------- Jacobian arithmetic
+
+    private static void setInfinity(long[] s) {
+        Fp.setOne(s, X);
+        Fp.setOne(s, Y);
+        Fp.setZero(s, Z);
+    }
+
+    private static boolean isInfinity(long[] s) {
+        return Fp.isZero(s, Z);
+    }
+
+    private static void loadAffine(G1Point p, long[] s) {
+        Fp.copy(p.xy, 0, s, X);
+        Fp.copy(p.xy, Fp.LIMBS, s, Y);
+        Fp.setOne(s, Z);
+    }
+
+    static long[] newScratch() {
+        long[] s = new long[SCRATCH];
+        setInfinity(s);
+        return s;
+    }
+
+    static G1Point toAffine(long[] s) {
+        if (isInfinity(s)) {
+            return INFINITY;
+        }
+        long[] r = new long[2 * Fp.LIMBS];
+        final int zInv = T, zInv2 = T + 4;
+        Fp.inverse(s, Z, s, zInv);
+        Fp.sqr(s, zInv, s, zInv2);
+        Fp.mul(s, X, s, zInv2, r, 0);
+        Fp.mul(s, zInv2, s, zInv, s, zInv2);
+        Fp.mul(s, Y, s, zInv2, r, Fp.LIMBS);
+        return new G1Point(r, false);
+    }
+
+    /** dbl-2009-l for a = 0. */
+    static void doubleInPlace(long[] s) {
+        if (isInfinity(s)) {
+            return;
+        }
+        final int a = T, b = T + 4, c = T + 8, d = T + 12, e = T + 16, f = T + 20;
+        Fp.sqr(s, X, s, a);
+        Fp.sqr(s, Y, s, b);
+        Fp.sqr(s, b, s, c);
+        Fp.add(s, X, s, b, s, d);
+        Fp.sqr(s, d, s, d);
+        Fp.sub(s, d, s, a, s, d);
+        Fp.sub(s, d, s, c, s, d);
+        Fp.dbl(s, d, s, d);
+        Fp.dbl(s, a, s, e);
+        Fp.add(s, e, s, a, s, e);
+        Fp.sqr(s, e, s, f);
+        // Z3 = 2·Y·Z, before Y is overwritten
+        Fp.mul(s, Y, s, Z, s, Z);
+        Fp.dbl(s, Z, s, Z);
+        // X3 = F - 2D
+        Fp.dbl(s, d, s, X);
+        Fp.sub(s, f, s, X, s, X);
+        // Y3 = E(D - X3) - 8C
+        Fp.sub(s, d, s, X, s, Y);
+        Fp.mul(s, e, s, Y, s, Y);
+        Fp.dbl(s, c, s, c);
+        Fp.dbl(s, c, s, c);
+        Fp.dbl(s, c, s, c);
+        Fp.sub(s, Y, s, c, s, Y);
+    }
+
+    /** madd-2007-bl: s += q with q affine. */
+    static void addAffine(long[] s, G1Point q) {
+        if (!q.infinity) {
+            addAffine(s, q.xy, 0);
+        }
+    }
+
+    /** s += (x, y) for a finite affine point stored at {@code qi} in {@code qxy}, x then y. */
+    static void addAffine(long[] s, long[] qxy, int qi) {
+        if (isInfinity(s)) {
+            Fp.copy(qxy, qi, s, X);
+            Fp.copy(qxy, qi + Fp.LIMBS, s, Y);
+            Fp.setOne(s, Z);
+            return;
+        }
+        final int z1z1 = T, u2 = T + 4, s2 = T + 8, h = T + 12, hh = T + 16, i = T + 20, j = T + 24, r = T + 28;
+        Fp.sqr(s, Z, s, z1z1);
+        Fp.mul(qxy, qi, s, z1z1, s, u2);
+        Fp.mul(qxy, qi + Fp.LIMBS, s, Z, s, s2);
+        Fp.mul(s, s2, s, z1z1, s, s2);
+        Fp.sub(s, u2, s, X, s, h);
+        Fp.sub(s, s2, s, Y, s, r);
+        if (Fp.isZero(s, h)) {
+            if (Fp.isZero(s, r)) {
+                doubleInPlace(s);
+            } else {
+                setInfinity(s);
+            }
+            return;
+        }
+        Fp.dbl(s, r, s, r);
+        Fp.sqr(s, h, s, hh);
+        Fp.dbl(s, hh, s, i);
+        Fp.dbl(s, i, s, i);
+        Fp.mul(s, h, s, i, s, j);
+        // V = X1·I, kept in u2
+        Fp.mul(s, X, s, i, s, u2);
+        // Z3 = (Z1 + H)^2 - Z1Z1 - HH
+        Fp.add(s, Z, s, h, s, Z);
+        Fp.sqr(s, Z, s, Z);
+        Fp.sub(s, Z, s, z1z1, s, Z);
+        Fp.sub(s, Z, s, hh, s, Z);
+        // Y1·J, kept in s2, before Y is overwritten
+        Fp.mul(s, Y, s, j, s, s2);
+        // X3 = r^2 - J - 2V
+        Fp.sqr(s, r, s, X);
+        Fp.sub(s, X, s, j, s, X);
+        Fp.sub(s, X, s, u2, s, X);
+        Fp.sub(s, X, s, u2, s, X);
+        // Y3 = r(V - X3) - 2·Y1·J
+        Fp.sub(s, u2, s, X, s, Y);
+        Fp.mul(s, r, s, Y, s, Y);
+        Fp.sub(s, Y, s, s2, s, Y);
+        Fp.sub(s, Y, s, s2, s, Y);
+    }
+
+    /** add-2007-bl: s += q with both Jacobian; q's temporaries are left untouched. */
+    static void addJacobian(long[] s, long[] q) {
+        if (isInfinity(q)) {
+            return;
+        }
+        if (isInfinity(s)) {
+            System.arraycopy(q, 0, s, 0, T);
+            return;
+        }
+        final int z1z1 = T, z2z2 = T + 4, u1 = T + 8, u2 = T + 12, s1 = T + 16, s2 = T + 20, h = T + 24, r = T + 28;
+        Fp.sqr(s, Z, s, z1z1);
+        Fp.sqr(q, Z, s, z2z2);
+        Fp.mul(s, X, s, z2z2, s, u1);
+        Fp.mul(q, X, s, z1z1, s, u2);
+        Fp.mul(s, Y, q, Z, s, s1);
+        Fp.mul(s, s1, s, z2z2, s, s1);
+        Fp.mul(q, Y, s, Z, s, s2);
+        Fp.mul(s, s2, s, z1z1, s, s2);
+        Fp.sub(s, u2, s, u1, s, h);
+        Fp.sub(s, s2, s, s1, s, r);
+        if (Fp.isZero(s, h)) {
+            if (Fp.isZero(s, r)) {
+                doubleInPlace(s);
+            } else {
+                setInfinity(s);
+            }
+            return;
+        }
+        // Z3 = ((Z1 + Z2)^2 - Z1Z1 - Z2Z2)·H
+        Fp.add(s, Z, q, Z, s, Z);
+        Fp.sqr(s, Z, s, Z);
+        Fp.sub(s, Z, s, z1z1, s, Z);
+        Fp.sub(s, Z, s, z2z2, s, Z);
+        Fp.mul(s, Z, s, h, s, Z);
+        // I = (2H)^2 in z1z1, J = H·I in z2z2, r = 2(S2 - S1), V = U1·I in u2
+        Fp.dbl(s, h, s, z1z1);
+        Fp.sqr(s, z1z1, s, z1z1);
+        Fp.mul(s, h, s, z1z1, s, z2z2);
+        Fp.dbl(s, r, s, r);
+        Fp.mul(s, u1, s, z1z1, s, u2);
+        // X3 = r^2 - J - 2V
+        Fp.sqr(s, r, s, X);
+        Fp.sub(s, X, s, z2z2, s, X);
+        Fp.sub(s, X, s, u2, s, X);
+        Fp.sub(s, X, s, u2, s, X);
+        // Y3 = r(V - X3) - 2·S1·J
+        Fp.sub(s, u2, s, X, s, Y);
+        Fp.mul(s, r, s, Y, s, Y);
+        Fp.mul(s, s1, s, z2z2, s, s1);
+        Fp.sub(s, Y, s, s1, s, Y);
+        Fp.sub(s, Y, s, s1, s, Y);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof G1Point other)) {
+            return false;
+        }
+        return infinity == other.infinity && (infinity || Arrays.equals(xy, other.xy));
+    }
+
+    @Override
+    public int hashCode() {
+        return infinity ? 0 : Arrays.hashCode(xy);
+    }
+
+    @Override
+    public String toString() {
+        return infinity ? "G1(infinity)" : "G1(" + x() + ", " + y() + ")";
+    }
+}
@@ -0,0 +1,375 @@
+package com.zkpub.in.zk;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+
+/**
+ * An affine point on the BN254 sextic twist y^2 = x^3 + 3/ξ over Fp2.
+ * Unlike G1, the twist has a large cofactor, so untrusted points must pass
+ * {@link #isInSubgroup()} as well as the curve equation; {@link #of} checks
+ * both.
+ */
+public final class G2Point {
+
+    /** The twist coefficient b' = 3/ξ. */
+    static final long[] B = new long[Tower.FP2];
+
+    static {
+        long[] three = new long[Tower.FP2];
+        Fp.set(BigInteger.valueOf(3), three, 0);
+        Tower t = Tower.local();
+        t.fp2Inverse(Tower.XI, 0, B, 0);
+        t.fp2Mul(B, 0, three, 0, B, 0);
+    }
+
+    /** 6x^2 for the BN parameter x; ψ acts on G2 as multiplication by it. */
+    private static final BigInteger SIX_X_SQUARED =
+        BigInteger.valueOf(Pairing.BN_X).pow(2).multiply(BigInteger.valueOf(6));
+
+    public static final G2Point INFINITY = new G2Point(new long[2 * Tower.FP2], true);
+    public static final G2Point GENERATOR = of(
+        new BigInteger("10857046999023057135944570762232829481370756359578518086990519993285655852781"),
+        new BigInteger("11559732032986387107991004021392285783925812861821192530917403151452391805634"),
+        new BigInteger("8495653923123431417604973247489272438418190587263600148770280649306958101930"),
+        new BigInteger("4082367875863433681332203403145435568316851327593401208105741076214120093531"));
+
+    private static final int F = Tower.FP2;
+    // Jacobian layout inside a scratch buffer: X, Y, Z then temporaries
+    private static final int X = 0, Y = F, Z = 2 * F, T = 3 * F;
+    private static final int SCRATCH = T + 8 * F;
+
+    /** x at [0, 8), y at [8, 16); each is c0 then c1 in Montgomery form. */
+    final long[] xy;
+    final boolean infinity;
+
+    private G2Point(long[] xy, boolean infinity) {
+        this.xy = xy;
+        this.infinity = infinity;
+    }
+
+    /** Validates that x = x0 + x1·u, y = y0 + y1·u is on the twist and in the order-r subgroup. */
+    public static G2Point of(BigInteger x0, BigInteger x1, BigInteger y0, BigInteger y1) {
+        G2Point p = onCurve(x0, x1, y0, y1);
+        if (!p.isInSubgroup()) {
+            throw new IllegalArgumentException("Point is not in the BN254 G2 subgroup");
+        }
+        return p;
+    }
+
+    /** Only checks the curve equation; for trusted inputs such as verification keys loaded once. */
+    static G2Point onCurve(BigInteger x0, BigInteger x1, BigInteger y0, BigInteger y1) {
+        if (x0.signum() == 0 && x1.signum() == 0 && y0.signum() == 0 && y1.signum() == 0) {
+            return INFINITY;
+        }
+        long[] xy = new long[2 * F];
+        Fp.set(x0, xy, 0);
+        Fp.set(x1, xy, Fp.LIMBS);
+        Fp.set(y0, xy, F);
+        Fp.set(y1, xy, F + Fp.LIMBS);
+
+        Tower t = Tower.local();
+        long[] s = new long[2 * F];
+        t.fp2Sqr(xy, 0, s, 0);
+        t.fp2Mul(s, 0, xy, 0, s, 0);
+        Tower.fp2Add(s, 0, B, 0, s, 0);
+        t.fp2Sqr(xy, F, s, F);
+        if (!Tower.fp2Equal(s, 0, s, F)) {
+            throw new IllegalArgumentException("Point is not on the BN254 twist");
+        }
+        return new G2Point(xy, false);
+    }
+
+    /** A point from Montgomery-form coordinates as stored in proving keys; all zeros is infinity. Curve check only. */
+    static G2Point ofMontgomery(long[] xy) {
+        boolean zero = true;
+        for (long limb : xy) {
+            zero &= limb == 0;
+        }
+        if (zero) {
+            return INFINITY;
+        }
+        BigInteger[] c = new G2Point(xy.clone(), false).coordinates();
+        return onCurve(c[0], c[1], c[2], c[3]);
+    }
+
+    public boolean isInfinity() {
+        return infinity;
+    }
+
+    /**
+     * Membership via the endomorphism: on BN curves a twist point is in G2
+     * exactly when ψ(P) == [6x^2]P, a 127-bit multiplication instead of a
+     * multiplication by r.
+     */
+    public boolean isInSubgroup() {
+        if (infinity) {
+            return true;
+        }
+        Tower t = Tower.local();
+        long[] s = new long[SCRATCH];
+        multiplyInto(s, SIX_X_SQUARED, t);
+        if (isInfinity(s)) {
+            return false;
+        }
+        G2Point multiple = toAffine(s, t);
+        long[] psi = new long[2 * F];
+        psi(xy, psi, t);
+        return Arrays.equals(psi, multiple.xy);
+    }
+
+    public G2Point negate() {
+        if (infinity) {
+            return this;
+        }
+        long[] r = xy.clone();
+        Tower.fp2Neg(r, F, r, F);
+        return new G2Point(r, false);
+    }
+
+    public G2Point add(G2Point other) {
+        if (infinity) {
+            return other;
+        }
+        if (other.infinity) {
+            return this;
+        }
+        Tower t = Tower.local();
+        long[] s = new long[SCRATCH];
+        loadAffine(this, s);
+        addAffine(s, other, t);
+        return toAffine(s, t);
+    }
+
+    public G2Point multiply(BigInteger k) {
+        Tower t = Tower.local();
+        long[] s = new long[SCRATCH];
+        multiplyInto(s, k.mod(G1Point.ORDER), t);
+        return toAffine(s, t);
+    }
+
+    public BigInteger[] coordinates() {
+        return new BigInteger[] {
+            Fp.toBigInteger(xy, 0), Fp.toBigInteger(xy, Fp.LIMBS),
+            Fp.toBigInteger(xy, F), Fp.toBigInteger(xy, F + Fp.LIMBS)
+        };
+    }
+
+    private void multiplyInto(long[] s, BigInteger k, Tower t) {
+        setInfinity(s);
+        if (infinity) {
+            return;
+        }
+        for (int bit = k.bitLength() - 1; bit >= 0; bit--) {
+            doubleInPlace(s, t);
+            if (k.testBit(bit)) {
+                addAffine(s, this, t);
+            }
+        }
+    }
+
+    /** The untwist-Frobenius-twist endomorphism: (x, y) -> (conj(x)·ξ^((p-1)/3), conj(y)·ξ^((p-1)/2)). */
+    static void psi(long[] q, long[] r, Tower t) {
+        Tower.fp2Conj(q, 0, r, 0);
+        t.fp2Mul(r, 0, Tower.FROBENIUS[1], 2 * F, r, 0);
+        Tower.fp2Conj(q, F, r, F);
+        t.fp2Mul(r, F, Tower.FROBENIUS[1], 3 * F, r, F);
+    }
+
+    // ---------------------------------------------------------------- Jacobian arithmetic
+
+    private static void setInfinity(long[] s) {
+        Tower.fp2SetOne(s, X);
+        Tower.fp2SetOne(s, Y);
+        Tower.fp2SetZero(s, Z);
+    }
+
+    private static boolean isInfinity(long[] s) {
+        return Tower.fp2IsZero(s, Z);
+    }
+
+    private static void loadAffine(G2Point p, long[] s) {
+        Tower.fp2Copy(p.xy, 0, s, X);
+        Tower.fp2Copy(p.xy, F, s, Y);
+        Tower.fp2SetOne(s, Z);
+    }
+
+    static long[] newScratch() {
+        long[] s = new long[SCRATCH];
+        setInfinity(s);
+        return s;
+    }
+
+    static G2Point toAffine(long[] s, Tower t) {
+        if (isInfinity(s)) {
+            return INFINITY;
+        }
+        long[] r = new long[2 * F];
+        final int zInv = T, zInv2 = T + F;
+        t.fp2Inverse(s, Z, s, zInv);
+        t.fp2Sqr(s, zInv, s, zInv2);
+        t.fp2Mul(s, X, s, zInv2, r, 0);
+        t.fp2Mul(s, zInv2, s, zInv, s, zInv2);
+        t.fp2Mul(s, Y, s, zInv2, r, F);
+        return new G2Point(r, false);
+    }
+
+    /** dbl-2009-l for a = 0. */
+    static void doubleInPlace(long[] s, Tower t) {
+        if (isInfinity(s)) {
+            return;
+        }
+        final int a = T, b = T + F, c = T + 2 * F, d = T + 3 * F, e = T + 4 * F, f = T + 5 * F;
+        t.fp2Sqr(s, X, s, a);
+        t.fp2Sqr(s, Y, s, b);
+        t.fp2Sqr(s, b, s, c);
+        Tower.fp2Add(s, X, s, b, s, d);
+        t.fp2Sqr(s, d, s, d);
+        Tower.fp2Sub(s, d, s, a, s, d);
+        Tower.fp2Sub(s, d, s, c, s, d);
+        Tower.fp2Dbl(s, d, s, d);
+        Tower.fp2Dbl(s, a, s, e);
+        Tower.fp2Add(s, e, s, a, s, e);
+        t.fp2Sqr(s, e, s, f);
+        t.fp2Mul(s, Y, s, Z, s, Z);
+        Tower.fp2Dbl(s, Z, s, Z);
+        Tower.fp2Dbl(s, d, s, X);
+        Tower.fp2Sub(s, f, s, X, s, X);
+        Tower.fp2Sub(s, d, s, X, s, Y);
+        t.fp2Mul(s, e, s, Y, s, Y);
+        Tower.fp2Dbl(s, c, s, c);
+        Tower.fp2Dbl(s, c, s, c);
+        Tower.fp2Dbl(s, c, s, c);
+        Tower.fp2Sub(s, Y, s, c, s, Y);
+    }
+
+    /** madd-2007-bl: s += q with q affine. */
+    private static void addAffine(long[] s, G2Point q, Tower t) {
+        if (!q.infinity) {
+            addAffine(s, q.xy, 0, t);
+        }
+    }
+
+    /** s += (x, y) for a finite affine point stored at {@code qi} in {@code qxy}, x then y. */
+    static void addAffine(long[] s, long[] qxy, int qi, Tower t) {
+        if (isInfinity(s)) {
+            Tower.fp2Copy(qxy, qi, s, X);
+            Tower.fp2Copy(qxy, qi + F, s, Y);
+            Tower.fp2SetOne(s, Z);
+            return;
+        }
+        final int z1z1 = T, u2 = T + F, s2 = T + 2 * F, h = T + 3 * F, hh = T + 4 * F,
+            i = T + 5 * F, j = T + 6 * F, r = T + 7 * F;
+        t.fp2Sqr(s, Z, s, z1z1);
+        t.fp2Mul(qxy, qi, s, z1z1, s, u2);
+        t.fp2Mul(qxy, qi + F, s, Z, s, s2);
+        t.fp2Mul(s, s2, s, z1z1, s, s2);
+        Tower.fp2Sub(s, u2, s, X, s, h);
+        Tower.fp2Sub(s, s2, s, Y, s, r);
+        if (Tower.fp2IsZero(s, h)) {
+            if (Tower.fp2IsZero(s, r)) {
+                doubleInPlace(s, t);
+            } else {
+                setInfinity(s);
+            }
+            return;
+        }
+        Tower.fp2Dbl(s, r, s, r);
+        t.fp2Sqr(s, h, s, hh);
+        Tower.fp2Dbl(s, hh, s, i);
+        Tower.fp2Dbl(s, i, s, i);
+        t.fp2Mul(s, h, s, i, s, j);
+        t.fp2Mul(s, X, s, i, s, u2);
+        Tower.fp2Add(s, Z, s, h, s, Z);
+        t.fp2Sqr(s, Z, s, Z);
+        Tower.fp2Sub(s, Z, s, z1z1, s, Z);
+        Tower.fp2Sub(s, Z, s, hh, s, Z);
+        t.fp2Mul(s, Y, s, j, s, s2);
+        t.fp2Sqr(s, r, s, X);
+        Tower.fp2Sub(s, X, s, j, s, X);
+        Tower.fp2Sub(s, X, s, u2, s, X);
+        Tower.fp2Sub(s, X, s, u2, s, X);
+        Tower.fp2Sub(s, u2, s, X, s, Y);
+        t.fp2Mul(s, r, s, Y, s, Y);
+        Tower.fp2Sub(s, Y, s, s2, s, Y);
+        Tower.fp2Sub(s, Y, s, s2, s, Y);
+    }
+
+    /** add-2007-bl: s += q with both Jacobian; q's temporaries are left untouched. */
+    static void addJacobian(long[] s, long[] q, Tower t) {
+        if (isInfinity(q)) {
+            return;
+        }
+        if (isInfinity(s)) {
+            System.arraycopy(q, 0, s, 0, T);
+            return;
+        }
+        final int z1z1 = T, z2z2 = T + F, u1 = T + 2 * F, u2 = T + 3 * F, s1 = T + 4 * F, s2 = T + 5 * F,
+            h = T + 6 * F, r = T + 7 * F;
+        t.fp2Sqr(s, Z, s, z1z1);
+        t.fp2Sqr(q, Z, s, z2z2);
+        t.fp2Mul(s, X, s, z2z2, s, u1);
+        t.fp2Mul(q, X, s, z1z1, s, u2);
+        t.fp2Mul(s, Y, q, Z, s, s1);
+        t.fp2Mul(s, s1, s, z2z2, s, s1);
+        t.fp2Mul(q, Y, s, Z, s, s2);
+        t.fp2Mul(s, s2, s, z1z1, s, s2);
+        Tower.fp2Sub(s, u2, s, u1, s, h);
+        Tower.fp2Sub(s, s2, s, s1, s, r);
+        if (Tower.fp2IsZero(s, h)) {
+            if (Tower.fp2IsZero(s, r)) {
+                doubleInPlace(s, t);
+            } else {
+                setInfinity(s);
+            }
+            return;
+        }
+        // Z3 = ((Z1 + Z2)^2 - Z1Z1 - Z2Z2)·H
+        Tower.fp2Add(s, Z, q, Z, s, Z);
+        t.fp2Sqr(s, Z, s, Z);
+        Tower.fp2Sub(s, Z, s, z1z1, s, Z);
+        Tower.fp2Sub(s, Z, s, z2z2, s, Z);
+        t.fp2Mul(s, Z, s, h, s, Z);
+        // I = (2H)^2 in z1z1, J = H·I in z2z2, r = 2(S2 - S1), V = U1·I in u2
+        Tower.fp2Dbl(s, h, s, z1z1);
+        t.fp2Sqr(s, z1z1, s, z1z1);
+        t.fp2Mul(s, h, s, z1z1, s, z2z2);
+        Tower.fp2Dbl(s, r, s, r);
+        t.fp2Mul(s, u1, s, z1z1, s, u2);
+        // X3 = r^2 - J - 2V
+        t.fp2Sqr(s, r, s, X);
+        Tower.fp2Sub(s, X, s, z2z2, s, X);
+        Tower.fp2Sub(s, X, s, u2, s, X);
+        Tower.fp2Sub(s, X, s, u2, s, X);
+        // Y3 = r(V - X3) - 2·S1·J
+        Tower.fp2Sub(s, u2, s, X, s, Y);
+        t.fp2Mul(s, r, s, Y, s, Y);
+        t.fp2Mul(s, s1, s, z2z2, s, s1);
+        Tower.fp2Sub(s, Y, s, s1, s, Y);
+        Tower.fp2Sub(s, Y, s, s1, s, Y);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof G2Point other)) {
+            return false;
+        }
+        return infinity == other.infinity && (infinity || Arrays.equals(xy, other.xy));
+    }
+
+    @Override
+    public int hashCode() {
+        return infinity ? 0 : Arrays.hashCode(xy);
+    }
+
+    @Override
+    public String toString() {
+        if (infinity) {
+            return "G2(infinity)";
+        }
+        BigInteger[] c = coordinates();
+        return "G2((" + c[0] + ", " + c[1] + "), (" + c[2] + ", " + c[3] + "))";
+    }
+}
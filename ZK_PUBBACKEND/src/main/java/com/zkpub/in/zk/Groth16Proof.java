@@ -0,0 +1,81 @@
+package com.zkpub.in.zk;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+
+/**
+ * A Groth16 proof (A, B, C). Points are checked against the curve and,
+ * for B, the G2 subgroup while parsing, so a proof object is always
+ * well-formed even when it does not verify.
+ */
+public record Groth16Proof(G1Point a, G2Point b, G1Point c) {
+
+    /** Size of {@link #toBytes()}: A, B and C compressed to their x coordinates. */
+    public static final int ENCODED_BYTES = 2 * CompressedPoints.G1_BYTES + CompressedPoints.G2_BYTES;
+
+    /** Reads snarkjs {@code proof.json}: {@code pi_a}, {@code pi_b}, {@code pi_c}. */
+    public static Groth16Proof fromJson(JsonNode json) {
+        return new Groth16Proof(
+            SnarkjsJson.g1(json, "pi_a"),
+            SnarkjsJson.g2(json, "pi_b"),
+            SnarkjsJson.g1(json, "pi_c"));
+    }
+
+    /** Writes the proof the way snarkjs does, so clients and the verifier accept it unchanged. */
+    public ObjectNode toJson() {
+        ObjectNode json = JsonNodeFactory.instance.objectNode();
+        g1(json.putArray("pi_a"), a);
+        ArrayNode piB = json.putArray("pi_b");
+        if (b.isInfinity()) {
+            piB.addArray().add("0").add("0");
+            piB.addArray().add("1").add("0");
+            piB.addArray().add("0").add("0");
+        } else {
+            BigInteger[] coordinates = b.coordinates();
+            piB.addArray().add(coordinates[0].toString()).add(coordinates[1].toString());
+            piB.addArray().add(coordinates[2].toString()).add(coordinates[3].toString());
+            piB.addArray().add("1").add("0");
+        }
+        g1(json.putArray("pi_c"), c);
+        json.put("protocol", "groth16");
+        json.put("curve", "bn128");
+        return json;
+    }
+
+    /**
+     * The binary form: A (32 bytes), B (64), C (32), each compressed as
+     * gnark-crypto does. Under a fifth of the snarkjs JSON.
+     */
+    public byte[] toBytes() {
+        ByteBuffer out = ByteBuffer.allocate(ENCODED_BYTES);
+        writeTo(out);
+        return out.array();
+    }
+
+    public void writeTo(ByteBuffer out) {
+        CompressedPoints.writeG1(a, out);
+        CompressedPoints.writeG2(b, out);
+        CompressedPoints.writeG1(c, out);
+    }
+
+    /** Reads {@link #ENCODED_BYTES} bytes of {@link #toBytes()} output, with the same checks as {@link #fromJson}. */
+    public static Groth16Proof readFrom(ByteBuffer in) {
+        if (in.remaining() < ENCODED_BYTES) {
+            throw new IllegalArgumentException("Proof needs " + ENCODED_BYTES + " bytes, got " + in.remaining());
+        }
+        return new Groth16Proof(CompressedPoints.readG1(in), CompressedPoints.readG2(in), CompressedPoints.readG1(in));
+    }
+
+    private static void g1(ArrayNode array, G1Point p) {
+        if (p.isInfinity()) {
+            array.add("0").add("1").add("0");
+        } else {
+            array.add(p.x().toString()).add(p.y().toString()).add("1");
+        }
+    }
+}
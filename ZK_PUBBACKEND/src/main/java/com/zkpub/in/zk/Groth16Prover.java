@@ -0,0 +1,167 @@
+package com.zkpub.in.zk;
+
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Groth16 proving over BN254, following snarkjs {@code groth16 prove} step
+ * for step so its proving keys and verifiers accept the output:
+ *
+ * <ol>
+ *   <li>Evaluate A and B on the n-point domain from the key's sparse
+ *       matrices and the witness; C = A·B pointwise.</li>
+ *   <li>Move each to the odd points of the 2n-domain (inverse NTT, scale by
+ *       powers of ω_2n, NTT). There Z(x) = x^n - 1 is constant, and the
+ *       key's H bases already absorb it and 1/δ, so A·B - C at those points
+ *       are the scalars for the H multi-exponentiation.</li>
+ *   <li>Five MSMs (A, B in G1 and G2, C, H), then blinding with random r, s.</li>
+ * </ol>
+ *
+ * The MSMs over the witness and the polynomial work are independent, so
+ * they are forked together; each also splits internally. Everything runs
+ * in whatever fork-join pool calls {@link #prove}, which bounds the cores
+ * a proof may use.
+ */
+public final class Groth16Prover {
+
+    private static final int L = Fr.LIMBS;
+    private static final int PARALLEL_GRAIN = 1 << 11;
+
+    private Groth16Prover() {
+    }
+
+    /** Proves for a full witness (wire 0 = 1, then public signals, then the rest), values below r. */
+    public static Groth16Proof prove(ProvingKey key, List<BigInteger> witness, Random random) {
+        if (witness.size() != key.variableCount) {
+            throw new IllegalArgumentException("Expected " + key.variableCount + " witness values, got " + witness.size());
+        }
+        return prove(key, canonicalLimbs(witness), random);
+    }
+
+    /** As above for a witness from a .wtns file or {@link WitnessCalculator}. */
+    public static Groth16Proof prove(ProvingKey key, Witness witness, Random random) {
+        if (witness.size() != key.variableCount) {
+            throw new IllegalArgumentException("Expected " + key.variableCount + " witness values, got " + witness.size());
+        }
+        return prove(key, witness.limbs(), random);
+    }
+
+    /** As above with the witness as canonical little-endian limbs, the .wtns layout. */
+    static Groth16Proof prove(ProvingKey key, long[] witness, Random random) {
+        if (witness.length != key.variableCount * L) {
+            throw new IllegalArgumentException("Witness does not match the proving key");
+        }
+        long[] montgomery = witness.clone();
+        Parallel.forRange(key.variableCount, PARALLEL_GRAIN, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                Fr.toMontgomery(montgomery, i * L);
+            }
+        });
+
+        int publicEnd = key.publicCount + 1;
+        ForkJoinTask<G1Point> a = ForkJoinTask.adapt(() ->
+            Pippenger.g1(key.pointsA, witness, 0, key.variableCount));
+        ForkJoinTask<G1Point> b1 = ForkJoinTask.adapt(() ->
+            Pippenger.g1(key.pointsB1, witness, 0, key.variableCount));
+        ForkJoinTask<G2Point> b2 = ForkJoinTask.adapt(() ->
+            Pippenger.g2(key.pointsB2, witness, 0, key.variableCount));
+        ForkJoinTask<G1Point> c = ForkJoinTask.adapt(() ->
+            Pippenger.g1(key.pointsC, witness, publicEnd, key.variableCount - publicEnd));
+        ForkJoinTask<G1Point> h = ForkJoinTask.adapt(() ->
+            Pippenger.g1(key.pointsH, quotientEvaluations(key, montgomery), 0, key.domainSize));
+        ForkJoinTask.invokeAll(a, b1, b2, c, h);
+
+        BigInteger r = randomScalar(random), s = randomScalar(random);
+        G1Point piA = a.join().add(key.alpha1).add(key.delta1.multiply(r));
+        G2Point piB = b2.join().add(key.beta2).add(key.delta2.multiply(s));
+        G1Point piB1 = b1.join().add(key.beta1).add(key.delta1.multiply(s));
+        G1Point piC = c.join().add(h.join())
+            .add(piA.multiply(s))
+            .add(piB1.multiply(r))
+            .add(key.delta1.multiply(r.multiply(s).negate().mod(Fr.MODULUS)));
+        return new Groth16Proof(piA, piB, piC);
+    }
+
+    static long[] canonicalLimbs(List<BigInteger> witness) {
+        long[] limbs = new long[witness.size() * L];
+        for (int i = 0; i < witness.size(); i++) {
+            try {
+                Fr.setCanonical(witness.get(i), limbs, i * L);
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Witness value " + i + " is not a field element");
+            }
+        }
+        return limbs;
+    }
+
+    /** (A·B - C) at the odd points of the 2n-domain, as canonical limbs for the H MSM. */
+    static long[] quotientEvaluations(ProvingKey key, long[] witness) {
+        int n = key.domainSize;
+        long[][] abc = new long[3][n * L];
+        ForkJoinTask.invokeAll(
+            ForkJoinTask.adapt(() -> evaluate(key, 0, witness, abc[0])),
+            ForkJoinTask.adapt(() -> evaluate(key, 1, witness, abc[1])));
+        Parallel.forRange(n, PARALLEL_GRAIN, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                Fr.mul(abc[0], i * L, abc[1], i * L, abc[2], i * L);
+            }
+        });
+
+        Ntt ntt = new Ntt(key.log2Domain);
+        long[] shift = Ntt.root(key.log2Domain + 1);
+        ForkJoinTask.invokeAll(
+            ForkJoinTask.adapt(() -> toOddCoset(ntt, abc[0], shift)),
+            ForkJoinTask.adapt(() -> toOddCoset(ntt, abc[1], shift)),
+            ForkJoinTask.adapt(() -> toOddCoset(ntt, abc[2], shift)));
+
+        long[] q = abc[0];
+        Parallel.forRange(n, PARALLEL_GRAIN, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                Fr.mul(q, i * L, abc[1], i * L, q, i * L);
+                Fr.sub(q, i * L, abc[2], i * L, q, i * L);
+                Fr.fromMontgomery(q, i * L, q, i * L);
+            }
+        });
+        return q;
+    }
+
+    private static void evaluate(ProvingKey key, int matrix, long[] witness, long[] out) {
+        ByteBuffer in = key.coefficients;
+        long[] value = new long[L], t = new long[L];
+        for (int k = 0, at = 4; k < key.coefficientCount; k++, at += ProvingKey.COEFFICIENT_BYTES) {
+            int m = in.getInt(at), c = in.getInt(at + 4), s = in.getInt(at + 8);
+            if ((m != 0 && m != 1) || c < 0 || c >= key.domainSize || s < 0 || s >= key.variableCount) {
+                throw new IllegalArgumentException("Proving key coefficient " + k + " is out of range");
+            }
+            if (m != matrix) {
+                continue;
+            }
+            for (int i = 0; i < L; i++) {
+                value[i] = in.getLong(at + 12 + i * Long.BYTES);
+            }
+            // c·R^2 times w·R is (c·w)·R^2: one factor R too many, removed per point below
+            Fr.mul(value, 0, witness, s * L, t, 0);
+            Fr.add(out, c * L, t, 0, out, c * L);
+        }
+        for (int i = 0; i < key.domainSize; i++) {
+            Fr.fromMontgomery(out, i * L, out, i * L);
+        }
+    }
+
+    private static void toOddCoset(Ntt ntt, long[] evaluations, long[] shift) {
+        ntt.inverse(evaluations);
+        ntt.scaleByPowers(evaluations, shift);
+        ntt.forward(evaluations);
+    }
+
+    private static BigInteger randomScalar(Random random) {
+        BigInteger k;
+        do {
+            k = new BigInteger(Fr.MODULUS.bitLength(), random);
+        } while (k.signum() == 0 || k.compareTo(Fr.MODULUS) >= 0);
+        return k;
+    }
+}
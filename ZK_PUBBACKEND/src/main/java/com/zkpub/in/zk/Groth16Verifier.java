@@ -0,0 +1,209 @@
+package com.zkpub.in.zk;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.math.BigInteger;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Groth16 verification with the same equation as the snarkjs-generated
+ * Solidity verifier:
+ * e(-A, B)·e(α, β)·e(vk_x, γ)·e(C, δ) == 1 with vk_x = IC0 + Σ s_i·IC_i,
+ * evaluated as one four-pair Miller loop and one final exponentiation.
+ * With a {@link PreparedVerificationKey} the e(α, β) term is a constant,
+ * so only three pairs remain and vk_x comes from fixed-base tables.
+ *
+ * Batches of proofs for the same key are checked together: each proof's
+ * equation is raised to a random 128-bit ρ_i and the product is one
+ * (N + 3)-pair check, since α, β, γ and δ collect into single terms
+ * e(Σρ_i·α, β), e(Σρ_i·vk_x_i, γ) and e(Σρ_i·C_i, δ). A forged proof
+ * passes only if the ρ_i happen to cancel it, with probability 2^-128.
+ * Failing batches are bisected to find the invalid proofs.
+ */
+public final class Groth16Verifier {
+
+    private static final int BATCH_RANDOMIZER_BITS = 128;
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private Groth16Verifier() {
+    }
+
+    /**
+     * Whether the proof is valid for the public signals. Signals outside
+     * the scalar field make the proof invalid, as in the Solidity verifier;
+     * a signal count that does not match the key is a caller error.
+     */
+    public static boolean verify(VerificationKey vk, Groth16Proof proof, List<BigInteger> publicSignals) {
+        if (publicSignals.size() != vk.publicInputCount()) {
+            throw new IllegalArgumentException("Expected " + vk.publicInputCount()
+                + " public signals, got " + publicSignals.size());
+        }
+        if (!inField(publicSignals)) {
+            return false;
+        }
+        G1Point vkX = publicInputTerm(vk, publicSignals);
+        G1Point[] ps = {proof.a().negate(), vk.alpha(), vkX, proof.c()};
+        Pairing.G2Prepared[] qs = {
+            Pairing.prepare(proof.b()), Pairing.prepare(vk.beta()),
+            Pairing.prepare(vk.gamma()), Pairing.prepare(vk.delta())
+        };
+        return Pairing.pairingCheck(ps, qs);
+    }
+
+    /** As {@link #verify(VerificationKey, Groth16Proof, List)}, against a prepared key. */
+    public static boolean verify(PreparedVerificationKey pvk, Groth16Proof proof, List<BigInteger> publicSignals) {
+        if (publicSignals.size() != pvk.publicInputCount()) {
+            throw new IllegalArgumentException("Expected " + pvk.publicInputCount()
+                + " public signals, got " + publicSignals.size());
+        }
+        if (!inField(publicSignals)) {
+            return false;
+        }
+        BigInteger[] scalars = new BigInteger[publicSignals.size() + 1];
+        scalars[0] = BigInteger.ONE;
+        for (int i = 0; i < publicSignals.size(); i++) {
+            scalars[i + 1] = publicSignals.get(i);
+        }
+        G1Point[] ps = {proof.a().negate(), pvk.icCombination(scalars), proof.c()};
+        Pairing.G2Prepared[] qs = {Pairing.prepare(proof.b()), pvk.gamma, pvk.delta};
+        return Pairing.pairingCheck(ps, qs, pvk.alphaBeta);
+    }
+
+    /**
+     * Verifies proofs for the same key; entry i of the result says whether
+     * proof i is valid for publicSignals.get(i). One valid batch costs one
+     * multi-pairing; each invalid proof adds about 2·log2(N) smaller ones.
+     */
+    public static boolean[] verifyBatch(PreparedVerificationKey pvk, List<Groth16Proof> proofs, List<List<BigInteger>> publicSignals) {
+        if (proofs.size() != publicSignals.size()) {
+            throw new IllegalArgumentException("Proofs and public signals differ in length");
+        }
+        int n = proofs.size();
+        boolean[] valid = new boolean[n];
+        int[] candidates = new int[n];
+        int count = 0;
+        for (int i = 0; i < n; i++) {
+            List<BigInteger> signals = publicSignals.get(i);
+            if (signals.size() != pvk.publicInputCount()) {
+                throw new IllegalArgumentException("Proof " + i + ": expected " + pvk.publicInputCount()
+                    + " public signals, got " + signals.size());
+            }
+            if (inField(signals)) {
+                candidates[count++] = i;
+            }
+        }
+        if (count == 0) {
+            return valid;
+        }
+
+        Batch batch = new Batch(pvk, proofs, publicSignals);
+        bisect(batch, candidates, 0, count, valid);
+        return valid;
+    }
+
+    private static void bisect(Batch batch, int[] indexes, int from, int to, boolean[] valid) {
+        if (batch.check(indexes, from, to)) {
+            for (int k = from; k < to; k++) {
+                valid[indexes[k]] = true;
+            }
+            return;
+        }
+        if (to - from == 1) {
+            return;
+        }
+        int mid = (from + to) >>> 1;
+        bisect(batch, indexes, from, mid, valid);
+        bisect(batch, indexes, mid, to, valid);
+    }
+
+    /** Per-batch state shared by the bisection steps, so each B_i is prepared once. */
+    private static final class Batch {
+
+        final PreparedVerificationKey pvk;
+        final List<Groth16Proof> proofs;
+        final List<List<BigInteger>> publicSignals;
+        final Pairing.G2Prepared[] preparedB;
+
+        Batch(PreparedVerificationKey pvk, List<Groth16Proof> proofs, List<List<BigInteger>> publicSignals) {
+            this.pvk = pvk;
+            this.proofs = proofs;
+            this.publicSignals = publicSignals;
+            this.preparedB = new Pairing.G2Prepared[proofs.size()];
+        }
+
+        boolean check(int[] indexes, int from, int to) {
+            int k = to - from;
+            int inputs = pvk.publicInputCount();
+            G1Point[] ps = new G1Point[k + 3];
+            Pairing.G2Prepared[] qs = new Pairing.G2Prepared[k + 3];
+            G1Point[] cs = new G1Point[k];
+            BigInteger[] rhos = new BigInteger[k];
+            BigInteger[] icScalars = new BigInteger[inputs + 1];
+            Arrays.fill(icScalars, BigInteger.ZERO);
+
+            for (int j = 0; j < k; j++) {
+                int i = indexes[from + j];
+                Groth16Proof proof = proofs.get(i);
+                // A single proof needs no randomizer
+                BigInteger rho = k == 1 ? BigInteger.ONE : randomizer();
+                rhos[j] = rho;
+                cs[j] = proof.c();
+                ps[j] = proof.a().multiply(rho).negate();
+                if (preparedB[i] == null) {
+                    preparedB[i] = Pairing.prepare(proof.b());
+                }
+                qs[j] = preparedB[i];
+                icScalars[0] = icScalars[0].add(rho);
+                List<BigInteger> signals = publicSignals.get(i);
+                for (int s = 0; s < inputs; s++) {
+                    icScalars[s + 1] = icScalars[s + 1].add(rho.multiply(signals.get(s)));
+                }
+            }
+            // e(α, β)^Σρ keeps β as a Miller-loop pair; a GT power would cost about as much
+            ps[k] = pvk.key().alpha().multiply(icScalars[0]);
+            qs[k] = pvk.beta;
+            ps[k + 1] = pvk.icCombination(icScalars);
+            qs[k + 1] = pvk.gamma;
+            ps[k + 2] = G1Point.linearCombination(cs, rhos);
+            qs[k + 2] = pvk.delta;
+            return Pairing.pairingCheck(ps, qs);
+        }
+
+        private static BigInteger randomizer() {
+            BigInteger rho;
+            do {
+                rho = new BigInteger(BATCH_RANDOMIZER_BITS, RANDOM);
+            } while (rho.signum() == 0);
+            return rho;
+        }
+    }
+
+    /** Reads snarkjs {@code public.json}, an array of decimal strings. */
+    public static List<BigInteger> publicSignalsFromJson(JsonNode array) {
+        return SnarkjsJson.scalars(array, "publicSignals");
+    }
+
+    private static boolean inField(List<BigInteger> signals) {
+        for (BigInteger s : signals) {
+            if (s.signum() < 0 || s.compareTo(G1Point.ORDER) >= 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static G1Point publicInputTerm(VerificationKey vk, List<BigInteger> publicSignals) {
+        List<G1Point> ic = vk.ic();
+        G1Point[] points = new G1Point[ic.size()];
+        BigInteger[] scalars = new BigInteger[ic.size()];
+        points[0] = ic.get(0);
+        scalars[0] = BigInteger.ONE;
+        for (int i = 1; i < points.length; i++) {
+            points[i] = ic.get(i);
+            scalars[i] = publicSignals.get(i - 1);
+        }
+        return G1Point.linearCombination(points, scalars);
+    }
+}
@@ -0,0 +1,138 @@
+package com.zkpub.in.zk;
+
+import java.math.BigInteger;
+
+/**
+ * Radix-2 number-theoretic transform over Fr for one power-of-two size,
+ * on vectors of Montgomery elements laid out as in {@link Fr}. Roots of
+ * unity are chosen exactly as snarkjs (ffjavascript) chooses them, so
+ * evaluation domains line up with the Lagrange bases in its proving keys:
+ * ω_28 = g^t for the smallest quadratic non-residue g, where r - 1 = 2^28·t,
+ * and ω_k = ω_28^(2^(28-k)).
+ *
+ * Butterflies within a stage are independent, so each stage is split
+ * across the current fork-join pool once it is large enough.
+ */
+final class Ntt {
+
+    static final int TWO_ADICITY = 28;
+
+    private static final int L = Fr.LIMBS;
+    private static final int PARALLEL_GRAIN = 1 << 11;
+    private static final long[][] ROOTS = new long[TWO_ADICITY + 1][];
+
+    static {
+        BigInteger r = Fr.MODULUS;
+        BigInteger minusOne = r.subtract(BigInteger.ONE);
+        BigInteger nonResidue = BigInteger.TWO;
+        while (!nonResidue.modPow(minusOne.shiftRight(1), r).equals(minusOne)) {
+            nonResidue = nonResidue.add(BigInteger.ONE);
+        }
+        BigInteger w = nonResidue.modPow(minusOne.shiftRight(TWO_ADICITY), r);
+        for (int k = TWO_ADICITY; k >= 0; k--) {
+            ROOTS[k] = new long[L];
+            Fr.set(w, ROOTS[k], 0);
+            w = w.multiply(w).mod(r);
+        }
+    }
+
+    private final int log2n;
+    private final int n;
+    /** ω^j and ω^-j for j < n/2. */
+    private final long[] twiddles;
+    private final long[] inverseTwiddles;
+    private final long[] nInverse = new long[L];
+
+    Ntt(int log2n) {
+        if (log2n < 1 || log2n > TWO_ADICITY) {
+            throw new IllegalArgumentException("NTT size 2^" + log2n + " is not supported");
+        }
+        this.log2n = log2n;
+        this.n = 1 << log2n;
+        this.twiddles = powers(ROOTS[log2n], n / 2);
+        long[] inverseRoot = new long[L];
+        Fr.inverse(ROOTS[log2n], 0, inverseRoot, 0);
+        this.inverseTwiddles = powers(inverseRoot, n / 2);
+        Fr.set(BigInteger.valueOf(n).modInverse(Fr.MODULUS), nInverse, 0);
+    }
+
+    /** A primitive 2^k-th root of unity in Montgomery form. */
+    static long[] root(int k) {
+        return ROOTS[k].clone();
+    }
+
+    int size() {
+        return n;
+    }
+
+    /** Coefficients to evaluations at ω^0 .. ω^(n-1), in place. */
+    void forward(long[] a) {
+        transform(a, twiddles);
+    }
+
+    /** Evaluations to coefficients, in place. */
+    void inverse(long[] a) {
+        transform(a, inverseTwiddles);
+        Parallel.forRange(n, PARALLEL_GRAIN, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                Fr.mul(a, i * L, nInverse, 0, a, i * L);
+            }
+        });
+    }
+
+    /** a_j *= g^j, which moves a polynomial's evaluations from the domain to the coset g·domain. */
+    void scaleByPowers(long[] a, long[] g) {
+        Parallel.forRange(n, PARALLEL_GRAIN, (from, to) -> {
+            long[] power = new long[L];
+            Fr.set(Fr.toBigInteger(g, 0).modPow(BigInteger.valueOf(from), Fr.MODULUS), power, 0);
+            for (int i = from; i < to; i++) {
+                Fr.mul(a, i * L, power, 0, a, i * L);
+                Fr.mul(power, 0, g, 0, power, 0);
+            }
+        });
+    }
+
+    private void transform(long[] a, long[] w) {
+        if (a.length != n * L) {
+            throw new IllegalArgumentException("Expected " + n + " elements");
+        }
+        bitReverse(a);
+        for (int half = 1; half < n; half <<= 1) {
+            final int h = half, stride = n / (2 * half);
+            // Butterfly k pairs (block·2h + j, block·2h + j + h) with twiddle ω^(j·stride)
+            Parallel.forRange(n / 2, PARALLEL_GRAIN, (from, to) -> {
+                long[] t = new long[L];
+                for (int k = from; k < to; k++) {
+                    int j = k & (h - 1);
+                    int i0 = ((k - j) << 1) + j, i1 = i0 + h;
+                    Fr.mul(a, i1 * L, w, j * stride * L, t, 0);
+                    Fr.sub(a, i0 * L, t, 0, a, i1 * L);
+                    Fr.add(a, i0 * L, t, 0, a, i0 * L);
+                }
+            });
+        }
+    }
+
+    private void bitReverse(long[] a) {
+        int shift = Integer.SIZE - log2n;
+        for (int i = 0; i < n; i++) {
+            int j = Integer.reverse(i) >>> shift;
+            if (i < j) {
+                for (int l = 0; l < L; l++) {
+                    long x = a[i * L + l];
+                    a[i * L + l] = a[j * L + l];
+                    a[j * L + l] = x;
+                }
+            }
+        }
+    }
+
+    private static long[] powers(long[] g, int count) {
+        long[] r = new long[Math.max(1, count) * L];
+        Fr.setOne(r, 0);
+        for (int j = 1; j < count; j++) {
+            Fr.mul(r, (j - 1) * L, g, 0, r, j * L);
+        }
+        return r;
+    }
+}
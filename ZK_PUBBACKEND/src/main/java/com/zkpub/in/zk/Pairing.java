@@ -0,0 +1,289 @@
+package com.zkpub.in.zk;
+
+import java.math.BigInteger;
+
+/**
+ * The optimal ate pairing on BN254. G2 arguments are first turned into
+ * {@link G2Prepared} line coefficients, which do not depend on the G1
+ * side, so fixed G2 points (for example a verification key) can be
+ * prepared once and reused. Several pairs share one Miller loop, so
+ * checking a product of pairings costs one final exponentiation.
+ *
+ * The formulas follow Aranha et al., "Faster Explicit Formulas for
+ * Computing Pairings over Ordinary Curves" (homogeneous coordinates,
+ * D-type twist), and the final exponentiation's hard part follows
+ * Fuentes-Castañeda et al.
+ */
+public final class Pairing {
+
+    /** The BN parameter x; 6x + 2 drives the Miller loop. */
+    static final long BN_X = 4965661367192848881L;
+
+    /** Signed-digit (NAF) form of 6x + 2, least significant digit first. */
+    private static final byte[] ATE_NAF = naf(BigInteger.valueOf(BN_X).multiply(BigInteger.valueOf(6)).add(BigInteger.TWO));
+
+    /** Number of line functions in a prepared G2 point. */
+    static final int LINES;
+
+    private static final int F = Tower.FP2;
+    private static final int LINE = 3 * F;
+    private static final long[] TWO_INV = new long[Fp.LIMBS];
+
+    static {
+        int lines = 2;
+        for (int i = ATE_NAF.length - 2; i >= 0; i--) {
+            lines += ATE_NAF[i] == 0 ? 1 : 2;
+        }
+        LINES = lines;
+        Fp.set(BigInteger.TWO.modInverse(Fp.MODULUS), TWO_INV, 0);
+    }
+
+    private Pairing() {
+    }
+
+    /** Line coefficients of a G2 point, three Fp2 values per line. */
+    public static final class G2Prepared {
+
+        final long[] lines;
+        final boolean infinity;
+
+        private G2Prepared(long[] lines, boolean infinity) {
+            this.lines = lines;
+            this.infinity = infinity;
+        }
+    }
+
+    public static G2Prepared prepare(G2Point q) {
+        if (q.infinity) {
+            return new G2Prepared(null, true);
+        }
+        Tower t = Tower.local();
+        long[] lines = new long[LINES * LINE];
+        // Homogeneous projective R = (X, Y, Z), then scratch
+        long[] r = new long[3 * F + 10 * F];
+        Tower.fp2Copy(q.xy, 0, r, 0);
+        Tower.fp2Copy(q.xy, F, r, F);
+        Tower.fp2SetOne(r, 2 * F);
+
+        long[] negQ = q.xy.clone();
+        Tower.fp2Neg(negQ, F, negQ, F);
+
+        int line = 0;
+        for (int i = ATE_NAF.length - 2; i >= 0; i--) {
+            doubleStep(r, lines, line++ * LINE, t);
+            if (ATE_NAF[i] == 1) {
+                addStep(r, q.xy, lines, line++ * LINE, t);
+            } else if (ATE_NAF[i] == -1) {
+                addStep(r, negQ, lines, line++ * LINE, t);
+            }
+        }
+
+        // Two more additions with π(Q) and -π^2(Q)
+        long[] q1 = new long[2 * F];
+        long[] q2 = new long[2 * F];
+        G2Point.psi(q.xy, q1, t);
+        G2Point.psi(q1, q2, t);
+        Tower.fp2Neg(q2, F, q2, F);
+        addStep(r, q1, lines, line++ * LINE, t);
+        addStep(r, q2, lines, line * LINE, t);
+        return new G2Prepared(lines, false);
+    }
+
+    /** e(p, q) as an Fp12 element; mostly useful for precomputing constants such as e(α, β). */
+    public static long[] pair(G1Point p, G2Point q) {
+        long[] f = millerLoop(new G1Point[] {p}, new G2Prepared[] {prepare(q)});
+        finalExponentiation(f, Tower.local());
+        return f;
+    }
+
+    /** Whether Π e(ps[i], qs[i]) == 1. */
+    public static boolean pairingCheck(G1Point[] ps, G2Prepared[] qs) {
+        long[] f = millerLoop(ps, qs);
+        Tower t = Tower.local();
+        finalExponentiation(f, t);
+        return Tower.fp12IsOne(f, 0);
+    }
+
+    /** Whether Π e(ps[i], qs[i]) · gtFactor == 1, for a GT constant such as a precomputed e(α, β). */
+    static boolean pairingCheck(G1Point[] ps, G2Prepared[] qs, long[] gtFactor) {
+        long[] f = millerLoop(ps, qs);
+        Tower t = Tower.local();
+        finalExponentiation(f, t);
+        t.fp12Mul(f, 0, gtFactor, 0, f, 0);
+        return Tower.fp12IsOne(f, 0);
+    }
+
+    static long[] millerLoop(G1Point[] ps, G2Prepared[] qs) {
+        if (ps.length != qs.length) {
+            throw new IllegalArgumentException("Mismatched pairing inputs");
+        }
+        Tower t = Tower.local();
+        long[] f = new long[Tower.FP12];
+        long[] l = new long[LINE];
+        Tower.fp12SetOne(f, 0);
+
+        int line = 0;
+        for (int i = ATE_NAF.length - 1; i >= 1; i--) {
+            if (i != ATE_NAF.length - 1) {
+                t.fp12Sqr(f, 0, f, 0);
+            }
+            evaluateAll(f, ps, qs, line++, l, t);
+            if (ATE_NAF[i - 1] != 0) {
+                evaluateAll(f, ps, qs, line++, l, t);
+            }
+        }
+        evaluateAll(f, ps, qs, line++, l, t);
+        evaluateAll(f, ps, qs, line, l, t);
+        return f;
+    }
+
+    private static void evaluateAll(long[] f, G1Point[] ps, G2Prepared[] qs, int line, long[] l, Tower t) {
+        for (int j = 0; j < ps.length; j++) {
+            if (ps[j].infinity || qs[j].infinity) {
+                continue;
+            }
+            long[] coeffs = qs[j].lines;
+            int at = line * LINE;
+            // D-twist: l = c0·yP + (c1·xP) w + c2 v w
+            Tower.fp2MulByFp(coeffs, at, ps[j].xy, Fp.LIMBS, l, 0);
+            Tower.fp2MulByFp(coeffs, at + F, ps[j].xy, 0, l, F);
+            Tower.fp2Copy(coeffs, at + 2 * F, l, 2 * F);
+            t.fp12MulBy034(f, 0, l, 0, F, 2 * F, f, 0);
+        }
+    }
+
+    /** Doubles R in place and writes the tangent line's coefficients (-h, 3j, i). */
+    private static void doubleStep(long[] r, long[] out, int o, Tower t) {
+        final int x = 0, y = F, z = 2 * F;
+        final int a = 3 * F, b = 4 * F, c = 5 * F, e = 6 * F, f = 7 * F, g = 8 * F, h = 9 * F, i = 10 * F, j = 11 * F, es = 12 * F;
+        t.fp2Mul(r, x, r, y, r, a);
+        Tower.fp2MulByFp(r, a, TWO_INV, 0, r, a);
+        t.fp2Sqr(r, y, r, b);
+        t.fp2Sqr(r, z, r, c);
+        Tower.fp2Dbl(r, c, r, e);
+        Tower.fp2Add(r, e, r, c, r, e);
+        t.fp2Mul(r, e, G2Point.B, 0, r, e);
+        Tower.fp2Dbl(r, e, r, f);
+        Tower.fp2Add(r, f, r, e, r, f);
+        Tower.fp2Add(r, b, r, f, r, g);
+        Tower.fp2MulByFp(r, g, TWO_INV, 0, r, g);
+        Tower.fp2Add(r, y, r, z, r, h);
+        t.fp2Sqr(r, h, r, h);
+        Tower.fp2Sub(r, h, r, b, r, h);
+        Tower.fp2Sub(r, h, r, c, r, h);
+        Tower.fp2Sub(r, e, r, b, r, i);
+        t.fp2Sqr(r, x, r, j);
+        t.fp2Sqr(r, e, r, es);
+
+        // X = a(b - f), Y = g^2 - 3e^2, Z = b·h
+        Tower.fp2Sub(r, b, r, f, r, x);
+        t.fp2Mul(r, a, r, x, r, x);
+        t.fp2Sqr(r, g, r, y);
+        Tower.fp2Sub(r, y, r, es, r, y);
+        Tower.fp2Sub(r, y, r, es, r, y);
+        Tower.fp2Sub(r, y, r, es, r, y);
+        t.fp2Mul(r, b, r, h, r, z);
+
+        Tower.fp2Neg(r, h, out, o);
+        Tower.fp2Dbl(r, j, out, o + F);
+        Tower.fp2Add(out, o + F, r, j, out, o + F);
+        Tower.fp2Copy(r, i, out, o + 2 * F);
+    }
+
+    /** Adds the affine point q to R in place and writes the chord's coefficients (λ, -θ, j). */
+    private static void addStep(long[] r, long[] q, long[] out, int o, Tower t) {
+        final int x = 0, y = F, z = 2 * F;
+        final int theta = 3 * F, lambda = 4 * F, c = 5 * F, d = 6 * F, e = 7 * F, f = 8 * F, g = 9 * F, h = 10 * F, j = 11 * F;
+        t.fp2Mul(q, F, r, z, r, theta);
+        Tower.fp2Sub(r, y, r, theta, r, theta);
+        t.fp2Mul(q, 0, r, z, r, lambda);
+        Tower.fp2Sub(r, x, r, lambda, r, lambda);
+        t.fp2Sqr(r, theta, r, c);
+        t.fp2Sqr(r, lambda, r, d);
+        t.fp2Mul(r, lambda, r, d, r, e);
+        t.fp2Mul(r, z, r, c, r, f);
+        t.fp2Mul(r, x, r, d, r, g);
+        Tower.fp2Add(r, e, r, f, r, h);
+        Tower.fp2Sub(r, h, r, g, r, h);
+        Tower.fp2Sub(r, h, r, g, r, h);
+
+        // X = λh, Y = θ(g - h) - eY, Z = Z·e
+        t.fp2Mul(r, lambda, r, h, r, x);
+        t.fp2Mul(r, e, r, y, r, f);          // f is free again
+        Tower.fp2Sub(r, g, r, h, r, y);
+        t.fp2Mul(r, theta, r, y, r, y);
+        Tower.fp2Sub(r, y, r, f, r, y);
+        t.fp2Mul(r, z, r, e, r, z);
+
+        // j = θ·xQ - λ·yQ
+        t.fp2Mul(r, theta, q, 0, r, j);
+        t.fp2Mul(r, lambda, q, F, r, f);
+        Tower.fp2Sub(r, j, r, f, r, j);
+
+        Tower.fp2Copy(r, lambda, out, o);
+        Tower.fp2Neg(r, theta, out, o + F);
+        Tower.fp2Copy(r, j, out, o + 2 * F);
+    }
+
+    /** f <- f^((p^12 - 1)/r), in place. */
+    static void finalExponentiation(long[] f, Tower t) {
+        final int N = Tower.FP12;
+        long[] s = new long[11 * N];
+        final int f2 = 0, y0 = N, y1 = 2 * N, y2 = 3 * N, y3 = 4 * N, y4 = 5 * N, y5 = 6 * N, y6 = 7 * N,
+            y8 = 8 * N, y9 = 9 * N, tmp = 10 * N;
+
+        // Easy part: f^((p^6 - 1)(p^2 + 1))
+        t.fp12Inverse(f, 0, s, f2);
+        Tower.fp12Conj(f, 0, f, 0);
+        t.fp12Mul(f, 0, s, f2, f, 0);
+        t.fp12Frobenius(f, 0, 2, s, f2);
+        t.fp12Mul(f, 0, s, f2, f, 0);
+
+        // Hard part: f^(2x(6x^2 + 3x + 1)(p^4 - p^2 + 1)/r)
+        expByNegX(f, 0, s, y0, t);
+        t.fp12CyclotomicSqr(s, y0, s, y1);
+        t.fp12CyclotomicSqr(s, y1, s, y2);
+        t.fp12Mul(s, y2, s, y1, s, y3);
+        expByNegX(s, y3, s, y4, t);
+        t.fp12CyclotomicSqr(s, y4, s, y5);
+        expByNegX(s, y5, s, y6, t);
+        Tower.fp12Conj(s, y3, s, y3);
+        Tower.fp12Conj(s, y6, s, y6);
+        t.fp12Mul(s, y6, s, y4, s, tmp);        // y7
+        t.fp12Mul(s, tmp, s, y3, s, y8);        // y8
+        t.fp12Mul(s, y8, s, y1, s, y9);         // y9
+        t.fp12Mul(s, y8, s, y4, s, tmp);        // y10
+        t.fp12Mul(s, tmp, f, 0, s, tmp);        // y11
+        t.fp12Frobenius(s, y9, 1, s, y2);       // y12 = frob(y9)
+        t.fp12Mul(s, y2, s, tmp, s, tmp);       // y13
+        t.fp12Frobenius(s, y8, 2, s, y8);
+        t.fp12Mul(s, y8, s, tmp, s, tmp);       // y14
+        Tower.fp12Conj(f, 0, f, 0);
+        t.fp12Mul(f, 0, s, y9, s, y5);          // y15
+        t.fp12Frobenius(s, y5, 3, s, y5);
+        t.fp12Mul(s, y5, s, tmp, f, 0);         // y16
+    }
+
+    /** r = conj(a^x); x > 0 for BN254, so this is a^-x on the cyclotomic subgroup. */
+    private static void expByNegX(long[] a, int ai, long[] r, int ri, Tower t) {
+        t.fp12CyclotomicPow(a, ai, BN_X, r, ri);
+        Tower.fp12Conj(r, ri, r, ri);
+    }
+
+    private static byte[] naf(BigInteger k) {
+        byte[] digits = new byte[k.bitLength() + 1];
+        int i = 0;
+        while (k.signum() > 0) {
+            if (k.testBit(0)) {
+                int d = 2 - k.mod(BigInteger.valueOf(4)).intValue();
+                digits[i] = (byte) d;
+                k = k.subtract(BigInteger.valueOf(d));
+            }
+            k = k.shiftRight(1);
+            i++;
+        }
+        byte[] trimmed = new byte[i];
+        System.arraycopy(digits, 0, trimmed, 0, i);
+        return trimmed;
+    }
+}
@@ -0,0 +1,41 @@
+package com.zkpub.in.zk;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Splits index ranges across the fork-join pool the caller is running in
+ * (the common pool otherwise). The prover runs inside its own pool, so
+ * every parallel loop below it is bounded by that pool's size.
+ */
+final class Parallel {
+
+    interface RangeBody {
+        void run(int from, int to);
+    }
+
+    private Parallel() {
+    }
+
+    static int parallelism() {
+        ForkJoinPool pool = ForkJoinTask.getPool();
+        return (pool != null ? pool : ForkJoinPool.commonPool()).getParallelism();
+    }
+
+    /** Runs body over [0, size) in chunks of at least {@code grain} indexes. */
+    static void forRange(int size, int grain, RangeBody body) {
+        int chunks = Math.min(Math.max(1, size / Math.max(1, grain)), 4 * parallelism());
+        if (chunks == 1) {
+            body.run(0, size);
+            return;
+        }
+        List<ForkJoinTask<?>> tasks = new ArrayList<>(chunks);
+        for (int c = 0; c < chunks; c++) {
+            int from = (int) ((long) size * c / chunks), to = (int) ((long) size * (c + 1) / chunks);
+            tasks.add(ForkJoinTask.adapt(() -> body.run(from, to)));
+        }
+        ForkJoinTask.invokeAll(tasks);
+    }
+}
@@ -0,0 +1,224 @@
+package com.zkpub.in.zk;
+
+import java.nio.LongBuffer;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Multi-scalar multiplication Σ k_i·P_i with Pippenger's bucket method, the
+ * bulk of Groth16 proving. Scalars are cut into c-bit windows; in each
+ * window every point is added once into the bucket named by its digit,
+ * and the buckets are folded with a running sum, so a window costs n mixed
+ * additions plus 2·2^c Jacobian ones instead of n full multiplications.
+ *
+ * The points are split into one slice per worker of the current fork-join
+ * pool; each slice runs the whole algorithm on its own buckets and the
+ * partial sums are added at the end. Bases are affine Montgomery
+ * coordinates laid out back to back (all-zero encodes infinity, as in
+ * snarkjs proving keys); scalars are canonical little-endian limbs below r.
+ * Bases are read one point at a time from a LongBuffer, so they can stay
+ * in a memory-mapped proving key instead of being copied to the heap.
+ */
+final class Pippenger {
+
+    private static final int SCALAR_BITS = Fr.MODULUS.bitLength();
+    // Bucket memory grows as 2^c per slice; past 13 bits it outweighs the saved additions
+    private static final int MAX_WINDOW_BITS = 13;
+    private static final int MIN_SLICE = 1 << 10;
+
+    private Pippenger() {
+    }
+
+    /** Σ scalars[s + i]·bases[i] for i < count over G1 (8 longs per base, 4 per scalar). */
+    static G1Point g1(LongBuffer bases, long[] scalars, int scalarStart, int count) {
+        long[] sum = new Slice(G1_GROUP, bases, scalars, scalarStart, 0, count, sliceSize(count)).invoke();
+        return G1Point.toAffine(sum);
+    }
+
+    /** Σ scalars[s + i]·bases[i] for i < count over G2 (16 longs per base, 4 per scalar). */
+    static G2Point g2(LongBuffer bases, long[] scalars, int scalarStart, int count) {
+        long[] sum = new Slice(G2_GROUP, bases, scalars, scalarStart, 0, count, sliceSize(count)).invoke();
+        return G2Point.toAffine(sum, Tower.local());
+    }
+
+    private static int sliceSize(int count) {
+        return Math.max(MIN_SLICE, (count + Parallel.parallelism() - 1) / Parallel.parallelism());
+    }
+
+    static int windowBits(int count) {
+        // ln(n) + 2 tracks the optimum of n·windows + 2^c·windows closely for BN254-sized scalars
+        return count < 32 ? 3 : Math.min(MAX_WINDOW_BITS, (int) Math.log(count) + 2);
+    }
+
+    /** Group operations on Jacobian scratch buffers, so one bucket loop serves G1 and G2. */
+    private interface Group {
+        int affineLongs();
+
+        long[] newScratch();
+
+        boolean isInfinity(long[] bases, int offset);
+
+        void addAffine(long[] s, long[] bases, int offset);
+
+        void addJacobian(long[] s, long[] q);
+
+        void doubleInPlace(long[] s);
+    }
+
+    private static final Group G1_GROUP = new Group() {
+        @Override
+        public int affineLongs() {
+            return 2 * Fp.LIMBS;
+        }
+
+        @Override
+        public long[] newScratch() {
+            return G1Point.newScratch();
+        }
+
+        @Override
+        public boolean isInfinity(long[] bases, int offset) {
+            return Fp.isZero(bases, offset) && Fp.isZero(bases, offset + Fp.LIMBS);
+        }
+
+        @Override
+        public void addAffine(long[] s, long[] bases, int offset) {
+            G1Point.addAffine(s, bases, offset);
+        }
+
+        @Override
+        public void addJacobian(long[] s, long[] q) {
+            G1Point.addJacobian(s, q);
+        }
+
+        @Override
+        public void doubleInPlace(long[] s) {
+            G1Point.doubleInPlace(s);
+        }
+    };
+
+    private static final Group G2_GROUP = new Group() {
+        @Override
+        public int affineLongs() {
+            return 2 * Tower.FP2;
+        }
+
+        @Override
+        public long[] newScratch() {
+            return G2Point.newScratch();
+        }
+
+        @Override
+        public boolean isInfinity(long[] bases, int offset) {
+            for (int i = 0; i < 2 * Tower.FP2; i++) {
+                if (bases[offset + i] != 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public void addAffine(long[] s, long[] bases, int offset) {
+            G2Point.addAffine(s, bases, offset, Tower.local());
+        }
+
+        @Override
+        public void addJacobian(long[] s, long[] q) {
+            G2Point.addJacobian(s, q, Tower.local());
+        }
+
+        @Override
+        public void doubleInPlace(long[] s) {
+            G2Point.doubleInPlace(s, Tower.local());
+        }
+    };
+
+    private static final class Slice extends RecursiveTask<long[]> {
+
+        // Serializable only because ForkJoinTask is; a slice never leaves the pool
+        private static final long serialVersionUID = 1L;
+
+        private final transient Group group;
+        private final transient LongBuffer bases;
+        private final long[] scalars;
+        private final int scalarStart;
+        private final int from;
+        private final int to;
+        private final int sliceSize;
+
+        Slice(Group group, LongBuffer bases, long[] scalars, int scalarStart, int from, int to, int sliceSize) {
+            this.group = group;
+            this.bases = bases;
+            this.scalars = scalars;
+            this.scalarStart = scalarStart;
+            this.from = from;
+            this.to = to;
+            this.sliceSize = sliceSize;
+        }
+
+        @Override
+        protected long[] compute() {
+            if (to - from <= sliceSize) {
+                return bucketSum();
+            }
+            int mid = (from + to) >>> 1;
+            Slice left = new Slice(group, bases, scalars, scalarStart, from, mid, sliceSize);
+            left.fork();
+            long[] sum = new Slice(group, bases, scalars, scalarStart, mid, to, sliceSize).compute();
+            group.addJacobian(sum, left.join());
+            return sum;
+        }
+
+        private long[] bucketSum() {
+            int c = windowBits(to - from);
+            int windows = (SCALAR_BITS + c - 1) / c;
+            long[][] buckets = new long[(1 << c) - 1][];
+            for (int b = 0; b < buckets.length; b++) {
+                buckets[b] = group.newScratch();
+            }
+            long[] acc = group.newScratch();
+            long[] running = group.newScratch();
+            long[] windowSum = group.newScratch();
+            long[] empty = group.newScratch();
+            int stride = group.affineLongs();
+            long[] base = new long[stride];
+
+            for (int w = windows - 1; w >= 0; w--) {
+                for (int d = 0; d < c; d++) {
+                    group.doubleInPlace(acc);
+                }
+                for (long[] bucket : buckets) {
+                    System.arraycopy(empty, 0, bucket, 0, bucket.length);
+                }
+                int bit = w * c;
+                for (int i = from; i < to; i++) {
+                    int digit = digit(scalars, (scalarStart + i) * Fr.LIMBS, bit, c);
+                    if (digit != 0) {
+                        bases.get(i * stride, base, 0, stride);
+                        if (!group.isInfinity(base, 0)) {
+                            group.addAffine(buckets[digit - 1], base, 0);
+                        }
+                    }
+                }
+                // Σ d·bucket[d] as the sum of suffix sums, highest digit first
+                System.arraycopy(empty, 0, running, 0, running.length);
+                System.arraycopy(empty, 0, windowSum, 0, windowSum.length);
+                for (int b = buckets.length - 1; b >= 0; b--) {
+                    group.addJacobian(running, buckets[b]);
+                    group.addJacobian(windowSum, running);
+                }
+                group.addJacobian(acc, windowSum);
+            }
+            return acc;
+        }
+
+        private static int digit(long[] scalars, int offset, int bit, int c) {
+            int limb = bit >>> 6, shift = bit & 63;
+            long v = scalars[offset + limb] >>> shift;
+            if (shift + c > 64 && limb + 1 < Fr.LIMBS) {
+                v |= scalars[offset + limb + 1] << (64 - shift);
+            }
+            return (int) (v & ((1L << c) - 1));
+        }
+    }
+}
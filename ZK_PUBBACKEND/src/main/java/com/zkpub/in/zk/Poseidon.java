@@ -0,0 +1,400 @@
+package com.zkpub.in.zk;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Poseidon over the BN254 scalar field, bit-compatible with circomlib's
+ * {@code Poseidon(n)} template and circomlibjs {@code poseidon()}: x^5
+ * S-box, 8 full rounds, the partial round counts circomlib uses per width,
+ * state [0, inputs...], output state[0].
+ *
+ * circomlib's round constants and MDS matrices come from the Poseidon
+ * reference script (a Grain LFSR seeded with the field and round
+ * parameters, and a Cauchy matrix over its next 2t samples), so they are
+ * derived here the same way on first use of a width rather than pasted
+ * in. They are held as flat Montgomery long[]s; a hash allocates nothing
+ * beyond its scratch state.
+ */
+public final class Poseidon {
+
+    public static final int MAX_INPUTS = 16;
+
+    private static final int L = Fr.LIMBS;
+    private static final int FULL_ROUNDS = 8;
+    private static final int[] PARTIAL_ROUNDS = {56, 57, 56, 60, 60, 63, 64, 63, 60, 66, 60, 65, 70, 60, 64, 68};
+    private static final int BATCH_GRAIN = 64;
+
+    private static final AtomicReferenceArray<Params> PARAMS = new AtomicReferenceArray<>(MAX_INPUTS + 2);
+
+    private Poseidon() {
+    }
+
+    public static BigInteger hash(BigInteger... inputs) {
+        return hash(List.of(inputs));
+    }
+
+    /** Poseidon of 1 to 16 field elements; inputs are reduced mod r as circomlib does. */
+    public static BigInteger hash(List<BigInteger> inputs) {
+        Params params = params(inputs.size());
+        long[] state = new long[(2 * params.t + 1) * L];
+        return hash(params, inputs, state);
+    }
+
+    /** Hashes every input list, spread over the current fork-join pool. */
+    public static BigInteger[] hashAll(List<? extends List<BigInteger>> inputs) {
+        BigInteger[] out = new BigInteger[inputs.size()];
+        Parallel.forRange(inputs.size(), BATCH_GRAIN, (from, to) -> {
+            long[] state = null;
+            for (int i = from; i < to; i++) {
+                Params params = params(inputs.get(i).size());
+                if (state == null || state.length < (2 * params.t + 1) * L) {
+                    state = new long[(2 * params.t + 1) * L];
+                }
+                out[i] = hash(params, inputs.get(i), state);
+            }
+        });
+        return out;
+    }
+
+    private static BigInteger hash(Params params, List<BigInteger> inputs, long[] scratch) {
+        int t = params.t, half = FULL_ROUNDS / 2;
+        // scratch: state | MDS output | one temporary element
+        int next = t * L, tmp = 2 * t * L;
+        Fr.setZero(scratch, 0);
+        for (int i = 0; i < inputs.size(); i++) {
+            Fr.set(inputs.get(i).mod(Fr.MODULUS), scratch, (i + 1) * L);
+        }
+        for (int r = 0; r < half; r++) {
+            fullRound(params, r, r == half - 1 ? params.mdsBeforePartial : params.mds, scratch, next, tmp);
+        }
+        for (int i = 0; i < t; i++) {
+            Fr.add(scratch, i * L, params.partialConstants, i * L, scratch, i * L);
+        }
+        int sparseSize = (2 * t - 1) * L;
+        for (int k = 0; k < params.partialRounds; k++) {
+            pow5(scratch, 0, scratch, tmp);
+            Fr.add(scratch, 0, params.partialScalars, k * L, scratch, 0);
+            sparseMix(t, params.sparse, k * sparseSize, scratch, next, tmp);
+        }
+        for (int r = half + params.partialRounds; r < FULL_ROUNDS + params.partialRounds; r++) {
+            fullRound(params, r, params.mds, scratch, next, tmp);
+        }
+        return Fr.toBigInteger(scratch, 0);
+    }
+
+    private static void fullRound(Params params, int r, long[] m, long[] scratch, int next, int tmp) {
+        int t = params.t;
+        for (int i = 0; i < t; i++) {
+            Fr.add(scratch, i * L, params.constants, (r * t + i) * L, scratch, i * L);
+            pow5(scratch, i * L, scratch, tmp);
+        }
+        for (int i = 0; i < t; i++) {
+            Fr.setZero(scratch, next + i * L);
+            for (int j = 0; j < t; j++) {
+                Fr.mul(m, (i * t + j) * L, scratch, j * L, scratch, tmp);
+                Fr.add(scratch, next + i * L, scratch, tmp, scratch, next + i * L);
+            }
+        }
+        System.arraycopy(scratch, next, scratch, 0, t * L);
+    }
+
+    // [a v; w I] times the state: 2t - 1 multiplications instead of t^2
+    private static void sparseMix(int t, long[] sparse, int at, long[] scratch, int next, int tmp) {
+        Fr.mul(sparse, at, scratch, 0, scratch, next);
+        for (int j = 1; j < t; j++) {
+            Fr.mul(sparse, at + j * L, scratch, j * L, scratch, tmp);
+            Fr.add(scratch, next, scratch, tmp, scratch, next);
+        }
+        for (int i = 1; i < t; i++) {
+            Fr.mul(sparse, at + (t - 1 + i) * L, scratch, 0, scratch, tmp);
+            Fr.add(scratch, i * L, scratch, tmp, scratch, i * L);
+        }
+        Fr.copy(scratch, next, scratch, 0);
+    }
+
+    private static void pow5(long[] a, int ai, long[] s, int tmp) {
+        Fr.sqr(a, ai, s, tmp);
+        Fr.sqr(s, tmp, s, tmp);
+        Fr.mul(a, ai, s, tmp, a, ai);
+    }
+
+    private static Params params(int inputs) {
+        if (inputs < 1 || inputs > MAX_INPUTS) {
+            throw new IllegalArgumentException("Poseidon takes 1 to " + MAX_INPUTS + " inputs, got " + inputs);
+        }
+        int t = inputs + 1;
+        Params params = PARAMS.get(t);
+        if (params == null) {
+            // Derivation is deterministic, so a race only costs a duplicate computation
+            params = new Params(t);
+            PARAMS.set(t, params);
+        }
+        return params;
+    }
+
+    /**
+     * Constants for one width. Partial rounds are evaluated in the
+     * equivalent form of the Poseidon paper's appendix B: their round
+     * constants are pushed back through the MDS matrix so each adds one
+     * scalar after its S-box, and the matrix is factored round by round
+     * into a sparse [a v; w I] times a diag(1, D) that moves into the
+     * previous round, ending in the last full round's matrix.
+     */
+    private static final class Params {
+
+        final int t;
+        final int partialRounds;
+        final long[] constants;
+        final long[] mds;
+        final long[] mdsBeforePartial;
+        final long[] partialConstants;
+        final long[] partialScalars;
+        final long[] sparse;
+
+        Params(int t) {
+            this.t = t;
+            partialRounds = PARTIAL_ROUNDS[t - 2];
+            Grain grain = new Grain(t, FULL_ROUNDS, partialRounds);
+
+            int rounds = FULL_ROUNDS + partialRounds;
+            BigInteger[][] c = new BigInteger[rounds][t];
+            for (BigInteger[] round : c) {
+                for (int i = 0; i < t; i++) {
+                    do {
+                        round[i] = grain.nextBits(Fr.MODULUS.bitLength());
+                    } while (round[i].compareTo(Fr.MODULUS) >= 0);
+                }
+            }
+            BigInteger[][] m = cauchy(grain);
+
+            // Constant of partial round r + 1 = M (M^-1 c): all but the first coordinate move before round r's S-box
+            int first = FULL_ROUNDS / 2, last = first + partialRounds - 1;
+            BigInteger[][] moved = new BigInteger[rounds][];
+            for (int r = 0; r < rounds; r++) {
+                moved[r] = c[r].clone();
+            }
+            BigInteger[][] mInverse = inverse(m);
+            BigInteger[] scalars = new BigInteger[partialRounds];
+            scalars[partialRounds - 1] = BigInteger.ZERO;
+            for (int r = last - 1; r >= first; r--) {
+                BigInteger[] d = multiply(mInverse, moved[r + 1]);
+                for (int i = 1; i < t; i++) {
+                    moved[r][i] = moved[r][i].add(d[i]).mod(Fr.MODULUS);
+                }
+                scalars[r - first] = d[0];
+            }
+
+            // M_k = [a b; c D] = [a b D^-1; c I] * diag(1, D), and diag(1, D) commutes with round k's S-box
+            BigInteger[][] sparseRows = new BigInteger[partialRounds][];
+            BigInteger[][] current = m, diag = null;
+            for (int k = partialRounds - 1; k >= 0; k--) {
+                BigInteger[][] d = new BigInteger[t - 1][t - 1];
+                BigInteger[] b = new BigInteger[t - 1];
+                for (int i = 1; i < t; i++) {
+                    b[i - 1] = current[0][i];
+                    for (int j = 1; j < t; j++) {
+                        d[i - 1][j - 1] = current[i][j];
+                    }
+                }
+                BigInteger[] v = multiply(transpose(inverse(d)), b);
+                BigInteger[] row = new BigInteger[2 * t - 1];
+                row[0] = current[0][0];
+                for (int i = 1; i < t; i++) {
+                    row[i] = v[i - 1];
+                    row[t - 1 + i] = current[i][0];
+                }
+                sparseRows[k] = row;
+                diag = identity(t);
+                for (int i = 1; i < t; i++) {
+                    System.arraycopy(d[i - 1], 0, diag[i], 1, t - 1);
+                }
+                current = multiply(diag, m);
+            }
+
+            constants = montgomery(c);
+            mds = montgomery(m);
+            mdsBeforePartial = montgomery(current);
+            // The first partial round's full constant vector now sits behind diag(1, D_0) too
+            partialConstants = montgomery(new BigInteger[][] {multiply(diag, moved[first])});
+            partialScalars = montgomery(new BigInteger[][] {scalars});
+            sparse = montgomery(sparseRows);
+        }
+
+        // Cauchy matrix 1/(x_i + y_j) over 2t fresh samples, redrawn on any collision
+        private BigInteger[][] cauchy(Grain grain) {
+            while (true) {
+                BigInteger[] samples = new BigInteger[2 * t];
+                for (int i = 0; i < samples.length; i++) {
+                    samples[i] = grain.nextBits(Fr.MODULUS.bitLength()).mod(Fr.MODULUS);
+                }
+                if (Arrays.stream(samples).distinct().count() != samples.length) {
+                    continue;
+                }
+                BigInteger[][] m = new BigInteger[t][t];
+                boolean singular = false;
+                for (int i = 0; i < t && !singular; i++) {
+                    for (int j = 0; j < t && !singular; j++) {
+                        BigInteger sum = samples[i].add(samples[t + j]).mod(Fr.MODULUS);
+                        singular = sum.signum() == 0;
+                        m[i][j] = singular ? null : sum.modInverse(Fr.MODULUS);
+                    }
+                }
+                if (!singular) {
+                    return m;
+                }
+            }
+        }
+
+        private static long[] montgomery(BigInteger[][] rows) {
+            long[] out = new long[Arrays.stream(rows).mapToInt(row -> row.length).sum() * L];
+            int at = 0;
+            for (BigInteger[] row : rows) {
+                for (BigInteger v : row) {
+                    Fr.set(v, out, at);
+                    at += L;
+                }
+            }
+            return out;
+        }
+
+        private static BigInteger[][] identity(int n) {
+            BigInteger[][] out = new BigInteger[n][n];
+            for (int i = 0; i < n; i++) {
+                Arrays.fill(out[i], BigInteger.ZERO);
+                out[i][i] = BigInteger.ONE;
+            }
+            return out;
+        }
+
+        private static BigInteger[][] transpose(BigInteger[][] a) {
+            BigInteger[][] out = new BigInteger[a[0].length][a.length];
+            for (int i = 0; i < a.length; i++) {
+                for (int j = 0; j < a[0].length; j++) {
+                    out[j][i] = a[i][j];
+                }
+            }
+            return out;
+        }
+
+        private static BigInteger[] multiply(BigInteger[][] a, BigInteger[] x) {
+            BigInteger[] out = new BigInteger[a.length];
+            for (int i = 0; i < a.length; i++) {
+                BigInteger sum = BigInteger.ZERO;
+                for (int j = 0; j < x.length; j++) {
+                    sum = sum.add(a[i][j].multiply(x[j]));
+                }
+                out[i] = sum.mod(Fr.MODULUS);
+            }
+            return out;
+        }
+
+        private static BigInteger[][] multiply(BigInteger[][] a, BigInteger[][] b) {
+            BigInteger[][] bt = transpose(b);
+            BigInteger[][] out = new BigInteger[a.length][];
+            for (int i = 0; i < a.length; i++) {
+                out[i] = multiply(bt, a[i]);
+            }
+            return out;
+        }
+
+        // Gauss-Jordan mod r; MDS matrices and their square submatrices are invertible
+        private static BigInteger[][] inverse(BigInteger[][] a) {
+            int n = a.length;
+            BigInteger[][] work = new BigInteger[n][];
+            BigInteger[][] out = identity(n);
+            for (int i = 0; i < n; i++) {
+                work[i] = a[i].clone();
+            }
+            for (int col = 0; col < n; col++) {
+                int pivot = col;
+                while (work[pivot][col].signum() == 0) {
+                    pivot++;
+                }
+                BigInteger[] swap = work[pivot]; work[pivot] = work[col]; work[col] = swap;
+                swap = out[pivot]; out[pivot] = out[col]; out[col] = swap;
+                BigInteger scale = work[col][col].modInverse(Fr.MODULUS);
+                for (int j = 0; j < n; j++) {
+                    work[col][j] = work[col][j].multiply(scale).mod(Fr.MODULUS);
+                    out[col][j] = out[col][j].multiply(scale).mod(Fr.MODULUS);
+                }
+                for (int i = 0; i < n; i++) {
+                    BigInteger factor = work[i][col];
+                    if (i == col || factor.signum() == 0) {
+                        continue;
+                    }
+                    for (int j = 0; j < n; j++) {
+                        work[i][j] = work[i][j].subtract(factor.multiply(work[col][j])).mod(Fr.MODULUS);
+                        out[i][j] = out[i][j].subtract(factor.multiply(out[col][j])).mod(Fr.MODULUS);
+                    }
+                }
+            }
+            return out;
+        }
+    }
+
+    /** The 80-bit self-shrinking Grain LFSR of the Poseidon parameter script. */
+    private static final class Grain {
+
+        private final boolean[] bits = new boolean[80];
+        private int head;
+
+        Grain(int t, int fullRounds, int partialRounds) {
+            int i = 0;
+            i = put(1, 2, i);     // prime field
+            i = put(0, 4, i);     // x^alpha S-box
+            i = put(Fr.MODULUS.bitLength(), 12, i);
+            i = put(t, 12, i);
+            i = put(fullRounds, 10, i);
+            i = put(partialRounds, 10, i);
+            while (i < 80) {
+                bits[i++] = true;
+            }
+            for (int k = 0; k < 160; k++) {
+                step();
+            }
+        }
+
+        private int put(int value, int width, int at) {
+            for (int b = width - 1; b >= 0; b--) {
+                bits[at++] = ((value >>> b) & 1) != 0;
+            }
+            return at;
+        }
+
+        private boolean bit(int i) {
+            return bits[(head + i) % 80];
+        }
+
+        private boolean step() {
+            boolean b = bit(62) ^ bit(51) ^ bit(38) ^ bit(23) ^ bit(13) ^ bit(0);
+            bits[head] = b;
+            head = (head + 1) % 80;
+            return b;
+        }
+
+        // Bits come in pairs; the second is output only when the first is 1
+        private boolean next() {
+            while (true) {
+                boolean keep = step();
+                boolean b = step();
+                if (keep) {
+                    return b;
+                }
+            }
+        }
+
+        BigInteger nextBits(int n) {
+            BigInteger v = BigInteger.ZERO;
+            for (int i = 0; i < n; i++) {
+                v = v.shiftLeft(1);
+                if (next()) {
+                    v = v.setBit(0);
+                }
+            }
+            return v;
+        }
+    }
+}
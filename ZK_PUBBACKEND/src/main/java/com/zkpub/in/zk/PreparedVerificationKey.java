@@ -0,0 +1,55 @@
+package com.zkpub.in.zk;
+
+import java.math.BigInteger;
+import java.util.List;
+
+/**
+ * A verification key with everything that does not depend on the proof
+ * computed up front: e(α, β) as a GT element, line coefficients for β, γ
+ * and δ, and fixed-base tables for every IC point. Building one costs
+ * tens of milliseconds per public input, so keys are prepared once and
+ * shared; instances are immutable and thread-safe.
+ */
+public final class PreparedVerificationKey {
+
+    private final VerificationKey key;
+    final long[] alphaBeta;
+    final Pairing.G2Prepared beta;
+    final Pairing.G2Prepared gamma;
+    final Pairing.G2Prepared delta;
+    private final G1FixedBaseTable[] icTables;
+
+    private PreparedVerificationKey(VerificationKey key) {
+        this.key = key;
+        this.alphaBeta = Pairing.pair(key.alpha(), key.beta());
+        this.beta = Pairing.prepare(key.beta());
+        this.gamma = Pairing.prepare(key.gamma());
+        this.delta = Pairing.prepare(key.delta());
+        List<G1Point> ic = key.ic();
+        this.icTables = new G1FixedBaseTable[ic.size()];
+        for (int i = 0; i < icTables.length; i++) {
+            icTables[i] = new G1FixedBaseTable(ic.get(i));
+        }
+    }
+
+    public static PreparedVerificationKey prepare(VerificationKey key) {
+        return new PreparedVerificationKey(key);
+    }
+
+    public VerificationKey key() {
+        return key;
+    }
+
+    public int publicInputCount() {
+        return key.publicInputCount();
+    }
+
+    /** Σ scalars[i]·IC_i from the tables; scalars has one entry per IC point. */
+    G1Point icCombination(BigInteger[] scalars) {
+        long[] s = G1Point.newScratch();
+        for (int i = 0; i < icTables.length; i++) {
+            icTables[i].addMultiple(s, scalars[i].mod(G1Point.ORDER));
+        }
+        return G1Point.toAffine(s);
+    }
+}
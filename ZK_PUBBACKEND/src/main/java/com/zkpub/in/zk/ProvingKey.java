@@ -0,0 +1,153 @@
+package com.zkpub.in.zk;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A snarkjs Groth16 proving key (.zkey). Curve points are stored on disk
+ * as little-endian Montgomery coordinates with R = 2^256, which is exactly
+ * the in-memory layout of {@link Fp}, so the MSM bases are read straight
+ * into flat arrays without conversion. Only the A and B matrices are
+ * stored (C follows from A·B on a satisfying witness); their coefficients
+ * carry an extra factor R that the prover removes per domain point.
+ *
+ * Only the headers and the IC points are decoded on load. The point and
+ * coefficient sections, nearly all of a key, stay where they are in the
+ * file (memory-mapped by {@link #read}), and the prover reads them in
+ * place on each proof.
+ */
+public final class ProvingKey {
+
+    private static final int HEADER = 1, GROTH16_HEADER = 2, IC = 3, COEFFICIENTS = 4,
+        POINTS_A = 5, POINTS_B1 = 6, POINTS_B2 = 7, POINTS_C = 8, POINTS_H = 9;
+    private static final int GROTH16 = 1;
+    private static final int G1_LONGS = 2 * Fp.LIMBS, G2_LONGS = 2 * Tower.FP2;
+    private static final int L = Fr.LIMBS;
+    static final int COEFFICIENT_BYTES = 12 + 32;
+
+    final int variableCount;
+    final int publicCount;
+    final int domainSize;
+    final int log2Domain;
+
+    final G1Point alpha1;
+    final G1Point beta1;
+    final G2Point beta2;
+    final G2Point gamma2;
+    final G1Point delta1;
+    final G2Point delta2;
+    final List<G1Point> ic;
+
+    /**
+     * Sparse A and B matrices over the evaluation domain, as stored: a u32
+     * count, then (u32 matrix, u32 constraint, u32 signal, c·R^2) entries.
+     */
+    final ByteBuffer coefficients;
+    final int coefficientCount;
+
+    final LongBuffer pointsA;
+    final LongBuffer pointsB1;
+    final LongBuffer pointsB2;
+    /** Private signals only: entry i belongs to signal publicCount + 1 + i. */
+    final LongBuffer pointsC;
+    /** Lagrange bases of the odd points of the 2n-domain, for the quotient polynomial. */
+    final LongBuffer pointsH;
+
+    private ProvingKey(BinFile file) {
+        if (file.section(HEADER).getInt() != GROTH16) {
+            throw new IllegalArgumentException("Not a Groth16 proving key");
+        }
+        ByteBuffer header = file.section(GROTH16_HEADER);
+        int n8q = header.getInt();
+        if (n8q != 32 || !BinFile.readInteger(header, n8q).equals(Fp.MODULUS)) {
+            throw new IllegalArgumentException("Proving key is not for BN254");
+        }
+        int n8r = header.getInt();
+        if (n8r != 32 || !BinFile.readInteger(header, n8r).equals(Fr.MODULUS)) {
+            throw new IllegalArgumentException("Proving key is not for BN254");
+        }
+        variableCount = header.getInt();
+        publicCount = header.getInt();
+        domainSize = header.getInt();
+        log2Domain = Integer.numberOfTrailingZeros(domainSize);
+        if (Integer.bitCount(domainSize) != 1 || log2Domain >= Ntt.TWO_ADICITY) {
+            throw new IllegalArgumentException("Unsupported domain size " + domainSize);
+        }
+        alpha1 = g1(header);
+        beta1 = g1(header);
+        beta2 = g2(header);
+        gamma2 = g2(header);
+        delta1 = g1(header);
+        delta2 = g2(header);
+
+        ByteBuffer icSection = file.section(IC);
+        ic = new ArrayList<>(publicCount + 1);
+        for (int i = 0; i <= publicCount; i++) {
+            ic.add(g1(icSection));
+        }
+
+        coefficients = file.section(COEFFICIENTS);
+        coefficientCount = coefficients.getInt(0);
+        if (coefficientCount < 0 || coefficients.remaining() != 4 + (long) coefficientCount * COEFFICIENT_BYTES) {
+            throw new IllegalArgumentException("Coefficient section does not hold " + coefficientCount + " entries");
+        }
+        pointsA = points(file.section(POINTS_A), variableCount, G1_LONGS);
+        pointsB1 = points(file.section(POINTS_B1), variableCount, G1_LONGS);
+        pointsB2 = points(file.section(POINTS_B2), variableCount, G2_LONGS);
+        pointsC = points(file.section(POINTS_C), variableCount - publicCount - 1, G1_LONGS);
+        pointsH = points(file.section(POINTS_H), domainSize, G1_LONGS);
+    }
+
+    /** Memory-maps the key; see {@link BinFile#map}. */
+    public static ProvingKey read(Path path) throws IOException {
+        return new ProvingKey(BinFile.map(path, "zkey"));
+    }
+
+    public static ProvingKey fromBytes(byte[] data) {
+        return new ProvingKey(BinFile.parse(ByteBuffer.wrap(data), "zkey"));
+    }
+
+    /** The matching verification key, as snarkjs would export it. */
+    public VerificationKey verificationKey() {
+        return new VerificationKey(alpha1, beta2, gamma2, delta2, ic);
+    }
+
+    public int variableCount() {
+        return variableCount;
+    }
+
+    public int publicCount() {
+        return publicCount;
+    }
+
+    public int domainSize() {
+        return domainSize;
+    }
+
+    private static LongBuffer points(ByteBuffer in, int count, int longsPerPoint) {
+        if (in.remaining() < (long) count * longsPerPoint * Long.BYTES) {
+            throw new IllegalArgumentException("Truncated point section");
+        }
+        return in.asLongBuffer();
+    }
+
+    private static G1Point g1(ByteBuffer in) {
+        long[] xy = new long[G1_LONGS];
+        for (int i = 0; i < G1_LONGS; i++) {
+            xy[i] = in.getLong();
+        }
+        return G1Point.ofMontgomery(xy);
+    }
+
+    private static G2Point g2(ByteBuffer in) {
+        long[] xy = new long[G2_LONGS];
+        for (int i = 0; i < G2_LONGS; i++) {
+            xy[i] = in.getLong();
+        }
+        return G2Point.ofMontgomery(xy);
+    }
+}
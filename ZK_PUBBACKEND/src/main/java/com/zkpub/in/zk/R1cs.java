@@ -0,0 +1,185 @@
+package com.zkpub.in.zk;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A circom .r1cs file: constraints A·B = C over wires, where wire 0 is the
+ * constant 1, then the public outputs, the public inputs and the private
+ * signals. The prover uses it to reject a witness that does not satisfy
+ * the circuit before spending seconds on a proof that cannot verify.
+ *
+ * Only the header is decoded on load. Constraints are read in place from
+ * the section (memory-mapped by {@link #read}) whenever they are used;
+ * the one thing kept on the heap is an index of where each constraint
+ * starts, built on first use.
+ */
+public final class R1cs {
+
+    private static final int HEADER = 1, CONSTRAINTS = 2;
+    private static final int L = Fr.LIMBS;
+    private static final int TERM_BYTES = 4 + 32;
+
+    /** One term of a linear combination: coefficient·wire. */
+    public record Term(int wire, BigInteger coefficient) {
+    }
+
+    private final int wireCount;
+    private final int publicOutputs;
+    private final int publicInputs;
+    private final int privateInputs;
+    private final int constraintCount;
+    // Per constraint three (u32 count, (u32 wire, canonical coefficient) * count) combinations, A, B, C
+    private final ByteBuffer constraints;
+    // Byte offset of each constraint, built and bounds-checked on first use
+    private volatile int[] offsets;
+
+    private R1cs(BinFile file) {
+        ByteBuffer header = file.section(HEADER);
+        int n8 = header.getInt();
+        if (n8 != 32 || !BinFile.readInteger(header, n8).equals(Fr.MODULUS)) {
+            throw new IllegalArgumentException("R1CS is not over the BN254 scalar field");
+        }
+        wireCount = header.getInt();
+        publicOutputs = header.getInt();
+        publicInputs = header.getInt();
+        privateInputs = header.getInt();
+        header.getLong(); // label count
+        constraintCount = header.getInt();
+        constraints = file.section(CONSTRAINTS);
+    }
+
+    /** Memory-maps the file; see {@link BinFile#map}. */
+    public static R1cs read(Path path) throws IOException {
+        return new R1cs(BinFile.map(path, "r1cs"));
+    }
+
+    public static R1cs fromBytes(byte[] data) {
+        return new R1cs(BinFile.parse(ByteBuffer.wrap(data), "r1cs"));
+    }
+
+    public int wireCount() {
+        return wireCount;
+    }
+
+    /** Public outputs plus public inputs, the signals a verifier sees. */
+    public int publicCount() {
+        return publicOutputs + publicInputs;
+    }
+
+    public int privateInputCount() {
+        return privateInputs;
+    }
+
+    public int constraintCount() {
+        return constraintCount;
+    }
+
+    /** The linear combination of constraint {@code c} in matrix 0 (A), 1 (B) or 2 (C). */
+    public List<Term> terms(int matrix, int c) {
+        int at = offsets()[c];
+        for (int m = 0; m < matrix; m++) {
+            at += 4 + constraints.getInt(at) * TERM_BYTES;
+        }
+        int count = constraints.getInt(at);
+        List<Term> terms = new ArrayList<>(count);
+        long[] coefficient = new long[L];
+        for (int t = 0, term = at + 4; t < count; t++, term += TERM_BYTES) {
+            readCoefficient(term, coefficient);
+            terms.add(new Term(constraints.getInt(term), Fr.canonicalToBigInteger(coefficient, 0)));
+        }
+        return terms;
+    }
+
+    /** Index of the first constraint the witness violates, or -1 when it satisfies them all. */
+    public int firstUnsatisfied(List<BigInteger> witness) {
+        if (witness.size() != wireCount) {
+            throw new IllegalArgumentException("Expected " + wireCount + " witness values, got " + witness.size());
+        }
+        return firstUnsatisfied(Witness.of(witness));
+    }
+
+    public int firstUnsatisfied(Witness witness) {
+        if (witness.size() != wireCount) {
+            throw new IllegalArgumentException("Expected " + wireCount + " witness values, got " + witness.size());
+        }
+        long[] montgomery = witness.limbs();
+        for (int i = 0; i < wireCount; i++) {
+            Fr.toMontgomery(montgomery, i * L);
+        }
+        return firstUnsatisfied(montgomery);
+    }
+
+    /** As above for a witness already in Montgomery form. */
+    int firstUnsatisfied(long[] witness) {
+        if (witness.length != wireCount * L) {
+            throw new IllegalArgumentException("Witness does not match the circuit");
+        }
+        int[] offsets = offsets();
+        long[] a = new long[L], b = new long[L], c = new long[L], t = new long[L], coefficient = new long[L];
+        for (int i = 0; i < constraintCount; i++) {
+            int at = evaluate(offsets[i], witness, a, t, coefficient);
+            at = evaluate(at, witness, b, t, coefficient);
+            evaluate(at, witness, c, t, coefficient);
+            Fr.mul(a, 0, b, 0, a, 0);
+            if (!Fr.equal(a, 0, c, 0)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // r = the combination at byte offset at, in Montgomery form; returns the offset of the next one
+    private int evaluate(int at, long[] witness, long[] r, long[] t, long[] coefficient) {
+        Fr.setZero(r, 0);
+        int count = constraints.getInt(at);
+        for (int k = 0, term = at + 4; k < count; k++, term += TERM_BYTES) {
+            readCoefficient(term, coefficient);
+            // A canonical coefficient times a Montgomery value is the canonical product
+            Fr.mul(coefficient, 0, witness, constraints.getInt(term) * L, t, 0);
+            Fr.add(r, 0, t, 0, r, 0);
+        }
+        Fr.toMontgomery(r, 0);
+        return at + 4 + count * TERM_BYTES;
+    }
+
+    private void readCoefficient(int term, long[] coefficient) {
+        for (int i = 0; i < L; i++) {
+            coefficient[i] = constraints.getLong(term + 4 + i * Long.BYTES);
+        }
+    }
+
+    private int[] offsets() {
+        int[] result = offsets;
+        if (result == null) {
+            // One walk over the counts and wires; racing callers just build the same index twice
+            result = new int[constraintCount];
+            int at = 0, end = constraints.limit();
+            for (int c = 0; c < constraintCount; c++) {
+                result[c] = at;
+                for (int m = 0; m < 3; m++) {
+                    if (at + 4 > end) {
+                        throw new IllegalArgumentException("Truncated constraint section");
+                    }
+                    int terms = constraints.getInt(at);
+                    at += 4;
+                    if (terms < 0 || (long) terms * TERM_BYTES > end - at) {
+                        throw new IllegalArgumentException("Truncated constraint section");
+                    }
+                    for (int t = 0; t < terms; t++, at += TERM_BYTES) {
+                        int wire = constraints.getInt(at);
+                        if (wire < 0 || wire >= wireCount) {
+                            throw new IllegalArgumentException("Constraint " + c + " refers to wire " + wire);
+                        }
+                    }
+                }
+            }
+            offsets = result;
+        }
+        return result;
+    }
+}
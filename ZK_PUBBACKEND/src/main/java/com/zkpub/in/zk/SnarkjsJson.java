@@ -0,0 +1,102 @@
+package com.zkpub.in.zk;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads the point and scalar encodings snarkjs writes: decimal strings,
+ * G1 as [x, y, z] and G2 as [[x0, x1], [y0, y1], [z0, z1]] in projective
+ * form with z = 1 (or z = 0 for the point at infinity).
+ */
+final class SnarkjsJson {
+
+    private SnarkjsJson() {
+    }
+
+    static G1Point g1(JsonNode node, String field) {
+        return g1Node(require(node, field, 2), field);
+    }
+
+    static G2Point g2(JsonNode node, String field) {
+        JsonNode p = require(node, field, 2);
+        if (p.size() > 2) {
+            JsonNode z = p.get(2);
+            BigInteger z0 = scalar(z.get(0), field), z1 = scalar(z.get(1), field);
+            if (z0.signum() == 0 && z1.signum() == 0) {
+                return G2Point.INFINITY;
+            }
+            if (!z0.equals(BigInteger.ONE) || z1.signum() != 0) {
+                throw new IllegalArgumentException(field + " is not in affine form");
+            }
+        }
+        JsonNode x = p.get(0), y = p.get(1);
+        if (x.size() != 2 || y.size() != 2) {
+            throw new IllegalArgumentException(field + " is not a G2 point");
+        }
+        return G2Point.of(scalar(x.get(0), field), scalar(x.get(1), field),
+            scalar(y.get(0), field), scalar(y.get(1), field));
+    }
+
+    static List<G1Point> g1List(JsonNode node, String field) {
+        JsonNode list = node.get(field);
+        if (list == null || !list.isArray()) {
+            throw new IllegalArgumentException("Missing " + field);
+        }
+        List<G1Point> points = new ArrayList<>(list.size());
+        for (int i = 0; i < list.size(); i++) {
+            points.add(g1Node(list.get(i), field + "[" + i + "]"));
+        }
+        return points;
+    }
+
+    static List<BigInteger> scalars(JsonNode list, String field) {
+        if (list == null || !list.isArray()) {
+            throw new IllegalArgumentException("Missing " + field);
+        }
+        List<BigInteger> values = new ArrayList<>(list.size());
+        for (JsonNode v : list) {
+            values.add(scalar(v, field));
+        }
+        return values;
+    }
+
+    static BigInteger scalar(JsonNode v, String field) {
+        if (v == null || v.isNull()) {
+            throw new IllegalArgumentException("Missing value in " + field);
+        }
+        try {
+            BigInteger value = v.isNumber() ? v.bigIntegerValue() : new BigInteger(v.asText().trim());
+            if (value.signum() < 0) {
+                throw new IllegalArgumentException("Negative value in " + field);
+            }
+            return value;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Not a decimal number in " + field);
+        }
+    }
+
+    private static G1Point g1Node(JsonNode p, String field) {
+        if (p == null || !p.isArray() || p.size() < 2) {
+            throw new IllegalArgumentException(field + " is not a G1 point");
+        }
+        BigInteger z = p.size() > 2 ? scalar(p.get(2), field) : BigInteger.ONE;
+        if (z.signum() == 0) {
+            return G1Point.INFINITY;
+        }
+        if (!z.equals(BigInteger.ONE)) {
+            throw new IllegalArgumentException(field + " is not in affine form");
+        }
+        return G1Point.of(scalar(p.get(0), field), scalar(p.get(1), field));
+    }
+
+    private static JsonNode require(JsonNode node, String field, int minSize) {
+        JsonNode p = node.get(field);
+        if (p == null || !p.isArray() || p.size() < minSize) {
+            throw new IllegalArgumentException("Missing or malformed " + field);
+        }
+        return p;
+    }
+}
@@ -0,0 +1,495 @@
+package com.zkpub.in.zk;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+
+/**
+ * The BN254 extension tower used by the pairing:
+ * Fp2 = Fp[u]/(u^2 + 1), Fp6 = Fp2[v]/(v^3 - ξ) with ξ = 9 + u, and
+ * Fp12 = Fp6[w]/(w^2 - v).
+ *
+ * Elements live at offsets in {@code long[]} arrays (8, 24 and 48 longs).
+ * Each level keeps its own scratch space in this object, so the
+ * arithmetic allocates nothing. Results may alias operands. An instance
+ * is not thread-safe; use one per thread (see {@link #local()}).
+ */
+final class Tower {
+
+    static final int FP2 = 2 * Fp.LIMBS;
+    static final int FP6 = 3 * FP2;
+    static final int FP12 = 2 * FP6;
+
+    /** ξ = 9 + u, the non-residue defining Fp6 and the sextic twist. */
+    static final long[] XI = new long[FP2];
+    /** Frobenius coefficients: FROBENIUS[n][k] = ξ^(k(p^n - 1)/6), for n = 1..3, k = 0..5. */
+    static final long[][] FROBENIUS = new long[4][6 * FP2];
+
+    private static final ThreadLocal<Tower> LOCAL = ThreadLocal.withInitial(Tower::new);
+
+    static {
+        Fp.set(BigInteger.valueOf(9), XI, 0);
+        Fp.setOne(XI, Fp.LIMBS);
+
+        Tower t = new Tower();
+        BigInteger p = Fp.MODULUS;
+        for (int n = 1; n <= 3; n++) {
+            BigInteger pn = p.pow(n);
+            for (int k = 0; k < 6; k++) {
+                BigInteger e = pn.subtract(BigInteger.ONE).divide(BigInteger.valueOf(6)).multiply(BigInteger.valueOf(k));
+                t.fp2Pow(XI, 0, e, FROBENIUS[n], k * FP2);
+            }
+        }
+    }
+
+    static Tower local() {
+        return LOCAL.get();
+    }
+
+    private final long[] s2 = new long[4 * Fp.LIMBS];
+    private final long[] s6 = new long[8 * FP2];
+    private final long[] s12 = new long[4 * FP6];
+    private final long[] sx = new long[2 * FP12];
+
+    // ---------------------------------------------------------------- Fp2
+
+    static void fp2Add(long[] a, int ai, long[] b, int bi, long[] r, int ri) {
+        Fp.add(a, ai, b, bi, r, ri);
+        Fp.add(a, ai + 4, b, bi + 4, r, ri + 4);
+    }
+
+    static void fp2Sub(long[] a, int ai, long[] b, int bi, long[] r, int ri) {
+        Fp.sub(a, ai, b, bi, r, ri);
+        Fp.sub(a, ai + 4, b, bi + 4, r, ri + 4);
+    }
+
+    static void fp2Dbl(long[] a, int ai, long[] r, int ri) {
+        Fp.dbl(a, ai, r, ri);
+        Fp.dbl(a, ai + 4, r, ri + 4);
+    }
+
+    static void fp2Neg(long[] a, int ai, long[] r, int ri) {
+        Fp.neg(a, ai, r, ri);
+        Fp.neg(a, ai + 4, r, ri + 4);
+    }
+
+    static void fp2Conj(long[] a, int ai, long[] r, int ri) {
+        Fp.copy(a, ai, r, ri);
+        Fp.neg(a, ai + 4, r, ri + 4);
+    }
+
+    static void fp2Copy(long[] a, int ai, long[] r, int ri) {
+        System.arraycopy(a, ai, r, ri, FP2);
+    }
+
+    static void fp2SetZero(long[] r, int ri) {
+        Fp.setZero(r, ri);
+        Fp.setZero(r, ri + 4);
+    }
+
+    static void fp2SetOne(long[] r, int ri) {
+        Fp.setOne(r, ri);
+        Fp.setZero(r, ri + 4);
+    }
+
+    static boolean fp2IsZero(long[] a, int ai) {
+        return Fp.isZero(a, ai) && Fp.isZero(a, ai + 4);
+    }
+
+    static boolean fp2Equal(long[] a, int ai, long[] b, int bi) {
+        return Fp.equal(a, ai, b, bi) && Fp.equal(a, ai + 4, b, bi + 4);
+    }
+
+    /** r = a·s for s in the base field. */
+    static void fp2MulByFp(long[] a, int ai, long[] s, int si, long[] r, int ri) {
+        Fp.mul(a, ai, s, si, r, ri);
+        Fp.mul(a, ai + 4, s, si, r, ri + 4);
+    }
+
+    void fp2Mul(long[] a, int ai, long[] b, int bi, long[] r, int ri) {
+        long[] t = s2;
+        // Karatsuba: (a0 + a1 u)(b0 + b1 u) = a0b0 - a1b1 + ((a0 + a1)(b0 + b1) - a0b0 - a1b1) u
+        Fp.mul(a, ai, b, bi, t, 0);
+        Fp.mul(a, ai + 4, b, bi + 4, t, 4);
+        Fp.add(a, ai, a, ai + 4, t, 8);
+        Fp.add(b, bi, b, bi + 4, t, 12);
+        Fp.mul(t, 8, t, 12, t, 8);
+        Fp.sub(t, 8, t, 0, t, 8);
+        Fp.sub(t, 8, t, 4, r, ri + 4);
+        Fp.sub(t, 0, t, 4, r, ri);
+    }
+
+    void fp2Sqr(long[] a, int ai, long[] r, int ri) {
+        long[] t = s2;
+        // (a0 + a1 u)^2 = (a0 + a1)(a0 - a1) + 2 a0 a1 u
+        Fp.add(a, ai, a, ai + 4, t, 0);
+        Fp.sub(a, ai, a, ai + 4, t, 4);
+        Fp.mul(a, ai, a, ai + 4, t, 8);
+        Fp.mul(t, 0, t, 4, r, ri);
+        Fp.dbl(t, 8, r, ri + 4);
+    }
+
+    /** r = a·ξ = (9 a0 - a1) + (a0 + 9 a1) u. */
+    void fp2MulByXi(long[] a, int ai, long[] r, int ri) {
+        long[] t = s2;
+        Fp.dbl(a, ai, t, 0);
+        Fp.dbl(t, 0, t, 0);
+        Fp.dbl(t, 0, t, 0);
+        Fp.add(t, 0, a, ai, t, 0);         // 9 a0
+        Fp.dbl(a, ai + 4, t, 4);
+        Fp.dbl(t, 4, t, 4);
+        Fp.dbl(t, 4, t, 4);
+        Fp.add(t, 4, a, ai + 4, t, 4);     // 9 a1
+        Fp.add(t, 4, a, ai, t, 8);         // a0 + 9 a1
+        Fp.sub(t, 0, a, ai + 4, r, ri);
+        Fp.copy(t, 8, r, ri + 4);
+    }
+
+    void fp2Inverse(long[] a, int ai, long[] r, int ri) {
+        long[] t = s2;
+        // 1/(a0 + a1 u) = (a0 - a1 u)/(a0^2 + a1^2)
+        Fp.sqr(a, ai, t, 0);
+        Fp.sqr(a, ai + 4, t, 4);
+        Fp.add(t, 0, t, 4, t, 0);
+        Fp.inverse(t, 0, t, 0);
+        Fp.mul(a, ai, t, 0, r, ri);
+        Fp.mul(a, ai + 4, t, 0, t, 4);
+        Fp.neg(t, 4, r, ri + 4);
+    }
+
+    void fp2Pow(long[] a, int ai, BigInteger e, long[] r, int ri) {
+        long[] acc = new long[FP2];
+        long[] base = new long[FP2];
+        fp2SetOne(acc, 0);
+        fp2Copy(a, ai, base, 0);
+        for (int i = e.bitLength() - 1; i >= 0; i--) {
+            fp2Sqr(acc, 0, acc, 0);
+            if (e.testBit(i)) {
+                fp2Mul(acc, 0, base, 0, acc, 0);
+            }
+        }
+        fp2Copy(acc, 0, r, ri);
+    }
+
+    // ---------------------------------------------------------------- Fp6
+
+    static void fp6Add(long[] a, int ai, long[] b, int bi, long[] r, int ri) {
+        for (int k = 0; k < FP6; k += Fp.LIMBS) {
+            Fp.add(a, ai + k, b, bi + k, r, ri + k);
+        }
+    }
+
+    static void fp6Sub(long[] a, int ai, long[] b, int bi, long[] r, int ri) {
+        for (int k = 0; k < FP6; k += Fp.LIMBS) {
+            Fp.sub(a, ai + k, b, bi + k, r, ri + k);
+        }
+    }
+
+    static void fp6Neg(long[] a, int ai, long[] r, int ri) {
+        for (int k = 0; k < FP6; k += Fp.LIMBS) {
+            Fp.neg(a, ai + k, r, ri + k);
+        }
+    }
+
+    static void fp6Copy(long[] a, int ai, long[] r, int ri) {
+        System.arraycopy(a, ai, r, ri, FP6);
+    }
+
+    /** r = a·v = ξ a2 + a0 v + a1 v^2. */
+    void fp6MulByV(long[] a, int ai, long[] r, int ri) {
+        long[] t = s6;
+        fp2MulByXi(a, ai + 2 * FP2, t, 0);
+        fp2Copy(a, ai + FP2, t, FP2);
+        fp2Copy(a, ai, r, ri + FP2);
+        fp2Copy(t, FP2, r, ri + 2 * FP2);
+        fp2Copy(t, 0, r, ri);
+    }
+
+    void fp6Mul(long[] a, int ai, long[] b, int bi, long[] r, int ri) {
+        long[] t = s6;
+        final int v0 = 0, v1 = FP2, v2 = 2 * FP2, x = 3 * FP2, y = 4 * FP2, c0 = 5 * FP2, c1 = 6 * FP2, c2 = 7 * FP2;
+        int a0 = ai, a1 = ai + FP2, a2 = ai + 2 * FP2;
+        int b0 = bi, b1 = bi + FP2, b2 = bi + 2 * FP2;
+
+        fp2Mul(a, a0, b, b0, t, v0);
+        fp2Mul(a, a1, b, b1, t, v1);
+        fp2Mul(a, a2, b, b2, t, v2);
+
+        // c0 = v0 + ξ((a1 + a2)(b1 + b2) - v1 - v2)
+        fp2Add(a, a1, a, a2, t, x);
+        fp2Add(b, b1, b, b2, t, y);
+        fp2Mul(t, x, t, y, t, x);
+        fp2Sub(t, x, t, v1, t, x);
+        fp2Sub(t, x, t, v2, t, x);
+        fp2MulByXi(t, x, t, x);
+        fp2Add(t, x, t, v0, t, c0);
+
+        // c1 = (a0 + a1)(b0 + b1) - v0 - v1 + ξ v2
+        fp2Add(a, a0, a, a1, t, x);
+        fp2Add(b, b0, b, b1, t, y);
+        fp2Mul(t, x, t, y, t, x);
+        fp2Sub(t, x, t, v0, t, x);
+        fp2Sub(t, x, t, v1, t, x);
+        fp2MulByXi(t, v2, t, y);
+        fp2Add(t, x, t, y, t, c1);
+
+        // c2 = (a0 + a2)(b0 + b2) - v0 - v2 + v1
+        fp2Add(a, a0, a, a2, t, x);
+        fp2Add(b, b0, b, b2, t, y);
+        fp2Mul(t, x, t, y, t, x);
+        fp2Sub(t, x, t, v0, t, x);
+        fp2Sub(t, x, t, v2, t, x);
+        fp2Add(t, x, t, v1, t, c2);
+
+        System.arraycopy(t, c0, r, ri, FP6);
+    }
+
+    /** r = a·(b0 + b1 v), the shape of a line function's Fp6 half. */
+    void fp6MulBy01(long[] a, int ai, long[] b, int b0, long[] c, int b1, long[] r, int ri) {
+        long[] t = s6;
+        final int v0 = 0, v1 = FP2, x = 2 * FP2, y = 3 * FP2, c0 = 5 * FP2, c1 = 6 * FP2, c2 = 7 * FP2;
+        int a0 = ai, a1 = ai + FP2, a2 = ai + 2 * FP2;
+
+        fp2Mul(a, a0, b, b0, t, v0);
+        fp2Mul(a, a1, c, b1, t, v1);
+
+        // c0 = v0 + ξ(b1 (a1 + a2) - v1)
+        fp2Add(a, a1, a, a2, t, x);
+        fp2Mul(t, x, c, b1, t, x);
+        fp2Sub(t, x, t, v1, t, x);
+        fp2MulByXi(t, x, t, x);
+        fp2Add(t, x, t, v0, t, c0);
+
+        // c1 = (a0 + a1)(b0 + b1) - v0 - v1
+        fp2Add(a, a0, a, a1, t, x);
+        fp2Add(b, b0, c, b1, t, y);
+        fp2Mul(t, x, t, y, t, x);
+        fp2Sub(t, x, t, v0, t, x);
+        fp2Sub(t, x, t, v1, t, c1);
+
+        // c2 = b0 (a0 + a2) - v0 + v1
+        fp2Add(a, a0, a, a2, t, x);
+        fp2Mul(t, x, b, b0, t, x);
+        fp2Sub(t, x, t, v0, t, x);
+        fp2Add(t, x, t, v1, t, c2);
+
+        System.arraycopy(t, c0, r, ri, FP6);
+    }
+
+    void fp6Inverse(long[] a, int ai, long[] r, int ri) {
+        long[] t = s12; // Fp6 scratch is busy inside fp6Mul; the inverse is rare enough to borrow the Fp12 area
+        final int t0 = 0, t1 = FP2, t2 = 2 * FP2, x = 3 * FP2, y = 4 * FP2;
+        int a0 = ai, a1 = ai + FP2, a2 = ai + 2 * FP2;
+
+        // t0 = a0^2 - ξ a1 a2
+        fp2Sqr(a, a0, t, t0);
+        fp2Mul(a, a1, a, a2, t, x);
+        fp2MulByXi(t, x, t, x);
+        fp2Sub(t, t0, t, x, t, t0);
+        // t1 = ξ a2^2 - a0 a1
+        fp2Sqr(a, a2, t, t1);
+        fp2MulByXi(t, t1, t, t1);
+        fp2Mul(a, a0, a, a1, t, x);
+        fp2Sub(t, t1, t, x, t, t1);
+        // t2 = a1^2 - a0 a2
+        fp2Sqr(a, a1, t, t2);
+        fp2Mul(a, a0, a, a2, t, x);
+        fp2Sub(t, t2, t, x, t, t2);
+
+        // norm = a0 t0 + ξ(a2 t1 + a1 t2)
+        fp2Mul(a, a2, t, t1, t, x);
+        fp2Mul(a, a1, t, t2, t, y);
+        fp2Add(t, x, t, y, t, x);
+        fp2MulByXi(t, x, t, x);
+        fp2Mul(a, a0, t, t0, t, y);
+        fp2Add(t, x, t, y, t, x);
+        fp2Inverse(t, x, t, x);
+
+        fp2Mul(t, t0, t, x, r, ri);
+        fp2Mul(t, t1, t, x, r, ri + FP2);
+        fp2Mul(t, t2, t, x, r, ri + 2 * FP2);
+    }
+
+    // ---------------------------------------------------------------- Fp12
+
+    static void fp12Copy(long[] a, int ai, long[] r, int ri) {
+        System.arraycopy(a, ai, r, ri, FP12);
+    }
+
+    static void fp12SetOne(long[] r, int ri) {
+        Arrays.fill(r, ri, ri + FP12, 0L);
+        Fp.setOne(r, ri);
+    }
+
+    static boolean fp12IsOne(long[] a, int ai) {
+        if (!Fp.equal(a, ai, Fp.ONE, 0)) {
+            return false;
+        }
+        for (int k = Fp.LIMBS; k < FP12; k++) {
+            if (a[ai + k] != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static boolean fp12Equal(long[] a, int ai, long[] b, int bi) {
+        for (int k = 0; k < FP12; k++) {
+            if (a[ai + k] != b[bi + k]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** Conjugation over Fp6, which is the inverse for elements of the cyclotomic subgroup. */
+    static void fp12Conj(long[] a, int ai, long[] r, int ri) {
+        if (a != r || ai != ri) {
+            fp6Copy(a, ai, r, ri);
+        }
+        fp6Neg(a, ai + FP6, r, ri + FP6);
+    }
+
+    void fp12Mul(long[] a, int ai, long[] b, int bi, long[] r, int ri) {
+        long[] t = s12;
+        final int aa = 0, bb = FP6, x = 2 * FP6, y = 3 * FP6;
+        fp6Mul(a, ai, b, bi, t, aa);
+        fp6Mul(a, ai + FP6, b, bi + FP6, t, bb);
+        fp6Add(a, ai, a, ai + FP6, t, x);
+        fp6Add(b, bi, b, bi + FP6, t, y);
+        fp6Mul(t, x, t, y, t, x);
+        fp6Sub(t, x, t, aa, t, x);
+        fp6Sub(t, x, t, bb, r, ri + FP6);
+        fp6MulByV(t, bb, t, bb);
+        fp6Add(t, aa, t, bb, r, ri);
+    }
+
+    void fp12Sqr(long[] a, int ai, long[] r, int ri) {
+        long[] t = s12;
+        final int ab = 0, x = FP6, y = 2 * FP6;
+        // (a0 + a1 w)^2 = (a0 + a1)(a0 + v a1) - ab - v ab + 2 ab w, ab = a0 a1
+        fp6Mul(a, ai, a, ai + FP6, t, ab);
+        fp6Add(a, ai, a, ai + FP6, t, x);
+        fp6MulByV(a, ai + FP6, t, y);
+        fp6Add(a, ai, t, y, t, y);
+        fp6Mul(t, x, t, y, t, x);
+        fp6Sub(t, x, t, ab, t, x);
+        fp6MulByV(t, ab, t, y);
+        fp6Sub(t, x, t, y, r, ri);
+        fp6Add(t, ab, t, ab, r, ri + FP6);
+    }
+
+    /**
+     * r = a·l where l = c0 + (c3 + c4 v) w, the sparse shape of an evaluated
+     * line on a D-type twist. c0, c3 and c4 are Fp2 values in {@code l}.
+     */
+    void fp12MulBy034(long[] a, int ai, long[] l, int c0, int c3, int c4, long[] r, int ri) {
+        long[] t = s12;
+        final int x = 0, y = FP6, z = 2 * FP6, sum = 3 * FP6;
+        // x = a0·c0 (c0 is in Fp2, so component-wise)
+        fp2Mul(a, ai, l, c0, t, x);
+        fp2Mul(a, ai + FP2, l, c0, t, x + FP2);
+        fp2Mul(a, ai + 2 * FP2, l, c0, t, x + 2 * FP2);
+        // y = a1·(c3 + c4 v)
+        fp6MulBy01(a, ai + FP6, l, c3, l, c4, t, y);
+        // z = (a0 + a1)(c0 + c3 + c4 v)
+        fp2Add(l, c0, l, c3, t, sum);
+        fp6Add(a, ai, a, ai + FP6, t, z);
+        fp6MulBy01(t, z, t, sum, l, c4, t, z);
+        fp6Sub(t, z, t, x, t, z);
+        fp6Sub(t, z, t, y, r, ri + FP6);
+        fp6MulByV(t, y, t, y);
+        fp6Add(t, x, t, y, r, ri);
+    }
+
+    void fp12Inverse(long[] a, int ai, long[] r, int ri) {
+        long[] t = sx;
+        final int x = 0, y = FP6;
+        // 1/(a0 + a1 w) = (a0 - a1 w)/(a0^2 - v a1^2)
+        fp6Mul(a, ai, a, ai, t, x);
+        fp6Mul(a, ai + FP6, a, ai + FP6, t, y);
+        fp6MulByV(t, y, t, y);
+        fp6Sub(t, x, t, y, t, x);
+        fp6Inverse(t, x, t, x);
+        fp6Mul(a, ai, t, x, t, y);
+        fp6Mul(a, ai + FP6, t, x, t, x);
+        fp6Neg(t, x, r, ri + FP6);
+        fp6Copy(t, y, r, ri);
+    }
+
+    /** r = a^(p^n) for n in 1..3. */
+    void fp12Frobenius(long[] a, int ai, int n, long[] r, int ri) {
+        long[] gamma = FROBENIUS[n];
+        // Coefficient of w^k sits at: k=0 c0.c0, 1 c1.c0, 2 c0.c1, 3 c1.c1, 4 c0.c2, 5 c1.c2
+        for (int k = 0; k < 6; k++) {
+            int offset = ai + (k % 2) * FP6 + (k / 2) * FP2;
+            int out = ri + (k % 2) * FP6 + (k / 2) * FP2;
+            if ((n & 1) == 1) {
+                fp2Conj(a, offset, r, out);
+                fp2Mul(r, out, gamma, k * FP2, r, out);
+            } else {
+                fp2Mul(a, offset, gamma, k * FP2, r, out);
+            }
+        }
+    }
+
+    /**
+     * Granger-Scott squaring, valid only in the cyclotomic subgroup (after
+     * the easy part of the final exponentiation); about six Fp2
+     * multiplications instead of the generic squaring's eighteen.
+     */
+    void fp12CyclotomicSqr(long[] a, int ai, long[] r, int ri) {
+        long[] t = s6;
+        // Pairs (z0, z1), (z2, z3), (z4, z5) of Fp4 = Fp2[w^3]; z0..z5 per Granger-Scott
+        final int z0 = 0, z4 = FP2, z3 = 2 * FP2, z2 = FP6, z1 = FP6 + FP2, z5 = FP6 + 2 * FP2;
+        fp4Sqr(a, ai + z0, ai + z1, t, 0, FP2);
+        fp4Sqr(a, ai + z2, ai + z3, t, 2 * FP2, 3 * FP2);
+        fp4Sqr(a, ai + z4, ai + z5, t, 4 * FP2, 5 * FP2);
+
+        cyclotomicTerm(a, ai + z0, t, 0, false, r, ri + z0);
+        cyclotomicTerm(a, ai + z1, t, FP2, true, r, ri + z1);
+        fp2MulByXi(t, 5 * FP2, t, 5 * FP2);
+        cyclotomicTerm(a, ai + z2, t, 5 * FP2, true, r, ri + z2);
+        cyclotomicTerm(a, ai + z3, t, 4 * FP2, false, r, ri + z3);
+        cyclotomicTerm(a, ai + z4, t, 2 * FP2, false, r, ri + z4);
+        cyclotomicTerm(a, ai + z5, t, 3 * FP2, true, r, ri + z5);
+    }
+
+    /** (x + y s)^2 with s^2 = ξ, written as t[lo] + t[hi] s; uses the last two Fp2 slots of s6. */
+    private void fp4Sqr(long[] a, int x, int y, long[] t, int lo, int hi) {
+        final int xy = 6 * FP2, tmp = 7 * FP2;
+        fp2Mul(a, x, a, y, t, xy);
+        fp2MulByXi(a, y, t, tmp);
+        fp2Add(a, x, t, tmp, t, tmp);
+        fp2Add(a, x, a, y, t, lo);
+        fp2Mul(t, lo, t, tmp, t, lo);
+        fp2Sub(t, lo, t, xy, t, lo);
+        fp2MulByXi(t, xy, t, tmp);
+        fp2Sub(t, lo, t, tmp, t, lo);
+        fp2Dbl(t, xy, t, hi);
+    }
+
+    /** r = 3t - 2z or 3t + 2z. */
+    private static void cyclotomicTerm(long[] a, int z, long[] t, int ti, boolean plus, long[] r, int ri) {
+        if (plus) {
+            fp2Add(t, ti, a, z, r, ri);
+        } else {
+            fp2Sub(t, ti, a, z, r, ri);
+        }
+        fp2Dbl(r, ri, r, ri);
+        fp2Add(r, ri, t, ti, r, ri);
+    }
+
+    /** r = a^e for a in the cyclotomic subgroup and a non-negative exponent. */
+    void fp12CyclotomicPow(long[] a, int ai, long e, long[] r, int ri) {
+        long[] t = sx;
+        fp12Copy(a, ai, t, 0);
+        fp12SetOne(t, FP12);
+        for (int i = 63 - Long.numberOfLeadingZeros(e); i >= 0; i--) {
+            fp12CyclotomicSqr(t, FP12, t, FP12);
+            if (((e >>> i) & 1) != 0) {
+                fp12Mul(t, FP12, t, 0, t, FP12);
+            }
+        }
+        fp12Copy(t, FP12, r, ri);
+    }
+}
@@ -0,0 +1,39 @@
+package com.zkpub.in.zk;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.List;
+
+/**
+ * A Groth16 verification key over BN254, as exported by
+ * {@code snarkjs zkey export verificationkey}. {@code ic} has one entry
+ * per public signal plus the constant term.
+ */
+public record VerificationKey(G1Point alpha, G2Point beta, G2Point gamma, G2Point delta, List<G1Point> ic) {
+
+    public VerificationKey {
+        if (ic.isEmpty()) {
+            throw new IllegalArgumentException("Verification key has no IC points");
+        }
+        ic = List.copyOf(ic);
+    }
+
+    public static VerificationKey fromJson(JsonNode json) {
+        if (json.hasNonNull("protocol") && !"groth16".equals(json.get("protocol").asText())) {
+            throw new IllegalArgumentException("Not a Groth16 verification key: " + json.get("protocol").asText());
+        }
+        if (json.hasNonNull("curve") && !"bn128".equalsIgnoreCase(json.get("curve").asText())) {
+            throw new IllegalArgumentException("Unsupported curve: " + json.get("curve").asText());
+        }
+        return new VerificationKey(
+            SnarkjsJson.g1(json, "vk_alpha_1"),
+            SnarkjsJson.g2(json, "vk_beta_2"),
+            SnarkjsJson.g2(json, "vk_gamma_2"),
+            SnarkjsJson.g2(json, "vk_delta_2"),
+            SnarkjsJson.g1List(json, "IC"));
+    }
+
+    public int publicInputCount() {
+        return ic.size() - 1;
+    }
+}
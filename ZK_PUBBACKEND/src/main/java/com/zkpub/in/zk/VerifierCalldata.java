@@ -0,0 +1,144 @@
+package com.zkpub.in.zk;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * ABI calldata for the snarkjs-generated Solidity verifier,
+ * verifyProof(uint256[2] a, uint256[2][2] b, uint256[2] c, uint256[n] input).
+ * Every argument is a static array, so the encoding is just the selector
+ * and then 8 + n words in order. G2 coordinates go imaginary part first, as
+ * the EVM pairing precompile expects: b = [[x1, x0], [y1, y0]].
+ *
+ * The hex string is written straight into one exactly-sized char array;
+ * points are read from their Montgomery limbs without going through
+ * BigInteger, so a call costs the output string and little else.
+ */
+public final class VerifierCalldata {
+
+    public static final int MAX_PUBLIC_INPUTS = 64;
+
+    private static final int WORD_CHARS = 64;
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+    private static final long[] PLAIN_ONE = {1, 0, 0, 0};
+
+    private static final AtomicReferenceArray<char[]> SELECTORS = new AtomicReferenceArray<>(MAX_PUBLIC_INPUTS + 1);
+
+    private VerifierCalldata() {
+    }
+
+    public static String signature(int publicInputs) {
+        return "verifyProof(uint256[2],uint256[2][2],uint256[2],uint256[" + publicInputs + "])";
+    }
+
+    /** 0x-prefixed calldata for an eth_call to verifyProof. */
+    public static String encode(Groth16Proof proof, List<BigInteger> publicSignals) {
+        int n = publicSignals.size();
+        char[] out = new char[2 + 8 + WORD_CHARS * (8 + n)];
+        out[0] = '0';
+        out[1] = 'x';
+        System.arraycopy(selector(n), 0, out, 2, 8);
+        int pos = 10;
+        long[] scratch = new long[Fp.LIMBS];
+        pos = writeG1(proof.a(), out, pos, scratch);
+        G2Point b = proof.b();
+        if (b.isInfinity()) {
+            pos = writeZeros(out, pos, 4);
+        } else {
+            pos = writeFp(b.xy, Fp.LIMBS, out, pos, scratch);
+            pos = writeFp(b.xy, 0, out, pos, scratch);
+            pos = writeFp(b.xy, Tower.FP2 + Fp.LIMBS, out, pos, scratch);
+            pos = writeFp(b.xy, Tower.FP2, out, pos, scratch);
+        }
+        pos = writeG1(proof.c(), out, pos, scratch);
+        for (BigInteger signal : publicSignals) {
+            pos = writeWord(signal, out, pos);
+        }
+        return new String(out);
+    }
+
+    /** Decodes a bool return value: one word, non-zero for true. */
+    public static boolean decodeBool(String result) {
+        if (result == null) {
+            throw new IllegalArgumentException("Empty return value");
+        }
+        int start = result.startsWith("0x") ? 2 : 0;
+        if (result.length() - start != WORD_CHARS) {
+            throw new IllegalArgumentException("Expected one ABI word, got " + result);
+        }
+        for (int i = start; i < result.length(); i++) {
+            char ch = result.charAt(i);
+            if (Character.digit(ch, 16) < 0) {
+                throw new IllegalArgumentException("Not hex: " + result);
+            }
+            if (ch != '0') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // First four bytes of keccak256(signature), as eight hex characters
+    static char[] selector(int publicInputs) {
+        if (publicInputs < 0 || publicInputs > MAX_PUBLIC_INPUTS) {
+            throw new IllegalArgumentException("Verifier takes at most " + MAX_PUBLIC_INPUTS + " public inputs");
+        }
+        char[] selector = SELECTORS.get(publicInputs);
+        if (selector == null) {
+            byte[] hash = Keccak256.digest(signature(publicInputs).getBytes(StandardCharsets.US_ASCII));
+            selector = new char[8];
+            for (int i = 0; i < 4; i++) {
+                selector[2 * i] = HEX[(hash[i] >>> 4) & 0xF];
+                selector[2 * i + 1] = HEX[hash[i] & 0xF];
+            }
+            SELECTORS.set(publicInputs, selector);
+        }
+        return selector;
+    }
+
+    private static int writeG1(G1Point p, char[] out, int pos, long[] scratch) {
+        if (p.isInfinity()) {
+            return writeZeros(out, pos, 2);
+        }
+        pos = writeFp(p.xy, 0, out, pos, scratch);
+        return writeFp(p.xy, Fp.LIMBS, out, pos, scratch);
+    }
+
+    // Out of Montgomery form (a·1·2^-256), then the limbs most significant first
+    private static int writeFp(long[] a, int ai, char[] out, int pos, long[] scratch) {
+        Fp.mul(a, ai, PLAIN_ONE, 0, scratch, 0);
+        for (int limb = Fp.LIMBS - 1; limb >= 0; limb--) {
+            long v = scratch[limb];
+            for (int shift = 60; shift >= 0; shift -= 4) {
+                out[pos++] = HEX[(int) (v >>> shift) & 0xF];
+            }
+        }
+        return pos;
+    }
+
+    private static int writeWord(BigInteger value, char[] out, int pos) {
+        if (value.signum() < 0 || value.bitLength() > 256) {
+            throw new IllegalArgumentException("Public input does not fit in a uint256");
+        }
+        byte[] bytes = value.toByteArray();
+        int skip = bytes.length > 32 ? 1 : 0; // a leading sign byte
+        int padding = 32 - (bytes.length - skip);
+        for (int i = 0; i < 2 * padding; i++) {
+            out[pos++] = '0';
+        }
+        for (int i = skip; i < bytes.length; i++) {
+            out[pos++] = HEX[(bytes[i] >>> 4) & 0xF];
+            out[pos++] = HEX[bytes[i] & 0xF];
+        }
+        return pos;
+    }
+
+    private static int writeZeros(char[] out, int pos, int words) {
+        for (int i = 0; i < words * WORD_CHARS; i++) {
+            out[pos++] = '0';
+        }
+        return pos;
+    }
+}
@@ -0,0 +1,117 @@
+package com.zkpub.in.zk;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.AbstractList;
+import java.util.List;
+
+/**
+ * A full circuit witness (wire 0 = 1, then the public signals, then the
+ * rest), held as canonical little-endian limbs: the body of a snarkjs
+ * .wtns file and what the circom WASM hands out, so neither direction
+ * needs a conversion beyond copying. A witness read from a file stays in
+ * the file's mapping; see {@link BinFile#map}.
+ */
+public final class Witness {
+
+    private static final int HEADER = 1, VALUES = 2;
+    private static final int L = Fr.LIMBS;
+    private static final int N8 = 32;
+
+    private final LongBuffer limbs;
+
+    Witness(long[] limbs) {
+        this(LongBuffer.wrap(limbs));
+    }
+
+    private Witness(LongBuffer limbs) {
+        this.limbs = limbs;
+    }
+
+    public static Witness of(List<BigInteger> values) {
+        return new Witness(Groth16Prover.canonicalLimbs(values));
+    }
+
+    public static Witness read(Path path) throws IOException {
+        return fromWtns(BinFile.map(path, "wtns"));
+    }
+
+    public static Witness fromWtns(byte[] data) {
+        return fromWtns(BinFile.parse(ByteBuffer.wrap(data), "wtns"));
+    }
+
+    private static Witness fromWtns(BinFile file) {
+        ByteBuffer header = file.section(HEADER);
+        int n8 = header.getInt();
+        if (n8 != N8 || !BinFile.readInteger(header, n8).equals(Fr.MODULUS)) {
+            throw new IllegalArgumentException("Witness is not over the BN254 scalar field");
+        }
+        int size = header.getInt();
+        ByteBuffer body = file.section(VALUES);
+        if (body.remaining() != (long) size * N8) {
+            throw new IllegalArgumentException("Witness section does not hold " + size + " values");
+        }
+        LongBuffer limbs = body.asLongBuffer();
+        long[] value = new long[L];
+        for (int i = 0; i < size; i++) {
+            limbs.get(i * L, value);
+            if (!Fr.isCanonical(value, 0)) {
+                throw new IllegalArgumentException("Witness value " + i + " is not a field element");
+            }
+        }
+        return new Witness(limbs);
+    }
+
+    /** The .wtns encoding, byte for byte what snarkjs's witness calculator writes. */
+    public byte[] toWtns() {
+        int headerLength = 4 + N8 + 4;
+        ByteBuffer out = ByteBuffer.allocate(12 + 12 + headerLength + 12 + limbs.limit() * Long.BYTES)
+            .order(ByteOrder.LITTLE_ENDIAN);
+        out.put("wtns".getBytes(StandardCharsets.US_ASCII)).putInt(2).putInt(2);
+        out.putInt(HEADER).putLong(headerLength).putInt(N8);
+        byte[] prime = Fr.MODULUS.toByteArray();
+        for (int i = 0; i < N8; i++) {
+            out.put(i < prime.length ? prime[prime.length - 1 - i] : 0);
+        }
+        out.putInt(size());
+        out.putInt(VALUES).putLong((long) limbs.limit() * Long.BYTES);
+        out.asLongBuffer().put(limbs.duplicate());
+        return out.array();
+    }
+
+    public int size() {
+        return limbs.limit() / L;
+    }
+
+    public BigInteger get(int i) {
+        long[] value = new long[L];
+        limbs.get(i * L, value);
+        return Fr.canonicalToBigInteger(value, 0);
+    }
+
+    public List<BigInteger> toList() {
+        return new AbstractList<>() {
+            @Override
+            public BigInteger get(int index) {
+                return Witness.this.get(index);
+            }
+
+            @Override
+            public int size() {
+                return Witness.this.size();
+            }
+        };
+    }
+
+    /** A fresh copy of all limbs, which callers may convert in place. */
+    long[] limbs() {
+        long[] copy = new long[limbs.limit()];
+        limbs.get(0, copy);
+        return copy;
+    }
+}
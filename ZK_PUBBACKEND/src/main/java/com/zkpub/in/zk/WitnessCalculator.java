@@ -0,0 +1,266 @@
+package com.zkpub.in.zk;
+
+import com.zkpub.in.wasm.HostFunction;
+import com.zkpub.in.wasm.WasmInstance;
+import com.zkpub.in.wasm.WasmModule;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedDeque;
+
+/**
+ * Computes witnesses by running a circom-generated {@code <circuit>.wasm}
+ * in process, following circom's {@code witness_calculator.js}: inputs are
+ * flattened to qualified signal names ("a.b[1]"), located by their 64-bit
+ * FNV-1a hash and written one field element at a time through the shared
+ * read/write memory; the witness is read back the same way.
+ *
+ * The module is decoded once. Instances are pooled: a calculation takes
+ * an idle instance (or makes one), and returns it afterwards, so each
+ * thread in a steady stream of calls keeps reusing warm instances and no
+ * two threads ever share one. An instance whose run failed is dropped,
+ * since the circuit may have stopped half way through.
+ */
+public final class WitnessCalculator {
+
+    private static final int N32 = 8;
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L, FNV_PRIME = 0x100000001b3L;
+
+    private final WasmModule module;
+    private final int witnessSize;
+    private final int version;
+    private final ConcurrentLinkedDeque<Runtime> idle = new ConcurrentLinkedDeque<>();
+
+    private WitnessCalculator(WasmModule module) {
+        this.module = module;
+        Runtime runtime = new Runtime();
+        if (runtime.call("getFieldNumLen32") != N32) {
+            throw new IllegalArgumentException("Circuit is not over a 254-bit field");
+        }
+        runtime.call("getRawPrime");
+        if (!Fr.canonicalToBigInteger(runtime.readElement(), 0).equals(Fr.MODULUS)) {
+            throw new IllegalArgumentException("Circuit is not over the BN254 scalar field");
+        }
+        witnessSize = (int) runtime.call("getWitnessSize");
+        version = (int) runtime.call("getVersion");
+        idle.push(runtime);
+    }
+
+    public static WitnessCalculator load(Path wasm) throws IOException {
+        return fromBytes(Files.readAllBytes(wasm));
+    }
+
+    public static WitnessCalculator fromBytes(byte[] wasm) {
+        return new WitnessCalculator(WasmModule.parse(wasm));
+    }
+
+    public int witnessSize() {
+        return witnessSize;
+    }
+
+    /** Major version of the circom compiler that produced the module. */
+    public int circomVersion() {
+        return version;
+    }
+
+    /**
+     * Input signals by name, as in circom's input.json: values are numbers,
+     * decimal or 0x-hex strings or BigIntegers, arrays are (nested) lists
+     * and bus/component inputs nested maps. Values are reduced mod r.
+     * Throws IllegalArgumentException for unknown or missing signals and
+     * for inputs that fail one of the circuit's asserts.
+     */
+    public Witness calculate(Map<String, ?> input) {
+        Map<String, Object> signals = new LinkedHashMap<>();
+        qualify("", input, signals);
+        Runtime runtime = idle.poll();
+        if (runtime == null) {
+            runtime = new Runtime();
+        }
+        Witness witness = runtime.calculate(signals);
+        idle.push(runtime);
+        return witness;
+    }
+
+    private static void qualify(String prefix, Object input, Map<String, Object> out) {
+        if (input instanceof List<?> list) {
+            List<Object> flat = new ArrayList<>();
+            flatten(list, flat);
+            if (!flat.isEmpty() && flat.get(0) instanceof Map) {
+                qualifyList(prefix, list, out);
+            } else {
+                out.put(prefix, list);
+            }
+        } else if (input instanceof Map<?, ?> map) {
+            map.forEach((key, value) -> qualify(prefix.isEmpty() ? key.toString() : prefix + "." + key, value, out));
+        } else {
+            out.put(prefix, input);
+        }
+    }
+
+    private static void qualifyList(String prefix, Object input, Map<String, Object> out) {
+        if (input instanceof List<?> list) {
+            for (int i = 0; i < list.size(); i++) {
+                qualifyList(prefix + "[" + i + "]", list.get(i), out);
+            }
+        } else {
+            qualify(prefix, input, out);
+        }
+    }
+
+    private static void flatten(Object value, List<Object> out) {
+        if (value instanceof List<?> list) {
+            for (Object item : list) {
+                flatten(item, out);
+            }
+        } else {
+            out.add(value);
+        }
+    }
+
+    private static BigInteger fieldElement(String signal, Object value) {
+        BigInteger v;
+        try {
+            if (value instanceof BigInteger b) {
+                v = b;
+            } else if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+                v = BigInteger.valueOf(((Number) value).longValue());
+            } else if (value instanceof Number n) {
+                v = new BigDecimal(n.toString()).toBigIntegerExact();
+            } else if (value instanceof String s) {
+                String t = s.trim();
+                v = t.startsWith("0x") || t.startsWith("0X") ? new BigInteger(t.substring(2), 16) : new BigInteger(t);
+            } else {
+                throw new IllegalArgumentException("Input signal " + signal + " is not a number");
+            }
+        } catch (ArithmeticException | NumberFormatException e) {
+            throw new IllegalArgumentException("Input signal " + signal + " is not an integer");
+        }
+        return v.mod(Fr.MODULUS);
+    }
+
+    static long fnv1a(String name) {
+        long hash = FNV_OFFSET;
+        for (int i = 0; i < name.length(); i++) {
+            hash ^= name.charAt(i);
+            hash *= FNV_PRIME;
+        }
+        return hash;
+    }
+
+    /** One WebAssembly instance and the host functions bound to it. */
+    private final class Runtime {
+
+        private final WasmInstance instance;
+        private final int readShared;
+        private final int writeShared;
+        private final int getWitness;
+        private final StringBuilder errors = new StringBuilder();
+
+        Runtime() {
+            instance = module.instantiate(Map.of(
+                "runtime.exceptionHandler", (HostFunction) (in, args) -> {
+                    throw new IllegalArgumentException(reason((int) args[0]) + (errors.isEmpty() ? "" : ": " + errors.toString().trim()));
+                },
+                "runtime.printErrorMessage", (in, args) -> {
+                    errors.append(message()).append('\n');
+                    return 0;
+                },
+                // Output of the circuit's log() calls; drained so the module's buffer does not fill up
+                "runtime.writeBufferMessage", (in, args) -> {
+                    message();
+                    return 0;
+                },
+                "runtime.showSharedRWMemory", (in, args) -> 0));
+            readShared = instance.function("readSharedRWMemory");
+            writeShared = instance.function("writeSharedRWMemory");
+            getWitness = instance.function("getWitness");
+        }
+
+        long call(String export, long... args) {
+            return instance.call(export, args);
+        }
+
+        Witness calculate(Map<String, Object> signals) {
+            errors.setLength(0);
+            instance.call("init", 0);
+            int set = 0;
+            for (Map.Entry<String, Object> signal : signals.entrySet()) {
+                String name = signal.getKey();
+                long hash = fnv1a(name);
+                long msb = hash >>> 32, lsb = hash & 0xffffffffL;
+                List<Object> values = new ArrayList<>();
+                flatten(signal.getValue(), values);
+                if (module.exportsFunction("getInputSignalSize")) {
+                    int size = (int) instance.call("getInputSignalSize", msb, lsb);
+                    if (size < 0) {
+                        throw new IllegalArgumentException("Signal " + name + " not found");
+                    }
+                    if (values.size() != size) {
+                        throw new IllegalArgumentException((values.size() < size ? "Not enough" : "Too many")
+                            + " values for input signal " + name);
+                    }
+                }
+                long[] element = new long[Fr.LIMBS];
+                for (int i = 0; i < values.size(); i++) {
+                    Fr.setCanonical(fieldElement(name, values.get(i)), element, 0);
+                    for (int j = 0; j < N32; j++) {
+                        long limb = element[j >>> 1];
+                        instance.call(writeShared, j, (j & 1) == 0 ? (int) limb : (int) (limb >>> 32));
+                    }
+                    instance.call("setInputSignal", msb, lsb, i);
+                    set++;
+                }
+            }
+            if (module.exportsFunction("getInputSize") && set < instance.call("getInputSize")) {
+                throw new IllegalArgumentException("Not all inputs have been set. Only " + set + " out of "
+                    + instance.call("getInputSize"));
+            }
+
+            long[] limbs = new long[witnessSize * Fr.LIMBS];
+            for (int i = 0; i < witnessSize; i++) {
+                instance.call(getWitness, i);
+                long[] element = readElement();
+                System.arraycopy(element, 0, limbs, i * Fr.LIMBS, Fr.LIMBS);
+            }
+            return new Witness(limbs);
+        }
+
+        long[] readElement() {
+            long[] element = new long[Fr.LIMBS];
+            for (int j = 0; j < N32; j++) {
+                long word = instance.call(readShared, j) & 0xffffffffL;
+                element[j >>> 1] |= (j & 1) == 0 ? word : word << 32;
+            }
+            return element;
+        }
+
+        private String message() {
+            StringBuilder message = new StringBuilder();
+            int getMessageChar = instance.function("getMessageChar");
+            for (long c = instance.call(getMessageChar); c != 0; c = instance.call(getMessageChar)) {
+                message.append((char) c);
+            }
+            return message.toString();
+        }
+
+        private static String reason(int code) {
+            return switch (code) {
+                case 1 -> "Signal not found";
+                case 2 -> "Too many signals set";
+                case 3 -> "Signal already set";
+                case 4 -> "Assert failed";
+                case 5 -> "Not enough memory";
+                case 6 -> "Input signal array access exceeds the size";
+                default -> "Unknown error";
+            };
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.zkpub.in.config;
+
+import com.zkpub.in.dto.WaitingRoomStatus;
+import com.zkpub.in.repository.EventRepository;
+import com.zkpub.in.service.WaitingRoomServiceImpl;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.Proxy;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WaitingRoomInterceptorTest {
+
+    private static final String EVENT = "event-1";
+
+    private final WaitingRoomServiceImpl waitingRoom;
+    private final WaitingRoomInterceptor interceptor;
+
+    WaitingRoomInterceptorTest() throws Exception {
+        // Only existsById is reached, when a line is opened
+        EventRepository events = (EventRepository) Proxy.newProxyInstance(getClass().getClassLoader(),
+            new Class<?>[] {EventRepository.class}, (proxy, method, args) -> {
+                if (!method.getName().equals("existsById")) {
+                    throw new UnsupportedOperationException(method.getName());
+                }
+                return EVENT.equals(args[0]);
+            });
+        waitingRoom = new WaitingRoomServiceImpl(events);
+        ReflectionTestUtils.setField(waitingRoom, "secret", "waiting-room-test-secret-of-at-least-32-bytes");
+        ReflectionTestUtils.setField(waitingRoom, "loginSecret", "login-test-secret-of-at-least-32-bytes!!");
+        ReflectionTestUtils.setField(waitingRoom, "requestsPerAdmission", 2);
+        ReflectionTestUtils.setField(waitingRoom, "tokenTtlMs", 60_000L);
+        ReflectionTestUtils.setField(waitingRoom, "tickMs", 200L);
+        ReflectionTestUtils.setField(waitingRoom, "minAdmitRate", 5.0);
+        ReflectionTestUtils.setField(waitingRoom, "maxAdmitRate", 500.0);
+        ReflectionTestUtils.setField(waitingRoom, "targetLatencyMs", 500.0);
+        ReflectionTestUtils.invokeMethod(waitingRoom, "init");
+        interceptor = new WaitingRoomInterceptor(waitingRoom);
+    }
+
+    @Test
+    void noQueueLetsRequestsThroughAndTimesThem() throws Exception {
+        assertTrue(protectedRequest(null));
+        waitingRoom.adjustRate();
+        assertTrue(waitingRoom.currentAdmitRate() > 5.0);
+    }
+
+    @Test
+    void queuedRequestIsHeldUntilAdmitted() throws Exception {
+        WaitingRoomStatus first = waitingRoom.join(EVENT);
+        WaitingRoomStatus second = waitingRoom.join(EVENT);
+        assertFalse(first.isAdmitted());
+        assertTrue(waitingRoom.isQueueing());
+
+        // Nobody gets in ahead of the line, with or without a place in it
+        assertFalse(protectedRequest(null));
+        assertFalse(protectedRequest(first.getToken()));
+
+        // 5/s over a 200 ms tick lets exactly one person through
+        waitingRoom.admit();
+        assertTrue(waitingRoom.status(first.getToken()).isAdmitted());
+        assertFalse(waitingRoom.status(second.getToken()).isAdmitted());
+        assertTrue(protectedRequest(first.getToken()));
+        assertTrue(protectedRequest(first.getToken()));
+        // requests-per-admission is 2
+        assertFalse(protectedRequest(first.getToken()));
+        assertFalse(protectedRequest(second.getToken()));
+
+        // The admitted requests were fast, so the rate climbs
+        waitingRoom.adjustRate();
+        assertTrue(waitingRoom.currentAdmitRate() > 5.0);
+    }
+
+    @Test
+    void tokenForAnotherEventIsRefused() throws Exception {
+        WaitingRoomStatus status = waitingRoom.join(EVENT);
+        waitingRoom.join(EVENT);
+        waitingRoom.admit();
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/auth/login");
+        request.addHeader(WaitingRoomInterceptor.TOKEN_HEADER, status.getToken());
+        request.setParameter("eventId", "event-2");
+        assertFalse(interceptor.preHandle(request, new MockHttpServletResponse(), new Object()));
+    }
+
+    // One pass through the interceptor, as the dispatcher makes it; true if the handler ran
+    private boolean protectedRequest(String token) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/auth/login");
+        if (token != null) {
+            request.addHeader(WaitingRoomInterceptor.TOKEN_HEADER, token);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        if (!interceptor.preHandle(request, response, new Object())) {
+            assertEquals(429, response.getStatus());
+            return false;
+        }
+        interceptor.afterCompletion(request, response, new Object(), null);
+        return true;
+    }
+}
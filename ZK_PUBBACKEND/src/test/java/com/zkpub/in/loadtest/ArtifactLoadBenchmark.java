@@ -0,0 +1,252 @@
+package com.zkpub.in.loadtest;
+
+import com.zkpub.in.zk.Fp;
+import com.zkpub.in.zk.Fr;
+import com.zkpub.in.zk.ProvingKey;
+import com.zkpub.in.zk.R1cs;
+import com.zkpub.in.zk.Sections;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.ManagementFactory;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loading a large proving key and R1CS memory-mapped (only the headers are
+ * decoded; sections stay in the page cache) against reading the whole
+ * file onto the heap first. The files are synthetic: the sizes of a real
+ * 2^k-constraint circuit, with infinity for every point, which is all
+ * loading looks at.
+ *
+ * main() first prints heap and mapped memory after loading the largest
+ * key both ways (run it with -Xmx1g or more for the heap load).
+ * MappedArtifactsTest checks that mapped artifacts behave like heap copies.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+public class ArtifactLoadBenchmark {
+
+    private static final int CHUNK = 1 << 20;
+
+    @Param({"16", "20"})
+    public int log2Constraints;
+
+    private Path dir;
+    private Path zkey;
+    private Path r1cs;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("artifacts");
+        zkey = dir.resolve("large.zkey");
+        r1cs = dir.resolve("large.r1cs");
+        writeSyntheticZkey(zkey, log2Constraints);
+        writeSyntheticR1cs(r1cs, log2Constraints);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(zkey);
+        Files.deleteIfExists(r1cs);
+        Files.deleteIfExists(dir);
+    }
+
+    @Benchmark
+    public ProvingKey zkeyMapped() throws IOException {
+        return ProvingKey.read(zkey);
+    }
+
+    @Benchmark
+    public ProvingKey zkeyOnHeap() throws IOException {
+        return ProvingKey.fromBytes(Files.readAllBytes(zkey));
+    }
+
+    @Benchmark
+    public R1cs r1csMapped() throws IOException {
+        return R1cs.read(r1cs);
+    }
+
+    @Benchmark
+    public R1cs r1csOnHeap() throws IOException {
+        return R1cs.fromBytes(Files.readAllBytes(r1cs));
+    }
+
+    public static void main(String[] args) throws Exception {
+        Path dir = Files.createTempDirectory("artifacts");
+        try {
+            reportMemory(dir.resolve("large.zkey"), 20);
+        } finally {
+            try (var files = Files.list(dir)) {
+                for (Path file : files.toList()) {
+                    Files.delete(file);
+                }
+            }
+            Files.delete(dir);
+        }
+
+        new Runner(new OptionsBuilder()
+            .include(ArtifactLoadBenchmark.class.getSimpleName())
+            .build()).run();
+    }
+
+    private static void reportMemory(Path zkey, int log2) throws IOException {
+        writeSyntheticZkey(zkey, log2);
+        System.out.printf("2^%d-constraint zkey: %d MB on disk%n", log2, Files.size(zkey) >> 20);
+        for (boolean map : new boolean[] {true, false}) {
+            long heapBefore = usedHeap(), mappedBefore = mappedBytes();
+            long start = System.nanoTime();
+            ProvingKey key = map ? ProvingKey.read(zkey) : ProvingKey.fromBytes(Files.readAllBytes(zkey));
+            long millis = (System.nanoTime() - start) / 1_000_000;
+            System.out.printf("  %-7s loaded in %4d ms, heap %+5d MB, address space mapped %+5d MB (domain %d)%n",
+                map ? "mapped" : "on heap", millis, (usedHeap() - heapBefore) >> 20,
+                (mappedBytes() - mappedBefore) >> 20, key.domainSize());
+        }
+    }
+
+    private static long usedHeap() {
+        System.gc();
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    private static long mappedBytes() {
+        return ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class).stream()
+            .filter(pool -> pool.getName().equals("mapped"))
+            .mapToLong(BufferPoolMXBean::getMemoryUsed)
+            .sum();
+    }
+
+    // Domain 2^k, one variable per constraint and two coefficients each; every point at infinity
+    static void writeSyntheticZkey(Path path, int log2) throws IOException {
+        int n = 1 << log2, variables = n, publicCount = 1;
+        try (SectionWriter out = new SectionWriter(path, "zkey", 9)) {
+            out.add(1, Sections.buffer(4).putInt(1));
+            ByteBuffer header = Sections.buffer(4 + 32 + 4 + 32 + 12 + 3 * 64 + 3 * 128);
+            header.putInt(32);
+            Sections.putInteger(header, Fp.MODULUS);
+            header.putInt(32);
+            Sections.putInteger(header, Fr.MODULUS);
+            header.putInt(variables).putInt(publicCount).putInt(n);
+            out.add(2, header.position(header.capacity()));
+            out.zeros(3, 64L * (publicCount + 1));
+
+            out.begin(4, 4 + 2L * n * 44);
+            out.write(Sections.buffer(4).putInt(2 * n));
+            ByteBuffer chunk = Sections.buffer(CHUNK / 44 * 44);
+            for (int c = 0; c < n; c++) {
+                for (int matrix = 0; matrix < 2; matrix++) {
+                    if (!chunk.hasRemaining()) {
+                        out.write(chunk);
+                        chunk.clear();
+                    }
+                    chunk.putInt(matrix).putInt(c).putInt(c).putLong(1).put(new byte[24]);
+                }
+            }
+            out.write(chunk);
+
+            out.zeros(5, 64L * variables);
+            out.zeros(6, 64L * variables);
+            out.zeros(7, 128L * variables);
+            out.zeros(8, 64L * (variables - publicCount - 1));
+            out.zeros(9, 64L * n);
+        }
+    }
+
+    // 2^k constraints t_c · t_c = t_{c+1} over wires 1, t_0 .. t_{2^k}
+    static void writeSyntheticR1cs(Path path, int log2) throws IOException {
+        int n = 1 << log2, wires = n + 2;
+        try (SectionWriter out = new SectionWriter(path, "r1cs", 2)) {
+            ByteBuffer header = Sections.buffer(4 + 32 + 4 * 4 + 8 + 4);
+            header.putInt(32);
+            Sections.putInteger(header, Fr.MODULUS);
+            header.putInt(wires).putInt(0).putInt(0).putInt(1).putLong(wires).putInt(n);
+            out.add(1, header);
+
+            int constraintBytes = 3 * (4 + 36);
+            out.begin(2, (long) n * constraintBytes);
+            ByteBuffer chunk = Sections.buffer(CHUNK / constraintBytes * constraintBytes);
+            for (int c = 0; c < n; c++) {
+                if (!chunk.hasRemaining()) {
+                    out.write(chunk);
+                    chunk.clear();
+                }
+                for (int wire : new int[] {c + 1, c + 1, c + 2}) {
+                    chunk.putInt(1).putInt(wire);
+                    Sections.putInteger(chunk, BigInteger.ONE);
+                }
+            }
+            out.write(chunk);
+        }
+    }
+
+    /** Streams a sectioned file to disk, for artifacts too large to assemble in memory. */
+    private static final class SectionWriter implements AutoCloseable {
+
+        private final FileChannel out;
+
+        SectionWriter(Path path, String magic, int sections) throws IOException {
+            out = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+            write(Sections.buffer(12)
+                .put(magic.getBytes(java.nio.charset.StandardCharsets.US_ASCII)).putInt(1).putInt(sections));
+        }
+
+        // A whole section from a buffer filled up to its position
+        void add(int type, ByteBuffer body) throws IOException {
+            begin(type, body.position());
+            write(body);
+        }
+
+        void zeros(int type, long length) throws IOException {
+            begin(type, length);
+            ByteBuffer zeros = ByteBuffer.allocate(CHUNK);
+            for (long left = length; left > 0; left -= zeros.limit()) {
+                zeros.clear().limit((int) Math.min(CHUNK, left));
+                while (zeros.hasRemaining()) {
+                    out.write(zeros);
+                }
+            }
+        }
+
+        void begin(int type, long length) throws IOException {
+            write(Sections.buffer(12).putInt(type).putLong(length));
+        }
+
+        // Writes the buffer's content up to its position
+        void write(ByteBuffer filled) throws IOException {
+            filled.flip();
+            while (filled.hasRemaining()) {
+                out.write(filled);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.close();
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.zkpub.in.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zkpub.in.utils.DateOfBirthExtractor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Accuracy and throughput of DateOfBirthExtractor against the regex
+ * cascade it replaced, over the OCR samples in dob-corpus.jsonl. main()
+ * prints per-sample misses and accuracy for both, then runs the JMH
+ * throughput comparison (one operation = the whole corpus).
+ *
+ * Usage: DateOfBirthExtractorBenchmark [--accuracy-only]
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DateOfBirthExtractorBenchmark {
+
+    record Sample(String text, Integer year, String date, String note) {
+    }
+
+    private List<Sample> corpus;
+    private DateOfBirthExtractor extractor;
+
+    @Setup
+    public void setUp() throws IOException {
+        corpus = loadCorpus();
+        extractor = new DateOfBirthExtractor();
+    }
+
+    @Benchmark
+    public void legacyRegex(Blackhole blackhole) {
+        for (Sample sample : corpus) {
+            blackhole.consume(legacyParseBirthYear(sample.text()));
+        }
+    }
+
+    @Benchmark
+    public void extractor(Blackhole blackhole) {
+        for (Sample sample : corpus) {
+            blackhole.consume(extractor.extract(sample.text()));
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        List<Sample> corpus = loadCorpus();
+        DateOfBirthExtractor extractor = new DateOfBirthExtractor();
+
+        int legacyYears = 0;
+        int years = 0;
+        int dates = 0;
+        int withDate = 0;
+        for (Sample sample : corpus) {
+            Integer legacy = legacyParseBirthYear(sample.text());
+            DateOfBirthExtractor.DateOfBirth found = extractor.extract(sample.text()).orElse(null);
+            Integer year = found == null ? null : found.year();
+            String date = found == null || !found.hasFullDate() ? null
+                : String.format("%04d-%02d-%02d", found.year(), found.month(), found.day());
+
+            legacyYears += Objects.equals(legacy, sample.year()) ? 1 : 0;
+            years += Objects.equals(year, sample.year()) ? 1 : 0;
+            if (sample.date() != null) {
+                withDate++;
+                dates += sample.date().equals(date) ? 1 : 0;
+            }
+            if (!Objects.equals(year, sample.year()) || (sample.date() != null && !sample.date().equals(date))) {
+                System.out.printf("miss  %-45s expected %s, got %s%n", sample.note(),
+                    sample.date() != null ? sample.date() : sample.year(), found);
+            }
+        }
+        System.out.printf("%d samples%n", corpus.size());
+        System.out.printf("legacy regex: birth year %d/%d%n", legacyYears, corpus.size());
+        System.out.printf("extractor:    birth year %d/%d, full date %d/%d%n", years, corpus.size(), dates, withDate);
+
+        if (args.length > 0 && args[0].equals("--accuracy-only")) {
+            return;
+        }
+        new Runner(new OptionsBuilder()
+            .include(DateOfBirthExtractorBenchmark.class.getSimpleName())
+            .build()).run();
+    }
+
+    static List<Sample> loadCorpus() throws IOException {
+        ObjectMapper mapper = new ObjectMapper();
+        List<Sample> samples = new ArrayList<>();
+        try (InputStream in = DateOfBirthExtractorBenchmark.class.getResourceAsStream("/dob-corpus.jsonl");
+             BufferedReader reader = new BufferedReader(new InputStreamReader(
+                 Objects.requireNonNull(in, "dob-corpus.jsonl not on the test classpath"), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                JsonNode node = mapper.readTree(line);
+                String dob = node.get("dob").isNull() ? null : node.get("dob").asText();
+                Integer year = dob == null ? null : Integer.valueOf(dob.substring(0, 4));
+                String date = dob != null && dob.length() == 10 ? dob : null;
+                samples.add(new Sample(node.get("text").asText(), year, date, node.get("note").asText()));
+            }
+        }
+        return samples;
+    }
+
+    // The cascade previously in ImageProcessingServiceImpl, kept verbatim as the baseline
+    static Integer legacyParseBirthYear(String text) {
+        Pattern[] patterns = {
+            Pattern.compile("DOB[\\s:]*\\d{1,2}[/-]\\d{1,2}[/-](\\d{4})"),
+            Pattern.compile("Date of Birth[\\s:]*\\d{1,2}[/-]\\d{1,2}[/-](\\d{4})"),
+            Pattern.compile("Birth[\\s:]*\\d{1,2}[/-]\\d{1,2}[/-](\\d{4})"),
+            Pattern.compile("(\\d{4})[/-]\\d{1,2}[/-]\\d{1,2}"),
+            Pattern.compile("\\b(19\\d{2}|20\\d{2})\\b")
+        };
+        for (Pattern pattern : patterns) {
+            Matcher matcher = pattern.matcher(text);
+            if (matcher.find()) {
+                int year = Integer.parseInt(matcher.group(1));
+                if (year >= 1900 && year <= 2024) {
+                    return year;
+                }
+            }
+        }
+        return null;
+    }
+}
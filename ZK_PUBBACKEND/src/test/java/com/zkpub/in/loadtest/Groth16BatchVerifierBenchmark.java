@@ -0,0 +1,149 @@
+package com.zkpub.in.loadtest;
+
+import com.zkpub.in.zk.G1Point;
+import com.zkpub.in.zk.Groth16Proof;
+import com.zkpub.in.zk.Groth16Verifier;
+import com.zkpub.in.zk.PreparedVerificationKey;
+import com.zkpub.in.zk.Trapdoor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Proofs verified per second by Groth16Verifier.verifyBatch against
+ * one-at-a-time verify, for batches of 1, 16, 128 and 1024 proofs under
+ * one key. batchWithInvalid corrupts one proof per batch so the
+ * bisection path is measured too. main() checks that the batch result
+ * flags exactly the corrupted proof, then runs JMH.
+ *
+ * Usage: Groth16BatchVerifierBenchmark [--check-only]
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+public class Groth16BatchVerifierBenchmark {
+
+    private static final int MAX_BATCH = 1024;
+
+    @Param({"1", "16", "128", "1024"})
+    public int batchSize;
+
+    private PreparedVerificationKey verificationKey;
+    private List<Groth16Proof> proofs;
+    private List<List<BigInteger>> signals;
+    private List<Groth16Proof> proofsWithInvalid;
+
+    @Setup
+    public void setUp() {
+        Fixture fixture = Fixture.generate(batchSize);
+        verificationKey = fixture.verificationKey();
+        proofs = fixture.proofs();
+        signals = fixture.signals();
+        proofsWithInvalid = withInvalidProof(proofs, batchSize / 2);
+    }
+
+    // Throughput is reported per proof, so the batch sizes compare directly
+    @Benchmark
+    @OperationsPerInvocation(MAX_BATCH)
+    public int batch() {
+        return countValid(() -> Groth16Verifier.verifyBatch(verificationKey, proofs, signals));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(MAX_BATCH)
+    public int batchWithInvalid() {
+        return countValid(() -> Groth16Verifier.verifyBatch(verificationKey, proofsWithInvalid, signals));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(MAX_BATCH)
+    public int oneByOne() {
+        int valid = 0;
+        for (int round = 0; round < MAX_BATCH / batchSize; round++) {
+            for (int i = 0; i < batchSize; i++) {
+                if (Groth16Verifier.verify(verificationKey, proofs.get(i), signals.get(i))) {
+                    valid++;
+                }
+            }
+        }
+        return valid;
+    }
+
+    // Runs enough batches to cover MAX_BATCH proofs
+    private int countValid(Supplier<boolean[]> batch) {
+        int valid = 0;
+        for (int round = 0; round < MAX_BATCH / batchSize; round++) {
+            for (boolean ok : batch.get()) {
+                if (ok) {
+                    valid++;
+                }
+            }
+        }
+        return valid;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Fixture fixture = Fixture.generate(16);
+        List<Groth16Proof> corrupted = withInvalidProof(fixture.proofs(), 5);
+        long start = System.nanoTime();
+        boolean[] valid = Groth16Verifier.verifyBatch(fixture.verificationKey(), corrupted, fixture.signals());
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        for (int i = 0; i < valid.length; i++) {
+            if (valid[i] == (i == 5)) {
+                throw new IllegalStateException("Batch verification misjudged proof " + i);
+            }
+        }
+        System.out.printf("16-proof batch with one invalid proof: flagged correctly in %d ms%n", elapsedMs);
+        if (args.length > 0 && args[0].equals("--check-only")) {
+            return;
+        }
+
+        new Runner(new OptionsBuilder()
+            .include(Groth16BatchVerifierBenchmark.class.getSimpleName())
+            .build()).run();
+    }
+
+    private static List<Groth16Proof> withInvalidProof(List<Groth16Proof> proofs, int index) {
+        List<Groth16Proof> copy = new ArrayList<>(proofs);
+        Groth16Proof p = copy.get(index);
+        copy.set(index, new Groth16Proof(p.a(), p.b(), p.c().add(G1Point.GENERATOR)));
+        return copy;
+    }
+
+    record Fixture(PreparedVerificationKey verificationKey, List<Groth16Proof> proofs, List<List<BigInteger>> signals) {
+
+        static Fixture generate(int count) {
+            Random random = new Random(42);
+            Trapdoor trapdoor = Trapdoor.generate(random);
+            List<Groth16Proof> proofs = new ArrayList<>(count);
+            List<List<BigInteger>> signals = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                List<BigInteger> s = Trapdoor.signals(random);
+                signals.add(s);
+                proofs.add(trapdoor.prove(s, random));
+            }
+            return new Fixture(PreparedVerificationKey.prepare(trapdoor.verificationKey()), proofs, signals);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.zkpub.in.loadtest;
+
+import com.zkpub.in.zk.ChainCircuit;
+import com.zkpub.in.zk.Groth16Proof;
+import com.zkpub.in.zk.Groth16Prover;
+import com.zkpub.in.zk.ProvingKey;
+import com.zkpub.in.zk.TrustedSetup;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigInteger;
+import java.security.SecureRandom;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Groth16 proof time against core count. Proving keys come from a
+ * TrustedSetup with known secrets that writes a real .zkey, and the
+ * circuit is a ChainCircuit sized to the requested constraint count.
+ * "threads" is the size of the fork-join pool the proof runs in.
+ * Groth16ProverTest checks that these proofs verify.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class Groth16ProverBenchmark {
+
+    @Param({"4096", "65536"})
+    public int constraints;
+
+    @Param({"1", "2", "4", "8"})
+    public int threads;
+
+    private ProvingKey provingKey;
+    private List<BigInteger> witness;
+    private ForkJoinPool pool;
+    private final Random random = new SecureRandom();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ChainCircuit circuit = ChainCircuit.chain(constraints);
+        provingKey = ProvingKey.fromBytes(TrustedSetup.generate(circuit.r1cs(), new Random(7)).zkey());
+        witness = circuit.witness();
+        pool = new ForkJoinPool(threads);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public Groth16Proof prove() {
+        return pool.invoke(ForkJoinTask.adapt(() -> Groth16Prover.prove(provingKey, witness, random)));
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+            .include(Groth16ProverBenchmark.class.getSimpleName())
+            .build()).run();
+    }
+}
@@ -0,0 +1,108 @@
+package com.zkpub.in.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.zkpub.in.zk.Groth16Proof;
+import com.zkpub.in.zk.Groth16Verifier;
+import com.zkpub.in.zk.PreparedVerificationKey;
+import com.zkpub.in.zk.Trapdoor;
+import com.zkpub.in.zk.VerificationKey;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigInteger;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of a single Groth16 verification over BN254. There are no
+ * snarkjs artifacts in the repo, so the benchmark verifies a proof minted
+ * from a {@link Trapdoor} key, which costs the verifier exactly what a
+ * real circuit with two public signals would. "prepared" variants use a
+ * PreparedVerificationKey, as the service does. Groth16VerifierTest
+ * covers acceptance and rejection.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class Groth16VerifierBenchmark {
+
+    private VerificationKey verificationKey;
+    private PreparedVerificationKey preparedKey;
+    private Groth16Proof proof;
+    private List<BigInteger> publicSignals;
+    private JsonNode proofJson;
+
+    @Setup
+    public void setUp() {
+        Instance instance = Instance.generate(new Random(42));
+        verificationKey = instance.verificationKey();
+        preparedKey = PreparedVerificationKey.prepare(verificationKey);
+        proof = instance.proof();
+        publicSignals = instance.publicSignals();
+        proofJson = instance.proofJson(new ObjectMapper());
+    }
+
+    @Benchmark
+    public boolean verify() {
+        return Groth16Verifier.verify(verificationKey, proof, publicSignals);
+    }
+
+    @Benchmark
+    public boolean verifyPrepared() {
+        return Groth16Verifier.verify(preparedKey, proof, publicSignals);
+    }
+
+    // Includes the curve and G2 subgroup checks an untrusted proof goes through
+    @Benchmark
+    public boolean parseAndVerifyPrepared() {
+        return Groth16Verifier.verify(preparedKey, Groth16Proof.fromJson(proofJson), publicSignals);
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+            .include(Groth16VerifierBenchmark.class.getSimpleName())
+            .build()).run();
+    }
+
+    record Instance(VerificationKey verificationKey, Groth16Proof proof, List<BigInteger> publicSignals) {
+
+        static Instance generate(Random random) {
+            Trapdoor trapdoor = Trapdoor.generate(random);
+            List<BigInteger> signals = Trapdoor.signals(random);
+            return new Instance(trapdoor.verificationKey(), trapdoor.prove(signals, random), signals);
+        }
+
+        JsonNode proofJson(ObjectMapper objectMapper) {
+            ObjectNode json = objectMapper.createObjectNode();
+            ArrayNode piA = json.putArray("pi_a");
+            piA.add(proof.a().x().toString()).add(proof.a().y().toString()).add("1");
+            BigInteger[] b = proof.b().coordinates();
+            ArrayNode piB = json.putArray("pi_b");
+            piB.addArray().add(b[0].toString()).add(b[1].toString());
+            piB.addArray().add(b[2].toString()).add(b[3].toString());
+            piB.addArray().add("1").add("0");
+            ArrayNode piC = json.putArray("pi_c");
+            piC.add(proof.c().x().toString()).add(proof.c().y().toString()).add("1");
+            json.put("protocol", "groth16");
+            json.put("curve", "bn128");
+            return json;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.zkpub.in.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zkpub.in.service.OcrImage;
+import com.zkpub.in.service.OcrImagePreprocessor;
+import com.zkpub.in.service.RemoteOcrEngine;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Bytes on the wire and end-to-end OCR latency for a phone-camera sized,
+ * slightly rotated ID photo, sent as-is ("raw") and after
+ * OcrImagePreprocessor ("preprocessed"). The stub's service time scales
+ * with the payload to approximate an OCR backend whose cost tracks the
+ * pixels it is given.
+ *
+ * Usage: OcrPreprocessBenchmark [requests] [concurrency] [widthPx] [skewDegrees]
+ */
+public class OcrPreprocessBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        System.setProperty("java.awt.headless", "true");
+        int requests = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+        int concurrency = args.length > 1 ? Integer.parseInt(args[1]) : 16;
+        int width = args.length > 2 ? Integer.parseInt(args[2]) : 4032;
+        double skew = args.length > 3 ? Double.parseDouble(args[3]) : 4;
+
+        byte[] jpeg = syntheticIdPhoto(width, skew);
+        OcrImage raw = OcrImage.of(jpeg, "id.jpg", "image/jpeg");
+        OcrImagePreprocessor preprocessor = new OcrImagePreprocessor(true, 1600, true, "");
+
+        try (StubOcrServer stub = new StubOcrServer(0, 50)) {
+            RemoteOcrEngine engine = new RemoteOcrEngine(new ObjectMapper(), stub.url(), "stub-key", 3_000, 30_000);
+
+            run("raw", stub, requests, concurrency, () -> engine.recognize(raw));
+            run("preprocessed", stub, requests, concurrency,
+                () -> preprocessor.prepareAsync(raw).thenCompose(engine::recognize));
+        } finally {
+            preprocessor.stop();
+        }
+    }
+
+    private interface Flow {
+        CompletableFuture<String> start();
+    }
+
+    private static void run(String label, StubOcrServer stub, int requests, int concurrency, Flow flow) {
+        for (int i = 0; i < Math.min(20, requests); i++) {
+            flow.start().join();
+        }
+        long bytesBefore = stub.bytesReceived();
+        long[] latencies = new long[requests];
+        long start = System.nanoTime();
+        List<CompletableFuture<Void>> inFlight = new ArrayList<>();
+        for (int i = 0; i < requests; i++) {
+            int index = i;
+            long sentAt = System.nanoTime();
+            inFlight.add(flow.start().thenAccept(text -> latencies[index] = System.nanoTime() - sentAt));
+            if (inFlight.size() >= concurrency) {
+                CompletableFuture.anyOf(inFlight.toArray(CompletableFuture[]::new)).join();
+                inFlight.removeIf(CompletableFuture::isDone);
+            }
+        }
+        CompletableFuture.allOf(inFlight.toArray(CompletableFuture[]::new)).join();
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        Arrays.sort(latencies);
+        System.out.printf("%-13s %.0f KiB/request, %.1f req/s, p50 %.1f ms, p99 %.1f ms%n",
+            label, (stub.bytesReceived() - bytesBefore) / 1024.0 / requests, requests / seconds,
+            latencies[requests / 2] / 1e6, latencies[(int) (requests * 0.99)] / 1e6);
+    }
+
+    private static byte[] syntheticIdPhoto(int width, double skewDegrees) throws Exception {
+        int height = width * 54 / 86;
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        try {
+            g.setColor(new Color(236, 232, 220));
+            g.fillRect(0, 0, width, height);
+            g.rotate(Math.toRadians(skewDegrees), width / 2.0, height / 2.0);
+            g.setColor(Color.DARK_GRAY);
+            g.setFont(new Font(Font.SANS_SERIF, Font.BOLD, width / 40));
+            String[] lines = {"GOVERNMENT OF INDIA", "Name: John Doe", "DOB: 15/03/1995", "ID: 1234 5678 9012"};
+            for (int i = 0; i < lines.length; i++) {
+                g.drawString(lines[i], width / 8, height / 4 + i * height / 7);
+            }
+        } finally {
+            g.dispose();
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "jpg", out);
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,103 @@
+package com.zkpub.in.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zkpub.in.service.OnChainVerifier;
+import com.zkpub.in.service.OnChainVerifierImpl;
+import com.zkpub.in.utils.EthRpcClient;
+import com.zkpub.in.zk.Groth16Proof;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * On-chain verifications per second against the stub node, sending each
+ * eth_call as its own JSON-RPC request (maxBatchSize=1) against grouping
+ * pending calls into batches. Every invocation puts 100 verifications in
+ * flight at once, as a burst of /verify requests would. The stub runs
+ * without a verification key here, so the numbers are the RPC path rather
+ * than pairing checks.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OnChainVerifierBenchmark {
+
+    private static final int BURST = 100;
+    private static final String VERIFIER_ADDRESS = "0x5fbdb2315678afecb367f032d93f642f64180aa3";
+
+    @Param({"1", "100"})
+    public int maxBatchSize;
+
+    private StubJsonRpcServer node;
+    private OnChainVerifierImpl verifier;
+    private Groth16Proof proof;
+    private List<BigInteger> publicSignals;
+
+    @Setup
+    public void setUp() throws Exception {
+        Groth16VerifierBenchmark.Instance instance = Groth16VerifierBenchmark.Instance.generate(new Random(42));
+        proof = instance.proof();
+        publicSignals = instance.publicSignals();
+        node = new StubJsonRpcServer(0);
+        verifier = verifier(node, maxBatchSize);
+    }
+
+    @TearDown
+    public void tearDown() throws InterruptedException {
+        verifier.stop();
+        node.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BURST)
+    public int burst() {
+        return verifyBurst(verifier, proof, publicSignals);
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+            .include(OnChainVerifierBenchmark.class.getSimpleName())
+            .build()).run();
+    }
+
+    private static OnChainVerifierImpl verifier(StubJsonRpcServer node, int maxBatchSize) {
+        EthRpcClient client = new EthRpcClient(new ObjectMapper(), "http://localhost:" + node.port(), 10_000);
+        return new OnChainVerifierImpl(client, VERIFIER_ADDRESS, maxBatchSize, 1, 4);
+    }
+
+    private static int verifyBurst(OnChainVerifier verifier, Groth16Proof proof, List<BigInteger> publicSignals) {
+        List<CompletableFuture<Boolean>> futures = new ArrayList<>(BURST);
+        for (int i = 0; i < BURST; i++) {
+            futures.add(verifier.verify(proof, publicSignals));
+        }
+        int accepted = 0;
+        for (CompletableFuture<Boolean> future : futures) {
+            if (future.join()) {
+                accepted++;
+            }
+        }
+        return accepted;
+    }
+}
@@ -0,0 +1,81 @@
+package com.zkpub.in.loadtest;
+
+import com.zkpub.in.zk.Poseidon;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Native Poseidon throughput in hashes per second, one at a time and as a
+ * batch of 1024 spread over the fork-join pool, for the 2-input width
+ * (Merkle nodes) and the 4-input width the age commitment uses.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PoseidonBenchmark {
+
+    private static final int BATCH = 1024;
+
+    @Param({"2", "4"})
+    public int inputs;
+
+    private List<List<BigInteger>> batch;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        batch = randomInputs(BATCH, inputs, new Random(1));
+    }
+
+    @Benchmark
+    public BigInteger hash() {
+        next = (next + 1) & (BATCH - 1);
+        return Poseidon.hash(batch.get(next));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public BigInteger[] hashAll() {
+        return Poseidon.hashAll(batch);
+    }
+
+    private static List<List<BigInteger>> randomInputs(int count, int width, Random random) {
+        List<List<BigInteger>> out = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            List<BigInteger> item = new ArrayList<>(width);
+            for (int j = 0; j < width; j++) {
+                item.add(new BigInteger(253, random));
+            }
+            out.add(item);
+        }
+        return out;
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+            .include(PoseidonBenchmark.class.getSimpleName())
+            .build()).run();
+    }
+
+}
@@ -0,0 +1,108 @@
+package com.zkpub.in.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zkpub.in.zk.CompactProof;
+import com.zkpub.in.zk.G1Point;
+import com.zkpub.in.zk.G2Point;
+import com.zkpub.in.zk.Groth16Proof;
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.DocumentCodec;
+import org.bson.types.Binary;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Stored proof size and read cost: the snarkjs payload as the nested BSON
+ * document zk_proofs used to hold, against CompactProof as BSON binary.
+ * The bson* benchmarks are what loading a document costs; the proof*
+ * ones add getting a validated Groth16Proof out of it (JSON strings or
+ * point decompression, then the G2 subgroup check either way).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProofCodecBenchmark {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final DocumentCodec CODEC = new DocumentCodec();
+    // The age circuit's public signals: commitment, minAge, currentYear, publicHash
+    private static final int SIGNALS = 4;
+
+    private RawBsonDocument nested;
+    private RawBsonDocument binary;
+
+    @Setup
+    public void setUp() {
+        CompactProof proof = randomProof(new Random(1));
+        nested = nestedDocument(proof);
+        binary = binaryDocument(proof);
+    }
+
+    @Benchmark
+    public Document bsonNested() {
+        return nested.decode(CODEC);
+    }
+
+    @Benchmark
+    public Document bsonBinary() {
+        return binary.decode(CODEC);
+    }
+
+    @Benchmark
+    public Groth16Proof proofFromNested() {
+        Document document = nested.decode(CODEC);
+        return CompactProof.fromJson(MAPPER.valueToTree(document.get("proof", Document.class))).proof();
+    }
+
+    @Benchmark
+    public Groth16Proof proofFromBinary() {
+        Document document = binary.decode(CODEC);
+        return CompactProof.fromBytes(document.get("compactProof", Binary.class).getData()).proof();
+    }
+
+    static CompactProof randomProof(Random random) {
+        List<BigInteger> signals = new ArrayList<>(SIGNALS);
+        for (int i = 0; i < SIGNALS; i++) {
+            signals.add(new BigInteger(253, random));
+        }
+        return CompactProof.of(new Groth16Proof(
+            G1Point.GENERATOR.multiply(new BigInteger(253, random)),
+            G2Point.GENERATOR.multiply(new BigInteger(253, random)),
+            G1Point.GENERATOR.multiply(new BigInteger(253, random))), signals);
+    }
+
+    // {proof: {payload}} as the client's Map was stored
+    private static RawBsonDocument nestedDocument(CompactProof proof) {
+        return new RawBsonDocument(new Document("proof", Document.parse(proof.toJson().toString())), CODEC);
+    }
+
+    private static RawBsonDocument binaryDocument(CompactProof proof) {
+        return new RawBsonDocument(new Document("compactProof", new Binary(proof.toBytes())), CODEC);
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+            .include(ProofCodecBenchmark.class.getSimpleName())
+            .build()).run();
+    }
+}
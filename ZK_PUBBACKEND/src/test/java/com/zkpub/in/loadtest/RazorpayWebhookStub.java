@@ -0,0 +1,86 @@
+package com.zkpub.in.loadtest;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fires signed Razorpay-style webhooks at a running backend, including
+ * provider-style duplicate deliveries, and prints the status code mix.
+ *
+ * Usage: RazorpayWebhookStub [url] [secret] [count] [concurrency] [duplicateRate]
+ * The secret defaults to $RAZORPAY_WEBHOOK_SECRET, as the backend reads it.
+ */
+public class RazorpayWebhookStub {
+
+    public static void main(String[] args) throws Exception {
+        String url = args.length > 0 ? args[0] : "http://localhost:2006/api/payments/webhook/razorpay";
+        String secret = args.length > 1 ? args[1] : System.getenv("RAZORPAY_WEBHOOK_SECRET");
+        if (secret == null || secret.isBlank()) {
+            throw new IllegalArgumentException("Pass the webhook secret or set RAZORPAY_WEBHOOK_SECRET");
+        }
+        int count = args.length > 2 ? Integer.parseInt(args[2]) : 10_000;
+        int concurrency = args.length > 3 ? Integer.parseInt(args[3]) : 64;
+        double duplicateRate = args.length > 4 ? Double.parseDouble(args[4]) : 0.2;
+
+        HttpClient client = HttpClient.newBuilder().build();
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+
+        Map<Integer, AtomicInteger> statusCounts = new ConcurrentHashMap<>();
+        ExecutorService pool = Executors.newFixedThreadPool(concurrency);
+        long start = System.nanoTime();
+
+        for (int i = 0; i < count; i++) {
+            // Re-send an earlier payment id to exercise the dedupe path
+            int paymentNo = i > 0 && ThreadLocalRandom.current().nextDouble() < duplicateRate
+                ? ThreadLocalRandom.current().nextInt(i) : i;
+            String body = payload("pay_stub" + paymentNo);
+            String signature;
+            synchronized (mac) {
+                signature = HexFormat.of().formatHex(mac.doFinal(body.getBytes(StandardCharsets.UTF_8)));
+            }
+
+            pool.submit(() -> {
+                HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+                    .header("Content-Type", "application/json")
+                    .header("X-Razorpay-Signature", signature)
+                    .POST(HttpRequest.BodyPublishers.ofString(body))
+                    .build();
+                int status;
+                try {
+                    status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                } catch (Exception e) {
+                    status = -1;
+                }
+                statusCounts.computeIfAbsent(status, s -> new AtomicInteger()).incrementAndGet();
+            });
+        }
+
+        pool.shutdown();
+        pool.awaitTermination(10, TimeUnit.MINUTES);
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.printf("Sent %d webhooks in %.2fs (%.0f req/s)%n", count, seconds, count / seconds);
+        statusCounts.forEach((status, n) -> System.out.printf("  HTTP %d: %d%n", status, n.get()));
+    }
+
+    private static String payload(String paymentId) {
+        return "{\"entity\":\"event\",\"event\":\"payment.captured\",\"contains\":[\"payment\"],"
+            + "\"payload\":{\"payment\":{\"entity\":{\"id\":\"" + paymentId + "\",\"amount\":50000,"
+            + "\"currency\":\"INR\",\"status\":\"captured\",\"method\":\"upi\"}}},"
+            + "\"created_at\":" + System.currentTimeMillis() / 1000 + "}";
+    }
+}
@@ -0,0 +1,118 @@
+package com.zkpub.in.loadtest;
+
+import com.zkpub.in.utils.OffHeapBloomFilter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the seen-proof check for a proof nobody has used, which is the
+ * path every first-time verification takes. The filter is filled to its
+ * configured capacity with random nullifiers; lookups use nullifiers that
+ * were never added. "unseenHex" includes decoding the hex string the
+ * service receives. main() first measures the false-positive rate at that
+ * fill, then runs JMH.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-XX:MaxDirectMemorySize=1g")
+public class SeenProofFilterBenchmark {
+
+    private static final int PROBES = 1 << 16;
+
+    @Param({"1000000", "10000000"})
+    public long entries;
+
+    private OffHeapBloomFilter filter;
+    private byte[][] unseen;
+    private String[] unseenHex;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        filter = filled(entries, new Random(1));
+        Random random = new Random(2);
+        unseen = new byte[PROBES][];
+        unseenHex = new String[PROBES];
+        for (int i = 0; i < PROBES; i++) {
+            unseen[i] = nullifier(random);
+            unseenHex[i] = HexFormat.of().formatHex(unseen[i]);
+        }
+    }
+
+    @Benchmark
+    public boolean unseen() {
+        return filter.mightContain(unseen[next++ & (PROBES - 1)]);
+    }
+
+    @Benchmark
+    public boolean unseenHex() {
+        return filter.mightContain(HexFormat.of().parseHex(unseenHex[next++ & (PROBES - 1)]));
+    }
+
+    public static void main(String[] args) throws Exception {
+        long entries = args.length > 0 && !args[0].startsWith("--") ? Long.parseLong(args[0]) : 1_000_000;
+        OffHeapBloomFilter filter = filled(entries, new Random(1));
+
+        Random random = new Random(1);
+        for (long i = 0; i < entries; i++) {
+            if (!filter.mightContain(nullifier(random))) {
+                throw new IllegalStateException("Filter lost an added nullifier");
+            }
+        }
+        random = new Random(3);
+        int probes = 1_000_000, hits = 0;
+        for (int i = 0; i < probes; i++) {
+            if (filter.mightContain(nullifier(random))) {
+                hits++;
+            }
+        }
+        System.out.printf("%d entries in %d KB, %d hashes: no false negatives, false-positive rate %.5f%n",
+            entries, filter.sizeInBytes() / 1024, filter.hashCount(), (double) hits / probes);
+        if (args.length > 0 && args[args.length - 1].equals("--check-only")) {
+            return;
+        }
+
+        new Runner(new OptionsBuilder()
+            .include(SeenProofFilterBenchmark.class.getSimpleName())
+            .build()).run();
+    }
+
+    // Sized like the service: expected entries at a 0.1% false-positive rate
+    private static OffHeapBloomFilter filled(long entries, Random random) {
+        OffHeapBloomFilter filter = new OffHeapBloomFilter(entries, 0.001);
+        for (long i = 0; i < entries; i++) {
+            filter.add(nullifier(random));
+        }
+        return filter;
+    }
+
+    // Nullifiers are SHA-256 outputs; hashing a random seed gives the same distribution
+    private static byte[] nullifier(Random random) {
+        try {
+            byte[] seed = new byte[8];
+            random.nextBytes(seed);
+            return MessageDigest.getInstance("SHA-256").digest(seed);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package com.zkpub.in.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import com.zkpub.in.zk.G1Point;
+import com.zkpub.in.zk.G2Point;
+import com.zkpub.in.zk.Groth16Proof;
+import com.zkpub.in.zk.Groth16Verifier;
+import com.zkpub.in.zk.Keccak256;
+import com.zkpub.in.zk.PreparedVerificationKey;
+import com.zkpub.in.zk.VerificationKey;
+import com.zkpub.in.zk.VerifierCalldata;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigInteger;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-process stand-in for an Ethereum node, for running the backend's
+ * JSON-RPC clients without anvil or hardhat. The chain head advances one
+ * block per second; every transaction hash is treated as mined a few
+ * blocks after it is first queried, and hashes ending in "dead" revert.
+ * Every transaction pays the same configurable amount to the same payee.
+ *
+ * eth_call answers verifyProof as the deployed Verifier.sol would: with a
+ * verification key set, by running the pairing check; without one, like
+ * the placeholder contract, which only requires non-zero proof points.
+ *
+ * Usage: StubJsonRpcServer [port]
+ */
+public final class StubJsonRpcServer implements AutoCloseable {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newFixedThreadPool(8);
+    private final long startMillis = System.currentTimeMillis();
+    private final AtomicInteger requests = new AtomicInteger();
+    private volatile PreparedVerificationKey verificationKey;
+    private volatile String payeeAddress = "0x70997970c51812dc3a010c7d01b50e0d17dc79c8";
+    private volatile BigInteger paymentWei = BigInteger.TEN.pow(18);
+
+    public StubJsonRpcServer(int port) throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", port), 0);
+        server.createContext("/", this::handle);
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    public static void main(String[] args) throws Exception {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 8545;
+        new StubJsonRpcServer(port);
+        System.out.println("Stub JSON-RPC node listening on http://localhost:" + port);
+    }
+
+    public int port() {
+        return server.getAddress().getPort();
+    }
+
+    // The key eth_call checks proofs against; null accepts any proof with non-zero points
+    public void setVerificationKey(VerificationKey key) {
+        verificationKey = key == null ? null : PreparedVerificationKey.prepare(key);
+    }
+
+    // The recipient and value every transaction reports
+    public void setPayment(String to, BigInteger valueWei) {
+        payeeAddress = to;
+        paymentWei = valueWei;
+    }
+
+    // Number of HTTP requests served, i.e. batches rather than calls
+    public int requestCount() {
+        return requests.get();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        JsonNode request = objectMapper.readTree(exchange.getRequestBody());
+        JsonNode response;
+        if (request.isArray()) {
+            ArrayNode batch = objectMapper.createArrayNode();
+            request.forEach(call -> batch.add(answer(call)));
+            response = batch;
+        } else {
+            response = answer(request);
+        }
+
+        byte[] body = objectMapper.writeValueAsBytes(response);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private ObjectNode answer(JsonNode call) {
+        ObjectNode reply = objectMapper.createObjectNode();
+        reply.put("jsonrpc", "2.0");
+        reply.set("id", call.get("id"));
+        String method = call.path("method").asText();
+        JsonNode params = call.path("params");
+
+        switch (method) {
+            case "eth_chainId" -> reply.put("result", "0x7a69");
+            case "eth_blockNumber" -> reply.put("result", hex(headBlock()));
+            case "eth_getTransactionReceipt" -> reply.set("result", receipt(params.path(0).asText()));
+            case "eth_getTransactionByHash" -> reply.set("result", transaction(params.path(0).asText()));
+            case "eth_call" -> {
+                try {
+                    reply.put("result", verifyProof(params.path(0).path("data").asText()));
+                } catch (IllegalArgumentException e) {
+                    ObjectNode error = reply.putObject("error");
+                    error.put("code", 3);
+                    error.put("message", "execution reverted: " + e.getMessage());
+                }
+            }
+            default -> {
+                ObjectNode error = reply.putObject("error");
+                error.put("code", -32601);
+                error.put("message", "Method not found: " + method);
+            }
+        }
+        return reply;
+    }
+
+    private long headBlock() {
+        return 100 + (System.currentTimeMillis() - startMillis) / 1000;
+    }
+
+    private JsonNode receipt(String txHash) {
+        // Deterministic "mined at" block derived from the hash
+        long minedAt = 95 + Math.floorMod(txHash.hashCode(), 10);
+        if (minedAt > headBlock()) {
+            return objectMapper.nullNode();
+        }
+        ObjectNode receipt = objectMapper.createObjectNode();
+        receipt.put("transactionHash", txHash);
+        receipt.put("blockNumber", hex(minedAt));
+        receipt.put("status", txHash.endsWith("dead") ? "0x0" : "0x1");
+        return receipt;
+    }
+
+    private JsonNode transaction(String txHash) {
+        ObjectNode tx = objectMapper.createObjectNode();
+        tx.put("hash", txHash);
+        tx.put("to", payeeAddress);
+        tx.put("value", "0x" + paymentWei.toString(16));
+        return tx;
+    }
+
+    // Decodes verifyProof calldata and returns the ABI-encoded bool; throws to revert
+    private String verifyProof(String data) {
+        String hex = data.startsWith("0x") ? data.substring(2) : data;
+        int words = (hex.length() - 8) / 64;
+        if (hex.length() < 8 || (hex.length() - 8) % 64 != 0 || words < 8) {
+            throw new IllegalArgumentException("bad calldata");
+        }
+        byte[] selector = Keccak256.digest(VerifierCalldata.signature(words - 8).getBytes(StandardCharsets.US_ASCII));
+        if (!hex.substring(0, 8).equals(HexFormat.of().formatHex(selector, 0, 4))) {
+            throw new IllegalArgumentException("unknown selector " + hex.substring(0, 8));
+        }
+        BigInteger[] w = new BigInteger[words];
+        for (int i = 0; i < words; i++) {
+            w[i] = new BigInteger(hex.substring(8 + 64 * i, 8 + 64 * (i + 1)), 16);
+        }
+        PreparedVerificationKey key = verificationKey;
+        boolean valid;
+        if (key == null) {
+            for (int i = 0; i < 8; i++) {
+                if (w[i].signum() == 0) {
+                    throw new IllegalArgumentException("invalid proof");
+                }
+            }
+            valid = true;
+        } else {
+            // b arrives as [[x1, x0], [y1, y0]]
+            Groth16Proof proof = new Groth16Proof(G1Point.of(w[0], w[1]), G2Point.of(w[3], w[2], w[5], w[4]), G1Point.of(w[6], w[7]));
+            List<BigInteger> signals = List.of(w).subList(8, words);
+            valid = Groth16Verifier.verify(key, proof, signals);
+        }
+        return "0x" + "0".repeat(63) + (valid ? "1" : "0");
+    }
+
+    private static String hex(long value) {
+        return "0x" + Long.toHexString(value);
+    }
+}
@@ -0,0 +1,124 @@
+package com.zkpub.in.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import com.zkpub.in.service.OcrImage;
+import com.zkpub.in.service.RemoteOcrEngine;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Embedded stand-in for the OCR API. It drains the multipart body, waits a
+ * configurable service time and answers in the API Ninjas word-list
+ * format. Running main() also drives it through RemoteOcrEngine and prints
+ * latency percentiles and throughput, so the client can be measured
+ * offline.
+ *
+ * Usage: StubOcrServer [requests] [concurrency] [imageKiB] [serviceMillis]
+ */
+public class StubOcrServer implements AutoCloseable {
+
+    static final String RESPONSE = "[{\"text\":\"Name:\"},{\"text\":\"John\"},{\"text\":\"Doe\"},"
+        + "{\"text\":\"DOB:\"},{\"text\":\"15/03/1995\"},{\"text\":\"ID:\"},{\"text\":\"123456789\"}]";
+
+    private final HttpServer server;
+    private final long serviceMillis;
+    private final LongAdder bytesReceived = new LongAdder();
+
+    public StubOcrServer(int port, long serviceMillis) throws IOException {
+        this.serviceMillis = serviceMillis;
+        server = HttpServer.create(new InetSocketAddress("localhost", port), 0);
+        server.createContext("/v1/imagetotext", this::handle);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+    }
+
+    public String url() {
+        return "http://localhost:" + server.getAddress().getPort() + "/v1/imagetotext";
+    }
+
+    public long bytesReceived() {
+        return bytesReceived.sum();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (InputStream body = exchange.getRequestBody()) {
+            bytesReceived.add(body.transferTo(OutputStream.nullOutputStream()));
+        }
+        if (serviceMillis > 0) {
+            try {
+                Thread.sleep(serviceMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        byte[] response = RESPONSE.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, response.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(response);
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        int requests = args.length > 0 ? Integer.parseInt(args[0]) : 2_000;
+        int concurrency = args.length > 1 ? Integer.parseInt(args[1]) : 32;
+        int imageKiB = args.length > 2 ? Integer.parseInt(args[2]) : 2_048;
+        long serviceMillis = args.length > 3 ? Long.parseLong(args[3]) : 50;
+
+        byte[] image = new byte[imageKiB * 1024];
+        ThreadLocalRandom.current().nextBytes(image);
+        OcrImage upload = OcrImage.of(new MockMultipartFile("image", "id.jpg", "image/jpeg", image));
+
+        try (StubOcrServer stub = new StubOcrServer(0, serviceMillis)) {
+            RemoteOcrEngine client = new RemoteOcrEngine(new ObjectMapper(), stub.url(), "stub-key", 3_000, 15_000);
+
+            // Warm up the connection pool and JIT
+            for (int i = 0; i < Math.min(100, requests); i++) {
+                client.recognize(upload).join();
+            }
+
+            long[] latencies = new long[requests];
+            long start = System.nanoTime();
+            List<CompletableFuture<Void>> inFlight = new ArrayList<>();
+            for (int i = 0; i < requests; i++) {
+                int index = i;
+                long sentAt = System.nanoTime();
+                inFlight.add(client.recognize(upload)
+                    .thenAccept(result -> latencies[index] = System.nanoTime() - sentAt));
+                if (inFlight.size() >= concurrency) {
+                    CompletableFuture.anyOf(inFlight.toArray(CompletableFuture[]::new)).join();
+                    inFlight.removeIf(CompletableFuture::isDone);
+                }
+            }
+            CompletableFuture.allOf(inFlight.toArray(CompletableFuture[]::new)).join();
+            double seconds = (System.nanoTime() - start) / 1e9;
+
+            Arrays.sort(latencies);
+            System.out.printf("%d requests of %d KiB, concurrency %d, stub service time %d ms%n",
+                requests, imageKiB, concurrency, serviceMillis);
+            System.out.printf("throughput %.1f req/s%n", requests / seconds);
+            System.out.printf("latency p50 %.1f ms, p99 %.1f ms, max %.1f ms%n",
+                latencies[requests / 2] / 1e6, latencies[(int) (requests * 0.99)] / 1e6,
+                latencies[requests - 1] / 1e6);
+        }
+    }
+}
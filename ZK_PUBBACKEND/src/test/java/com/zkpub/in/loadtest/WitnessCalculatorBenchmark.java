@@ -0,0 +1,70 @@
+package com.zkpub.in.loadtest;
+
+import com.zkpub.in.zk.Witness;
+import com.zkpub.in.zk.WitnessCalculator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Witness generation for the repo's tickett circuit by running its circom
+ * WASM in the JVM, single-threaded and from several threads sharing one
+ * calculator (so through the instance pool). The Node equivalent spends
+ * tens of milliseconds just starting the process.
+ *
+ * WitnessCalculatorTest checks the witnesses themselves. Run from
+ * ZK_PUBBACKEND.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WitnessCalculatorBenchmark {
+
+    private static final Path WASM = Path.of("../ZK_FRONTEND/zk/tickett_js/tickett.wasm");
+
+    private WitnessCalculator calculator;
+
+    @Setup
+    public void setUp() throws Exception {
+        calculator = WitnessCalculator.load(WASM);
+    }
+
+    @Benchmark
+    public Witness calculate() {
+        return calculator.calculate(input(ThreadLocalRandom.current().nextLong(1 << 30)));
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Witness calculateConcurrently() {
+        return calculator.calculate(input(ThreadLocalRandom.current().nextLong(1 << 30)));
+    }
+
+    private static Map<String, Object> input(long secret) {
+        return Map.of("secret", secret, "pubHash", 2 * secret);
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+            .include(WitnessCalculatorBenchmark.class.getSimpleName())
+            .build()).run();
+    }
+}
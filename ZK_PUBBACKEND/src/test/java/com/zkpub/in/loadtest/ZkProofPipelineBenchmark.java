@@ -0,0 +1,107 @@
+package com.zkpub.in.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zkpub.in.model.IDDocument;
+import com.zkpub.in.repository.IDDocumentRepository;
+import com.zkpub.in.repository.UserRepository;
+import com.zkpub.in.service.ImageProcessingServiceImpl;
+import com.zkpub.in.service.OcrImagePreprocessor;
+import com.zkpub.in.service.OcrResultCache;
+import com.zkpub.in.service.RemoteOcrEngine;
+import com.zkpub.in.utils.DateOfBirthExtractor;
+import org.mockito.Answers;
+import org.mockito.Mockito;
+import org.mockito.stubbing.Answer;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Latency of /api/image/generate-zk-proof against the stub OCR backend,
+ * with every MongoDB call charged a fixed round trip. "legacy" replays
+ * the call sequence of the old flow (hash, OCR, find and save inside
+ * processIdDocument, then a second find and save) with no OCR cache;
+ * "pipeline" is the current single-pass generateZKProof. The old flow
+ * ran OCR once per request, so the two differ only in MongoDB round
+ * trips and the untyped result hand-off.
+ *
+ * Usage: ZkProofPipelineBenchmark [iterations] [imageKiB] [ocrMillis] [mongoMillis]
+ */
+public class ZkProofPipelineBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+        int imageKiB = args.length > 1 ? Integer.parseInt(args[1]) : 2_048;
+        long ocrMillis = args.length > 2 ? Long.parseLong(args[2]) : 50;
+        long mongoMillis = args.length > 3 ? Long.parseLong(args[3]) : 2;
+
+        byte[] bytes = new byte[imageKiB * 1024];
+        ThreadLocalRandom.current().nextBytes(bytes);
+        MockMultipartFile image = new MockMultipartFile("image", "id.jpg", "image/jpeg", bytes);
+
+        Answer<Object> roundTrip = invocation -> {
+            Thread.sleep(mongoMillis);
+            return Answers.RETURNS_DEFAULTS.answer(invocation);
+        };
+        IDDocumentRepository repository = Mockito.mock(IDDocumentRepository.class, roundTrip);
+        MongoTemplate mongoTemplate = Mockito.mock(MongoTemplate.class, roundTrip);
+
+        // No caching, so every request in both flows reaches the stub
+        OcrResultCache passThrough = new OcrResultCache() {
+            @Override
+            public CompletableFuture<String> getOrLoad(String hash, Supplier<CompletableFuture<LoadResult>> loader) {
+                return loader.get().thenApply(LoadResult::text);
+            }
+
+            @Override
+            public void invalidate(String hash) {
+            }
+        };
+
+        try (StubOcrServer stub = new StubOcrServer(0, ocrMillis)) {
+            RemoteOcrEngine ocrEngine = new RemoteOcrEngine(new ObjectMapper(), stub.url(), "stub-key", 3_000, 15_000);
+            ImageProcessingServiceImpl service = new ImageProcessingServiceImpl(
+                repository, Mockito.mock(UserRepository.class), ocrEngine,
+                new OcrImagePreprocessor(false, 1600, false, ""), passThrough, new DateOfBirthExtractor(),
+                mongoTemplate);
+
+            Runnable legacy = () -> {
+                service.processIdDocument(image, "bench@zkpub.in");
+                // processIdDocument used find + save where it now upserts
+                repository.findByUserId("bench@zkpub.in");
+                // generateZKProof then looked the document up again to add the proof hash
+                repository.findByUserId("bench@zkpub.in");
+                repository.save(new IDDocument());
+            };
+            Runnable pipeline = () -> service.generateZKProof(image, "bench@zkpub.in");
+
+            report("legacy", measure(legacy, iterations));
+            report("pipeline", measure(pipeline, iterations));
+        }
+    }
+
+    private static long[] measure(Runnable flow, int iterations) {
+        for (int i = 0; i < Math.min(20, iterations); i++) {
+            flow.run();
+        }
+        long[] latencies = new long[iterations];
+        for (int i = 0; i < iterations; i++) {
+            long start = System.nanoTime();
+            flow.run();
+            latencies[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(latencies);
+        return latencies;
+    }
+
+    private static void report(String name, long[] latencies) {
+        System.out.printf("%-8s p50 %.1f ms, p99 %.1f ms, mean %.1f ms%n", name,
+            latencies[latencies.length / 2] / 1e6,
+            latencies[(int) (latencies.length * 0.99)] / 1e6,
+            Arrays.stream(latencies).average().orElse(0) / 1e6);
+    }
+}
@@ -0,0 +1,198 @@
+package com.zkpub.in.loadtest;
+
+import com.zkpub.in.service.ZkVerificationExecutor;
+import com.zkpub.in.service.ZkVerificationExecutor.Priority;
+import com.zkpub.in.service.ZkVerificationExecutorImpl;
+import com.zkpub.in.zk.Poseidon;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Throughput of a stand-in verification (a Poseidon hash, CPU-bound like a
+ * pairing check but shorter, so hand-off overhead shows) called directly
+ * from 16 request threads against going through the verification pool.
+ *
+ * main() first checks the executor's contract: interactive work overtakes
+ * queued batch work, work whose deadline passed in the queue never runs,
+ * and a full queue rejects. It then floods a one-thread pool with batch
+ * work and interactive checks and prints the queue times of each.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(16)
+public class ZkVerificationExecutorBenchmark {
+
+    private static final Supplier<BigInteger> WORK = () -> Poseidon.hash(BigInteger.ONE, BigInteger.TWO);
+
+    private ZkVerificationExecutorImpl executor;
+
+    @Setup
+    public void setUp() {
+        executor = new ZkVerificationExecutorImpl(0, 10_000);
+    }
+
+    @TearDown
+    public void tearDown() throws InterruptedException {
+        executor.stop();
+    }
+
+    @Benchmark
+    public BigInteger direct() {
+        return WORK.get();
+    }
+
+    @Benchmark
+    public BigInteger pooled() {
+        return executor.submit(Priority.INTERACTIVE, 10_000, WORK).join();
+    }
+
+    public static void main(String[] args) throws Exception {
+        checkPriorityOrder();
+        checkDeadlineDropsQueuedWork();
+        checkQueueBound();
+        System.out.println("Executor orders by priority, drops expired work and bounds its queue");
+        if (args.length > 0 && args[0].equals("--check-only")) {
+            return;
+        }
+        reportFlood();
+
+        new Runner(new OptionsBuilder()
+            .include(ZkVerificationExecutorBenchmark.class.getSimpleName())
+            .build()).run();
+    }
+
+    private static void checkPriorityOrder() throws InterruptedException {
+        ZkVerificationExecutorImpl executor = new ZkVerificationExecutorImpl(1, 100);
+        try {
+            CountDownLatch release = block(executor);
+            List<String> order = new ArrayList<>();
+            List<CompletableFuture<?>> futures = new ArrayList<>();
+            for (String name : List.of("batch-1", "batch-2")) {
+                futures.add(executor.submit(Priority.BATCH, 5_000, () -> order.add(name)));
+            }
+            for (String name : List.of("interactive-1", "interactive-2")) {
+                futures.add(executor.submit(Priority.INTERACTIVE, 5_000, () -> order.add(name)));
+            }
+            release.countDown();
+            futures.forEach(CompletableFuture::join);
+            if (!order.equals(List.of("interactive-1", "interactive-2", "batch-1", "batch-2"))) {
+                throw new IllegalStateException("Ran in the wrong order: " + order);
+            }
+        } finally {
+            executor.stop();
+        }
+    }
+
+    private static void checkDeadlineDropsQueuedWork() throws InterruptedException {
+        ZkVerificationExecutorImpl executor = new ZkVerificationExecutorImpl(1, 100);
+        try {
+            CountDownLatch release = block(executor);
+            AtomicBoolean ran = new AtomicBoolean();
+            CompletableFuture<Boolean> late = executor.submit(Priority.INTERACTIVE, 50, () -> ran.getAndSet(true));
+            Thread.sleep(150);
+            release.countDown();
+            expectFailure(late, TimeoutException.class);
+            executor.submit(Priority.INTERACTIVE, 5_000, () -> true).join(); // the expired task has been dequeued
+            if (ran.get() || executor.stats().byPriority().get(Priority.INTERACTIVE).expired() != 1) {
+                throw new IllegalStateException("Work past its deadline still ran");
+            }
+        } finally {
+            executor.stop();
+        }
+    }
+
+    private static void checkQueueBound() throws InterruptedException {
+        ZkVerificationExecutorImpl executor = new ZkVerificationExecutorImpl(1, 2);
+        try {
+            CountDownLatch release = block(executor);
+            CompletableFuture<?> first = executor.submit(Priority.BATCH, 5_000, () -> 1);
+            CompletableFuture<?> second = executor.submit(Priority.BATCH, 5_000, () -> 2);
+            CompletableFuture<?> third = executor.submit(Priority.INTERACTIVE, 5_000, () -> 3);
+            expectFailure(third, RejectedExecutionException.class);
+            release.countDown();
+            first.join();
+            second.join();
+        } finally {
+            executor.stop();
+        }
+    }
+
+    // 400 batch tasks queued at once, then an interactive check every 5 ms, on one thread
+    private static void reportFlood() throws InterruptedException {
+        ZkVerificationExecutorImpl executor = new ZkVerificationExecutorImpl(1, 10_000);
+        try {
+            List<CompletableFuture<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 400; i++) {
+                futures.add(executor.submit(Priority.BATCH, 60_000, WORK));
+            }
+            for (int i = 0; i < 100; i++) {
+                futures.add(executor.submit(Priority.INTERACTIVE, 60_000, WORK));
+                Thread.sleep(5);
+            }
+            futures.forEach(CompletableFuture::join);
+            ZkVerificationExecutor.Stats stats = executor.stats();
+            stats.byPriority().forEach((priority, s) -> System.out.printf(
+                "%-11s %4d tasks: queue mean %.1f ms, max %.1f ms; run mean %.3f ms%n",
+                priority, s.completed(), s.meanQueueMs(), s.maxQueueMs(), s.meanRunMs()));
+        } finally {
+            executor.stop();
+        }
+    }
+
+    // Occupies the executor's only thread until the latch is released
+    private static CountDownLatch block(ZkVerificationExecutor executor) throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        executor.submit(Priority.INTERACTIVE, 60_000, () -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return null;
+        });
+        started.await();
+        return release;
+    }
+
+    private static void expectFailure(CompletableFuture<?> future, Class<? extends Throwable> type) {
+        try {
+            future.join();
+        } catch (CompletionException e) {
+            if (type.isInstance(e.getCause())) {
+                return;
+            }
+            throw e;
+        }
+        throw new IllegalStateException("Expected " + type.getSimpleName());
+    }
+}
@@ -0,0 +1,102 @@
+package com.zkpub.in.service;
+
+import com.zkpub.in.utils.AgeCommitment;
+import com.zkpub.in.zk.PreparedVerificationKey;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.time.Year;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class AgeProofPolicyImplTest {
+
+    private static final String EMAIL = "alice@example.com";
+    private static final int YEAR = Year.now().getValue();
+
+    private final AgeProofPolicy policy = new AgeProofPolicyImpl(new DefaultOnly("age18"), 18);
+    private final BigInteger commitment = AgeCommitment.commit(30, YEAR - 30, BigInteger.valueOf(7), AgeCommitment.publicHash(EMAIL));
+    private final String proofHash = AgeCommitment.toHex(commitment);
+
+    // [isValid, commitment, minAge, currentYear, publicHash]
+    private List<BigInteger> age18Signals() {
+        return new ArrayList<>(List.of(BigInteger.ONE, commitment, BigInteger.valueOf(18),
+            BigInteger.valueOf(YEAR), AgeCommitment.publicHash(EMAIL)));
+    }
+
+    @Test
+    void acceptsHonestProofOfAge() {
+        assertNull(policy.rejection("age18", EMAIL, proofHash, age18Signals()));
+        assertNull(policy.rejection(null, EMAIL, proofHash, age18Signals()));
+        List<BigInteger> stricter = age18Signals();
+        stricter.set(2, BigInteger.valueOf(21));
+        assertNull(policy.rejection("age18", EMAIL, proofHash, stricter));
+    }
+
+    @Test
+    void rejectsProofThatTheAgeCheckFailed() {
+        assertRejected(0, BigInteger.ZERO);
+    }
+
+    @Test
+    void rejectsLowerMinimumAge() {
+        assertRejected(2, BigInteger.ZERO);
+        assertRejected(2, BigInteger.valueOf(17));
+    }
+
+    @Test
+    void rejectsAnotherYear() {
+        assertRejected(3, BigInteger.valueOf(YEAR - 1));
+        assertRejected(3, BigInteger.valueOf(YEAR + 5));
+    }
+
+    @Test
+    void rejectsAnotherUsersPublicHash() {
+        assertRejected(4, AgeCommitment.publicHash("mallory@example.com"));
+    }
+
+    @Test
+    void rejectsProofHashOtherThanTheCommitment() {
+        assertNotNull(policy.rejection("age18", EMAIL, AgeCommitment.toHex(commitment.add(BigInteger.ONE)), age18Signals()));
+        assertNotNull(policy.rejection("age18", EMAIL, null, age18Signals()));
+    }
+
+    @Test
+    void rejectsWrongShapeAndCircuitsThatDoNotProveAge() {
+        assertNotNull(policy.rejection("age18", EMAIL, proofHash, age18Signals().subList(0, 4)));
+        assertNotNull(policy.rejection("membership", EMAIL, proofHash, age18Signals()));
+    }
+
+    // simple_age takes the year privately: [isValid, commitment, minAge, publicHash]
+    @Test
+    void checksCircuitsWithoutAYearSignal() {
+        List<BigInteger> signals = List.of(BigInteger.ONE, commitment, BigInteger.valueOf(18), AgeCommitment.publicHash(EMAIL));
+        assertNull(policy.rejection("simple_age", EMAIL, proofHash, signals));
+        assertEquals("Proof was made for another user",
+            policy.rejection("simple_age", "mallory@example.com", proofHash, signals));
+    }
+
+    private void assertRejected(int index, BigInteger value) {
+        List<BigInteger> signals = age18Signals();
+        signals.set(index, value);
+        assertNotNull(policy.rejection("age18", EMAIL, proofHash, signals), "signal " + index + " = " + value);
+    }
+
+    private record DefaultOnly(String defaultCircuitId) implements CircuitRegistry {
+
+        @Override
+        public PreparedVerificationKey get(String circuitId) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Set<String> loadedCircuitIds() {
+            return Set.of(defaultCircuitId);
+        }
+    }
+}
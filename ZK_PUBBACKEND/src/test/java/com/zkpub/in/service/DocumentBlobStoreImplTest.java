@@ -0,0 +1,82 @@
+package com.zkpub.in.service;
+
+import com.zkpub.in.repository.IDDocumentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DocumentBlobStoreImplTest {
+
+    // Records referring to the blob; the only repository call release() makes
+    private final AtomicLong references = new AtomicLong();
+    private DocumentBlobStoreImpl store;
+
+    @BeforeEach
+    void setUp(@TempDir Path root) {
+        IDDocumentRepository repository = (IDDocumentRepository) Proxy.newProxyInstance(getClass().getClassLoader(),
+            new Class<?>[] {IDDocumentRepository.class}, (proxy, method, args) -> {
+                if (!method.getName().equals("countByDocumentHash")) {
+                    throw new UnsupportedOperationException(method.getName());
+                }
+                return references.get();
+            });
+        store = new DocumentBlobStoreImpl(repository, null);
+        ReflectionTestUtils.setField(store, "rootDir", root.toString());
+        ReflectionTestUtils.invokeMethod(store, "init");
+    }
+
+    // A document deleted while an identical upload reuses its blob must not take the blob
+    // away before the upload's record exists
+    @Test
+    void releaseWaitsForTheUploadReusingTheBlob() throws Exception {
+        DocumentBlobStore.StagedBlob first = stage("id card");
+        store.commit(first, () -> null);
+        DocumentBlobStore.StagedBlob second = stage("id card");
+
+        CompletableFuture<Boolean> release = store.commit(second, () -> {
+            CompletableFuture<Boolean> pending = CompletableFuture.supplyAsync(() -> {
+                try {
+                    return store.release(second.hash());
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+            try {
+                Thread.sleep(200);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            assertFalse(pending.isDone(), "release ran while the upload was saving its record");
+            references.incrementAndGet();
+            return pending;
+        });
+
+        assertFalse(release.get(10, TimeUnit.SECONDS));
+        assertTrue(store.exists(second.hash()));
+    }
+
+    @Test
+    void releaseDeletesAnUnreferencedBlob() throws Exception {
+        DocumentBlobStore.StagedBlob staged = stage("old card");
+        store.commit(staged, () -> null);
+        assertTrue(store.release(staged.hash()));
+        assertFalse(Files.exists(store.pathFor(staged.hash())));
+    }
+
+    private DocumentBlobStore.StagedBlob stage(String content) throws Exception {
+        return store.stage(new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)));
+    }
+}
@@ -0,0 +1,141 @@
+package com.zkpub.in.service;
+
+import com.zkpub.in.dto.EventSalesStats;
+import com.zkpub.in.model.Ticket;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationResults;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class EventSalesAggregateServiceImplTest {
+
+    private static final String EVENT = "event-1";
+    private static final double PRICE = 25.0;
+    private static final int WRITERS = 4;
+    private static final int REBUILDS = 50;
+
+    // Confirmation times of the tickets "in Mongo", at Mongo's millisecond precision
+    private final Queue<LocalDateTime> confirmed = new ConcurrentLinkedQueue<>();
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+    private final EventSalesAggregateServiceImpl service = new EventSalesAggregateServiceImpl(mongoTemplate, null);
+
+    // Answers the rebuild aggregation from the tickets written so far, slowly enough that
+    // purchases keep landing while it runs
+    private void stubAggregation() {
+        when(mongoTemplate.aggregate(any(Aggregation.class), eq(Ticket.class), eq(Document.class))).thenAnswer(call -> {
+            LocalDateTime cutoff = cutoff(call.getArgument(0));
+            Thread.sleep(5);
+            long sold = confirmed.stream().filter(at -> at.isBefore(cutoff)).count();
+            Document row = new Document("_id", EVENT).append("soldCount", sold)
+                .append("revenue", sold * PRICE).append("checkedInCount", 0);
+            return new AggregationResults<>(List.of(row), new Document());
+        });
+    }
+
+    @Test
+    void rebuildDuringPurchasesCountsEachTicketOnce() throws Exception {
+        stubAggregation();
+        AtomicBoolean selling = new AtomicBoolean(true);
+        ExecutorService pool = Executors.newFixedThreadPool(WRITERS);
+        List<Future<?>> writers = new ArrayList<>();
+        for (int w = 0; w < WRITERS; w++) {
+            writers.add(pool.submit(() -> {
+                while (selling.get()) {
+                    purchase();
+                    LockSupport.parkNanos(20_000);
+                }
+            }));
+        }
+        for (int i = 0; i < REBUILDS; i++) {
+            service.rebuild();
+        }
+        selling.set(false);
+        for (Future<?> writer : writers) {
+            writer.get(30, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+
+        long sold = confirmed.size();
+        EventSalesStats stats = service.getEventStats(EVENT);
+        assertEquals(sold, stats.getSoldCount());
+        assertEquals(sold * PRICE, stats.getRevenue(), 1e-6);
+
+        service.rebuild();
+        assertEquals(sold, service.getEventStats(EVENT).getSoldCount());
+    }
+
+    @Test
+    void rebuildReplacesRatherThanAddsToTheCounters() {
+        stubAggregation();
+        for (int i = 0; i < 10; i++) {
+            purchase();
+        }
+        service.rebuild();
+        service.rebuild();
+        assertEquals(10, service.getEventStats(EVENT).getSoldCount());
+    }
+
+    // Writes the ticket, then records it, as the payment paths do
+    private void purchase() {
+        LocalDateTime now = LocalDateTime.now();
+        confirmed.add(now.truncatedTo(ChronoUnit.MILLIS));
+        Ticket ticket = new Ticket();
+        ticket.setEventId(EVENT);
+        ticket.setAmountPaid(PRICE);
+        ticket.setPaymentConfirmedAt(now);
+        service.recordPurchase(ticket);
+    }
+
+    // The rebuild's cutoff is the $lt bound on paymentConfirmedAt in its $match stage
+    private static LocalDateTime cutoff(Aggregation aggregation) {
+        Document match = aggregation.toPipeline(Aggregation.DEFAULT_CONTEXT).get(0);
+        LocalDateTime cutoff = find(match);
+        if (cutoff == null) {
+            throw new AssertionError("No cutoff in " + match.toJson());
+        }
+        return cutoff;
+    }
+
+    private static LocalDateTime find(Object node) {
+        if (node instanceof Map<?, ?> map) {
+            if (map.get("paymentConfirmedAt") instanceof Map<?, ?> bound && bound.get("$lt") instanceof LocalDateTime at) {
+                return at;
+            }
+            for (Object value : map.values()) {
+                LocalDateTime at = find(value);
+                if (at != null) {
+                    return at;
+                }
+            }
+        } else if (node instanceof List<?> list) {
+            for (Object value : list) {
+                LocalDateTime at = find(value);
+                if (at != null) {
+                    return at;
+                }
+            }
+        }
+        return null;
+    }
+}
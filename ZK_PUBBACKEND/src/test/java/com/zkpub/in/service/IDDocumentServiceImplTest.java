@@ -0,0 +1,80 @@
+package com.zkpub.in.service;
+
+import com.zkpub.in.model.IDDocument;
+import com.zkpub.in.model.User;
+import com.zkpub.in.repository.UserRepository;
+import com.zkpub.in.utils.JwtUtil;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IDDocumentServiceImplTest {
+
+    // Tokens are "login:<email>"; signing is JwtUtil's concern, not this test's
+    private final JwtUtil jwtUtil = new JwtUtil() {
+        @Override
+        public boolean validateToken(String token) {
+            return token.startsWith("login:");
+        }
+
+        @Override
+        public String extractEmail(String token) {
+            return token.substring("login:".length());
+        }
+    };
+    private final IDDocumentService service;
+    private final IDDocument document = new IDDocument();
+
+    IDDocumentServiceImplTest() {
+        List<User> users = List.of(user("owner@example.com", User.Role.USER),
+            user("stranger@example.com", User.Role.USER), user("admin@example.com", User.Role.ADMIN));
+        // Only findByEmail is reached by canReadDocument
+        UserRepository userRepository = (UserRepository) Proxy.newProxyInstance(getClass().getClassLoader(),
+            new Class<?>[] {UserRepository.class}, (proxy, method, args) -> {
+                if (!method.getName().equals("findByEmail")) {
+                    throw new UnsupportedOperationException(method.getName());
+                }
+                return users.stream().filter(u -> u.getEmail().equals(args[0])).findFirst();
+            });
+        service = new IDDocumentServiceImpl(null, userRepository, null, null, null, null, null, null, null, null,
+            null, null, jwtUtil);
+        document.setUserId("owner@example.com");
+    }
+
+    @Test
+    void ownerCanReadTheirDocument() {
+        assertTrue(service.canReadDocument(token("owner@example.com"), document));
+    }
+
+    @Test
+    void strangerCannot() {
+        assertFalse(service.canReadDocument(token("stranger@example.com"), document));
+        assertFalse(service.canReadDocument(token("nobody@example.com"), document));
+    }
+
+    @Test
+    void adminCanReadAnyDocument() {
+        assertTrue(service.canReadDocument(token("admin@example.com"), document));
+    }
+
+    @Test
+    void missingOrForgedTokenCannot() {
+        assertFalse(service.canReadDocument(null, document));
+        assertFalse(service.canReadDocument("not-a-token", document));
+    }
+
+    private static String token(String email) {
+        return "login:" + email;
+    }
+
+    private static User user(String email, User.Role role) {
+        User user = new User(email, email, "password", null);
+        user.setId("id-" + email.hashCode());
+        user.setRole(role);
+        return user;
+    }
+}
@@ -0,0 +1,145 @@
+package com.zkpub.in.service;
+
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OcrImagePreprocessorTest {
+
+    private static final int BLACK = 0;
+    private static final int WHITE = 255;
+
+    // Rows of dark bars like lines of text on a card, turned 5 degrees clockwise
+    @Test
+    void straightensASkewedCard() {
+        BufferedImage card = textLines(800, 500);
+        BufferedImage skewed = rotate(card, 5);
+        assertEquals(5, OcrImagePreprocessor.estimateSkewDegrees(skewed), 0.5);
+
+        BufferedImage straightened = OcrImagePreprocessor.straighten(skewed);
+        assertEquals(0, OcrImagePreprocessor.estimateSkewDegrees(straightened), 0.5);
+        assertEquals(0, OcrImagePreprocessor.estimateSkewDegrees(card), 0.5);
+    }
+
+    @Test
+    void cropsToTheRegion() {
+        BufferedImage card = filled(200, 100, WHITE);
+        card.getRaster().setSample(50, 50, 0, BLACK);
+        card.getRaster().setSample(149, 74, 0, BLACK);
+
+        BufferedImage band = OcrImagePreprocessor.crop(card, new double[] {0.25, 0.5, 0.5, 0.25});
+        assertEquals(100, band.getWidth());
+        assertEquals(25, band.getHeight());
+        assertEquals(BLACK, band.getRaster().getSample(0, 0, 0));
+        assertEquals(BLACK, band.getRaster().getSample(99, 24, 0));
+        assertEquals(WHITE, band.getRaster().getSample(50, 10, 0));
+    }
+
+    // A landscape sensor image of a portrait card: stored left half black, EXIF 6 says turn it clockwise
+    @Test
+    void turnsAJpegUprightFromItsExifOrientation() throws Exception {
+        BufferedImage stored = new BufferedImage(400, 200, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = stored.createGraphics();
+        g.setColor(Color.WHITE);
+        g.fillRect(0, 0, 400, 200);
+        g.setColor(Color.BLACK);
+        g.fillRect(0, 0, 200, 200);
+        g.dispose();
+
+        OcrImagePreprocessor preprocessor = new OcrImagePreprocessor(true, 1600, false, "");
+        try {
+            OcrImage prepared = preprocessor.prepare(OcrImage.of(withOrientation(jpeg(stored), 6), "id.jpg", "image/jpeg"));
+            BufferedImage upright;
+            try (var in = prepared.open()) {
+                upright = ImageIO.read(in);
+            }
+            assertEquals(200, upright.getWidth());
+            assertEquals(400, upright.getHeight());
+            // The stored left edge is now the top
+            assertTrue(upright.getRaster().getSample(100, 50, 0) < 64);
+            assertTrue(upright.getRaster().getSample(100, 350, 0) > 192);
+        } finally {
+            preprocessor.stop();
+        }
+    }
+
+    @Test
+    void mapsEveryOrientationBackToUpright() {
+        // A 3x2 image with a single black pixel at the stored top-left
+        BufferedImage stored = filled(3, 2, WHITE);
+        stored.getRaster().setSample(0, 0, 0, BLACK);
+        // Where that pixel belongs once upright, for orientations 1 to 8
+        int[][] expected = {{0, 0}, {2, 0}, {2, 1}, {0, 1}, {0, 0}, {1, 0}, {1, 2}, {0, 2}};
+        for (int orientation = 1; orientation <= 8; orientation++) {
+            BufferedImage upright = OcrImagePreprocessor.orient(stored, orientation);
+            int[] at = expected[orientation - 1];
+            assertEquals(BLACK, upright.getRaster().getSample(at[0], at[1], 0), "orientation " + orientation);
+            assertEquals(orientation >= 5 ? 2 : 3, upright.getWidth(), "orientation " + orientation);
+        }
+    }
+
+    private static BufferedImage textLines(int width, int height) {
+        BufferedImage image = filled(width, height, WHITE);
+        Graphics2D g = image.createGraphics();
+        g.setColor(Color.BLACK);
+        for (int y = 60; y < height - 60; y += 40) {
+            for (int x = 80; x < width - 120; x += 70) {
+                g.fillRect(x, y, 50, 12);
+            }
+        }
+        g.dispose();
+        return image;
+    }
+
+    private static BufferedImage rotate(BufferedImage image, double degrees) {
+        BufferedImage rotated = filled(image.getWidth(), image.getHeight(), WHITE);
+        Graphics2D g = rotated.createGraphics();
+        g.drawImage(image, AffineTransform.getRotateInstance(Math.toRadians(degrees),
+            image.getWidth() / 2.0, image.getHeight() / 2.0), null);
+        g.dispose();
+        return rotated;
+    }
+
+    private static BufferedImage filled(int width, int height, int gray) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_BYTE_GRAY);
+        Graphics2D g = image.createGraphics();
+        g.setColor(new Color(gray, gray, gray));
+        g.fillRect(0, 0, width, height);
+        g.dispose();
+        return image;
+    }
+
+    private static byte[] jpeg(BufferedImage image) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "jpg", out);
+        return out.toByteArray();
+    }
+
+    // Swaps the JFIF APP0 segment ImageIO writes for an Exif APP1 holding only IFD0 with the
+    // orientation tag, which is how camera JPEGs start
+    private static byte[] withOrientation(byte[] jpeg, int orientation) {
+        ByteBuffer tiff = ByteBuffer.allocate(6 + 8 + 2 + 12 + 4);
+        tiff.put(new byte[] {'E', 'x', 'i', 'f', 0, 0});
+        tiff.put(new byte[] {'M', 'M', 0, 42}).putInt(8);
+        tiff.putShort((short) 1);
+        tiff.putShort((short) 0x0112).putShort((short) 3).putInt(1).putShort((short) orientation).putShort((short) 0);
+        tiff.putInt(0);
+
+        int afterApp0 = 4 + ((jpeg[4] & 0xff) << 8 | (jpeg[5] & 0xff));
+        ByteBuffer out = ByteBuffer.allocate(2 + 4 + tiff.capacity() + jpeg.length - afterApp0);
+        out.put(jpeg, 0, 2);
+        out.put((byte) 0xFF).put((byte) 0xE1).putShort((short) (2 + tiff.capacity()));
+        out.put(tiff.array());
+        out.put(jpeg, afterApp0, jpeg.length - afterApp0);
+        return out.array();
+    }
+}
@@ -0,0 +1,71 @@
+package com.zkpub.in.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zkpub.in.loadtest.StubJsonRpcServer;
+import com.zkpub.in.utils.EthRpcClient;
+import com.zkpub.in.zk.Groth16Proof;
+import com.zkpub.in.zk.Trapdoor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OnChainVerifierImplTest {
+
+    private static final String VERIFIER_ADDRESS = "0x5fbdb2315678afecb367f032d93f642f64180aa3";
+    private static final int BURST = 100;
+
+    private final Trapdoor trapdoor = Trapdoor.generate(new Random(42));
+    private final List<BigInteger> signals = Trapdoor.signals(new Random(1));
+    private final Groth16Proof proof = trapdoor.prove(signals, new Random(2));
+
+    private StubJsonRpcServer node;
+    private OnChainVerifierImpl verifier;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        node = new StubJsonRpcServer(0);
+        EthRpcClient client = new EthRpcClient(new ObjectMapper(), "http://localhost:" + node.port(), 10_000);
+        verifier = new OnChainVerifierImpl(client, VERIFIER_ADDRESS, BURST, 1, 4);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        verifier.stop();
+        node.close();
+    }
+
+    @Test
+    void contractAcceptsValidAndRejectsTamperedProofs() throws Exception {
+        node.setVerificationKey(trapdoor.verificationKey());
+        assertTrue(verifier.verify(proof, signals).get(10, TimeUnit.SECONDS));
+
+        List<BigInteger> tampered = new ArrayList<>(signals);
+        tampered.set(0, tampered.get(0).add(BigInteger.ONE));
+        assertFalse(verifier.verify(proof, tampered).get(10, TimeUnit.SECONDS));
+        // A wrong input count reverts, which reads as a rejection
+        assertFalse(verifier.verify(proof, signals.subList(0, 1)).get(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void burstGoesOutInAFewBatches() {
+        int before = node.requestCount();
+        List<CompletableFuture<Boolean>> futures = new ArrayList<>(BURST);
+        for (int i = 0; i < BURST; i++) {
+            futures.add(verifier.verify(proof, signals));
+        }
+        futures.forEach(future -> assertTrue(future.join()));
+        assertTrue(node.requestCount() - before <= 5, "HTTP requests: " + (node.requestCount() - before));
+        assertEquals(BURST, verifier.stats().accepted());
+    }
+}
@@ -0,0 +1,79 @@
+package com.zkpub.in.utils;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zkpub.in.utils.DateOfBirthExtractor.Confidence;
+import com.zkpub.in.utils.DateOfBirthExtractor.DateOfBirth;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DateOfBirthExtractorTest {
+
+    private final DateOfBirthExtractor extractor = new DateOfBirthExtractor();
+
+    // "dob" is yyyy-MM-dd when the full date is readable, yyyy when only the year is, null for none
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("corpus")
+    void readsTheCorpus(String note, String text, String dob) {
+        Optional<DateOfBirth> found = extractor.extract(text);
+        if (dob == null) {
+            assertTrue(found.isEmpty(), "found " + found);
+            return;
+        }
+        DateOfBirth date = found.orElseThrow();
+        assertEquals(Integer.parseInt(dob.substring(0, 4)), date.year());
+        if (dob.length() == 10) {
+            assertEquals(dob, String.format("%04d-%02d-%02d", date.year(), date.month(), date.day()));
+        } else {
+            assertFalse(date.hasFullDate(), "read " + date + " where only the year survives");
+        }
+    }
+
+    @Test
+    void labelsMustBeWholeWords() {
+        DateOfBirth date = extractor.extract("Bornholm resident 2001 card 1999").orElseThrow();
+        assertEquals(new DateOfBirth(1999, 0, 0, Confidence.YEAR_ONLY), date);
+        assertEquals(Confidence.LABELLED, extractor.extract("DOB15/03/1995").orElseThrow().confidence());
+        assertEquals(Confidence.LABELLED, extractor.extract("Geb.15.03.1995").orElseThrow().confidence());
+    }
+
+    @Test
+    void splitDayKeepsOnlyTheYear() {
+        assertEquals(new DateOfBirth(1995, 0, 0, Confidence.LABELLED), extractor.extract("DOB; 1 5/03/1995").orElseThrow());
+    }
+
+    static List<Arguments> corpus() throws IOException {
+        ObjectMapper mapper = new ObjectMapper();
+        List<Arguments> samples = new ArrayList<>();
+        try (InputStream in = DateOfBirthExtractorTest.class.getResourceAsStream("/dob-corpus.jsonl");
+             BufferedReader reader = new BufferedReader(new InputStreamReader(
+                 Objects.requireNonNull(in, "dob-corpus.jsonl not on the test classpath"), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                JsonNode node = mapper.readTree(line);
+                samples.add(Arguments.of(node.get("note").asText(), node.get("text").asText(),
+                    node.get("dob").isNull() ? null : node.get("dob").asText()));
+            }
+        }
+        return samples;
+    }
+}
@@ -0,0 +1,82 @@
+package com.zkpub.in.zk;
+
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/** A synthetic circuit encoded as a circom .r1cs, with a satisfying witness. */
+public record ChainCircuit(byte[] r1csFile, List<BigInteger> witness) {
+
+    public R1cs r1cs() {
+        return R1cs.fromBytes(r1csFile);
+    }
+
+    /**
+     * Wires: 1, out (public output), in (public input), x (private), t_1 .. t_{n-1}.
+     * x·in = t_1; (t_j + x)·(t_j + 1) = t_{j+1}; t_{n-1}·1 = out.
+     */
+    public static ChainCircuit chain(int n) {
+        if (n < 2) {
+            throw new IllegalArgumentException("Need at least two constraints");
+        }
+        int wires = 4 + n - 1;
+        int out = 1, in = 2, x = 3;
+        List<BigInteger[][]> rows = new ArrayList<>();
+        rows.add(row(new int[] {x}, new int[] {in}, new int[] {4}));
+        for (int j = 1; j <= n - 2; j++) {
+            int t = 3 + j;
+            rows.add(row(new int[] {t, x}, new int[] {t, 0}, new int[] {t + 1}));
+        }
+        rows.add(row(new int[] {3 + n - 1}, new int[] {0}, new int[] {out}));
+
+        BigInteger[] w = new BigInteger[wires];
+        w[0] = BigInteger.ONE;
+        w[in] = BigInteger.valueOf(18);
+        w[x] = BigInteger.valueOf(2024);
+        w[4] = w[x].multiply(w[in]).mod(Fr.MODULUS);
+        for (int j = 1; j <= n - 2; j++) {
+            BigInteger t = w[3 + j];
+            w[4 + j] = t.add(w[x]).multiply(t.add(BigInteger.ONE)).mod(Fr.MODULUS);
+        }
+        w[out] = w[3 + n - 1];
+        return new ChainCircuit(encode(wires, rows), List.of(w));
+    }
+
+    // Each matrix row as {wire, coefficient} pairs with coefficient 1
+    private static BigInteger[][] row(int[] a, int[] b, int[] c) {
+        return new BigInteger[][] {ids(a), ids(b), ids(c)};
+    }
+
+    private static BigInteger[] ids(int[] wires) {
+        return IntStream.of(wires).mapToObj(BigInteger::valueOf).toArray(BigInteger[]::new);
+    }
+
+    private static byte[] encode(int wires, List<BigInteger[][]> rows) {
+        Sections file = new Sections("r1cs");
+        ByteBuffer header = Sections.buffer(4 + 32 + 4 * 4 + 8 + 4);
+        header.putInt(32);
+        Sections.putInteger(header, Fr.MODULUS);
+        header.putInt(wires).putInt(1).putInt(1).putInt(1).putLong(wires).putInt(rows.size());
+        file.add(1, header);
+        int size = 0;
+        for (BigInteger[][] row : rows) {
+            for (BigInteger[] lc : row) {
+                size += 4 + lc.length * 36;
+            }
+        }
+        ByteBuffer body = Sections.buffer(size);
+        for (BigInteger[][] row : rows) {
+            for (BigInteger[] lc : row) {
+                body.putInt(lc.length);
+                for (BigInteger wire : lc) {
+                    body.putInt(wire.intValue());
+                    Sections.putInteger(body, BigInteger.ONE);
+                }
+            }
+        }
+        file.add(2, body);
+        return file.bytes();
+    }
+}
@@ -0,0 +1,63 @@
+package com.zkpub.in.zk;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CompactProofTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    // Random points cover both y signs; the last proof has points at infinity and no signals
+    @Test
+    void roundTripsThroughBytesAndJson() throws Exception {
+        Random random = new Random(2);
+        List<CompactProof> proofs = new ArrayList<>();
+        for (int i = 0; i < 64; i++) {
+            proofs.add(randomProof(random));
+        }
+        proofs.add(CompactProof.of(new Groth16Proof(G1Point.INFINITY, G2Point.INFINITY, G1Point.GENERATOR), List.of()));
+        for (CompactProof proof : proofs) {
+            CompactProof fromBytes = CompactProof.fromBytes(proof.toBytes());
+            assertEquals(proof.proof(), fromBytes.proof());
+            assertEquals(proof.publicSignals(), fromBytes.publicSignals());
+            assertEquals(proof, CompactProof.fromJson(MAPPER.readTree(MAPPER.writeValueAsString(fromBytes))));
+        }
+    }
+
+    @Test
+    void refusesCorruptPoints() {
+        byte[] bytes = randomProof(new Random(1)).toBytes();
+        byte[] shiftedB = bytes.clone();
+        shiftedB[32 + 63] ^= 1; // B.x0 off by one: not a twist point, or not in the subgroup
+        byte[] uncompressed = bytes.clone();
+        uncompressed[0] &= 0x3F;
+        for (byte[] corrupt : List.of(shiftedB, uncompressed)) {
+            assertThrows(IllegalArgumentException.class, () -> CompactProof.fromBytes(corrupt).proof());
+        }
+    }
+
+    @Test
+    void refusesTruncatedSignals() {
+        assertThrows(IllegalArgumentException.class,
+            () -> CompactProof.fromBytes(new byte[Groth16Proof.ENCODED_BYTES + 5]));
+    }
+
+    private static CompactProof randomProof(Random random) {
+        List<BigInteger> signals = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            signals.add(new BigInteger(253, random));
+        }
+        return CompactProof.of(new Groth16Proof(
+            G1Point.GENERATOR.multiply(new BigInteger(253, random)),
+            G2Point.GENERATOR.multiply(new BigInteger(253, random)),
+            G1Point.GENERATOR.multiply(new BigInteger(253, random))), signals);
+    }
+}
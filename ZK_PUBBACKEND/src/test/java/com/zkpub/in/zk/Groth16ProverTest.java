@@ -0,0 +1,59 @@
+package com.zkpub.in.zk;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class Groth16ProverTest {
+
+    // The compiled circuit from the frontend; tests run from ZK_PUBBACKEND
+    private static final Path TICKETT = Path.of("../ZK_FRONTEND/zk/tickett.r1cs");
+
+    @Test
+    void provesTheTickettCircuit() throws Exception {
+        // wires: 1, valid (out), secret, pubHash, temp; temp = 2·secret and valid = 1 iff pubHash = temp
+        BigInteger secret = BigInteger.valueOf(21);
+        List<BigInteger> witness = List.of(BigInteger.ONE, BigInteger.ONE, secret, secret.shiftLeft(1), secret.shiftLeft(1));
+        assertProvesAndVerifies(R1cs.read(TICKETT), witness, 1);
+    }
+
+    // One thread takes the sequential NTT and MSM paths; more threads split them with fork/join,
+    // which must not change the proof for the same randomness
+    @Test
+    void provesOnOneAndAllThreads() {
+        ChainCircuit circuit = ChainCircuit.chain(1000);
+        Groth16Proof sequential = assertProvesAndVerifies(circuit.r1cs(), circuit.witness(), 1);
+        Groth16Proof parallel = assertProvesAndVerifies(circuit.r1cs(), circuit.witness(),
+            Math.max(2, Runtime.getRuntime().availableProcessors()));
+        assertEquals(sequential, parallel);
+    }
+
+    private static Groth16Proof assertProvesAndVerifies(R1cs r1cs, List<BigInteger> witness, int threads) {
+        assertEquals(-1, r1cs.firstUnsatisfied(witness), "witness does not satisfy the circuit");
+        ProvingKey key = ProvingKey.fromBytes(TrustedSetup.generate(r1cs, new Random(7)).zkey());
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            Groth16Proof proof = pool.invoke(ForkJoinTask.adapt(() -> Groth16Prover.prove(key, witness, new Random(9))));
+            List<BigInteger> publicSignals = witness.subList(1, r1cs.publicCount() + 1);
+            assertTrue(Groth16Verifier.verify(key.verificationKey(), Groth16Proof.fromJson(proof.toJson()), publicSignals),
+                "proof on " + threads + " thread(s) does not verify");
+
+            List<BigInteger> wrong = new ArrayList<>(publicSignals);
+            wrong.set(0, wrong.get(0).add(BigInteger.ONE));
+            assertFalse(Groth16Verifier.verify(key.verificationKey(), proof, wrong));
+            return proof;
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.zkpub.in.zk;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class Groth16VerifierTest {
+
+    private final Trapdoor trapdoor = Trapdoor.generate(new Random(42));
+    private final VerificationKey key = trapdoor.verificationKey();
+    private final PreparedVerificationKey prepared = PreparedVerificationKey.prepare(key);
+    private final List<BigInteger> signals = Trapdoor.signals(new Random(1));
+    private final Groth16Proof proof = trapdoor.prove(signals, new Random(2));
+
+    @Test
+    void acceptsValidProof() {
+        assertTrue(Groth16Verifier.verify(key, proof, signals));
+        assertTrue(Groth16Verifier.verify(prepared, proof, signals));
+    }
+
+    @Test
+    void rejectsTamperedSignal() {
+        List<BigInteger> tampered = new ArrayList<>(signals);
+        tampered.set(0, tampered.get(0).add(BigInteger.ONE));
+        assertFalse(Groth16Verifier.verify(key, proof, tampered));
+        assertFalse(Groth16Verifier.verify(prepared, proof, tampered));
+    }
+
+    @Test
+    void rejectsTamperedProofPoints() {
+        List<Groth16Proof> tampered = List.of(
+            new Groth16Proof(proof.a().add(G1Point.GENERATOR), proof.b(), proof.c()),
+            new Groth16Proof(proof.a(), proof.b().add(G2Point.GENERATOR), proof.c()),
+            new Groth16Proof(proof.a(), proof.b(), proof.c().negate()));
+        for (Groth16Proof p : tampered) {
+            assertFalse(Groth16Verifier.verify(key, p, signals));
+            assertFalse(Groth16Verifier.verify(prepared, p, signals));
+        }
+    }
+
+    // Adding the field order gives the same value mod r, which the contract refuses
+    @Test
+    void rejectsSignalsOutsideTheField() {
+        List<BigInteger> unreduced = List.of(signals.get(0).add(Fr.MODULUS), signals.get(1));
+        assertFalse(Groth16Verifier.verify(key, proof, unreduced));
+        assertFalse(Groth16Verifier.verify(prepared, proof, unreduced));
+    }
+
+    @Test
+    void refusesWrongSignalCount() {
+        assertThrows(IllegalArgumentException.class,
+            () -> Groth16Verifier.verify(prepared, proof, signals.subList(0, 1)));
+    }
+
+    @Test
+    void batchFlagsOnlyTheBadProof() {
+        Random random = new Random(3);
+        List<Groth16Proof> proofs = new ArrayList<>();
+        List<List<BigInteger>> batchSignals = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            List<BigInteger> s = Trapdoor.signals(random);
+            proofs.add(trapdoor.prove(s, random));
+            batchSignals.add(s);
+        }
+        batchSignals.set(2, signals);
+        boolean[] results = Groth16Verifier.verifyBatch(prepared, proofs, batchSignals);
+        assertTrue(results[0] && results[1] && results[3]);
+        assertFalse(results[2]);
+    }
+}
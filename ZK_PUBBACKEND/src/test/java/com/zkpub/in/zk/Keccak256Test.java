@@ -0,0 +1,115 @@
+package com.zkpub.in.zk;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HexFormat;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class Keccak256Test {
+
+    private static final int RATE = 136;
+
+    @Test
+    void matchesKnownDigests() {
+        assertEquals("c5d2460186f7233c927e7db2dcc703c0e500b653ca82273b7bfad8045d85a470", digest(""));
+        assertEquals("4e03657aea45a94fc7d47ba826c8d667c0d1e6e33a64a036ec44f58fa12d6c45", digest("abc"));
+        assertEquals("4d741b6f1eb29cb2a9b9911c82f56fa8d73b04959d3d9d222895df6c0b28aa15",
+            digest("The quick brown fox jumps over the lazy dog"));
+    }
+
+    @Test
+    void matchesTheErc20TransferSelector() {
+        assertEquals("a9059cbb", digest("transfer(address,uint256)").substring(0, 8));
+    }
+
+    // Lengths either side of each block boundary, where the padding moves into a new block
+    @Test
+    void matchesReferenceAcrossBlocks() {
+        Random random = new Random(3);
+        for (int length : new int[] {1, RATE - 2, RATE - 1, RATE, RATE + 1, 2 * RATE - 1, 2 * RATE, 2 * RATE + 1, 1000}) {
+            byte[] input = new byte[length];
+            random.nextBytes(input);
+            assertArrayEquals(reference(input), Keccak256.digest(input), "length " + length);
+        }
+    }
+
+    private static String digest(String input) {
+        return HexFormat.of().formatHex(Keccak256.digest(input.getBytes(StandardCharsets.US_ASCII)));
+    }
+
+    // Keccak-f[1600] straight from the specification, with the rotation offsets and
+    // round constants derived rather than tabulated
+    private static byte[] reference(byte[] input) {
+        int padded = (input.length / RATE + 1) * RATE;
+        byte[] message = new byte[padded];
+        System.arraycopy(input, 0, message, 0, input.length);
+        message[input.length] ^= 0x01;
+        message[padded - 1] ^= (byte) 0x80;
+
+        long[] state = new long[25];
+        for (int block = 0; block < padded; block += RATE) {
+            for (int i = 0; i < RATE; i++) {
+                state[i / 8] ^= (message[block + i] & 0xFFL) << (8 * (i % 8));
+            }
+            permute(state);
+        }
+        byte[] out = new byte[32];
+        for (int i = 0; i < 32; i++) {
+            out[i] = (byte) (state[i / 8] >>> (8 * (i % 8)));
+        }
+        return out;
+    }
+
+    private static void permute(long[] a) {
+        int[] rotation = new int[25];
+        for (int t = 0, x = 1, y = 0; t < 24; t++) {
+            rotation[x + 5 * y] = ((t + 1) * (t + 2) / 2) % 64;
+            int nextY = (2 * x + 3 * y) % 5;
+            x = y;
+            y = nextY;
+        }
+        for (int round = 0; round < 24; round++) {
+            long[] c = new long[5];
+            for (int x = 0; x < 5; x++) {
+                c[x] = a[x] ^ a[x + 5] ^ a[x + 10] ^ a[x + 15] ^ a[x + 20];
+            }
+            for (int x = 0; x < 5; x++) {
+                long d = c[(x + 4) % 5] ^ Long.rotateLeft(c[(x + 1) % 5], 1);
+                for (int y = 0; y < 5; y++) {
+                    a[x + 5 * y] ^= d;
+                }
+            }
+            long[] b = new long[25];
+            for (int x = 0; x < 5; x++) {
+                for (int y = 0; y < 5; y++) {
+                    b[y + 5 * ((2 * x + 3 * y) % 5)] = Long.rotateLeft(a[x + 5 * y], rotation[x + 5 * y]);
+                }
+            }
+            for (int x = 0; x < 5; x++) {
+                for (int y = 0; y < 5; y++) {
+                    a[x + 5 * y] = b[x + 5 * y] ^ (~b[(x + 1) % 5 + 5 * y] & b[(x + 2) % 5 + 5 * y]);
+                }
+            }
+            for (int j = 0; j < 7; j++) {
+                if (rc(j + 7 * round)) {
+                    a[0] ^= 1L << ((1 << j) - 1);
+                }
+            }
+        }
+    }
+
+    private static boolean rc(int t) {
+        int r = 1;
+        for (int i = 0; i < t % 255; i++) {
+            r <<= 1;
+            if ((r & 0x100) != 0) {
+                r ^= 0x171;
+            }
+        }
+        return (r & 1) != 0;
+    }
+}
@@ -0,0 +1,59 @@
+package com.zkpub.in.zk;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Keys, R1CS and witnesses read from memory-mapped files must behave like their heap copies
+class MappedArtifactsTest {
+
+    private final ChainCircuit circuit = ChainCircuit.chain(500);
+    private final byte[] keyBytes = TrustedSetup.generate(circuit.r1cs(), new Random(5)).zkey();
+    private final Witness witness = Witness.of(circuit.witness());
+
+    private Path keyFile;
+    private Path witnessFile;
+    private Path r1csFile;
+
+    @BeforeEach
+    void write(@TempDir Path dir) throws Exception {
+        keyFile = Files.write(dir.resolve("chain.zkey"), keyBytes);
+        witnessFile = Files.write(dir.resolve("chain.wtns"), witness.toWtns());
+        r1csFile = Files.write(dir.resolve("chain.r1cs"), circuit.r1csFile());
+    }
+
+    @Test
+    void mappedKeyProvesLikeTheHeapCopy() throws Exception {
+        ProvingKey mapped = ProvingKey.read(keyFile);
+        Witness mappedWitness = Witness.read(witnessFile);
+        assertEquals(witness.toList(), mappedWitness.toList());
+
+        Groth16Proof fromMapped = Groth16Prover.prove(mapped, mappedWitness, new Random(11));
+        Groth16Proof fromHeap = Groth16Prover.prove(ProvingKey.fromBytes(keyBytes), witness, new Random(11));
+        assertEquals(fromHeap, fromMapped);
+        List<BigInteger> publicSignals = circuit.witness().subList(1, 1 + mapped.publicCount());
+        assertTrue(Groth16Verifier.verify(mapped.verificationKey(), fromMapped, publicSignals));
+    }
+
+    @Test
+    void mappedR1csChecksLikeTheHeapCopy() throws Exception {
+        R1cs mapped = R1cs.read(r1csFile);
+        assertEquals(circuit.r1cs().terms(2, 7), mapped.terms(2, 7));
+        assertEquals(-1, mapped.firstUnsatisfied(Witness.read(witnessFile)));
+
+        List<BigInteger> tampered = new ArrayList<>(circuit.witness());
+        tampered.set(tampered.size() - 1, BigInteger.TWO);
+        assertNotEquals(-1, mapped.firstUnsatisfied(tampered));
+    }
+}
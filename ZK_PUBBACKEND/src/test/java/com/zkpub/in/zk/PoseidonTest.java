@@ -0,0 +1,47 @@
+package com.zkpub.in.zk;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PoseidonTest {
+
+    // circomlibjs poseidon([...])
+    @Test
+    void matchesCircomlibVectors() {
+        assertEquals(hex("29176100eaa962bdc1fe6c654d6a3c130e96a4d1168b33848b897dc502820133"),
+            Poseidon.hash(BigInteger.ONE));
+        assertEquals(hex("115cc0f5e7d690413df64c6b9662e9cf2a3617f2743245519e19607a4417189a"),
+            Poseidon.hash(BigInteger.ONE, BigInteger.TWO));
+        assertEquals(hex("299c867db6c1fdd79dcefa40e4510b9837e60ebb1ce0663dbaa525df65250465"),
+            Poseidon.hash(BigInteger.ONE, BigInteger.TWO, BigInteger.valueOf(3), BigInteger.valueOf(4)));
+    }
+
+    @Test
+    void batchMatchesSingleHashes() {
+        List<List<BigInteger>> inputs = new ArrayList<>();
+        Random random = new Random(2);
+        for (int width = 1; width <= Poseidon.MAX_INPUTS; width++) {
+            for (int i = 0; i < 40; i++) {
+                List<BigInteger> item = new ArrayList<>(width);
+                for (int j = 0; j < width; j++) {
+                    item.add(new BigInteger(253, random));
+                }
+                inputs.add(item);
+            }
+        }
+        BigInteger[] batched = Poseidon.hashAll(inputs);
+        for (int i = 0; i < inputs.size(); i++) {
+            assertEquals(Poseidon.hash(inputs.get(i)), batched[i], "input " + i);
+        }
+    }
+
+    private static BigInteger hex(String value) {
+        return new BigInteger(value, 16);
+    }
+}
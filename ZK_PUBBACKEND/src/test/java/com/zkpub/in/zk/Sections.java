@@ -0,0 +1,50 @@
+package com.zkpub.in.zk;
+
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/** Writer for the circom/snarkjs sectioned binary container. */
+public final class Sections {
+
+    private final String magic;
+    private final List<Integer> types = new ArrayList<>();
+    private final List<ByteBuffer> bodies = new ArrayList<>();
+
+    public Sections(String magic) {
+        this.magic = magic;
+    }
+
+    public static ByteBuffer buffer(int size) {
+        return ByteBuffer.allocate(size).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    public static void putInteger(ByteBuffer out, BigInteger v) {
+        byte[] be = v.toByteArray();
+        for (int i = 0; i < 32; i++) {
+            out.put(i < be.length ? be[be.length - 1 - i] : 0);
+        }
+    }
+
+    public void add(int type, ByteBuffer body) {
+        types.add(type);
+        bodies.add(body);
+    }
+
+    public byte[] bytes() {
+        int size = 12;
+        for (ByteBuffer body : bodies) {
+            size += 12 + body.position();
+        }
+        ByteBuffer out = buffer(size);
+        out.put(magic.getBytes(StandardCharsets.US_ASCII)).putInt(1).putInt(bodies.size());
+        for (int i = 0; i < bodies.size(); i++) {
+            ByteBuffer body = bodies.get(i);
+            out.putInt(types.get(i)).putLong(body.position()).put(body.array(), 0, body.position());
+        }
+        return out.array();
+    }
+}
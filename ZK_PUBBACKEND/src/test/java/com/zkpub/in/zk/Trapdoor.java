@@ -0,0 +1,52 @@
+package com.zkpub.in.zk;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * A two-input verification key whose secrets are known, so any number of
+ * valid proofs can be minted without snarkjs artifacts: with α, β, γ, δ
+ * and the IC scalars chosen here, C = (ab - αβ - vk_x·γ)/δ satisfies the
+ * pairing equation, which exercises exactly the same verifier work as a
+ * real circuit with two public signals.
+ */
+public record Trapdoor(BigInteger alpha, BigInteger beta, BigInteger gamma, BigInteger delta,
+                       BigInteger[] icScalars, VerificationKey verificationKey) {
+
+    public static Trapdoor generate(Random random) {
+        BigInteger alpha = scalar(random), beta = scalar(random), gamma = scalar(random), delta = scalar(random);
+        BigInteger[] icScalars = {scalar(random), scalar(random), scalar(random)};
+        G1Point g1 = G1Point.GENERATOR;
+        G2Point g2 = G2Point.GENERATOR;
+        List<G1Point> ic = new ArrayList<>();
+        for (BigInteger k : icScalars) {
+            ic.add(g1.multiply(k));
+        }
+        VerificationKey vk = new VerificationKey(g1.multiply(alpha), g2.multiply(beta),
+            g2.multiply(gamma), g2.multiply(delta), ic);
+        return new Trapdoor(alpha, beta, gamma, delta, icScalars, vk);
+    }
+
+    // age18-style signals: a boolean result and a commitment
+    public static List<BigInteger> signals(Random random) {
+        return List.of(BigInteger.ONE, scalar(random));
+    }
+
+    public Groth16Proof prove(List<BigInteger> signals, Random random) {
+        BigInteger vkX = icScalars[0];
+        for (int i = 0; i < signals.size(); i++) {
+            vkX = vkX.add(signals.get(i).multiply(icScalars[i + 1]));
+        }
+        BigInteger a = scalar(random), b = scalar(random);
+        BigInteger c = a.multiply(b).subtract(alpha.multiply(beta)).subtract(vkX.multiply(gamma))
+            .multiply(delta.modInverse(G1Point.ORDER)).mod(G1Point.ORDER);
+        return new Groth16Proof(G1Point.GENERATOR.multiply(a), G2Point.GENERATOR.multiply(b),
+            G1Point.GENERATOR.multiply(c));
+    }
+
+    private static BigInteger scalar(Random random) {
+        return new BigInteger(253, random).mod(G1Point.ORDER);
+    }
+}
@@ -0,0 +1,175 @@
+package com.zkpub.in.zk;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+/**
+ * A single-party Groth16 setup with known τ, α, β, γ, δ, written as a
+ * .zkey in the snarkjs layout (Lagrange-basis A/B/C points, odd-coset H
+ * points), so the prover, its key parser and the verifier are exercised
+ * exactly as with snarkjs artifacts.
+ */
+public record TrustedSetup(byte[] zkey) {
+
+    private static final BigInteger R = Fr.MODULUS;
+    private static final BigInteger P = Fp.MODULUS;
+
+    public static TrustedSetup generate(R1cs r1cs, Random random) {
+        int m = r1cs.constraintCount(), nPublic = r1cs.publicCount(), nVars = r1cs.wireCount();
+        int log2n = 1;
+        while ((1 << log2n) < m + nPublic + 1) {
+            log2n++;
+        }
+        int n = 1 << log2n;
+        BigInteger tau = scalar(random), alpha = scalar(random), beta = scalar(random),
+            gamma = scalar(random), delta = scalar(random);
+        BigInteger[] lagrange = lagrange(tau, log2n);
+        BigInteger[] oddLagrange = lagrange(tau, log2n + 1);
+
+        BigInteger[][] uvw = new BigInteger[3][nVars];
+        for (BigInteger[] polys : uvw) {
+            Arrays.fill(polys, BigInteger.ZERO);
+        }
+        ByteArrayOutputStream coefficients = new ByteArrayOutputStream();
+        int[] coefficientCount = {0};
+        for (int c = 0; c < m; c++) {
+            for (int matrix = 0; matrix < 3; matrix++) {
+                for (R1cs.Term term : r1cs.terms(matrix, c)) {
+                    uvw[matrix][term.wire()] = uvw[matrix][term.wire()].add(term.coefficient().multiply(lagrange[c])).mod(R);
+                    if (matrix < 2) {
+                        writeCoefficient(coefficients, matrix, c, term.wire(), term.coefficient());
+                        coefficientCount[0]++;
+                    }
+                }
+            }
+        }
+        // snarkjs adds in_i·1 = 0 rows after the circuit so the public inputs are bound to A
+        for (int i = 0; i <= nPublic; i++) {
+            uvw[0][i] = uvw[0][i].add(lagrange[m + i]).mod(R);
+            writeCoefficient(coefficients, 0, m + i, i, BigInteger.ONE);
+            coefficientCount[0]++;
+        }
+
+        BigInteger gammaInverse = gamma.modInverse(R), deltaInverse = delta.modInverse(R);
+        G1Point g1 = G1Point.GENERATOR;
+        G2Point g2 = G2Point.GENERATOR;
+        G1Point[] ic = IntStream.rangeClosed(0, nPublic).parallel()
+            .mapToObj(i -> g1.multiply(combined(uvw, i, alpha, beta).multiply(gammaInverse).mod(R)))
+            .toArray(G1Point[]::new);
+        G1Point[] pointsA = IntStream.range(0, nVars).parallel().mapToObj(i -> g1.multiply(uvw[0][i])).toArray(G1Point[]::new);
+        G1Point[] pointsB1 = IntStream.range(0, nVars).parallel().mapToObj(i -> g1.multiply(uvw[1][i])).toArray(G1Point[]::new);
+        G2Point[] pointsB2 = IntStream.range(0, nVars).parallel().mapToObj(i -> g2.multiply(uvw[1][i])).toArray(G2Point[]::new);
+        G1Point[] pointsC = IntStream.range(nPublic + 1, nVars).parallel()
+            .mapToObj(i -> g1.multiply(combined(uvw, i, alpha, beta).multiply(deltaInverse).mod(R)))
+            .toArray(G1Point[]::new);
+        G1Point[] pointsH = IntStream.range(0, n).parallel()
+            .mapToObj(i -> g1.multiply(oddLagrange[2 * i + 1].multiply(deltaInverse).mod(R)))
+            .toArray(G1Point[]::new);
+
+        Sections file = new Sections("zkey");
+        file.add(1, Sections.buffer(4).putInt(1));
+        ByteBuffer header = Sections.buffer(4 + 32 + 4 + 32 + 12 + 3 * 64 + 3 * 128);
+        header.putInt(32);
+        Sections.putInteger(header, P);
+        header.putInt(32);
+        Sections.putInteger(header, R);
+        header.putInt(nVars).putInt(nPublic).putInt(n);
+        putG1(header, g1.multiply(alpha));
+        putG1(header, g1.multiply(beta));
+        putG2(header, g2.multiply(beta));
+        putG2(header, g2.multiply(gamma));
+        putG1(header, g1.multiply(delta));
+        putG2(header, g2.multiply(delta));
+        file.add(2, header);
+        file.add(3, g1Section(ic));
+        ByteBuffer coefficientSection = Sections.buffer(4 + coefficients.size());
+        coefficientSection.putInt(coefficientCount[0]).put(coefficients.toByteArray());
+        file.add(4, coefficientSection);
+        file.add(5, g1Section(pointsA));
+        file.add(6, g1Section(pointsB1));
+        ByteBuffer b2 = Sections.buffer(pointsB2.length * 128);
+        for (G2Point p : pointsB2) {
+            putG2(b2, p);
+        }
+        file.add(7, b2);
+        file.add(8, g1Section(pointsC));
+        file.add(9, g1Section(pointsH));
+        return new TrustedSetup(file.bytes());
+    }
+
+    // β·u_i(τ) + α·v_i(τ) + w_i(τ)
+    private static BigInteger combined(BigInteger[][] uvw, int i, BigInteger alpha, BigInteger beta) {
+        return beta.multiply(uvw[0][i]).add(alpha.multiply(uvw[1][i])).add(uvw[2][i]).mod(R);
+    }
+
+    /** L_j(τ) = ω^j·(τ^N - 1) / (N·(τ - ω^j)) over the 2^k-point domain, with snarkjs's ω. */
+    private static BigInteger[] lagrange(BigInteger tau, int k) {
+        int size = 1 << k;
+        BigInteger omega = rootOfUnity(k);
+        BigInteger zOverN = tau.modPow(BigInteger.valueOf(size), R).subtract(BigInteger.ONE)
+            .multiply(BigInteger.valueOf(size).modInverse(R)).mod(R);
+        BigInteger[] l = new BigInteger[size];
+        BigInteger omegaJ = BigInteger.ONE;
+        for (int j = 0; j < size; j++) {
+            l[j] = omegaJ.multiply(zOverN).multiply(tau.subtract(omegaJ).mod(R).modInverse(R)).mod(R);
+            omegaJ = omegaJ.multiply(omega).mod(R);
+        }
+        return l;
+    }
+
+    private static BigInteger rootOfUnity(int k) {
+        BigInteger minusOne = R.subtract(BigInteger.ONE);
+        BigInteger g = BigInteger.TWO;
+        while (!g.modPow(minusOne.shiftRight(1), R).equals(minusOne)) {
+            g = g.add(BigInteger.ONE);
+        }
+        return g.modPow(minusOne.shiftRight(28), R).modPow(BigInteger.ONE.shiftLeft(28 - k), R);
+    }
+
+    private static void writeCoefficient(ByteArrayOutputStream out, int matrix, int constraint, int signal, BigInteger value) {
+        ByteBuffer entry = Sections.buffer(12 + 32);
+        entry.putInt(matrix).putInt(constraint).putInt(signal);
+        // snarkjs stores coefficients multiplied by R^2 (R = 2^256)
+        Sections.putInteger(entry, value.shiftLeft(512).mod(R));
+        out.writeBytes(entry.array());
+    }
+
+    private static ByteBuffer g1Section(G1Point[] points) {
+        ByteBuffer section = Sections.buffer(points.length * 64);
+        for (G1Point p : points) {
+            putG1(section, p);
+        }
+        return section;
+    }
+
+    private static void putG1(ByteBuffer out, G1Point p) {
+        if (p.isInfinity()) {
+            out.put(new byte[64]);
+            return;
+        }
+        putMontgomery(out, p.x());
+        putMontgomery(out, p.y());
+    }
+
+    private static void putG2(ByteBuffer out, G2Point p) {
+        if (p.isInfinity()) {
+            out.put(new byte[128]);
+            return;
+        }
+        for (BigInteger c : p.coordinates()) {
+            putMontgomery(out, c);
+        }
+    }
+
+    private static void putMontgomery(ByteBuffer out, BigInteger v) {
+        Sections.putInteger(out, v.shiftLeft(256).mod(P));
+    }
+
+    private static BigInteger scalar(Random random) {
+        return new BigInteger(253, random).mod(R).add(BigInteger.ONE);
+    }
+}
@@ -0,0 +1,54 @@
+package com.zkpub.in.zk;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class VerifierCalldataTest {
+
+    // verifyProof(uint256[2],uint256[2][2],uint256[2],uint256[2]) with A = G1, B = G2, C = -G1
+    // and signals [1, 42]; B is written imaginary part first, as in EIP-197
+    private static final String EXPECTED = "0xf5c9d69e"
+        + "0000000000000000000000000000000000000000000000000000000000000001"
+        + "0000000000000000000000000000000000000000000000000000000000000002"
+        + "198e9393920d483a7260bfb731fb5d25f1aa493335a9e71297e485b7aef312c2"
+        + "1800deef121f1e76426a00665e5c4479674322d4f75edadd46debd5cd992f6ed"
+        + "090689d0585ff075ec9e99ad690c3395bc4b313370b38ef355acdadcd122975b"
+        + "12c85ea5db8c6deb4aab71808dcb408fe3d1e7690c43d37b4ce6cc0166fa7daa"
+        + "0000000000000000000000000000000000000000000000000000000000000001"
+        + "30644e72e131a029b85045b68181585d97816a916871ca8d3c208c16d87cfd45"
+        + "0000000000000000000000000000000000000000000000000000000000000001"
+        + "000000000000000000000000000000000000000000000000000000000000002a";
+
+    @Test
+    void encodesAgainstFixedCalldata() {
+        Groth16Proof proof = new Groth16Proof(G1Point.GENERATOR, G2Point.GENERATOR, G1Point.GENERATOR.negate());
+        assertEquals(EXPECTED, VerifierCalldata.encode(proof, List.of(BigInteger.ONE, BigInteger.valueOf(42))));
+    }
+
+    @Test
+    void encodesPointsAtInfinityAsZeros() {
+        Groth16Proof proof = new Groth16Proof(G1Point.INFINITY, G2Point.INFINITY, G1Point.INFINITY);
+        assertEquals("0xf5c9d69e" + "0".repeat(64 * 10), VerifierCalldata.encode(proof, List.of(BigInteger.ZERO, BigInteger.ZERO)));
+    }
+
+    @Test
+    void refusesSignalsWiderThanAWord() {
+        Groth16Proof proof = new Groth16Proof(G1Point.GENERATOR, G2Point.GENERATOR, G1Point.GENERATOR);
+        assertThrows(IllegalArgumentException.class,
+            () -> VerifierCalldata.encode(proof, List.of(BigInteger.ONE.shiftLeft(256), BigInteger.ONE)));
+    }
+
+    @Test
+    void decodesBoolReturnValues() {
+        assertTrue(VerifierCalldata.decodeBool("0x" + "0".repeat(63) + "1"));
+        assertFalse(VerifierCalldata.decodeBool("0x" + "0".repeat(64)));
+        assertThrows(IllegalArgumentException.class, () -> VerifierCalldata.decodeBool("0x"));
+    }
+}
@@ -0,0 +1,63 @@
+package com.zkpub.in.zk;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WitnessCalculatorTest {
+
+    // The compiled tickett circuit from the frontend; tests run from ZK_PUBBACKEND
+    private static final Path WASM = Path.of("../ZK_FRONTEND/zk/tickett_js/tickett.wasm");
+    private static final Path R1CS = Path.of("../ZK_FRONTEND/zk/tickett.r1cs");
+    private static final BigInteger SECRET = new BigInteger("12345678901234567890123456789");
+
+    private static WitnessCalculator calculator;
+    private static R1cs r1cs;
+
+    @BeforeAll
+    static void load() throws Exception {
+        calculator = WitnessCalculator.load(WASM);
+        r1cs = R1cs.read(R1CS);
+    }
+
+    @Test
+    void agreesWithTheR1csOnWitnessSize() {
+        assertEquals(r1cs.wireCount(), calculator.witnessSize());
+    }
+
+    @Test
+    void computesExpectedSignals() {
+        Witness matching = calculator.calculate(Map.of("secret", SECRET.toString(), "pubHash", SECRET.shiftLeft(1)));
+        // The circuit only admits hashes within one of 2·secret; valid is 1 - (2·secret - pubHash)^2
+        BigInteger offByOne = SECRET.shiftLeft(1).subtract(BigInteger.ONE);
+        Witness other = calculator.calculate(Map.of("secret", SECRET, "pubHash", "0x" + offByOne.toString(16)));
+
+        assertEquals(List.of(BigInteger.ONE, BigInteger.ONE, SECRET, SECRET.shiftLeft(1), SECRET.shiftLeft(1)), matching.toList());
+        assertEquals(List.of(BigInteger.ONE, BigInteger.ZERO, SECRET, offByOne, SECRET.shiftLeft(1)), other.toList());
+        assertEquals(-1, r1cs.firstUnsatisfied(matching));
+        assertEquals(-1, r1cs.firstUnsatisfied(other));
+        assertEquals(matching.toList(), Witness.fromWtns(matching.toWtns()).toList());
+    }
+
+    @Test
+    void witnessProves() {
+        Witness witness = calculator.calculate(Map.of("secret", SECRET, "pubHash", SECRET.shiftLeft(1)));
+        ProvingKey key = ProvingKey.fromBytes(TrustedSetup.generate(r1cs, new Random(3)).zkey());
+        Groth16Proof proof = Groth16Prover.prove(key, witness, new Random(4));
+        assertTrue(Groth16Verifier.verify(key.verificationKey(), proof, List.of(BigInteger.ONE)));
+    }
+
+    @Test
+    void refusesMissingInputs() {
+        assertThrows(IllegalArgumentException.class, () -> calculator.calculate(Map.of("secret", 1)));
+    }
+}